@@ -0,0 +1,38 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation can be used on methods of configuration interfaces that are bound using
+ * {@link com.anaptecs.jeaf.xfun.api.config.ConfigurationBinding}. Methods without this annotation are bound to the
+ * configuration key that is derived from the name of the getter e.g. <code>getMaxConnections()</code> is bound to key
+ * <code>maxConnections</code>.
+ *
+ * @author JEAF Development Team
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+@Documented
+public @interface ConfigurationKey {
+  /**
+   * Property defines the configuration key to which the method is bound. If no key is defined then it is derived from
+   * the name of the method.
+   */
+  String value() default "";
+
+  /**
+   * Property defines if the configuration value is required. Missing required values prevent that the configuration
+   * interface can be bound. By default all values are required.
+   */
+  boolean required() default true;
+}
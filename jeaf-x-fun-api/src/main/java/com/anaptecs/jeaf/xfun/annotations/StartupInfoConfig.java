@@ -13,6 +13,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.trace.StartupDiagnosticsLevel;
 import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
 
 @Retention(RUNTIME)
@@ -39,6 +40,11 @@ public @interface StartupInfoConfig {
    */
   boolean DEFAULT_TRACE_STARTUP_INFO = true;
 
+  /**
+   * By default only basic diagnostic information without the classpath will be traced.
+   */
+  StartupDiagnosticsLevel DEFAULT_STARTUP_DIAGNOSTICS = StartupDiagnosticsLevel.BASIC;
+
   /**
    * Property defines if information about the X-Fun configuration should be traced on startup or not. By default traces
    * are enabled.
@@ -55,4 +61,13 @@ public @interface StartupInfoConfig {
    */
   String startupInfoWritersResourcePath() default XFun.X_FUN_BASE_PATH + "/"
       + StartupInfoWriterImpl.STARTUP_INFO_WRITERS_RESOURCE_NAME;
+
+  /**
+   * Property defines which diagnostic information about the runtime environment e.g. the classpath should be traced on
+   * startup. By default only basic information is traced.
+   *
+   * Java does not allow to use {@link #DEFAULT_STARTUP_DIAGNOSTICS} as default value of an enum attribute. Both values
+   * therefore always have to be changed together.
+   */
+  StartupDiagnosticsLevel startupDiagnostics() default StartupDiagnosticsLevel.BASIC;
 }
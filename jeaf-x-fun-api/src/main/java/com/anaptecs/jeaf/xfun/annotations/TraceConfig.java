@@ -81,6 +81,21 @@ public @interface TraceConfig {
    */
   boolean USE_APPLICATION_ID_AS_PREFIX = false;
 
+  /**
+   * By default spans that take longer than 1 second will be written to the trace.
+   */
+  int SPAN_TRACE_THRESHOLD = 1000;
+
+  /**
+   * By default latency statistics about spans are exposed via JMX.
+   */
+  boolean EXPOSE_SPAN_STATISTICS_VIA_JMX = true;
+
+  /**
+   * Prefix that is used to define the trace level of the root logger.
+   */
+  String ROOT_PREFIX = "*";
+
   /**
    * Name of the default logger.
    */
@@ -145,4 +160,25 @@ public @interface TraceConfig {
    * Property defines the path of the resource file where all the object formatters are be listed.
    */
   String objectFormattersResourcePath() default TraceObjectFormatter.TRACE_OBJECT_FORMATTER_PATH;
+
+  /**
+   * Parameter defines the threshold in milliseconds above which the duration of a span (see
+   * {@link com.anaptecs.jeaf.xfun.api.trace.Trace#span(String, com.anaptecs.jeaf.xfun.api.common.ComponentID)}) will be
+   * written to the trace when the span ends. A negative value disables tracing of span durations. By default
+   * {@value #SPAN_TRACE_THRESHOLD} milliseconds are used.
+   */
+  int spanTraceThreshold() default SPAN_TRACE_THRESHOLD;
+
+  /**
+   * Parameter defines if the latency statistics of all spans should be exposed via JMX.
+   */
+  boolean exposeSpanStatisticsViaJMX() default EXPOSE_SPAN_STATISTICS_VIA_JMX;
+
+  /**
+   * Parameter defines the trace levels of loggers. Each entry has the format {@code <prefix>=<trace level>} e.g.
+   * {@code "com.anaptecs.jeaf=DEBUG"}. Prefixes are matched against logger names, class names and base packages of
+   * components along the segments of their names. The most specific prefix wins. Using {@value #ROOT_PREFIX} as prefix
+   * defines the trace level for all loggers without a more specific entry. By default no trace levels are defined.
+   */
+  String[] traceLevels() default {};
 }
@@ -28,6 +28,8 @@ import com.anaptecs.jeaf.xfun.api.locale.LocaleProvider;
 import com.anaptecs.jeaf.xfun.api.locale.LocaleProviderFactory;
 import com.anaptecs.jeaf.xfun.api.messages.MessageRepository;
 import com.anaptecs.jeaf.xfun.api.messages.MessageRepositoryFactory;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProviderFactory;
 import com.anaptecs.jeaf.xfun.api.principal.PrincipalProvider;
 import com.anaptecs.jeaf.xfun.api.principal.PrincipalProviderFactory;
 import com.anaptecs.jeaf.xfun.api.trace.TraceProviderFactory;
@@ -128,6 +130,15 @@ public @interface XFunConfig {
    */
   Class<? extends TraceProviderFactory> traceProviderFactory() default TraceProviderFactory.class;
 
+  /**
+   * Property defines the factory that should be used to create the metrics provider. Metrics providers offer counters,
+   * gauges and histograms. If no factory is configured then a fallback implementation that exposes all metrics via JMX
+   * will be used.
+   * 
+   * {@link MetricsProvider}, {@link XFun#getMetricsProvider()}
+   */
+  Class<? extends MetricsProviderFactory> metricsProviderFactory() default MetricsProviderFactory.class;
+
   /**
    * Property defines the path of the file where all the message resources are be listed.
    */
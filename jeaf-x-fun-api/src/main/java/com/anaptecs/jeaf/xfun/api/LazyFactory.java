@@ -0,0 +1,182 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api;
+
+import java.util.function.Supplier;
+
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFBootstrapException;
+import com.anaptecs.jeaf.xfun.api.trace.StartupTimeline;
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class holds a factory that is only created when it is requested for the first time. The factory is created at most
+ * once and safely published to all threads. Once it is created reading it only requires one volatile read.
+ *
+ * If the factory is requested by the thread that is currently creating it then null is returned instead of running into
+ * an endless recursion. Callers have to handle this case like a configuration problem or use {@link #getRequired()}
+ * which reports it as {@link JEAFBootstrapException}. The creation of the factory is recorded as phase of the
+ * {@link StartupTimeline}.
+ *
+ * The factory is only created once even if this fails. If the supplier returns null then null is returned on every
+ * request. If the supplier throws an exception or error then the same exception or error is thrown on every request.
+ *
+ * @author JEAF Development Team
+ */
+final class LazyFactory<T> {
+  /**
+   * Interface of the factory.
+   */
+  private final Class<T> factoryType;
+
+  /**
+   * Supplier that creates the factory.
+   */
+  private final Supplier<T> supplier;
+
+  /**
+   * Attribute marks if the factory was already created. The volatile write also publishes {@link #factory}.
+   */
+  private volatile boolean loaded;
+
+  /**
+   * Created factory. The reference may be null in case of configuration problems.
+   */
+  private T factory;
+
+  /**
+   * Exception or error that occurred while the factory was created. The reference is null if no problem occurred.
+   */
+  private Throwable failure;
+
+  /**
+   * Thread that is currently creating the factory. Attribute must only be accessed while holding the lock of this
+   * object.
+   */
+  private Thread loadingThread;
+
+  /**
+   * Initialize object.
+   *
+   * @param pFactoryType Interface of the factory. The parameter must not be null.
+   * @param pSupplier Supplier that creates the factory. The parameter must not be null.
+   */
+  LazyFactory( Class<T> pFactoryType, Supplier<T> pSupplier ) {
+    Assert.assertNotNull(pFactoryType, "pFactoryType");
+    Assert.assertNotNull(pSupplier, "pSupplier");
+    factoryType = pFactoryType;
+    supplier = pSupplier;
+  }
+
+  /**
+   * Method returns the factory. If it was not created yet then this will be done now.
+   *
+   * @return T Factory or null in case of configuration problems or if the factory is requested during its own creation.
+   */
+  T get( ) {
+    T lFactory;
+    if (loaded == true) {
+      lFactory = this.getLoadedFactory();
+    }
+    // Factory has to be created first.
+    else {
+      lFactory = this.load();
+    }
+    return lFactory;
+  }
+
+  /**
+   * Method returns the factory. If it was not created yet then this will be done now. In contrast to {@link #get()} the
+   * method fails with a descriptive exception if the factory is not available.
+   *
+   * @return T Factory. The method never returns null.
+   * @throws JEAFBootstrapException if the factory could not be created due to configuration problems or if it is
+   * requested by the current thread during its own creation.
+   */
+  T getRequired( ) {
+    T lFactory = this.get();
+    if (lFactory == null) {
+      String lReason;
+      if (this.isLoaded() == true) {
+        lReason = "Please check the X-Fun configuration of the application.";
+      }
+      // Factory is requested while it is created by the current thread.
+      else {
+        lReason = "It was requested during its own creation.";
+      }
+      throw new JEAFBootstrapException(factoryType.getName() + " is not available. " + lReason);
+    }
+    return lFactory;
+  }
+
+  /**
+   * Method returns the interface of the factory.
+   *
+   * @return {@link Class} Interface of the factory. The method never returns null.
+   */
+  Class<T> getFactoryType( ) {
+    return factoryType;
+  }
+
+  /**
+   * Method checks if the factory was already created.
+   *
+   * @return boolean Method returns true if the factory was already created and false otherwise.
+   */
+  boolean isLoaded( ) {
+    return loaded;
+  }
+
+  /**
+   * Method creates the factory if no other thread did this meanwhile.
+   *
+   * @return T Factory or null in case of configuration problems or if the factory is requested during its own creation.
+   */
+  private synchronized T load( ) {
+    T lFactory;
+    if (loaded == true) {
+      lFactory = this.getLoadedFactory();
+    }
+    // Factory is requested while the current thread is creating it.
+    else if (loadingThread == Thread.currentThread()) {
+      lFactory = null;
+    }
+    else {
+      loadingThread = Thread.currentThread();
+      StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Create " + factoryType.getSimpleName());
+      try {
+        factory = supplier.get();
+      }
+      // Problem is remembered so that every request fails the same way.
+      catch (RuntimeException | Error e) {
+        failure = e;
+      }
+      finally {
+        lPhase.close();
+        loadingThread = null;
+        loaded = true;
+      }
+      lFactory = this.getLoadedFactory();
+    }
+    return lFactory;
+  }
+
+  /**
+   * Method returns the factory after it was created.
+   *
+   * @return T Created factory. The method may return null in case of configuration problems.
+   * @throws RuntimeException if the creation of the factory failed with this exception.
+   * @throws Error if the creation of the factory failed with this error.
+   */
+  private T getLoadedFactory( ) {
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    return factory;
+  }
+}
@@ -6,15 +6,25 @@
 package com.anaptecs.jeaf.xfun.api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import com.anaptecs.jeaf.xfun.annotations.XFunConfig;
 import com.anaptecs.jeaf.xfun.api.checks.Verifier;
 import com.anaptecs.jeaf.xfun.api.checks.VerifierFactory;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationBinding;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeBus;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationProvider;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationProviderFactory;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationSnapshot;
+import com.anaptecs.jeaf.xfun.api.config.PlaceholderTemplate;
 import com.anaptecs.jeaf.xfun.api.datatypeconverter.DatatypeConverterRegistry;
 import com.anaptecs.jeaf.xfun.api.datatypeconverter.DatatypeConverterRegistryFactory;
 import com.anaptecs.jeaf.xfun.api.info.ApplicationInfo;
@@ -25,20 +35,48 @@ import com.anaptecs.jeaf.xfun.api.locale.LocaleProvider;
 import com.anaptecs.jeaf.xfun.api.locale.LocaleProviderFactory;
 import com.anaptecs.jeaf.xfun.api.messages.MessageRepository;
 import com.anaptecs.jeaf.xfun.api.messages.MessageRepositoryFactory;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProviderFactory;
 import com.anaptecs.jeaf.xfun.api.principal.PrincipalProvider;
 import com.anaptecs.jeaf.xfun.api.principal.PrincipalProviderFactory;
+import com.anaptecs.jeaf.xfun.api.trace.StartupDiagnosticsLevel;
 import com.anaptecs.jeaf.xfun.api.trace.StartupInfoConfiguration;
 import com.anaptecs.jeaf.xfun.api.trace.StartupInfoEventCollector;
 import com.anaptecs.jeaf.xfun.api.trace.StartupInfoEventHandler;
 import com.anaptecs.jeaf.xfun.api.trace.StartupInfoWriter;
+import com.anaptecs.jeaf.xfun.api.trace.StartupTimeline;
 import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceConfiguration;
 import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevelResolver;
 import com.anaptecs.jeaf.xfun.api.trace.TraceProvider;
 import com.anaptecs.jeaf.xfun.api.trace.TraceProviderFactory;
+import com.anaptecs.jeaf.xfun.api.trace.TraceSpanStatistics;
+import com.anaptecs.jeaf.xfun.bootstrap.BootstrapRegistry;
+import com.anaptecs.jeaf.xfun.bootstrap.Check;
 import com.anaptecs.jeaf.xfun.fallback.checks.FallbackVerifierImpl;
+import com.anaptecs.jeaf.xfun.fallback.metrics.MetricsProviderFactoryImpl;
 import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderFactoryImpl;
 import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
 
+/**
+ * Class is the central entry point to JEAF X-Fun. It provides access to all configured factories and providers such as
+ * tracing, message repository, verifier or metrics.
+ *
+ * By default there is one JEAF X-Fun context for the whole JVM. Additional contexts can be created for class loaders
+ * of single applications using {@link #createContext(ClassLoader)}. Please be aware of the following limitations of
+ * contexts:
+ * <ul>
+ * <li>The context is resolved through the context class loader of the current thread. Threads of shared thread pools
+ * typically use the class loader of the server. Tasks of an application that are executed by such threads use the
+ * default context unless the context class loader is set by the application.</li>
+ * <li>Only the configuration, factories and providers are separated. {@link TraceConfiguration}, trace level
+ * resolution, span statistics, the startup timeline, configuration bindings and the placeholder template cache remain
+ * shared by all contexts of the JVM.</li>
+ * </ul>
+ *
+ * @author JEAF Development Team
+ */
 public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
   /**
    * Name of the base path under which all X-Fun configuration files are located.
@@ -68,6 +106,12 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    */
   public static final String X_FUN_CONFIG_EXCEPTION_ON_ERROR = "xfun.config.execptionOnError";
 
+  /**
+   * Constant for the system property that can be used to create all factories in parallel by a background thread once
+   * JEAF X-Fun was initialized. By default factories are created lazily when they are used for the first time.
+   */
+  public static final String X_FUN_PARALLEL_WARM_UP = "xfun.startup.parallelWarmUp";
+
   /**
    * Fallback verifier is used at least during startup as at that time configured implementation may not be available
    * already.
@@ -80,21 +124,71 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
   public static final String IMPL_INFO_FORMAT_STRING = "    %1$-40s%2$s";
 
   /**
-   * Current Instance of this class. Existing instances can be replaced by calling
+   * Name of the thread that writes the configuration snapshot.
+   */
+  private static final String SNAPSHOT_WRITER_THREAD = "XFun-ConfigurationSnapshot";
+
+  /**
+   * Constant for the info that is traced for factories that were not used so far.
+   */
+  private static final String NOT_YET_LOADED = "not yet loaded due to lazy initialization";
+
+  /**
+   * Current Instance of this class. Existing instances can be replaced by calling {@link #reload()}. The instance is
+   * used as default context for all threads that do not belong to a context created through
+   * {@link #createContext(ClassLoader)}.
+   */
+  private static volatile XFun instance;
+
+  /**
+   * Map contains all contexts that were created for a specific class loader. The map is immutable and replaced
+   * whenever a context is created or removed. In the common case without additional contexts the map is empty and
+   * resolving the current instance requires no further lookup.
    */
-  private static XFun instance;
+  private static volatile Map<ClassLoader, XFun> contexts = Collections.emptyMap();
 
   /**
-   * Attribute marks if tracing is initialized or not. Attribute must only be used in cases where {@link XFun#instance}
-   * is null.
+   * Lock object to serialize modifications of {@link #contexts}.
    */
-  private static boolean tracingInitialized = false;
+  private static final Object CONTEXT_LOCK = new Object();
 
   /**
    * Lock object to avoid multiple initializations of tracing in multi-threaded cases.
    */
   private static final Object TRACE_INIT_LOCK = new Object();
 
+  /**
+   * Lock object to serialize reloads of JEAF X-Fun.
+   */
+  private static final Object RELOAD_LOCK = new Object();
+
+  /**
+   * Counter from which every new instance of this class gets its generation.
+   */
+  private static final AtomicLong GENERATION_COUNTER = new AtomicLong();
+
+  /**
+   * List contains all listeners that are notified after JEAF X-Fun was reloaded.
+   */
+  private static final List<XFunReloadListener> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+  /**
+   * Generation of this instance. Instances that are created later always have a higher generation.
+   */
+  private final long generation;
+
+  /**
+   * Class loader through which the configuration of this instance is read. The reference is null for the default
+   * context.
+   */
+  private final ClassLoader classLoader;
+
+  /**
+   * Attribute marks if tracing of this instance is initialized or not. Attribute must only be accessed while holding
+   * {@link #TRACE_INIT_LOCK}.
+   */
+  private boolean tracingInitialized = false;
+
   /**
    * Timestamp when the XFun instance was created.
    */
@@ -106,44 +200,50 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
   private final XFunConfiguration configuration;
 
   /**
-   * Reference to configured configuration provider.
+   * Reference to configured configuration provider. Like all other factories except for tracing it is created when it
+   * is used for the first time.
    */
-  private final ConfigurationProviderFactory configurationProviderFactory;
+  private final LazyFactory<ConfigurationProviderFactory> configurationProviderFactory;
 
   /**
    * Reference to configured message repository factory.
    */
-  private final MessageRepositoryFactory messageRepositoryFactory;
+  private final LazyFactory<MessageRepositoryFactory> messageRepositoryFactory;
 
   /**
    * Reference to configured verifier factory.
    */
-  private final VerifierFactory verifierFactory;
+  private final LazyFactory<VerifierFactory> verifierFactory;
 
   /**
    * Reference to configured locale provider factory.
    */
-  private final LocaleProviderFactory localeProviderFactory;
+  private final LazyFactory<LocaleProviderFactory> localeProviderFactory;
 
   /**
    * Reference to configured principal provider factory.
    */
-  private final PrincipalProviderFactory principalProviderFactory;
+  private final LazyFactory<PrincipalProviderFactory> principalProviderFactory;
 
   /**
    * Reference to configured info provider factory.
    */
-  private final InfoProviderFactory infoProviderFactory;
+  private final LazyFactory<InfoProviderFactory> infoProviderFactory;
 
   /**
    * Reference to configured datatype converter registry factory.
    */
-  private final DatatypeConverterRegistryFactory datatypeConverterRegistryFactory;
+  private final LazyFactory<DatatypeConverterRegistryFactory> datatypeConverterRegistryFactory;
+
+  /**
+   * Reference to configured metrics provider factory.
+   */
+  private final LazyFactory<MetricsProviderFactory> metricsProviderFactory;
 
   /**
    * Reference to configured trace provider factory. In order to avoid problems during startup it will be lazy loaded.
    */
-  private TraceProviderFactory traceProviderFactory;
+  private volatile TraceProviderFactory traceProviderFactory;
 
   /**
    * Reference to configuration for startup info.
@@ -193,15 +293,29 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    */
   static {
     try {
-      instance = new XFun();
+      instance = new XFun(null, true);
+      instance.startParallelWarmUp();
+      instance.startAsyncStartupDiagnostics();
       StartupInfoEventCollector.startupCompleted(XFun.class);
       StartupInfoEventCollector.registerEventHandler(instance);
+      XFun.startSnapshotWriter();
+
+      // Caches of JEAF X-Fun itself have to be refreshed after a reload. They are only resolved when a reload happens
+      // so that they are not created just because of the registration.
+      RELOAD_LISTENERS.add(pGeneration -> TraceSpanStatistics.getInstance().xfunReloaded(pGeneration));
+      RELOAD_LISTENERS.add(pGeneration -> TraceLevelResolver.getInstance().xfunReloaded(pGeneration));
+      RELOAD_LISTENERS.add(pGeneration -> PlaceholderTemplate.clearCache());
+      RELOAD_LISTENERS.add(pGeneration -> ConfigurationReader.clearCache());
+      RELOAD_LISTENERS.add(pGeneration -> ConfigurationChangeBus.getInstance().xfunReloaded(pGeneration));
     }
     catch (RuntimeException e) {
       Trace lTrace = FallbackTraceProviderImpl.EMERGENCY_TRACE;
       lTrace.fatal(
           "Caught exception during JEAF X-Fun initialization. Most likely this is caused by some missing configuration file or problems with your classpath.");
       lTrace.fatal(e);
+
+      // Information about the runtime environment may help to analyze the problem.
+      XFun.traceStartupDiagnostics(StartupDiagnosticsLevel.FULL);
       throw e;
     }
   }
@@ -214,81 +328,466 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * 
    * If nothing special is defined then the X-Fun configuration will be read from the class that is defined in file
    * {@link XFunConfig#XFUN_CONFIG_PATH}
+   * 
+   * @param pClassLoader Class loader through which the configuration should be read. The parameter may be null in case
+   * of the default context.
+   * @param pUseSnapshot Parameter defines if the configured snapshot of configuration files should be used. This is
+   * only supported for the default context.
    */
-  private XFun( ) {
+  private XFun( ClassLoader pClassLoader, boolean pUseSnapshot ) {
     // Start initialization
     startTimeStamp = System.currentTimeMillis();
+    generation = GENERATION_COUNTER.incrementAndGet();
+    classLoader = pClassLoader;
     Trace lTrace = FallbackTraceProviderImpl.EMERGENCY_TRACE;
-    lTrace.info("Starting JEAF X-Fun initialization.");
-
-    // Trace classpath
-    String lClasspath = System.getProperty("java.class.path");
+    if (classLoader == null) {
+      lTrace.info("Starting JEAF X-Fun initialization.");
 
-    // Depending on the operating system classpath entries havew different separators
-    String lPathSeparator = System.getProperty("path.separator");
-    String[] lClasspathEntries = lClasspath.split(lPathSeparator);
-    lTrace.info("Classpath:");
-    for (String lNextEntry : lClasspathEntries) {
-      lTrace.info("    " + lNextEntry);
+      // Timing of all startup phases is recorded.
+      StartupTimeline.restart();
 
+      // Configuration files may be taken from a snapshot of a previous startup.
+      if (pUseSnapshot == true) {
+        StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Configuration snapshot loading");
+        try {
+          ConfigurationSnapshot.loadConfiguredSnapshot();
+        }
+        finally {
+          lPhase.close();
+        }
+      }
+    }
+    // Additional contexts share the JVM wide startup timeline and snapshot of the default context.
+    else {
+      lTrace.info("Starting JEAF X-Fun initialization for context of class loader " + classLoader);
     }
-
-    // Trace OS information
-    String lOSInfo = "Operating System: " + System.getProperty("os.name") + " (Version: "
-        + System.getProperty("os.version") + ", Architecture: " + System.getProperty("os.arch") + ")";
-    lTrace.info(lOSInfo);
-
-    // Trace JVM information.
-    String lJVMInfo = "Java Virtual Machine: " + System.getProperty("java.runtime.name") + " "
-        + System.getProperty("java.version") + " (Vendor: " + System.getProperty("java.vm.vendor") + ")";
-    lTrace.info(lJVMInfo);
-
-    // Trace runtime information
-    Runtime lRuntime = Runtime.getRuntime();
-    int lProcessors = lRuntime.availableProcessors();
-    long lFreeMemory = lRuntime.freeMemory() / (1024 * 1024);
-    long lMaxMemory = lRuntime.maxMemory() / (1024 * 1024);
-    long lTotalMemory = lRuntime.totalMemory() / (1024 * 1024);
-    String lRuntimeInfo = "Runtime Environment: " + lProcessors + " Cores, JVM Memory: " + lTotalMemory
-        + " MB available, " + lMaxMemory + " MB maximum, " + lFreeMemory + " MB free";
-
-    lTrace.info(lRuntimeInfo);
 
     // Resolve XFun configuration.
     String lConfigurationResourceName = XFun.getConfigurationResourceName();
     String lConfigurationBasePackagePath = XFun.getConfigurationBasePackagePath();
     boolean lExceptionOnError = XFun.getExceptionOnError();
-    configuration = new XFunConfiguration(lConfigurationResourceName, lConfigurationBasePackagePath, lExceptionOnError);
+    boolean lProgrammaticBootstrap = BootstrapRegistry.isProgrammaticBootstrap();
+    if (lProgrammaticBootstrap == true) {
+      // Factories are only taken from the bootstrap registry. Providers may add further factories.
+      StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Bootstrap provider loading");
+      try {
+        ClassLoader lClassLoader = classLoader != null ? classLoader : XFun.class.getClassLoader();
+        List<String> lProviders = BootstrapRegistry.getInstance().loadProviders(lClassLoader);
+        lTrace.info("JEAF X-Fun uses programmatic bootstrap. Bootstrap providers: " + lProviders);
+        configuration = new XFunConfiguration(lExceptionOnError);
+      }
+      finally {
+        lPhase.close();
+      }
+    }
+    // Configuration is read from annotations.
+    else {
+      StartupTimeline.Phase lPhase = StartupTimeline.startPhase("X-Fun configuration loading");
+      try {
+        configuration = this.callInContext(
+            () -> new XFunConfiguration(lConfigurationResourceName, lConfigurationBasePackagePath, lExceptionOnError));
+      }
+      finally {
+        lPhase.close();
+      }
+    }
 
-    // Load all configured factory classes except for tracing.
-    messageRepositoryFactory = configuration.getMessageRepositoryFactory();
-    configurationProviderFactory = configuration.getConfigurationProviderFactory();
-    verifierFactory = configuration.getVerifierFactory();
-    localeProviderFactory = configuration.getLocaleProviderFactory();
-    principalProviderFactory = configuration.getPrincipalProviderFactory();
-    infoProviderFactory = configuration.getInfoProviderFactory();
-    datatypeConverterRegistryFactory = configuration.getDatatypeConverterRegistryFactory();
+    // All configured factory classes except for tracing are loaded when they are used for the first time.
+    messageRepositoryFactory = this.newLazyFactory(MessageRepositoryFactory.class,
+        configuration::getMessageRepositoryFactory);
+    configurationProviderFactory = this.newLazyFactory(ConfigurationProviderFactory.class,
+        configuration::getConfigurationProviderFactory);
+    verifierFactory = this.newLazyFactory(VerifierFactory.class, configuration::getVerifierFactory);
+    localeProviderFactory = this.newLazyFactory(LocaleProviderFactory.class, configuration::getLocaleProviderFactory);
+    principalProviderFactory = this.newLazyFactory(PrincipalProviderFactory.class,
+        configuration::getPrincipalProviderFactory);
+    infoProviderFactory = this.newLazyFactory(InfoProviderFactory.class, configuration::getInfoProviderFactory);
+    datatypeConverterRegistryFactory = this.newLazyFactory(DatatypeConverterRegistryFactory.class,
+        configuration::getDatatypeConverterRegistryFactory);
+    metricsProviderFactory = this.newLazyFactory(MetricsProviderFactory.class,
+        configuration::getMetricsProviderFactory);
+
+    // If configuration problems should lead to an exception then factories have to be created during initialization.
+    // Otherwise they may be created in advance by a parallel warm-up once this instance was published.
+    if (lExceptionOnError == true) {
+      this.getLazyFactories().forEach(LazyFactory::get);
+    }
 
     // Load startup info writers
-    startupInfoConfiguration = new StartupInfoConfiguration();
-    List<StartupInfoWriter> lStartupInfoWriters = startupInfoConfiguration.getStartupInfoWriters();
-    lStartupInfoWriters.add(0, this);
-    for (StartupInfoWriter lStartupInfoWriter : lStartupInfoWriters) {
-      Class<?> lEventSource = lStartupInfoWriter.getStartupCompletedEventSource();
-      List<StartupInfoWriter> lWritersList = startupInfoWriters.computeIfAbsent(lEventSource, p -> new ArrayList<>());
-      lWritersList.add(lStartupInfoWriter);
+    StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Startup info writer loading");
+    try {
+      if (lProgrammaticBootstrap == true) {
+        startupInfoConfiguration =
+            new StartupInfoConfiguration(BootstrapRegistry.getInstance().getStartupInfoWriters());
+      }
+      // Startup info writers are configured.
+      else {
+        startupInfoConfiguration = this.callInContext(StartupInfoConfiguration::new);
+      }
+      List<StartupInfoWriter> lStartupInfoWriters = startupInfoConfiguration.getStartupInfoWriters();
+      lStartupInfoWriters.add(0, this);
+      for (StartupInfoWriter lStartupInfoWriter : lStartupInfoWriters) {
+        Class<?> lEventSource = lStartupInfoWriter.getStartupCompletedEventSource();
+        List<StartupInfoWriter> lWritersList =
+            startupInfoWriters.computeIfAbsent(lEventSource, p -> new ArrayList<>());
+        lWritersList.add(lStartupInfoWriter);
+      }
+    }
+    finally {
+      lPhase.close();
+    }
+
+    // Trace information about the runtime environment. This is done only now as the level might be configured. As the
+    // runtime environment is the same for all contexts it is only traced for the default context. Asynchronous
+    // diagnostics are only started after the instance was published (see startAsyncStartupDiagnostics()).
+    if (classLoader == null) {
+      StartupDiagnosticsLevel lDiagnosticsLevel = startupInfoConfiguration.getStartupDiagnosticsLevel();
+      if (lDiagnosticsLevel != StartupDiagnosticsLevel.ASYNC) {
+        XFun.traceStartupDiagnostics(lDiagnosticsLevel);
+      }
     }
 
     // Trace provider factory will be loaded lazy to avoid trouble during startup.
   }
 
   /**
-   * Method returns only instance of this class.
+   * Method executes the passed supplier so that the configuration is read through the class loader of this context.
+   * 
+   * @param pSupplier Supplier that should be executed. The parameter must not be null.
+   * @return T Result of the supplier.
+   */
+  private <T> T callInContext( Supplier<T> pSupplier ) {
+    T lResult;
+    if (classLoader == null) {
+      lResult = pSupplier.get();
+    }
+    // Configuration has to be read through the class loader of the context.
+    else {
+      lResult = ConfigurationReader.callWithClassLoader(classLoader, pSupplier);
+    }
+    return lResult;
+  }
+
+  /**
+   * Method returns all factories of this instance that are created lazily.
+   * 
+   * @return {@link List} List with all lazy factories. The method never returns null.
+   */
+  private List<LazyFactory<?>> getLazyFactories( ) {
+    return Arrays.asList(messageRepositoryFactory, configurationProviderFactory, verifierFactory,
+        localeProviderFactory, principalProviderFactory, infoProviderFactory, datatypeConverterRegistryFactory,
+        metricsProviderFactory);
+  }
+
+  /**
+   * Method traces the diagnostic information about the runtime environment in a background thread if level
+   * {@link StartupDiagnosticsLevel#ASYNC} is configured. The method must only be called after the instance was
+   * published. Otherwise the background thread would already run while the initialization of JEAF X-Fun is still in
+   * progress.
+   */
+  private void startAsyncStartupDiagnostics( ) {
+    if (classLoader == null
+        && startupInfoConfiguration.getStartupDiagnosticsLevel() == StartupDiagnosticsLevel.ASYNC) {
+      Thread lThread =
+          new Thread(( ) -> XFun.traceStartupDiagnostics(StartupDiagnosticsLevel.FULL), "XFun-StartupDiagnostics");
+      lThread.setDaemon(true);
+      lThread.start();
+    }
+  }
+
+  /**
+   * Method writes the configuration snapshot in a background thread if this is required (see
+   * {@link ConfigurationSnapshot#isWriteRequired()}). As factories, object formatters, datatype converters and startup
+   * info writers are only created on their first usage, their configuration files are not read yet when JEAF X-Fun was
+   * started. Therefore the thread resolves all of them using a training run before the snapshot is written. The thread
+   * is no daemon thread so that the snapshot is also written for short running applications. The method must only be
+   * called after the instance was published.
+   */
+  private static void startSnapshotWriter( ) {
+    if (ConfigurationSnapshot.isWriteRequired() == true) {
+      Thread lThread = new Thread(( ) -> {
+        XFunTrainingRun.run();
+        ConfigurationSnapshot.writeConfiguredSnapshot();
+      }, SNAPSHOT_WRITER_THREAD);
+      lThread.start();
+    }
+  }
+
+  /**
+   * Method creates all factories of this instance in parallel if system property {@link #X_FUN_PARALLEL_WARM_UP} is set
+   * to true. The method must only be called after the instance was published. The warm-up is executed by a background
+   * thread as factories may use JEAF X-Fun themselves. During the initial startup they would otherwise wait for the
+   * initialization of class XFun which in turn would wait for them.
+   */
+  private void startParallelWarmUp( ) {
+    if (Boolean.getBoolean(X_FUN_PARALLEL_WARM_UP) == true) {
+      List<LazyFactory<?>> lFactories = this.getLazyFactories();
+      Thread lThread = new Thread(( ) -> {
+        StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Parallel factory warm-up");
+        try {
+          lFactories.parallelStream().forEach(pFactory -> {
+            // Problems are reported again when the factory is used.
+            try {
+              pFactory.get();
+            }
+            catch (RuntimeException | Error e) {
+              FallbackTraceProviderImpl.EMERGENCY_TRACE.warn("Parallel warm-up failed. " + e.getMessage());
+            }
+          });
+        }
+        finally {
+          lPhase.close();
+        }
+      }, "XFun-WarmUp");
+      lThread.setDaemon(true);
+      lThread.start();
+    }
+  }
+
+  /**
+   * Method creates a lazy factory whose factory is created within this context.
+   * 
+   * @param pFactoryType Interface of the factory. The parameter must not be null.
+   * @param pSupplier Supplier that creates the factory. The parameter must not be null.
+   * @return {@link LazyFactory} Created lazy factory. The method never returns null.
+   */
+  private <T> LazyFactory<T> newLazyFactory( Class<T> pFactoryType, Supplier<T> pSupplier ) {
+    return new LazyFactory<>(pFactoryType, () -> this.callInContext(pSupplier));
+  }
+
+  /**
+   * Method traces diagnostic information about the runtime environment to the emergency trace.
    * 
-   * @return {@link XFun} Instance of this class. The method never returns null.
+   * @param pLevel Level that defines which information should be traced. The parameter must not be null.
+   */
+  private static void traceStartupDiagnostics( StartupDiagnosticsLevel pLevel ) {
+    Trace lTrace = FallbackTraceProviderImpl.EMERGENCY_TRACE;
+
+    // Trace classpath
+    if (pLevel == StartupDiagnosticsLevel.FULL || pLevel == StartupDiagnosticsLevel.ASYNC) {
+      StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Classpath trace");
+      try {
+        String lClasspath = System.getProperty("java.class.path");
+
+        // Depending on the operating system classpath entries havew different separators
+        String lPathSeparator = System.getProperty("path.separator");
+        String[] lClasspathEntries = lClasspath.split(lPathSeparator);
+        lTrace.info("Classpath:");
+        for (String lNextEntry : lClasspathEntries) {
+          lTrace.info("    " + lNextEntry);
+        }
+      }
+      finally {
+        lPhase.close();
+      }
+    }
+
+    if (pLevel != StartupDiagnosticsLevel.NONE) {
+      StartupTimeline.Phase lPhase = StartupTimeline.startPhase("JVM info trace");
+      try {
+        // Trace OS information
+        String lOSInfo = "Operating System: " + System.getProperty("os.name") + " (Version: "
+            + System.getProperty("os.version") + ", Architecture: " + System.getProperty("os.arch") + ")";
+        lTrace.info(lOSInfo);
+
+        // Trace JVM information.
+        String lJVMInfo = "Java Virtual Machine: " + System.getProperty("java.runtime.name") + " "
+            + System.getProperty("java.version") + " (Vendor: " + System.getProperty("java.vm.vendor") + ")";
+        lTrace.info(lJVMInfo);
+
+        // Trace runtime information
+        Runtime lRuntime = Runtime.getRuntime();
+        int lProcessors = lRuntime.availableProcessors();
+        long lFreeMemory = lRuntime.freeMemory() / (1024 * 1024);
+        long lMaxMemory = lRuntime.maxMemory() / (1024 * 1024);
+        long lTotalMemory = lRuntime.totalMemory() / (1024 * 1024);
+        String lRuntimeInfo = "Runtime Environment: " + lProcessors + " Cores, JVM Memory: " + lTotalMemory
+            + " MB available, " + lMaxMemory + " MB maximum, " + lFreeMemory + " MB free";
+
+        lTrace.info(lRuntimeInfo);
+      }
+      finally {
+        lPhase.close();
+      }
+    }
+  }
+
+  /**
+   * Method returns the instance of this class that belongs to the current thread. If no additional contexts were
+   * created then this is always the default instance. Otherwise the context of the context class loader of the current
+   * thread or of one of its parents is used. If there is no such context then the default instance is returned.
+   * 
+   * @return {@link XFun} Instance of this class. The method only returns null during initialization.
    */
   private static final XFun getInstance( ) {
-    return instance;
+    return XFun.getInstance(XFun.getContext());
+  }
+
+  /**
+   * Method returns the instance of the context of the passed class loader.
+   * 
+   * @param pContext Class loader of the context whose instance should be returned. The parameter may be null in case of
+   * the default context.
+   * @return {@link XFun} Instance of the context. If the passed class loader does not have a context (any longer) then
+   * the default instance is returned. The method only returns null during initialization.
+   */
+  private static XFun getInstance( ClassLoader pContext ) {
+    XFun lInstance;
+    if (pContext != null) {
+      lInstance = contexts.get(pContext);
+      if (lInstance == null) {
+        lInstance = instance;
+      }
+    }
+    // Default context is requested.
+    else {
+      lInstance = instance;
+    }
+    return lInstance;
+  }
+
+  /**
+   * Method returns the class loader of the JEAF X-Fun context that is used by the current thread. If no contexts were
+   * created then this is always the default context. Otherwise the context of the context class loader of the current
+   * thread or of one of its parents is used (see {@link #createContext(ClassLoader)}).
+   * 
+   * @return {@link ClassLoader} Class loader of the context that is used by the current thread or null if the default
+   * context is used.
+   */
+  public static ClassLoader getContext( ) {
+    ClassLoader lContext = null;
+    Map<ClassLoader, XFun> lContexts = contexts;
+
+    // Context has to be resolved through the class loader hierarchy of the current thread.
+    if (lContexts.isEmpty() == false) {
+      ClassLoader lClassLoader = Thread.currentThread().getContextClassLoader();
+      while (lContext == null && lClassLoader != null) {
+        if (lContexts.containsKey(lClassLoader) == true) {
+          lContext = lClassLoader;
+        }
+        lClassLoader = lClassLoader.getParent();
+      }
+    }
+    return lContext;
+  }
+
+  /**
+   * Method creates a separate JEAF X-Fun context for the passed class loader. All threads whose context class loader is
+   * the passed class loader or one of its children will use the configuration, factories and providers of the new
+   * context. This way several applications can be deployed in the same JVM without sharing their JEAF X-Fun
+   * configuration. An already existing context for the same class loader will be replaced.
+   * 
+   * The configuration of the context is read through the passed class loader using the same system properties as the
+   * default context. Contexts have to be removed using {@link #removeContext(ClassLoader)} when the application is
+   * undeployed as otherwise its class loader can not be garbage collected.
+   * 
+   * <b>Remark: </b>Threads that do not use the passed class loader or one of its children as context class loader, e.g.
+   * threads of shared thread pools, use the default context. Some JVM wide parts of JEAF X-Fun are shared by all
+   * contexts (see class comment).
+   * 
+   * @param pClassLoader Class loader for which the context should be created. The parameter must not be null.
+   */
+  public static void createContext( ClassLoader pClassLoader ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClassLoader, "pClassLoader");
+
+    XFun lContext = new XFun(pClassLoader, false);
+    synchronized (CONTEXT_LOCK) {
+      Map<ClassLoader, XFun> lContexts = new HashMap<>(contexts);
+      lContexts.put(pClassLoader, lContext);
+      contexts = Collections.unmodifiableMap(lContexts);
+    }
+    lContext.startParallelWarmUp();
+
+    // Startup info is traced using the new context.
+    Thread lCurrentThread = Thread.currentThread();
+    ClassLoader lPreviousClassLoader = lCurrentThread.getContextClassLoader();
+    lCurrentThread.setContextClassLoader(pClassLoader);
+    try {
+      lContext.traceStartupInfo(XFun.class);
+    }
+    finally {
+      lCurrentThread.setContextClassLoader(lPreviousClassLoader);
+    }
+  }
+
+  /**
+   * Method removes the context of the passed class loader. Afterwards threads of this class loader will use the default
+   * context again.
+   * 
+   * @param pClassLoader Class loader whose context should be removed. The parameter must not be null.
+   * @return boolean Method returns true if a context was removed and false if there was no context for the passed class
+   * loader.
+   */
+  public static boolean removeContext( ClassLoader pClassLoader ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClassLoader, "pClassLoader");
+
+    boolean lRemoved;
+    synchronized (CONTEXT_LOCK) {
+      if (contexts.containsKey(pClassLoader) == true) {
+        Map<ClassLoader, XFun> lContexts = new HashMap<>(contexts);
+        lContexts.remove(pClassLoader);
+        if (lContexts.isEmpty() == true) {
+          contexts = Collections.emptyMap();
+        }
+        // Further contexts still exist.
+        else {
+          contexts = Collections.unmodifiableMap(lContexts);
+        }
+        lRemoved = true;
+      }
+      // There is no context for the passed class loader.
+      else {
+        lRemoved = false;
+      }
+    }
+    return lRemoved;
+  }
+
+  /**
+   * Method checks if a separate context exists for the passed class loader.
+   * 
+   * @param pClassLoader Class loader that should be checked. The parameter must not be null.
+   * @return boolean Method returns true if a context was created for exactly the passed class loader and false
+   * otherwise.
+   */
+  public static boolean hasContext( ClassLoader pClassLoader ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClassLoader, "pClassLoader");
+
+    return contexts.containsKey(pClassLoader);
+  }
+
+  /**
+   * Method returns all lazily created factories of the X-Fun instance that is used by the current thread.
+   * 
+   * @return {@link List} List with all lazy factories. The method never returns null.
+   */
+  static List<LazyFactory<?>> getLazyFactoriesOfCurrentInstance( ) {
+    return XFun.getInstance().getLazyFactories();
+  }
+
+  /**
+   * Method returns the trace provider factory of the X-Fun instance that is used by the current thread.
+   * 
+   * @return {@link TraceProviderFactory} Trace provider factory or null if tracing is not initialized yet.
+   */
+  static TraceProviderFactory getTraceProviderFactoryOfCurrentInstance( ) {
+    return XFun.getInstance().traceProviderFactory;
+  }
+
+  /**
+   * Method returns all startup info writers of the X-Fun instance that is used by the current thread.
+   * 
+   * @return {@link List} List with all startup info writers. The method never returns null.
+   */
+  static List<StartupInfoWriter> getStartupInfoWriters( ) {
+    List<StartupInfoWriter> lWriters = new ArrayList<>();
+    for (List<StartupInfoWriter> lNext : XFun.getInstance().startupInfoWriters.values()) {
+      lWriters.addAll(lNext);
+    }
+    return lWriters;
   }
 
   /**
@@ -297,7 +796,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link MessageRepository} Message repository that is used. The method never returns null.
    */
   public static MessageRepository getMessageRepository( ) {
-    return XFun.getInstance().messageRepositoryFactory.getMessageRepository();
+    return XFun.getInstance().messageRepositoryFactory.getRequired().getMessageRepository();
   }
 
   /**
@@ -310,7 +809,14 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
     XFun lXFunInstance = XFun.getInstance();
     Verifier lVerifier;
     if (lXFunInstance != null) {
-      lVerifier = lXFunInstance.verifierFactory.getVerifier();
+      VerifierFactory lVerifierFactory = lXFunInstance.verifierFactory.get();
+      if (lVerifierFactory != null) {
+        lVerifier = lVerifierFactory.getVerifier();
+      }
+      // Verifier factory is not available yet.
+      else {
+        lVerifier = null;
+      }
       if (lVerifier == null) {
         lVerifier = FALLBACK_VERIFIER;
       }
@@ -328,7 +834,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link ConfigurationProvider} Configuration provider that is used. The method never returns null.
    */
   public static ConfigurationProvider getConfigurationProvider( ) {
-    return XFun.getInstance().configurationProviderFactory.getConfigurationProvider();
+    return XFun.getInstance().configurationProviderFactory.getRequired().getConfigurationProvider();
   }
 
   /**
@@ -337,7 +843,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link LocaleProvider} Locale provider that is used. The method never returns null.
    */
   public static LocaleProvider getLocaleProvider( ) {
-    return XFun.getInstance().localeProviderFactory.getLocaleProvider();
+    return XFun.getInstance().localeProviderFactory.getRequired().getLocaleProvider();
   }
 
   /**
@@ -346,7 +852,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link PrincipalProvider} Principal provider that is used. The method never returns null.
    */
   public static PrincipalProvider getPrincipalProvider( ) {
-    return XFun.getInstance().principalProviderFactory.getPrincipalProvider();
+    return XFun.getInstance().principalProviderFactory.getRequired().getPrincipalProvider();
   }
 
   /**
@@ -355,7 +861,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link InfoProvider} Info provider that is used. The method never returns null.
    */
   public static InfoProvider getInfoProvider( ) {
-    return XFun.getInstance().infoProviderFactory.getInfoProvider();
+    return XFun.getInstance().infoProviderFactory.getRequired().getInfoProvider();
   }
 
   /**
@@ -376,36 +882,40 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
   public static TraceProvider getTraceProvider( ) {
     // In order to avoid problems during initialization we load the trace factory only on request.
     TraceProvider lTraceProvider;
-    if (instance == null) {
+    XFun lInstance = XFun.getInstance();
+    if (lInstance == null) {
       // We are still during initialization so we better use our fallback trace provider
       lTraceProvider = new FallbackTraceProviderFactoryImpl().getTraceProvider();
     }
     // Tracing is not yet initialized.
-    else if (instance.traceProviderFactory == null) {
+    else if (lInstance.traceProviderFactory == null) {
       // Avoid race conditions due to multiple trace initializations.
       synchronized (TRACE_INIT_LOCK) {
         // Ensure that tracing is initialized only once. During initialization of tracing it may happen that tracing is
         // already requested from within the same thread.
-        if (tracingInitialized == false) {
+        if (lInstance.tracingInitialized == false) {
           // Mark at first that we are initializing
-          tracingInitialized = true;
+          lInstance.tracingInitialized = true;
 
           // Use configured factory to resolve the trace provider that should be used.
-          TraceProviderFactory lTraceProviderFactory = instance.configuration.getTraceProviderFactory();
+          StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Trace provider initialization");
+          TraceProviderFactory lTraceProviderFactory =
+              lInstance.callInContext(lInstance.configuration::getTraceProviderFactory);
 
           // Trace provider factory could be loaded.
           if (lTraceProviderFactory != null) {
-            instance.traceProviderFactory = lTraceProviderFactory;
+            lInstance.traceProviderFactory = lTraceProviderFactory;
           }
           // In case of configuration problems we will not be able to resolve a trace provider factory. In this case we
           // will fallback to the fallback trace provider
           else {
-            instance.traceProviderFactory = new FallbackTraceProviderFactoryImpl();
+            lInstance.traceProviderFactory = new FallbackTraceProviderFactoryImpl();
             FallbackTraceProviderImpl.EMERGENCY_TRACE.error(
                 "Configuration problems prevent that the configured trace provider can be used. Using fallback tracing instead.");
           }
           // Resolve trace provider that will be used.
-          lTraceProvider = instance.traceProviderFactory.getTraceProvider();
+          lTraceProvider = lInstance.traceProviderFactory.getTraceProvider();
+          lPhase.close();
         }
         // As we want to avoid problems due to multiple initializations of trace providers. This may happen in cases
         // that during initialization of tracing traces should be written.
@@ -416,7 +926,7 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
     }
     // Trace initialization is fully completed
     else {
-      lTraceProvider = instance.traceProviderFactory.getTraceProvider();
+      lTraceProvider = lInstance.traceProviderFactory.getTraceProvider();
     }
     return lTraceProvider;
   }
@@ -427,7 +937,34 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return DatatypeConverterRegistry Registry that is used. The method never returns null.
    */
   public static DatatypeConverterRegistry getDatatypeConverterRegistry( ) {
-    return XFun.getInstance().datatypeConverterRegistryFactory.getDatatypeConverterRegistry();
+    return XFun.getInstance().datatypeConverterRegistryFactory.getRequired().getDatatypeConverterRegistry();
+  }
+
+  /**
+   * Method returns the configured metrics provider.
+   * 
+   * @return {@link MetricsProvider} Metrics provider that is used. The method never returns null.
+   */
+  public static MetricsProvider getMetricsProvider( ) {
+    // During initialization there may be cases where an instance of XFun does not exist yet.
+    XFun lXFunInstance = XFun.getInstance();
+    MetricsProvider lMetricsProvider;
+    MetricsProviderFactory lMetricsProviderFactory;
+    if (lXFunInstance != null) {
+      lMetricsProviderFactory = lXFunInstance.metricsProviderFactory.get();
+    }
+    // X-Fun is not initialized yet.
+    else {
+      lMetricsProviderFactory = null;
+    }
+    if (lMetricsProviderFactory != null) {
+      lMetricsProvider = lMetricsProviderFactory.getMetricsProvider();
+    }
+    // During initialization we will use our fallback implementation.
+    else {
+      lMetricsProvider = MetricsProviderFactoryImpl.getSharedMetricsProvider();
+    }
+    return lMetricsProvider;
   }
 
   /**
@@ -448,22 +985,111 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
    * @return {@link XFunConfiguration} Configuration that is currently used. The method never returns null.
    */
   public static XFunConfiguration getConfiguration( ) {
-    return instance.configuration;
+    return XFun.getInstance().configuration;
+  }
+
+  /**
+   * Method returns the generation of the X-Fun instance that is used by the current thread. Every reload of JEAF X-Fun
+   * creates a new generation with a higher number. Caches that depend on the configured factories and providers can
+   * remember the generation and revalidate their content lazily as soon as it changed.
+   * 
+   * @return long Generation of the current instance. During initialization of JEAF X-Fun the method returns 0.
+   */
+  public static long getGeneration( ) {
+    return XFun.getGeneration(XFun.getContext());
+  }
+
+  /**
+   * Method returns the generation of the X-Fun instance of the passed context. In contrast to {@link #getGeneration()}
+   * the result does not depend on the context class loader of the current thread. Caches that may be shared by several
+   * threads should therefore remember their context (see {@link #getContext()}) and use this method.
+   * 
+   * @param pContext Class loader of the context whose generation should be returned. The parameter may be null in case
+   * of the default context. If the class loader does not have a context (any longer) then the generation of the
+   * default context is returned.
+   * @return long Generation of the instance of the context. During initialization of JEAF X-Fun the method returns 0.
+   */
+  public static long getGeneration( ClassLoader pContext ) {
+    XFun lInstance = XFun.getInstance(pContext);
+    long lGeneration;
+    if (lInstance != null) {
+      lGeneration = lInstance.generation;
+    }
+    // X-Fun is not initialized yet.
+    else {
+      lGeneration = 0;
+    }
+    return lGeneration;
+  }
+
+  /**
+   * Method adds the passed listener. It will be notified after every reload of JEAF X-Fun.
+   * 
+   * @param pListener Listener that should be added. The parameter must not be null.
+   */
+  public static void addReloadListener( XFunReloadListener pListener ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pListener, "pListener");
+
+    RELOAD_LISTENERS.add(pListener);
+  }
+
+  /**
+   * Method removes the passed listener.
+   * 
+   * @param pListener Listener that should be removed. The parameter must not be null.
+   */
+  public static void removeReloadListener( XFunReloadListener pListener ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pListener, "pListener");
+
+    RELOAD_LISTENERS.remove(pListener);
   }
 
   /**
    * Method resets the current X-Fun instance. This means that JEAF X-Fun will be reinitialized completely. This method
-   * is mainly intended to be used for test purposes.
+   * is mainly intended to be used for test purposes. Contexts that were created for specific class loaders are not
+   * affected.
+   * 
+   * The new instance is completely initialized before it replaces the existing one. Thus other threads either use the
+   * old or the new instance but never a partially initialized one. Afterwards all {@link XFunReloadListener}s are
+   * notified. Concurrent reloads are executed one after the other.
    */
   public static void reload( ) {
-    // Create new X-Fun instance add trace startup info.
-    XFun.getTrace().warn("Reloading JEAF X-Fun");
-    XFun lNewInstance = new XFun();
-    lNewInstance.traceStartupInfo(XFun.class);
-
-    // Replace existing instance with new one.
-    XFun.getTrace().warn("Existing instance of JEAF X-Fun replaced by new one.");
-    instance = lNewInstance;
+    synchronized (RELOAD_LOCK) {
+      // Create new X-Fun instance add trace startup info.
+      XFun.getTrace().warn("Reloading JEAF X-Fun");
+
+      // Configuration files have to be read again as they might have changed. As other threads may still fill the cache
+      // through the previous instance until the new one is published, it is cleared again by its reload listener.
+      ConfigurationReader.clearCache();
+      if (BootstrapRegistry.isProgrammaticBootstrap() == false) {
+        TraceConfiguration.reload();
+      }
+      // Snapshot must not be used as it would contain the configuration files of the previous startup.
+      XFun lNewInstance = new XFun(null, false);
+      lNewInstance.traceStartupInfo(XFun.class);
+
+      // Replace existing instance with new one.
+      XFun.getTrace().warn("Existing instance of JEAF X-Fun replaced by new one.");
+      instance = lNewInstance;
+      lNewInstance.startParallelWarmUp();
+      lNewInstance.startAsyncStartupDiagnostics();
+
+      // Configuration values of bound configuration interfaces might have changed.
+      ConfigurationBinding.rebindAll();
+
+      // Notify listeners about new generation. Problems of one listener must not affect the others.
+      for (XFunReloadListener lListener : RELOAD_LISTENERS) {
+        try {
+          lListener.xfunReloaded(lNewInstance.generation);
+        }
+        catch (RuntimeException e) {
+          XFun.getTrace().error("Reload listener " + lListener.getClass().getName() + " failed. " + e.getMessage(), e);
+        }
+      }
+      XFun.startSnapshotWriter();
+    }
   }
 
   @Override
@@ -499,7 +1125,14 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
         List<StartupInfoWriter> lStartupInfoWriters = startupInfoWriters.get(pClass);
         if (lStartupInfoWriters != null) {
           for (StartupInfoWriter lWriter : lStartupInfoWriters) {
-            lWriter.traceStartupInfo(lTrace, lTraceLevel);
+            String lPhaseName = "StartupInfoWriter " + lWriter.getClass().getName();
+            StartupTimeline.Phase lPhase = StartupTimeline.startPhase(lPhaseName);
+            try {
+              lWriter.traceStartupInfo(lTrace, lTraceLevel);
+            }
+            finally {
+              lPhase.close();
+            }
           }
         }
       }
@@ -536,53 +1169,24 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
         pTraceLevel);
     pTrace.writeInitInfo("JEAF X-Fun uses the following implementations:", pTraceLevel);
 
-    // Configuration provider
-    String lConfigurationProvider =
-        configurationProviderFactory != null ? configurationProviderFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING,
-        ConfigurationProviderFactory.class.getSimpleName() + ":", lConfigurationProvider), pTraceLevel);
-
-    // Message repository
-    String lMessageRepositoryFactory =
-        messageRepositoryFactory != null ? messageRepositoryFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING, MessageRepositoryFactory.class.getSimpleName() + ":",
-        lMessageRepositoryFactory), pTraceLevel);
-
-    // Verifier
-    String lVerifierFactory = verifierFactory != null ? verifierFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(
-        String.format(IMPL_INFO_FORMAT_STRING, VerifierFactory.class.getSimpleName() + ":", lVerifierFactory),
-        pTraceLevel);
-
-    // Locale provider
-    String lLocaleProviderFactory = localeProviderFactory != null ? localeProviderFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING, LocaleProviderFactory.class.getSimpleName() + ":",
-        lLocaleProviderFactory), pTraceLevel);
-
-    // Principal provider
-    String lPrincipalProviderFactory =
-        principalProviderFactory != null ? principalProviderFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING, PrincipalProviderFactory.class.getSimpleName() + ":",
-        lPrincipalProviderFactory), pTraceLevel);
-
-    // Info provider
-    String lInfoProviderFactory = infoProviderFactory != null ? infoProviderFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(
-        String.format(IMPL_INFO_FORMAT_STRING, InfoProviderFactory.class.getSimpleName() + ":", lInfoProviderFactory),
-        pTraceLevel);
+    // Factories that were not used so far are not loaded just for tracing.
+    this.traceImplementationInfo(pTrace, pTraceLevel, ConfigurationProviderFactory.class, configurationProviderFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, MessageRepositoryFactory.class, messageRepositoryFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, VerifierFactory.class, verifierFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, LocaleProviderFactory.class, localeProviderFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, PrincipalProviderFactory.class, principalProviderFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, InfoProviderFactory.class, infoProviderFactory);
 
     // Trace provider
     String lTraceProviderFactory = traceProviderFactory != null ? traceProviderFactory.getClass().getName()
-        : "not yet loaded due to lazy initialization";
+        : NOT_YET_LOADED;
     pTrace.writeInitInfo(
         String.format(IMPL_INFO_FORMAT_STRING, TraceProviderFactory.class.getSimpleName() + ":", lTraceProviderFactory),
         pTraceLevel);
 
-    // Datatype converter
-    String lDatatypeConverterRegistryFactory =
-        datatypeConverterRegistryFactory != null ? datatypeConverterRegistryFactory.getClass().getName() : "null";
-    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING,
-        DatatypeConverterRegistryFactory.class.getSimpleName() + ":", lDatatypeConverterRegistryFactory), pTraceLevel);
+    this.traceImplementationInfo(pTrace, pTraceLevel, DatatypeConverterRegistryFactory.class,
+        datatypeConverterRegistryFactory);
+    this.traceImplementationInfo(pTrace, pTraceLevel, MetricsProviderFactory.class, metricsProviderFactory);
 
     // Trace info about end of initialization.
     long lNow = System.currentTimeMillis();
@@ -591,5 +1195,31 @@ public final class XFun implements StartupInfoWriter, StartupInfoEventHandler {
     lBuilder.append(lNow - startTimeStamp);
     lBuilder.append("ms.");
     pTrace.writeInitInfo(lBuilder.toString(), TraceLevel.INFO);
+
+    // Trace timing of all startup phases if requested.
+    StartupTimeline.traceReport(pTrace, pTraceLevel);
+  }
+
+  /**
+   * Method traces which implementation is used for the passed factory.
+   * 
+   * @param pTrace Trace object that should be used.
+   * @param pTraceLevel Trace level that should be used.
+   * @param pFactoryType Interface of the factory.
+   * @param pFactory Holder of the factory.
+   */
+  private void traceImplementationInfo( Trace pTrace, TraceLevel pTraceLevel, Class<?> pFactoryType,
+      LazyFactory<?> pFactory ) {
+    String lImplementation;
+    if (pFactory.isLoaded() == true) {
+      Object lFactory = pFactory.get();
+      lImplementation = lFactory != null ? lFactory.getClass().getName() : "null";
+    }
+    // Factory will be loaded as soon as it is used for the first time.
+    else {
+      lImplementation = NOT_YET_LOADED;
+    }
+    pTrace.writeInitInfo(String.format(IMPL_INFO_FORMAT_STRING, pFactoryType.getSimpleName() + ":", lImplementation),
+        pTraceLevel);
   }
 }
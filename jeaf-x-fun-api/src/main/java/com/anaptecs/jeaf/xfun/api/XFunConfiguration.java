@@ -20,9 +20,12 @@ import com.anaptecs.jeaf.xfun.api.datatypeconverter.DatatypeConverterRegistryFac
 import com.anaptecs.jeaf.xfun.api.info.InfoProviderFactory;
 import com.anaptecs.jeaf.xfun.api.locale.LocaleProviderFactory;
 import com.anaptecs.jeaf.xfun.api.messages.MessageRepositoryFactory;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProviderFactory;
 import com.anaptecs.jeaf.xfun.api.principal.PrincipalProviderFactory;
 import com.anaptecs.jeaf.xfun.api.trace.TraceProviderFactory;
+import com.anaptecs.jeaf.xfun.bootstrap.BootstrapRegistry;
 import com.anaptecs.jeaf.xfun.fallback.info.InfoProviderFactoryImpl;
+import com.anaptecs.jeaf.xfun.fallback.metrics.MetricsProviderFactoryImpl;
 
 public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunConfig> {
   /**
@@ -31,6 +34,11 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
    */
   private List<Class<?>> messageResourceClasses;
 
+  /**
+   * Attribute defines if factories are only taken from the {@link BootstrapRegistry}.
+   */
+  private final boolean programmatic;
+
   /**
    * Initialize object.
    */
@@ -52,6 +60,19 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
 
     // Call super class constructor, that's it.
     super(pCustomConfigurationResourceName, pCustomConfigurationBasePackagePath, pExceptionOnError);
+    programmatic = false;
+  }
+
+  /**
+   * Initialize object for programmatic bootstrap. All factories are only taken from the {@link BootstrapRegistry}. No
+   * configuration annotations are read and no factories are created through reflection.
+   * 
+   * @param pExceptionOnError If parameter is set to true then an exception will be thrown if a required factory is not
+   * registered.
+   */
+  XFunConfiguration( boolean pExceptionOnError ) {
+    super(XFunConfiguration.newEmptyConfiguration(), pExceptionOnError, BootstrapRegistry.class);
+    programmatic = true;
   }
 
   @Override
@@ -66,6 +87,15 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
 
   @Override
   public XFunConfig getEmptyConfiguration( ) {
+    return XFunConfiguration.newEmptyConfiguration();
+  }
+
+  /**
+   * Method creates an empty configuration.
+   * 
+   * @return {@link XFunConfig} Empty configuration. The method never returns null.
+   */
+  private static XFunConfig newEmptyConfiguration( ) {
     return new XFunConfig() {
 
       @Override
@@ -113,6 +143,11 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
         return null;
       }
 
+      @Override
+      public Class<? extends MetricsProviderFactory> metricsProviderFactory( ) {
+        return null;
+      }
+
       @Override
       public String messageResourcePath( ) {
         return MessageResource.MESSAGE_RESOURCES_PATH;
@@ -172,8 +207,8 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
   public MessageRepositoryFactory getMessageRepositoryFactory( ) {
     // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
     // our default configuration.
-    return this.newInstance(customConfig.messageRepositoryFactory(), defaultConfig.messageRepositoryFactory(),
-        exceptionOnError);
+    return this.getFactory(MessageRepositoryFactory.class, customConfig.messageRepositoryFactory(),
+        defaultConfig.messageRepositoryFactory());
   }
 
   /**
@@ -185,14 +220,14 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
   public VerifierFactory getVerifierFactory( ) {
     // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
     // our default configuration.
-    return this.newInstance(customConfig.verifierFactory(), defaultConfig.verifierFactory(), exceptionOnError);
+    return this.getFactory(VerifierFactory.class, customConfig.verifierFactory(), defaultConfig.verifierFactory());
   }
 
   public ConfigurationProviderFactory getConfigurationProviderFactory( ) {
     // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
     // our default configuration.
-    return this.newInstance(customConfig.configurationProviderFactory(), defaultConfig.configurationProviderFactory(),
-        exceptionOnError);
+    return this.getFactory(ConfigurationProviderFactory.class, customConfig.configurationProviderFactory(),
+        defaultConfig.configurationProviderFactory());
   }
 
   /**
@@ -204,8 +239,8 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
   public LocaleProviderFactory getLocaleProviderFactory( ) {
     // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
     // our default configuration.
-    return this.newInstance(customConfig.localeProviderFactory(), defaultConfig.localeProviderFactory(),
-        exceptionOnError);
+    return this.getFactory(LocaleProviderFactory.class, customConfig.localeProviderFactory(),
+        defaultConfig.localeProviderFactory());
   }
 
   /**
@@ -217,8 +252,8 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
   public PrincipalProviderFactory getPrincipalProviderFactory( ) {
     // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
     // our default configuration.
-    return this.newInstance(customConfig.principalProviderFactory(), defaultConfig.principalProviderFactory(),
-        exceptionOnError);
+    return this.getFactory(PrincipalProviderFactory.class, customConfig.principalProviderFactory(),
+        defaultConfig.principalProviderFactory());
   }
 
   /**
@@ -232,8 +267,8 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
     // our fallback configuration.
     InfoProviderFactory lInfoProviderFactory;
     try {
-      lInfoProviderFactory =
-          this.newInstance(customConfig.infoProviderFactory(), defaultConfig.infoProviderFactory(), exceptionOnError);
+      lInfoProviderFactory = this.getFactory(InfoProviderFactory.class, customConfig.infoProviderFactory(),
+          defaultConfig.infoProviderFactory());
 
       if (lInfoProviderFactory == null) {
         lInfoProviderFactory = new InfoProviderFactoryImpl();
@@ -253,8 +288,8 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
    * configuration errors.
    */
   public DatatypeConverterRegistryFactory getDatatypeConverterRegistryFactory( ) {
-    return this.newInstance(customConfig.datatypeConverterRegistryFactory(),
-        defaultConfig.datatypeConverterRegistryFactory(), exceptionOnError);
+    return this.getFactory(DatatypeConverterRegistryFactory.class, customConfig.datatypeConverterRegistryFactory(),
+        defaultConfig.datatypeConverterRegistryFactory());
   }
 
   /**
@@ -264,8 +299,57 @@ public final class XFunConfiguration extends AnnotationBasedConfiguration<XFunCo
    * configuration errors.
    */
   public TraceProviderFactory getTraceProviderFactory( ) {
-    return this.newInstance(customConfig.traceProviderFactory(), defaultConfig.traceProviderFactory(),
-        exceptionOnError);
+    return this.getFactory(TraceProviderFactory.class, customConfig.traceProviderFactory(),
+        defaultConfig.traceProviderFactory());
+  }
+
+  /**
+   * Method returns the configured MetricsProviderFactory.
+   * 
+   * @return {@link MetricsProviderFactory} Factory that should be used. The method never returns null. If no factory is
+   * configured or in case of configuration errors the fallback implementation will be used.
+   */
+  public MetricsProviderFactory getMetricsProviderFactory( ) {
+    // Resolve impl in a 2-way approach. First we look at the custom configuration afterwards we do the fallback to
+    // our fallback configuration.
+    MetricsProviderFactory lMetricsProviderFactory;
+    try {
+      lMetricsProviderFactory = this.getFactory(MetricsProviderFactory.class, customConfig.metricsProviderFactory(),
+          defaultConfig.metricsProviderFactory());
+
+      if (lMetricsProviderFactory == null) {
+        lMetricsProviderFactory = new MetricsProviderFactoryImpl();
+      }
+    }
+    // In case of troubles we will do fallback to our fallback implementation.
+    catch (Throwable e) {
+      lMetricsProviderFactory = new MetricsProviderFactoryImpl();
+    }
+    return lMetricsProviderFactory;
+  }
+
+  /**
+   * Method returns the factory of the passed type. Factories that were registered in the {@link BootstrapRegistry} are
+   * preferred. Otherwise a new instance of the configured class will be created unless programmatic bootstrap is used.
+   * 
+   * @param pFactoryType Interface of the factory. The parameter must not be null.
+   * @param pCustomClass Class of the factory from the custom configuration. The parameter may be null.
+   * @param pDefaultClass Class of the factory from the default configuration. The parameter may be null.
+   * @return X Factory that should be used. The method may return null in case of configuration errors.
+   */
+  private <X> X getFactory( Class<X> pFactoryType, Class<? extends X> pCustomClass,
+      Class<? extends X> pDefaultClass ) {
+    X lFactory = BootstrapRegistry.getInstance().getFactory(pFactoryType);
+    if (lFactory == null) {
+      if (programmatic == false) {
+        lFactory = this.newInstance(pCustomClass, pDefaultClass, exceptionOnError);
+      }
+      // In case of programmatic bootstrap missing factories are a configuration error.
+      else if (exceptionOnError == true) {
+        throw new XFunRuntimeException("No " + pFactoryType.getName() + " is registered in BootstrapRegistry.");
+      }
+    }
+    return lFactory;
   }
 
   /**
@@ -0,0 +1,26 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api;
+
+/**
+ * Interface has to be implemented by all classes that want to be notified when JEAF X-Fun was reloaded (see
+ * {@link XFun#reload()}). Listeners are registered using {@link XFun#addReloadListener(XFunReloadListener)}.
+ *
+ * Caches that only have to be revalidated lazily should rather remember {@link XFun#getGeneration()} and compare it
+ * with the current generation on their next access.
+ *
+ * @author JEAF Development Team
+ */
+@FunctionalInterface
+public interface XFunReloadListener {
+  /**
+   * Method is called after a new instance of JEAF X-Fun was published. All calls to {@link XFun} made by the listener
+   * already use the new instance. The method is called by the thread that reloaded JEAF X-Fun.
+   *
+   * @param pGeneration Generation of the new instance.
+   */
+  void xfunReloaded( long pGeneration );
+}
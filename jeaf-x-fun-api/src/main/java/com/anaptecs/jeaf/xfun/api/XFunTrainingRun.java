@@ -0,0 +1,230 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.anaptecs.jeaf.xfun.api.trace.TraceConfiguration;
+import com.anaptecs.jeaf.xfun.bootstrap.Check;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class implements a training run for application class-data sharing (AppCDS). The training run initializes JEAF X-Fun
+ * and touches everything that would otherwise only be loaded lazily: all configured factories and their providers,
+ * object formatters, message resources, the datatype converter registry and all startup info writers.
+ *
+ * The recommended way to create a CDS archive as part of a build pipeline is to let the JVM record all classes that
+ * were loaded during the training run. With JDK 13 or later a dynamic archive can be created directly:
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=xfun.jsa -cp app.jar com.anaptecs.jeaf.xfun.api.XFunTrainingRun
+ * java -XX:SharedArchiveFile=xfun.jsa -cp app.jar ...
+ * </pre>
+ *
+ * With older JDKs the class list has to be dumped first:
+ *
+ * <pre>
+ * java -XX:DumpLoadedClassList=xfun.classlist -cp app.jar com.anaptecs.jeaf.xfun.api.XFunTrainingRun
+ * java -Xshare:dump -XX:SharedClassListFile=xfun.classlist -XX:SharedArchiveFile=xfun.jsa -cp app.jar
+ * </pre>
+ *
+ * In addition the training run writes its own class list (one class per line using '/' as separator). It only contains
+ * the application classes of the touched objects together with their super classes and interfaces but not the classes
+ * that they use internally. Classes of the JDK are not part of it as they are already covered by the default CDS
+ * archive of the JDK. The list is mainly useful to check which implementations are part of the bootstrap graph of JEAF
+ * X-Fun. It can also be used as <code>SharedClassListFile</code> if the JVM options above are not available.
+ *
+ * @author JEAF Development Team
+ */
+public final class XFunTrainingRun {
+  /**
+   * Name of the file to which the class list is written if no file is passed to {@link #main(String[])}.
+   */
+  public static final String DEFAULT_CLASS_LIST = "xfun.classlist";
+
+  /**
+   * Constructor is private as the class only provides static methods.
+   */
+  private XFunTrainingRun( ) {
+  }
+
+  /**
+   * Method executes the training run and returns the names of all classes that were touched.
+   *
+   * @return {@link List} Names of all touched classes in the format of a JVM class list. The method never returns null.
+   * The returned list is immutable and does not contain duplicates.
+   */
+  public static List<String> run( ) {
+    Set<Class<?>> lClasses = new LinkedHashSet<>();
+    addClass(lClasses, XFun.class);
+    addClass(lClasses, XFunConfiguration.class);
+    addClass(lClasses, LazyFactory.class);
+
+    // Factories of the current instance and the providers they create. The factories are taken from the instance
+    // itself as the getters of XFunConfiguration would create additional factories.
+    for (LazyFactory<?> lNextFactory : XFun.getLazyFactoriesOfCurrentInstance()) {
+      touch(lClasses, lNextFactory.getFactoryType().getSimpleName(), lNextFactory::get);
+    }
+    touch(lClasses, "getConfigurationProvider", XFun::getConfigurationProvider);
+    touch(lClasses, "getMessageRepository", XFun::getMessageRepository);
+    touch(lClasses, "getVerifier", XFun::getVerifier);
+    touch(lClasses, "getLocaleProvider", XFun::getLocaleProvider);
+    touch(lClasses, "getPrincipalProvider", XFun::getPrincipalProvider);
+    touch(lClasses, "getInfoProvider", XFun::getInfoProvider);
+    touch(lClasses, "getDatatypeConverterRegistry", XFun::getDatatypeConverterRegistry);
+    touch(lClasses, "getTraceProvider", XFun::getTraceProvider);
+    touch(lClasses, "getTrace", XFun::getTrace);
+    touch(lClasses, "TraceProviderFactory", XFun::getTraceProviderFactoryOfCurrentInstance);
+    touch(lClasses, "getMetricsProvider", XFun::getMetricsProvider);
+
+    // Object formatters, message resources and startup info writers.
+    touch(lClasses, "TraceConfiguration", TraceConfiguration::getInstance);
+    touchAll(lClasses, "getObjectFormatters", ( ) -> TraceConfiguration.getInstance().getObjectFormatters());
+    try {
+      for (Class<?> lNextClass : XFun.getConfiguration().getMessageResourceClasses()) {
+        addClass(lClasses, lNextClass);
+      }
+    }
+    catch (RuntimeException | LinkageError e) {
+      reportProblem("message resources", e);
+    }
+    touchAll(lClasses, "getStartupInfoWriters", XFun::getStartupInfoWriters);
+
+    // Convert classes to format of class list.
+    List<String> lClassList = new ArrayList<>(lClasses.size());
+    for (Class<?> lNextClass : lClasses) {
+      lClassList.add(lNextClass.getName().replace('.', '/'));
+    }
+    return Collections.unmodifiableList(lClassList);
+  }
+
+  /**
+   * Method executes the training run and writes the class list to the passed file.
+   *
+   * @param pClassListFile File to which the class list should be written. The parameter must not be null.
+   * @return int Amount of classes that were written.
+   * @throws IOException if the file could not be written.
+   */
+  public static int writeClassList( Path pClassListFile ) throws IOException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClassListFile, "pClassListFile");
+
+    List<String> lClassList = XFunTrainingRun.run();
+    Files.write(pClassListFile, lClassList, StandardCharsets.UTF_8);
+    return lClassList.size();
+  }
+
+  /**
+   * Method executes the training run and writes the class list to the file that is passed as first argument. If no
+   * argument is passed then {@link #DEFAULT_CLASS_LIST} is used. If the class list can not be written then the JVM
+   * exits with status 1.
+   *
+   * @param pArgs Command line arguments. The optional first argument is the path of the class list.
+   */
+  public static void main( String[] pArgs ) {
+    Path lClassListFile;
+    if (pArgs.length > 0) {
+      lClassListFile = Paths.get(pArgs[0]);
+    }
+    else {
+      lClassListFile = Paths.get(DEFAULT_CLASS_LIST);
+    }
+    try {
+      int lClasses = XFunTrainingRun.writeClassList(lClassListFile);
+      System.out.println("Wrote " + lClasses + " classes of JEAF X-Fun training run to " + lClassListFile);
+    }
+    catch (IOException e) {
+      System.err.println("Unable to write class list " + lClassListFile + ": " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Method resolves the passed object and adds its class to the passed set. Problems are reported but do not abort the
+   * training run.
+   *
+   * @param pClasses Set to which the class should be added.
+   * @param pName Name of the resolved object. It is only used to report problems.
+   * @param pSupplier Supplier that resolves the object.
+   */
+  private static void touch( Set<Class<?>> pClasses, String pName, Supplier<?> pSupplier ) {
+    try {
+      Object lObject = pSupplier.get();
+      if (lObject != null) {
+        addClass(pClasses, lObject.getClass());
+      }
+    }
+    catch (RuntimeException | LinkageError e) {
+      reportProblem(pName, e);
+    }
+  }
+
+  /**
+   * Method resolves the passed objects and adds their classes to the passed set. Problems are reported but do not abort
+   * the training run.
+   *
+   * @param pClasses Set to which the classes should be added.
+   * @param pName Name of the resolved objects. It is only used to report problems.
+   * @param pSupplier Supplier that resolves the objects.
+   */
+  private static void touchAll( Set<Class<?>> pClasses, String pName,
+      Supplier<? extends Iterable<?>> pSupplier ) {
+    try {
+      for (Object lNextObject : pSupplier.get()) {
+        addClass(pClasses, lNextObject.getClass());
+      }
+    }
+    catch (RuntimeException | LinkageError e) {
+      reportProblem(pName, e);
+    }
+  }
+
+  /**
+   * Method adds the passed class together with all its super classes and interfaces to the passed set. Classes that
+   * can not be loaded by name e.g. lambdas or dynamic proxies are ignored. Classes of the JDK are ignored as well.
+   *
+   * @param pClasses Set to which the class should be added.
+   * @param pClass Class that should be added.
+   */
+  private static void addClass( Set<Class<?>> pClasses, Class<?> pClass ) {
+    boolean lLoadableByName = pClass.isArray() == false && pClass.isPrimitive() == false
+        && pClass.getName().indexOf('/') < 0 && pClass.getName().contains("$$Lambda") == false
+        && Proxy.isProxyClass(pClass) == false;
+    boolean lApplicationClass = pClass.getClassLoader() != null && pClass.getName().startsWith("java.") == false;
+    if (lLoadableByName == true && lApplicationClass == true && pClasses.contains(pClass) == false) {
+      // Super types have to be loaded first.
+      if (pClass.getSuperclass() != null) {
+        addClass(pClasses, pClass.getSuperclass());
+      }
+      for (Class<?> lNextInterface : pClass.getInterfaces()) {
+        addClass(pClasses, lNextInterface);
+      }
+      pClasses.add(pClass);
+    }
+  }
+
+  /**
+   * Method reports a problem that occurred during the training run.
+   *
+   * @param pSource Source of the problem.
+   * @param pThrowable Problem that occurred.
+   */
+  private static void reportProblem( String pSource, Throwable pThrowable ) {
+    FallbackTraceProviderImpl.EMERGENCY_TRACE.warn("Training run could not resolve " + pSource + ". "
+        + pThrowable.getMessage());
+  }
+}
@@ -7,9 +7,11 @@ package com.anaptecs.jeaf.xfun.api.checks;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.function.Supplier;
 
 import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.errorhandling.FailureMessage;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
 
 /**
  * Class provides methods to check constraints that are defined by the contract that a method implements. There are two
@@ -45,8 +47,7 @@ public final class Check {
    */
   public static void checkInvalidParameterNull( Object pObject, String pParameterName ) {
     // InvalidParameterException is thrown if pObject is null.
-    FailureMessage lFailureMessage = XFun.getVerifier().isNotNull(pObject, pParameterName);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isNotNull(pObject, pParameterName));
   }
 
   /**
@@ -67,8 +68,7 @@ public final class Check {
    */
   public static void checkIsRealString( String pString, String pStringName ) {
     // InvalidParameterException is thrown if pObject is null.
-    FailureMessage lFailureMessage = XFun.getVerifier().isRealString(pString, pStringName);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isRealString(pString, pStringName));
   }
 
   /**
@@ -81,8 +81,7 @@ public final class Check {
    */
   public static void checkMaxStringLength( String pString, int pMaxLenght, String pStringName ) {
     // InvalidParameterException is thrown if pString is too long.
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyMaxStringLength(pString, pMaxLenght, pStringName);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().verifyMaxStringLength(pString, pMaxLenght, pStringName));
   }
 
   /**
@@ -102,8 +101,7 @@ public final class Check {
    */
   public static void checkIsZeroOrGreater( int pValue, String pParameterName ) {
     // InvalidParameterException is thrown if pValue is negative.
-    FailureMessage lFailureMessage = XFun.getVerifier().isZeroOrGreater(pValue, pParameterName);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isZeroOrGreater(pValue, pParameterName));
   }
 
   /**
@@ -123,8 +121,7 @@ public final class Check {
    */
   public static void checkIsValidSet( int pLowerBound, int pUpperBound ) {
     // InvalidParameterException is thrown if pLowerBound and pUpperBound do not define a valid set.
-    FailureMessage lFailureMessage = XFun.getVerifier().isValidSet(pLowerBound, pUpperBound);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isValidSet(pLowerBound, pUpperBound));
   }
 
   /**
@@ -145,8 +142,7 @@ public final class Check {
    */
   public static void checkIsPartOfSet( int pLowerBound, int pUpperBound, int pValue ) {
     // InvalidParameterException is thrown if pValue is not part of the defined set.
-    FailureMessage lFailureMessage = XFun.getVerifier().isPartOfSet(pLowerBound, pUpperBound, pValue);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isPartOfSet(pLowerBound, pUpperBound, pValue));
   }
 
   /**
@@ -167,8 +163,7 @@ public final class Check {
    */
   public static void checkIsNotPartOfSet( int pLowerBound, int pUpperBound, int pValue ) {
     // InvalidParameterException is thrown if pValue is part of the defined set.
-    FailureMessage lFailureMessage = XFun.getVerifier().isNotPartOfSet(pLowerBound, pUpperBound, pValue);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().isNotPartOfSet(pLowerBound, pUpperBound, pValue));
   }
 
   /**
@@ -180,8 +175,7 @@ public final class Check {
    * @throws InvalidParameterException if the passed character sequence does not match to the passed pattern.
    */
   public static void checkPattern( String pCharacters, String pPattern ) {
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyPattern(pCharacters, pPattern);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().verifyPattern(pCharacters, pPattern));
   }
 
   /**
@@ -194,8 +188,7 @@ public final class Check {
    * occurred the method returns null. In all other cases the method returns a VerificationFailure object.
    */
   public static void checkMinimumCollectionSize( Collection<?> pCollection, int pMinimumSize ) {
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyMinimumCollectionSize(pCollection, pMinimumSize);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().verifyMinimumCollectionSize(pCollection, pMinimumSize));
   }
 
   /**
@@ -208,8 +201,7 @@ public final class Check {
    * occurred the method returns null. In all other cases the method returns a VerificationFailure object.
    */
   public static void checkMaximumCollectionSize( Collection<?> pCollection, int pMinimumSize ) {
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyMaximumCollectionSize(pCollection, pMinimumSize);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().verifyMaximumCollectionSize(pCollection, pMinimumSize));
   }
 
   /**
@@ -222,8 +214,7 @@ public final class Check {
    * the method returns null. In all other cases the method returns a FailureMessage object.
    */
   public static void checkValidPeriod( Date pStart, Date pEnd ) {
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyValidPeriod(pStart, pEnd);
-    Check.handleCheckResult(lFailureMessage);
+    Check.performCheck(() -> XFun.getVerifier().verifyValidPeriod(pStart, pEnd));
   }
 
   /**
@@ -236,7 +227,26 @@ public final class Check {
    * the method returns null. In all other cases the method returns a FailureMessage object.
    */
   public static void checkValidEMailAddress( String pEMailAddress ) {
-    FailureMessage lFailureMessage = XFun.getVerifier().verifyEMailAddress(pEMailAddress);
+    Check.performCheck(() -> XFun.getVerifier().verifyEMailAddress(pEMailAddress));
+  }
+
+  /**
+   * Method performs the passed check and handles its result. Failed checks are counted no matter if the verifier
+   * reports them as failure message or throws an exception itself.
+   * 
+   * @param pCheck Check that should be performed. The check returns null if it was successful. The parameter must not
+   * be null.
+   * @throws InvalidParameterException if the check fails.
+   */
+  private static void performCheck( Supplier<FailureMessage> pCheck ) {
+    FailureMessage lFailureMessage;
+    try {
+      lFailureMessage = pCheck.get();
+    }
+    catch (IllegalArgumentException e) {
+      Check.countFailure();
+      throw e;
+    }
     Check.handleCheckResult(lFailureMessage);
   }
 
@@ -250,8 +260,19 @@ public final class Check {
    */
   private static void handleCheckResult( FailureMessage pVerificationFailure ) {
     if (pVerificationFailure != null) {
+      // Count failed checks.
+      Check.countFailure();
+
       // Throw exception.
       throw new InvalidParameterException(pVerificationFailure.getMessage());
     }
   }
+
+  /**
+   * Method counts a failed check. Besides returning a failure message verifiers may also report a failed check directly
+   * by throwing an IllegalArgumentException. Such failures have to be counted as well.
+   */
+  private static void countFailure( ) {
+    XFun.getMetricsProvider().getCounter(MetricsProvider.CHECK_FAILURES).increment();
+  }
 }
@@ -8,6 +8,7 @@ package com.anaptecs.jeaf.xfun.api.config;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -16,6 +17,7 @@ import java.util.List;
 
 import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.XFunRuntimeException;
+import com.anaptecs.jeaf.xfun.api.trace.StartupTimeline;
 import com.anaptecs.jeaf.xfun.api.trace.Trace;
 import com.anaptecs.jeaf.xfun.bootstrap.Assert;
 import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
@@ -100,12 +102,26 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
       exceptionOnError = pExceptionOnError;
 
       // Load default configuration
-      defaultConfig = this.loadDefaultConfiguration();
+      String lAnnotationName = lAnnotationClass.getSimpleName();
+      StartupTimeline.Phase lLoadingPhase = StartupTimeline.startPhase("Annotation loading " + lAnnotationName);
+      try {
+        defaultConfig = this.loadDefaultConfiguration();
+      }
+      finally {
+        lLoadingPhase.close();
+      }
       isDefaultConfigAvailable = this.isDefaultConfigurationAvailable();
 
       // Load custom configuration
-      customConfig =
-          this.loadCustomConfiguration(pCustomConfigurationResourceName, pCustomConfigurationBasePackagePath);
+      StartupTimeline.Phase lResolutionPhase =
+          StartupTimeline.startPhase("Configuration resource resolution " + lAnnotationName);
+      try {
+        customConfig =
+            this.loadCustomConfiguration(pCustomConfigurationResourceName, pCustomConfigurationBasePackagePath);
+      }
+      finally {
+        lResolutionPhase.close();
+      }
       isCustomConfigAvailable = this.isCustomConfigurationAvailable();
 
       // Try to detect configuration errors
@@ -130,6 +146,31 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
     }
   }
 
+  /**
+   * Initialize object with a configuration that is provided programmatically. Neither annotations nor configuration
+   * files are read and no reflection is used. The passed configuration is used as default configuration. As it is
+   * expected to be correct it is not checked.
+   * 
+   * @param pConfiguration Configuration that should be used. The parameter must not be null.
+   * @param pExceptionOnError If parameter is set to true then an exception will be thrown in case of configuration
+   * errors.
+   * @param pConfigurationClass Class that provides the configuration. The parameter must not be null.
+   */
+  protected AnnotationBasedConfiguration( T pConfiguration, boolean pExceptionOnError, Class<?> pConfigurationClass ) {
+    // Check parameters.
+    Assert.assertNotNull(pConfiguration, "pConfiguration");
+    Assert.assertNotNull(pConfigurationClass, "pConfigurationClass");
+
+    exceptionOnError = pExceptionOnError;
+    defaultConfig = pConfiguration;
+    isDefaultConfigAvailable = true;
+    customConfig = pConfiguration;
+    isCustomConfigAvailable = false;
+    theConfig = pConfiguration;
+    configurationClass = pConfigurationClass;
+    configErrors = Collections.emptyList();
+  }
+
   /**
    * Method tries to detect configuration errors.
    * 
@@ -324,7 +365,7 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
       // Try to load default configuration class.
       String lClassName = this.getDefaultConfigurationClass();
       if (lClassName != null) {
-        lDefaultConfigurationClass = Class.forName(lClassName);
+        lDefaultConfigurationClass = Class.forName(lClassName, true, ConfigurationReader.getClassLoader());
       }
       // There may be case when there is no meaningful default.
       else {
@@ -437,7 +478,7 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
     // is implemented is already ensured by the compiler.
     if (pImplClass != null && pImplClass.isInterface() == false) {
       try {
-        pImplClass.newInstance();
+        AnnotationBasedConfiguration.createInstance(pImplClass);
       }
       // We have a configuration issue. We can not create a new instance of the passed class.
       catch (ReflectiveOperationException e) {
@@ -532,7 +573,7 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
     // Create instance of class.
     X lNewInstance;
     try {
-      lNewInstance = pClass.newInstance();
+      lNewInstance = AnnotationBasedConfiguration.createInstance(pClass);
     }
     catch (ReflectiveOperationException e) {
       String lMessage = "Unable to create new instance of class " + pClass.getName() + ".";
@@ -557,6 +598,34 @@ public abstract class AnnotationBasedConfiguration<T extends Annotation> {
     return lNewInstance;
   }
 
+  /**
+   * Method creates a new instance of the passed class using its default constructor. Unchecked exceptions that are
+   * thrown by the constructor are not wrapped.
+   * 
+   * @param pClass Class from which a new instance should be created. The parameter must not be null.
+   * @return X Created instance. The method never returns null.
+   * @throws ReflectiveOperationException if the instance could not be created.
+   */
+  private static <X> X createInstance( Class<? extends X> pClass ) throws ReflectiveOperationException {
+    try {
+      return pClass.getDeclaredConstructor().newInstance();
+    }
+    catch (InvocationTargetException e) {
+      Throwable lCause = e.getCause();
+      if (lCause instanceof RuntimeException) {
+        throw (RuntimeException) lCause;
+      }
+      // Errors are also passed on directly.
+      else if (lCause instanceof Error) {
+        throw (Error) lCause;
+      }
+      // Checked exceptions can only be reported wrapped.
+      else {
+        throw e;
+      }
+    }
+  }
+
   /**
    * 
    * @param <X>
@@ -0,0 +1,337 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class implements a decorator for {@link Configuration} that caches all configuration values after they were read and
+ * converted by the decorated configuration. Values are cached per configuration key and type. This also includes
+ * configuration entries that are not defined or not set. Thus reading the same configuration value again and again
+ * e.g. during request processing only causes a lookup in a map.
+ *
+ * If the configuration values are read from a {@link VersionedConfigurationResource} then cached values are only used
+ * as long as the version of the resource did not change. Cached values are also revalidated lazily after the JEAF X-Fun
+ * context in which the object was created was reloaded (see {@link XFun#getGeneration(ClassLoader)}). Thus the cache
+ * behaves the same way no matter which thread uses it. Besides that the cache can be invalidated explicitly using
+ * {@link #invalidate()}.
+ *
+ * Problems during the conversion of configuration values are not cached. All lists that are returned by this class are
+ * immutable.
+ *
+ * @author JEAF Development Team
+ */
+public class CachingConfiguration implements Configuration {
+  /**
+   * Configuration whose values are cached. The reference is never null.
+   */
+  private final Configuration configuration;
+
+  /**
+   * Resource from which the decorated configuration reads its values. The reference is null if the values of the
+   * resource can not change.
+   */
+  private final VersionedConfigurationResource versionedResource;
+
+  /**
+   * Class loader of the JEAF X-Fun context in which the object was created. The reference is null in case of the
+   * default context.
+   */
+  private final ClassLoader context;
+
+  /**
+   * Map contains all cached values.
+   */
+  private final Map<CacheKey, CachedValue> cache = new ConcurrentHashMap<>();
+
+  /**
+   * Generation of the cache. It is incremented every time the cache is invalidated explicitly.
+   */
+  private volatile int generation;
+
+  /**
+   * Initialize object. The values of the passed configuration are expected to not change at runtime.
+   *
+   * @param pConfiguration Configuration whose values should be cached. The parameter must not be null.
+   */
+  public CachingConfiguration( Configuration pConfiguration ) {
+    this(pConfiguration, null);
+  }
+
+  /**
+   * Initialize object.
+   *
+   * @param pConfiguration Configuration whose values should be cached. The parameter must not be null.
+   * @param pConfigurationResource Resource from which the passed configuration reads its values. If the resource
+   * implements {@link VersionedConfigurationResource} then cached values are invalidated whenever the version of the
+   * resource changes. The parameter may be null.
+   */
+  public CachingConfiguration( Configuration pConfiguration, ConfigurationResource pConfigurationResource ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pConfiguration, "pConfiguration");
+
+    configuration = pConfiguration;
+    context = XFun.getContext();
+    if (pConfigurationResource instanceof VersionedConfigurationResource) {
+      versionedResource = (VersionedConfigurationResource) pConfigurationResource;
+    }
+    else {
+      versionedResource = null;
+    }
+  }
+
+  /**
+   * Method removes all cached values. Afterwards all values will be read again from the decorated configuration.
+   */
+  public synchronized void invalidate( ) {
+    generation++;
+    cache.clear();
+  }
+
+  /**
+   * @see Configuration#getConfigurationValue(String, Class)
+   */
+  @Override
+  public <T> T getConfigurationValue( String pConfigurationKey, Class<T> pType ) {
+    return this.getConfigurationValue(pConfigurationKey, false, pType);
+  }
+
+  /**
+   * @see Configuration#getConfigurationValue(String, boolean, Class)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T getConfigurationValue( String pConfigurationKey, boolean pRequired, Class<T> pType )
+    throws MissingResourceException {
+
+    // Check parameters
+    Check.checkInvalidParameterNull(pConfigurationKey, "pConfigurationKey");
+    Check.checkInvalidParameterNull(pType, "pType");
+
+    T lConfigurationValue = (T) this.getValue(new CacheKey(pConfigurationKey, pType, false),
+        () -> configuration.getConfigurationValue(pConfigurationKey, false, pType));
+
+    // Decorated configuration creates the exception for missing required values.
+    if (lConfigurationValue == null && pRequired == true) {
+      lConfigurationValue = configuration.getConfigurationValue(pConfigurationKey, true, pType);
+    }
+    return lConfigurationValue;
+  }
+
+  /**
+   * @see Configuration#getConfigurationValue(String, Object, Class)
+   */
+  @Override
+  public <T> T getConfigurationValue( String pConfigurationKey, T pDefaultValue, Class<T> pType ) {
+    T lConfigurationValue;
+    try {
+      lConfigurationValue = this.getConfigurationValue(pConfigurationKey, false, pType);
+      if (lConfigurationValue == null) {
+        lConfigurationValue = pDefaultValue;
+      }
+    }
+    // Value could not be converted. Decorated configuration reports the problem and returns the default value.
+    catch (RuntimeException e) {
+      lConfigurationValue = configuration.getConfigurationValue(pConfigurationKey, pDefaultValue, pType);
+    }
+    return lConfigurationValue;
+  }
+
+  /**
+   * @see Configuration#getConfigurationValueList(String, Class)
+   */
+  @Override
+  public <T> List<T> getConfigurationValueList( String pConfigurationKey, Class<T> pType ) {
+    return this.getConfigurationValueList(pConfigurationKey, false, pType);
+  }
+
+  /**
+   * @see Configuration#getConfigurationValueList(String, boolean, Class)
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> List<T> getConfigurationValueList( String pConfigurationKey, boolean pRequired, Class<T> pType )
+    throws MissingResourceException {
+
+    // Check parameters
+    Check.checkInvalidParameterNull(pConfigurationKey, "pConfigurationKey");
+    Check.checkInvalidParameterNull(pType, "pType");
+
+    List<T> lConfigurationValues = (List<T>) this.getValue(new CacheKey(pConfigurationKey, pType, true), () -> {
+      List<T> lValues = configuration.getConfigurationValueList(pConfigurationKey, false, pType);
+      return Collections.unmodifiableList(new ArrayList<>(lValues));
+    });
+
+    // Decorated configuration creates the exception for missing required values.
+    if (lConfigurationValues.isEmpty() == true && pRequired == true) {
+      lConfigurationValues = configuration.getConfigurationValueList(pConfigurationKey, true, pType);
+    }
+    return lConfigurationValues;
+  }
+
+  /**
+   * @see Configuration#getConfigurationValueList(String, Object, Class)
+   */
+  @Override
+  public <T> List<T> getConfigurationValueList( String pConfigurationKey, T pDefaultValue, Class<T> pType ) {
+    List<T> lConfigurationValues = this.getConfigurationValueList(pConfigurationKey, false, pType);
+
+    // No values are configured but a "real" default value was defined.
+    if (lConfigurationValues.isEmpty() == true && pDefaultValue != null) {
+      lConfigurationValues = Collections.singletonList(pDefaultValue);
+    }
+    return lConfigurationValues;
+  }
+
+  /**
+   * @see Configuration#getConfigurationValueList(String, List, Class)
+   */
+  @Override
+  public <T> List<T> getConfigurationValueList( String pConfigurationKey, List<T> pDefaultValue, Class<T> pType ) {
+    List<T> lConfigurationValues = this.getConfigurationValueList(pConfigurationKey, false, pType);
+
+    // No values are configured but a "real" default value was defined.
+    if (lConfigurationValues.isEmpty() == true && pDefaultValue != null) {
+      lConfigurationValues = pDefaultValue;
+    }
+    return lConfigurationValues;
+  }
+
+  /**
+   * Method returns the cached value for the passed key. If the value is not cached yet or if it is outdated then it
+   * will be loaded.
+   *
+   * @param pKey Key of the cached value. The parameter must not be null.
+   * @param pLoader Loader that is used to read the value from the decorated configuration. The parameter must not be
+   * null.
+   * @return Object Cached value. The method returns null if the configuration entry is not defined or not set.
+   */
+  private Object getValue( CacheKey pKey, Supplier<Object> pLoader ) {
+    // Version has to be determined before the value is loaded. Otherwise we might miss changes that happen in between.
+    long lVersion;
+    if (versionedResource != null) {
+      lVersion = versionedResource.getVersion();
+    }
+    else {
+      lVersion = 0;
+    }
+    int lGeneration = generation;
+    long lXFunGeneration = XFun.getGeneration(context);
+
+    Object lValue;
+    CachedValue lCachedValue = cache.get(pKey);
+    if (lCachedValue != null && lCachedValue.version == lVersion && lCachedValue.generation == lGeneration
+        && lCachedValue.xfunGeneration == lXFunGeneration) {
+      lValue = lCachedValue.value;
+    }
+    // Value is not cached yet or outdated.
+    else {
+      lValue = pLoader.get();
+      cache.put(pKey, new CachedValue(lVersion, lGeneration, lXFunGeneration, lValue));
+    }
+    return lValue;
+  }
+
+  /**
+   * Class is used as key for cached values.
+   */
+  private static final class CacheKey {
+    /**
+     * Configuration key.
+     */
+    private final String configurationKey;
+
+    /**
+     * Type to which the configuration value was converted.
+     */
+    private final Class<?> type;
+
+    /**
+     * Attribute defines if the configuration value was requested as list.
+     */
+    private final boolean list;
+
+    /**
+     * Initialize object.
+     *
+     * @param pConfigurationKey Configuration key.
+     * @param pType Type to which the configuration value was converted.
+     * @param pList Attribute defines if the configuration value was requested as list.
+     */
+    CacheKey( String pConfigurationKey, Class<?> pType, boolean pList ) {
+      configurationKey = pConfigurationKey;
+      type = pType;
+      list = pList;
+    }
+
+    @Override
+    public int hashCode( ) {
+      return (configurationKey.hashCode() * 31 + type.hashCode()) * 31 + Boolean.hashCode(list);
+    }
+
+    @Override
+    public boolean equals( Object pObject ) {
+      boolean lEquals;
+      if (pObject instanceof CacheKey) {
+        CacheKey lOther = (CacheKey) pObject;
+        lEquals = list == lOther.list && type == lOther.type && configurationKey.equals(lOther.configurationKey);
+      }
+      else {
+        lEquals = false;
+      }
+      return lEquals;
+    }
+  }
+
+  /**
+   * Class represents a cached value together with the version of the resource from which it was read.
+   */
+  private static final class CachedValue {
+    /**
+     * Version of the resource from which the value was read.
+     */
+    private final long version;
+
+    /**
+     * Generation of the cache when the value was read.
+     */
+    private final int generation;
+
+    /**
+     * Generation of JEAF X-Fun when the value was read.
+     */
+    private final long xfunGeneration;
+
+    /**
+     * Cached value. The reference is null if the configuration entry is not defined or not set.
+     */
+    private final Object value;
+
+    /**
+     * Initialize object.
+     *
+     * @param pVersion Version of the resource from which the value was read.
+     * @param pGeneration Generation of the cache when the value was read.
+     * @param pXFunGeneration Generation of JEAF X-Fun when the value was read.
+     * @param pValue Cached value. The parameter may be null.
+     */
+    CachedValue( long pVersion, int pGeneration, long pXFunGeneration, Object pValue ) {
+      version = pVersion;
+      generation = pGeneration;
+      xfunGeneration = pXFunGeneration;
+      value = pValue;
+    }
+  }
+}
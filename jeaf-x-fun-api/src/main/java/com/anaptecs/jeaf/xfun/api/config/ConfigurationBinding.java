@@ -0,0 +1,386 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.anaptecs.jeaf.xfun.annotations.ConfigurationKey;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunRuntimeException;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+
+/**
+ * Class binds configuration interfaces to the configuration of a component (see
+ * {@link ConfigurationProvider#bind(Class, ComponentID)}). All abstract methods of a configuration interface have to be
+ * getters without parameters. Each of them is bound to one configuration key (see {@link ConfigurationKey}). Return
+ * types may be all types that are supported by {@link Configuration} as well as lists of them. Default methods are not
+ * bound. They are executed as they are implemented and may use the bound getters.
+ *
+ * All configuration values are read and converted once when the interface is bound. All problems are collected and
+ * reported together. Afterwards calling a getter only returns the value from an immutable snapshot. When JEAF X-Fun is
+ * reloaded all bound interfaces are bound again. The new snapshot is only published if all values could be resolved.
+ *
+ * @author JEAF Development Team
+ */
+public final class ConfigurationBinding {
+  /**
+   * All handlers of bound interfaces. Handlers are only weakly referenced so that bound interfaces that are no longer
+   * used can be garbage collected. All accesses have to be synchronized on the set.
+   */
+  private static final Set<BindingHandler> HANDLERS = Collections.newSetFromMap(new WeakHashMap<>());
+
+  /**
+   * Mapping from primitive types to their wrapper types.
+   */
+  private static final Map<Class<?>, Class<?>> WRAPPER_TYPES = new HashMap<>();
+
+  static {
+    WRAPPER_TYPES.put(boolean.class, Boolean.class);
+    WRAPPER_TYPES.put(byte.class, Byte.class);
+    WRAPPER_TYPES.put(short.class, Short.class);
+    WRAPPER_TYPES.put(int.class, Integer.class);
+    WRAPPER_TYPES.put(long.class, Long.class);
+    WRAPPER_TYPES.put(float.class, Float.class);
+    WRAPPER_TYPES.put(double.class, Double.class);
+    WRAPPER_TYPES.put(char.class, Character.class);
+  }
+
+  /**
+   * Constructor is private as only static methods are provided.
+   */
+  private ConfigurationBinding( ) {
+  }
+
+  /**
+   * Method binds the passed configuration interface to the configuration of the component with the passed ID.
+   *
+   * @param pConfigInterface Configuration interface that should be bound. The parameter must not be null.
+   * @param pComponentID ID of the component whose configuration should be used. The parameter must not be null.
+   * @return T Implementation of the configuration interface. The method never returns null.
+   * @throws XFunRuntimeException if the interface is invalid or if configuration values could not be resolved.
+   */
+  public static <T> T bind( Class<T> pConfigInterface, ComponentID pComponentID ) throws XFunRuntimeException {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pConfigInterface, "pConfigInterface");
+    Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+
+    BindingHandler lHandler = new BindingHandler(pConfigInterface, pComponentID, null);
+    return ConfigurationBinding.createProxy(pConfigInterface, lHandler);
+  }
+
+  /**
+   * Method binds the passed configuration interface to the passed configuration. Interfaces that are bound this way are
+   * not bound again when JEAF X-Fun is reloaded.
+   *
+   * @param pConfigInterface Configuration interface that should be bound. The parameter must not be null.
+   * @param pConfiguration Configuration that should be used. The parameter must not be null.
+   * @return T Implementation of the configuration interface. The method never returns null.
+   * @throws XFunRuntimeException if the interface is invalid or if configuration values could not be resolved.
+   */
+  public static <T> T bind( Class<T> pConfigInterface, Configuration pConfiguration ) throws XFunRuntimeException {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pConfigInterface, "pConfigInterface");
+    Check.checkInvalidParameterNull(pConfiguration, "pConfiguration");
+
+    BindingHandler lHandler = new BindingHandler(pConfigInterface, null, pConfiguration);
+    return ConfigurationBinding.createProxy(pConfigInterface, lHandler);
+  }
+
+  /**
+   * Method binds the passed configuration object again. The new values are only published if all of them could be
+   * resolved.
+   *
+   * @param pBoundConfiguration Object that was returned by one of the bind methods. The parameter must not be null.
+   * @throws XFunRuntimeException if configuration values could not be resolved. In this case the current values are
+   * kept.
+   */
+  public static void rebind( Object pBoundConfiguration ) throws XFunRuntimeException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pBoundConfiguration, "pBoundConfiguration");
+
+    InvocationHandler lHandler = null;
+    if (Proxy.isProxyClass(pBoundConfiguration.getClass()) == true) {
+      lHandler = Proxy.getInvocationHandler(pBoundConfiguration);
+    }
+    if (lHandler instanceof BindingHandler) {
+      ((BindingHandler) lHandler).rebind();
+    }
+    else {
+      throw new XFunRuntimeException(pBoundConfiguration.getClass().getName() + " is not a bound configuration.");
+    }
+  }
+
+  /**
+   * Method binds all configuration interfaces again that were bound to a component. The method is called by JEAF X-Fun
+   * after it was reloaded. Problems are traced and the current values of the affected interfaces are kept.
+   */
+  public static void rebindAll( ) {
+    List<BindingHandler> lHandlers;
+    synchronized (HANDLERS) {
+      lHandlers = new ArrayList<>(HANDLERS);
+    }
+    for (BindingHandler lNextHandler : lHandlers) {
+      try {
+        lNextHandler.rebind();
+      }
+      catch (XFunRuntimeException e) {
+        XFun.getTrace().error(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Method creates the proxy for the passed handler.
+   *
+   * @param pConfigInterface Configuration interface that is bound.
+   * @param pHandler Handler of the bound interface.
+   * @return T Implementation of the configuration interface.
+   */
+  private static <T> T createProxy( Class<T> pConfigInterface, BindingHandler pHandler ) {
+    Object lProxy = Proxy.newProxyInstance(pConfigInterface.getClassLoader(), new Class<?>[] { pConfigInterface },
+        pHandler);
+    if (pHandler.componentID != null) {
+      synchronized (HANDLERS) {
+        HANDLERS.add(pHandler);
+      }
+    }
+    return pConfigInterface.cast(lProxy);
+  }
+
+  /**
+   * Method derives the configuration key from the name of the passed getter.
+   *
+   * @param pMethod Method whose configuration key should be determined.
+   * @return String Configuration key. The method never returns null.
+   */
+  private static String getConfigurationKey( Method pMethod ) {
+    ConfigurationKey lAnnotation = pMethod.getAnnotation(ConfigurationKey.class);
+    String lKey;
+    if (lAnnotation != null && lAnnotation.value().isEmpty() == false) {
+      lKey = lAnnotation.value();
+    }
+    else {
+      String lName = pMethod.getName();
+      int lPrefix;
+      if (lName.startsWith("get") == true && lName.length() > 3) {
+        lPrefix = 3;
+      }
+      else if (lName.startsWith("is") == true && lName.length() > 2) {
+        lPrefix = 2;
+      }
+      else {
+        lPrefix = 0;
+      }
+      lKey = Character.toLowerCase(lName.charAt(lPrefix)) + lName.substring(lPrefix + 1);
+    }
+    return lKey;
+  }
+
+  /**
+   * Class implements the bound configuration interface.
+   */
+  private static final class BindingHandler implements InvocationHandler {
+    /**
+     * Configuration interface that is bound.
+     */
+    private final Class<?> configInterface;
+
+    /**
+     * ID of the component whose configuration is used. The reference is null if the interface was bound to a fixed
+     * configuration.
+     */
+    private final ComponentID componentID;
+
+    /**
+     * Fixed configuration that is used if the interface is not bound to a component.
+     */
+    private final Configuration configuration;
+
+    /**
+     * Immutable snapshot of all configuration values.
+     */
+    private volatile Map<Method, Object> values;
+
+    /**
+     * Method handles that are used to call the default methods of the bound interface.
+     */
+    private final Map<Method, MethodHandle> defaultMethods;
+
+    /**
+     * Initialize object and resolve all configuration values.
+     *
+     * @param pConfigInterface Configuration interface that is bound.
+     * @param pComponentID ID of the component or null.
+     * @param pConfiguration Fixed configuration or null.
+     */
+    BindingHandler( Class<?> pConfigInterface, ComponentID pComponentID, Configuration pConfiguration ) {
+      if (pConfigInterface.isInterface() == false) {
+        throw new XFunRuntimeException(pConfigInterface.getName() + " is not an interface.");
+      }
+      configInterface = pConfigInterface;
+      componentID = pComponentID;
+      configuration = pConfiguration;
+      defaultMethods = this.resolveDefaultMethods();
+      values = this.resolveValues();
+    }
+
+    /**
+     * Method resolves all configuration values again and publishes them.
+     */
+    void rebind( ) {
+      values = this.resolveValues();
+    }
+
+    /**
+     * Method resolves all configuration values of the bound interface.
+     *
+     * @return {@link Map} Immutable map with the configuration values of all methods. The method never returns null.
+     * @throws XFunRuntimeException if at least one configuration value could not be resolved.
+     */
+    private Map<Method, Object> resolveValues( ) {
+      Configuration lConfiguration;
+      if (configuration != null) {
+        lConfiguration = configuration;
+      }
+      else {
+        lConfiguration = XFun.getConfigurationProvider().getComponentConfiguration(componentID);
+      }
+
+      Map<Method, Object> lValues = new HashMap<>();
+      List<String> lProblems = new ArrayList<>();
+      for (Method lNextMethod : configInterface.getMethods()) {
+        if (Modifier.isStatic(lNextMethod.getModifiers()) == false && lNextMethod.isDefault() == false) {
+          try {
+            lValues.put(lNextMethod, this.resolveValue(lNextMethod, lConfiguration));
+          }
+          catch (RuntimeException e) {
+            lProblems.add(lNextMethod.getName() + "(): " + e.getMessage());
+          }
+        }
+      }
+
+      // All problems are reported together.
+      if (lProblems.isEmpty() == false) {
+        Collections.sort(lProblems);
+        throw new XFunRuntimeException("Unable to bind configuration interface " + configInterface.getName() + ". "
+            + String.join(" ", lProblems));
+      }
+      return Collections.unmodifiableMap(lValues);
+    }
+
+    /**
+     * Method resolves the method handles of all default methods of the bound interface. As
+     * <code>InvocationHandler.invokeDefault(...)</code> is only available since Java 16 the method handles are looked
+     * up through the declaring interface.
+     *
+     * @return {@link Map} Immutable map with the method handles of all default methods. The method never returns null.
+     * @throws XFunRuntimeException if a default method is not accessible.
+     */
+    private Map<Method, MethodHandle> resolveDefaultMethods( ) {
+      Map<Method, MethodHandle> lDefaultMethods = new HashMap<>();
+      for (Method lNextMethod : configInterface.getMethods()) {
+        if (lNextMethod.isDefault() == true) {
+          Class<?> lDeclaringClass = lNextMethod.getDeclaringClass();
+          try {
+            MethodHandles.Lookup lLookup = MethodHandles.privateLookupIn(lDeclaringClass, MethodHandles.lookup());
+            lDefaultMethods.put(lNextMethod, lLookup.unreflectSpecial(lNextMethod, lDeclaringClass));
+          }
+          catch (IllegalAccessException | RuntimeException e) {
+            throw new XFunRuntimeException("Unable to bind configuration interface " + configInterface.getName()
+                + ". Default method " + lNextMethod.getName() + "() is not accessible. " + e.getMessage(), e);
+          }
+        }
+      }
+      return Collections.unmodifiableMap(lDefaultMethods);
+    }
+
+    /**
+     * Method resolves the configuration value of the passed method.
+     *
+     * @param pMethod Method whose value should be resolved.
+     * @param pConfiguration Configuration from which the value is read.
+     * @return Object Configuration value. The method may return null if the value is not required.
+     */
+    private Object resolveValue( Method pMethod, Configuration pConfiguration ) {
+      if (pMethod.getParameterCount() > 0 || pMethod.getReturnType() == void.class) {
+        throw new XFunRuntimeException("Only getters without parameters can be bound.");
+      }
+      String lKey = ConfigurationBinding.getConfigurationKey(pMethod);
+      ConfigurationKey lAnnotation = pMethod.getAnnotation(ConfigurationKey.class);
+      boolean lRequired = lAnnotation == null || lAnnotation.required() == true;
+      Class<?> lReturnType = pMethod.getReturnType();
+
+      Object lValue;
+      if (lReturnType == List.class) {
+        Type lGenericType = pMethod.getGenericReturnType();
+        Type lElementType = null;
+        if (lGenericType instanceof ParameterizedType) {
+          lElementType = ((ParameterizedType) lGenericType).getActualTypeArguments()[0];
+        }
+        if (lElementType instanceof Class == false) {
+          throw new XFunRuntimeException("Element type of list has to be a class.");
+        }
+        lValue = pConfiguration.getConfigurationValueList(lKey, lRequired, (Class<?>) lElementType);
+        lValue = Collections.unmodifiableList(new ArrayList<>((List<?>) lValue));
+      }
+      else if (lReturnType.isPrimitive() == true) {
+        // Primitive types can not represent missing values.
+        lValue = pConfiguration.getConfigurationValue(lKey, true, WRAPPER_TYPES.get(lReturnType));
+      }
+      else {
+        lValue = pConfiguration.getConfigurationValue(lKey, lRequired, lReturnType);
+      }
+      return lValue;
+    }
+
+    @Override
+    public Object invoke( Object pProxy, Method pMethod, Object[] pArguments ) throws Throwable {
+      Object lResult;
+      if (pMethod.getDeclaringClass() == Object.class) {
+        switch (pMethod.getName()) {
+          case "equals":
+            lResult = pProxy == pArguments[0];
+            break;
+          case "hashCode":
+            lResult = System.identityHashCode(pProxy);
+            break;
+          default:
+            lResult = configInterface.getSimpleName() + values.values();
+        }
+      }
+      else if (pMethod.isDefault() == true) {
+        Object[] lArguments;
+        if (pArguments != null) {
+          lArguments = pArguments;
+        }
+        else {
+          lArguments = new Object[0];
+        }
+        lResult = defaultMethods.get(pMethod).bindTo(pProxy).invokeWithArguments(lArguments);
+      }
+      // Getter of a configuration value.
+      else {
+        lResult = values.get(pMethod);
+      }
+      return lResult;
+    }
+  }
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunReloadListener;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+
+/**
+ * Class notifies {@link ConfigurationChangeListener}s about changed configuration values. Listeners are registered per
+ * component and per key prefix. Thus listeners are only called if keys they are interested in changed and nobody has
+ * to poll the configuration for changes.
+ *
+ * All changes that are detected within one reload cycle (see {@link ChangeCycle}) are coalesced into one
+ * {@link ConfigurationChangeSet} per component. Change sets are delivered by one dedicated daemon thread in the same
+ * order in which the reload cycles were published.
+ *
+ * Besides the changes that are published explicitly e.g. by {@link ReloadableFileConfigurationResource} or
+ * {@link LayeredConfiguration} the bus also publishes the changes of a reload of JEAF X-Fun. Therefore the values of
+ * every observed component are read when its first listener is registered (see
+ * {@link ConfigurationProvider#getComponentConfigurationResource(ComponentID)}). After a reload they are read again
+ * and all changed keys of all components are published as one reload cycle.
+ *
+ * @author JEAF Development Team
+ */
+public final class ConfigurationChangeBus implements XFunReloadListener {
+  /**
+   * Only instance of this class.
+   */
+  private static final ConfigurationChangeBus INSTANCE = new ConfigurationChangeBus();
+
+  /**
+   * Registered listeners per component.
+   */
+  private final Map<ComponentID, List<Registration>> registrations = new ConcurrentHashMap<>();
+
+  /**
+   * Configuration values of all observed components as they were read last time. They are used to detect changes when
+   * JEAF X-Fun is reloaded.
+   */
+  private final Map<ComponentID, Map<String, String>> componentValues = new ConcurrentHashMap<>();
+
+  /**
+   * Executor that delivers all change sets. The executor is only created when the first reload cycle is published. All
+   * accesses have to be synchronized on this object.
+   */
+  private ExecutorService executor;
+
+  /**
+   * Constructor is private to ensure that only one instance exists.
+   */
+  private ConfigurationChangeBus( ) {
+  }
+
+  /**
+   * Method returns the only instance of this class.
+   *
+   * @return {@link ConfigurationChangeBus} Only instance of this class. The method never returns null.
+   */
+  public static ConfigurationChangeBus getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Method registers the passed listener for all keys of the passed component that start with the passed prefix.
+   *
+   * @param pComponentID ID of the component whose configuration should be observed. The parameter must not be null.
+   * @param pKeyPrefix Prefix of all keys that should be observed. An empty string means that all keys of the component
+   * are observed. The parameter must not be null.
+   * @param pListener Listener that should be notified. The parameter must not be null.
+   */
+  public void addListener( ComponentID pComponentID, String pKeyPrefix, ConfigurationChangeListener pListener ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+    Check.checkInvalidParameterNull(pKeyPrefix, "pKeyPrefix");
+    Check.checkInvalidParameterNull(pListener, "pListener");
+
+    componentValues.computeIfAbsent(pComponentID, this::readComponentValues);
+    registrations.computeIfAbsent(pComponentID, p -> new CopyOnWriteArrayList<>())
+        .add(new Registration(pKeyPrefix, pListener));
+  }
+
+  /**
+   * Method removes all registrations of the passed listener.
+   *
+   * @param pListener Listener that should not be notified any longer. The parameter must not be null.
+   */
+  public void removeListener( ConfigurationChangeListener pListener ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pListener, "pListener");
+
+    for (List<Registration> lNext : registrations.values()) {
+      lNext.removeIf(pRegistration -> pRegistration.listener == pListener);
+    }
+  }
+
+  /**
+   * Method creates a new reload cycle. All changes of the cycle are delivered together when the cycle is published.
+   *
+   * @return {@link ChangeCycle} New reload cycle. The method never returns null.
+   */
+  public ChangeCycle newCycle( ) {
+    return new ChangeCycle();
+  }
+
+  /**
+   * Method publishes the passed changes as reload cycle of its own.
+   *
+   * @param pComponentID ID of the component whose configuration changed. The parameter must not be null.
+   * @param pChangedKeys All changed keys. The parameter must not be null.
+   */
+  public void publish( ComponentID pComponentID, Collection<String> pChangedKeys ) {
+    ChangeCycle lCycle = this.newCycle();
+    lCycle.addChanges(pComponentID, pChangedKeys);
+    lCycle.publish();
+  }
+
+  /**
+   * Method publishes all configuration values of observed components that changed through the reload of JEAF X-Fun.
+   * The method is called by JEAF X-Fun after it was reloaded.
+   *
+   * @param pGeneration Generation of the new JEAF X-Fun instance.
+   */
+  @Override
+  public void xfunReloaded( long pGeneration ) {
+    ChangeCycle lCycle = this.newCycle();
+    for (Map.Entry<ComponentID, Map<String, String>> lNext : componentValues.entrySet()) {
+      Map<String, String> lOldValues = lNext.getValue();
+      Map<String, String> lNewValues = this.readComponentValues(lNext.getKey());
+      Set<String> lChangedKeys = new HashSet<>(lOldValues.keySet());
+      lChangedKeys.addAll(lNewValues.keySet());
+      lChangedKeys.removeIf(pKey -> Objects.equals(lOldValues.get(pKey), lNewValues.get(pKey)) == true);
+      lCycle.addChanges(lNext.getKey(), lChangedKeys);
+      lNext.setValue(lNewValues);
+    }
+    lCycle.publish();
+  }
+
+  /**
+   * Method reads all configuration values of the passed component. Problems are traced.
+   *
+   * @param pComponentID ID of the component whose values should be read.
+   * @return {@link Map} All configuration values of the component. If the configuration provider does not offer the
+   * configuration resource of the component then an empty map is returned. The method never returns null.
+   */
+  private Map<String, String> readComponentValues( ComponentID pComponentID ) {
+    Map<String, String> lValues = new HashMap<>();
+    try {
+      ConfigurationResource lResource = XFun.getConfigurationProvider().getComponentConfigurationResource(pComponentID);
+      if (lResource != null) {
+        for (String lNextKey : lResource.getAllConfigurationKeys()) {
+          try {
+            lValues.put(lNextKey, lResource.getConfigurationValue(lNextKey));
+          }
+          // Key was removed in the meantime.
+          catch (MissingResourceException e) {
+            // Nothing to do.
+          }
+        }
+      }
+    }
+    catch (RuntimeException e) {
+      XFun.getTrace().warn("Unable to read configuration of component " + pComponentID + ". " + e.getMessage());
+    }
+    return lValues;
+  }
+
+  /**
+   * Method hands the changes of a reload cycle over to the delivery thread.
+   *
+   * @param pChanges Changed keys per component.
+   */
+  private synchronized void enqueue( Map<ComponentID, Set<String>> pChanges ) {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(pRunnable -> {
+        Thread lThread = new Thread(pRunnable, "XFun-ConfigurationChangeBus");
+        lThread.setDaemon(true);
+        return lThread;
+      });
+    }
+    executor.execute(() -> this.deliver(pChanges));
+  }
+
+  /**
+   * Method delivers the changes of a reload cycle to all interested listeners. It is executed by the delivery thread.
+   *
+   * @param pChanges Changed keys per component.
+   */
+  private void deliver( Map<ComponentID, Set<String>> pChanges ) {
+    for (Map.Entry<ComponentID, Set<String>> lNextComponent : pChanges.entrySet()) {
+      List<Registration> lRegistrations = registrations.get(lNextComponent.getKey());
+      if (lRegistrations != null) {
+        for (Registration lNextRegistration : lRegistrations) {
+          // Listeners are only called if at least one key matches their prefix.
+          Set<String> lMatchingKeys = new HashSet<>();
+          for (String lNextKey : lNextComponent.getValue()) {
+            if (lNextKey.startsWith(lNextRegistration.keyPrefix) == true) {
+              lMatchingKeys.add(lNextKey);
+            }
+          }
+          if (lMatchingKeys.isEmpty() == false) {
+            try {
+              lNextRegistration.listener
+                  .configurationChanged(new ConfigurationChangeSet(lNextComponent.getKey(), lMatchingKeys));
+            }
+            catch (RuntimeException e) {
+              XFun.getTrace().error("Configuration change listener " + lNextRegistration.listener.getClass().getName()
+                  + " failed. " + e.getMessage(), e);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Class collects all changes that are detected within one reload cycle e.g. all configuration files that were
+   * reloaded together. Objects of this class are not thread safe.
+   */
+  public final class ChangeCycle {
+    /**
+     * Changed keys per component.
+     */
+    private Map<ComponentID, Set<String>> changes = new LinkedHashMap<>();
+
+    /**
+     * Constructor is private as cycles have to be created by {@link ConfigurationChangeBus#newCycle()}.
+     */
+    private ChangeCycle( ) {
+    }
+
+    /**
+     * Method adds the passed changes to this cycle.
+     *
+     * @param pComponentID ID of the component whose configuration changed. The parameter must not be null.
+     * @param pChangedKeys All changed keys. The parameter must not be null.
+     */
+    public void addChanges( ComponentID pComponentID, Collection<String> pChangedKeys ) {
+      // Check parameters.
+      Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+      Check.checkInvalidParameterNull(pChangedKeys, "pChangedKeys");
+
+      if (pChangedKeys.isEmpty() == false) {
+        changes.computeIfAbsent(pComponentID, p -> new HashSet<>()).addAll(pChangedKeys);
+      }
+    }
+
+    /**
+     * Method publishes all changes of this cycle. Afterwards the cycle is empty again and may be reused. If no changes
+     * were added then nothing will be delivered.
+     */
+    public void publish( ) {
+      if (changes.isEmpty() == false) {
+        ConfigurationChangeBus.this.enqueue(changes);
+        changes = new LinkedHashMap<>();
+      }
+    }
+  }
+
+  /**
+   * Class represents the registration of a listener.
+   */
+  private static final class Registration {
+    /**
+     * Prefix of all keys the listener is interested in.
+     */
+    private final String keyPrefix;
+
+    /**
+     * Registered listener.
+     */
+    private final ConfigurationChangeListener listener;
+
+    /**
+     * Initialize object.
+     *
+     * @param pKeyPrefix Prefix of all keys the listener is interested in.
+     * @param pListener Registered listener.
+     */
+    Registration( String pKeyPrefix, ConfigurationChangeListener pListener ) {
+      keyPrefix = pKeyPrefix;
+      listener = pListener;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+/**
+ * Interface has to be implemented by all classes that want to be notified about changes of configuration values.
+ * Listeners are registered for a component and a key prefix (see {@link ConfigurationChangeBus}).
+ *
+ * @author JEAF Development Team
+ */
+@FunctionalInterface
+public interface ConfigurationChangeListener {
+  /**
+   * Method is called whenever configuration values of the component for which the listener is registered changed. The
+   * method is called by the delivery thread of {@link ConfigurationChangeBus}. Implementations should therefore return
+   * quickly.
+   *
+   * @param pChanges All changes of one reload cycle whose keys start with the prefix for which the listener is
+   * registered. The parameter is never null and always contains at least one key.
+   */
+  void configurationChanged( ConfigurationChangeSet pChanges );
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+
+/**
+ * Class represents all changed configuration keys of a component within one reload cycle. Keys that were added,
+ * modified or removed are all treated as changed. Objects of this class are immutable.
+ *
+ * @author JEAF Development Team
+ */
+public final class ConfigurationChangeSet {
+  /**
+   * ID of the component whose configuration changed.
+   */
+  private final ComponentID componentID;
+
+  /**
+   * Sorted and immutable set with all changed keys.
+   */
+  private final Set<String> changedKeys;
+
+  /**
+   * Initialize object.
+   *
+   * @param pComponentID ID of the component whose configuration changed. The parameter must not be null.
+   * @param pChangedKeys All changed keys. The parameter must not be null.
+   */
+  public ConfigurationChangeSet( ComponentID pComponentID, Set<String> pChangedKeys ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+    Check.checkInvalidParameterNull(pChangedKeys, "pChangedKeys");
+
+    componentID = pComponentID;
+    changedKeys = Collections.unmodifiableSet(new TreeSet<>(pChangedKeys));
+  }
+
+  /**
+   * Method returns the ID of the component whose configuration changed.
+   *
+   * @return {@link ComponentID} ID of the component. The method never returns null.
+   */
+  public ComponentID getComponentID( ) {
+    return componentID;
+  }
+
+  /**
+   * Method returns all changed keys.
+   *
+   * @return {@link Set} Sorted and immutable set with all changed keys. The method never returns null.
+   */
+  public Set<String> getChangedKeys( ) {
+    return changedKeys;
+  }
+
+  /**
+   * Method checks if the passed key is part of this change set.
+   *
+   * @param pConfigurationKey Key that should be checked. The parameter may be null.
+   * @return boolean Method returns true if the passed key changed and false otherwise.
+   */
+  public boolean isChanged( String pConfigurationKey ) {
+    return changedKeys.contains(pConfigurationKey);
+  }
+
+  @Override
+  public String toString( ) {
+    return componentID + " " + changedKeys;
+  }
+}
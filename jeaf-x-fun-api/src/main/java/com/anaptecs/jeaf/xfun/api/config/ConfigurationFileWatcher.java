@@ -0,0 +1,269 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class watches the files of all {@link ReloadableFileConfigurationResource}s. All files are watched by one daemon
+ * thread that is only started when the first resource is registered. Directories are only registered once at the
+ * {@link WatchService} no matter how many files of it are watched.
+ *
+ * @author JEAF Development Team
+ */
+final class ConfigurationFileWatcher implements Runnable {
+  /**
+   * Only instance of this class.
+   */
+  private static final ConfigurationFileWatcher INSTANCE = new ConfigurationFileWatcher();
+
+  /**
+   * Watched directories with their watched resources. All accesses have to be synchronized on this object.
+   */
+  private final Map<WatchKey, WatchedDirectory> directories = new HashMap<>();
+
+  /**
+   * Watch service that is used to detect changes. The reference is null until the first resource is registered.
+   */
+  private WatchService watchService;
+
+  /**
+   * Constructor is private to ensure that only one instance exists.
+   */
+  private ConfigurationFileWatcher( ) {
+  }
+
+  /**
+   * Method returns the only instance of this class.
+   *
+   * @return {@link ConfigurationFileWatcher} Only instance of this class. The method never returns null.
+   */
+  static ConfigurationFileWatcher getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Method starts watching the file of the passed resource. If the file can not be watched then only a warning is
+   * traced. The resource can still be used but will not be reloaded automatically.
+   *
+   * @param pResource Resource whose file should be watched. The parameter must not be null.
+   */
+  synchronized void register( ReloadableFileConfigurationResource pResource ) {
+    Assert.assertNotNull(pResource, "pResource");
+
+    Path lDirectory = pResource.getPath().getParent();
+    try {
+      if (watchService == null) {
+        watchService = FileSystems.getDefault().newWatchService();
+        Thread lThread = new Thread(this, "XFun-ConfigurationFileWatcher");
+        lThread.setDaemon(true);
+        lThread.start();
+      }
+      WatchKey lKey = lDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+      WatchedDirectory lWatchedDirectory = directories.computeIfAbsent(lKey, p -> new WatchedDirectory(lDirectory));
+      lWatchedDirectory.add(pResource);
+    }
+    catch (IOException | RuntimeException e) {
+      XFun.getTrace().warn("Unable to watch configuration file " + pResource.getPath()
+          + ". Changes of the file will not be detected. " + e.getMessage());
+    }
+  }
+
+  /**
+   * Method stops watching the file of the passed resource.
+   *
+   * @param pResource Resource whose file should not be watched any longer. The parameter must not be null.
+   */
+  synchronized void unregister( ReloadableFileConfigurationResource pResource ) {
+    Assert.assertNotNull(pResource, "pResource");
+
+    for (Map.Entry<WatchKey, WatchedDirectory> lEntry : new ArrayList<>(directories.entrySet())) {
+      WatchedDirectory lWatchedDirectory = lEntry.getValue();
+      if (lWatchedDirectory.remove(pResource) == true && lWatchedDirectory.isEmpty() == true) {
+        lEntry.getKey().cancel();
+        directories.remove(lEntry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Method processes all changes of watched directories. It is executed by the watcher thread.
+   */
+  @Override
+  public void run( ) {
+    WatchService lWatchService;
+    synchronized (this) {
+      lWatchService = watchService;
+    }
+    try {
+      while (true) {
+        // Wait until writing of the file is most likely finished and collect all changes that happened meanwhile.
+        WatchKey lKey = lWatchService.take();
+        Thread.sleep(Integer.getInteger(ReloadableFileConfigurationResource.RELOAD_DELAY,
+            ReloadableFileConfigurationResource.DEFAULT_RELOAD_DELAY));
+        Set<ReloadableFileConfigurationResource> lChangedResources = new LinkedHashSet<>();
+        while (lKey != null) {
+          lChangedResources.addAll(this.getChangedResources(lKey));
+          lKey.reset();
+          lKey = lWatchService.poll();
+        }
+
+        // Files are parsed outside the lock so that registrations are not blocked. All changes are published together.
+        ConfigurationChangeBus.ChangeCycle lCycle = ConfigurationChangeBus.getInstance().newCycle();
+        for (ReloadableFileConfigurationResource lNextResource : lChangedResources) {
+          try {
+            lNextResource.reload(lCycle);
+          }
+          catch (IOException | RuntimeException e) {
+            XFun.getTrace().error("Unable to reload configuration file " + lNextResource.getPath()
+                + ". Previous configuration values will be kept. " + e.getMessage(), e);
+          }
+        }
+        lCycle.publish();
+      }
+    }
+    // Watcher thread ends.
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    catch (ClosedWatchServiceException e) {
+      // Nothing to do.
+    }
+  }
+
+  /**
+   * Method returns all resources that are affected by the events of the passed key.
+   *
+   * @param pKey Key whose events should be processed.
+   * @return {@link Set} All resources whose file might have changed. The method never returns null.
+   */
+  private synchronized Set<ReloadableFileConfigurationResource> getChangedResources( WatchKey pKey ) {
+    WatchedDirectory lWatchedDirectory = directories.get(pKey);
+    Set<ReloadableFileConfigurationResource> lChangedResources = new LinkedHashSet<>();
+    for (WatchEvent<?> lNextEvent : pKey.pollEvents()) {
+      if (lWatchedDirectory != null) {
+        // Events got lost so all files of the directory have to be checked.
+        if (lNextEvent.kind() == OVERFLOW) {
+          lChangedResources.addAll(lWatchedDirectory.getAllResources());
+        }
+        else {
+          Path lFile = lWatchedDirectory.directory.resolve((Path) lNextEvent.context());
+          lChangedResources.addAll(lWatchedDirectory.getResources(lFile));
+        }
+      }
+    }
+    return lChangedResources;
+  }
+
+  /**
+   * Class represents a watched directory together with all resources whose files are located in it.
+   */
+  private static final class WatchedDirectory {
+    /**
+     * Watched directory.
+     */
+    private final Path directory;
+
+    /**
+     * Watched resources per file.
+     */
+    private final Map<Path, List<ReloadableFileConfigurationResource>> resources = new HashMap<>();
+
+    /**
+     * Initialize object.
+     *
+     * @param pDirectory Watched directory.
+     */
+    WatchedDirectory( Path pDirectory ) {
+      directory = pDirectory;
+    }
+
+    /**
+     * Method adds the passed resource.
+     *
+     * @param pResource Resource that should be added.
+     */
+    void add( ReloadableFileConfigurationResource pResource ) {
+      resources.computeIfAbsent(pResource.getPath(), p -> new ArrayList<>(1)).add(pResource);
+    }
+
+    /**
+     * Method removes the passed resource.
+     *
+     * @param pResource Resource that should be removed.
+     * @return boolean Method returns true if the resource was watched as part of this directory and false otherwise.
+     */
+    boolean remove( ReloadableFileConfigurationResource pResource ) {
+      boolean lRemoved;
+      List<ReloadableFileConfigurationResource> lResources = resources.get(pResource.getPath());
+      if (lResources != null) {
+        lRemoved = lResources.remove(pResource);
+        if (lResources.isEmpty() == true) {
+          resources.remove(pResource.getPath());
+        }
+      }
+      else {
+        lRemoved = false;
+      }
+      return lRemoved;
+    }
+
+    /**
+     * Method checks if there are still resources in this directory that have to be watched.
+     *
+     * @return boolean Method returns true if no resource has to be watched any longer.
+     */
+    boolean isEmpty( ) {
+      return resources.isEmpty();
+    }
+
+    /**
+     * Method returns all resources that read the passed file.
+     *
+     * @param pFile File whose resources should be returned.
+     * @return {@link List} All resources of the file. The method never returns null.
+     */
+    List<ReloadableFileConfigurationResource> getResources( Path pFile ) {
+      List<ReloadableFileConfigurationResource> lResources = resources.get(pFile);
+      if (lResources == null) {
+        lResources = new ArrayList<>(0);
+      }
+      return lResources;
+    }
+
+    /**
+     * Method returns all resources whose files are located in this directory.
+     *
+     * @return {@link List} All resources of the directory. The method never returns null.
+     */
+    List<ReloadableFileConfigurationResource> getAllResources( ) {
+      List<ReloadableFileConfigurationResource> lResources = new ArrayList<>();
+      for (List<ReloadableFileConfigurationResource> lNext : resources.values()) {
+        lResources.addAll(lNext);
+      }
+      return lResources;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface defines the index of configuration files that is generated at build time by
+ * {@link ConfigurationIndexProcessor}. The index contains the classes that would otherwise be read from the
+ * configuration files below {@link com.anaptecs.jeaf.xfun.api.XFun#X_FUN_BASE_PATH}. If an index is available then
+ * {@link ConfigurationReader} takes the classes directly from it. This avoids that configuration files have to be
+ * located in the classpath and that the configured classes have to be loaded via reflection.
+ *
+ * The generated index always has the class name {@link #INDEX_CLASS_NAME}. Configuration files that are not part of the
+ * index are still read from the classpath. Using the index can be switched off with system property
+ * {@value ConfigurationReader#IGNORE_CONFIGURATION_INDEX}.
+ *
+ * @author JEAF Development Team
+ */
+public interface ConfigurationIndex {
+  /**
+   * Name of the class that is generated by {@link ConfigurationIndexProcessor}.
+   */
+  String INDEX_CLASS_NAME = "com.anaptecs.jeaf.xfun.generated.XFunConfigurationIndex";
+
+  /**
+   * Method returns all configuration files that are part of the index.
+   *
+   * @return {@link Map} Map with the path of the configuration file as key and the classes that are configured in it as
+   * value. The method must not return null. The returned map and lists are supposed to be immutable.
+   */
+  Map<String, List<Class<?>>> getConfigurationFiles( );
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import com.anaptecs.jeaf.xfun.annotations.DatatypeConverterImpl;
+import com.anaptecs.jeaf.xfun.annotations.MessageResource;
+import com.anaptecs.jeaf.xfun.annotations.StartupInfoConfig;
+import com.anaptecs.jeaf.xfun.annotations.TraceConfig;
+import com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter;
+import com.anaptecs.jeaf.xfun.annotations.XFunConfig;
+
+/**
+ * Annotation processor generates the {@link ConfigurationIndex} of an application. All classes of the compiled module
+ * that are annotated with {@link XFunConfig}, {@link TraceConfig}, {@link StartupInfoConfig}, {@link MessageResource},
+ * {@link TraceObjectFormatter} or {@link DatatypeConverterImpl} are written to the generated class
+ * {@value ConfigurationIndex#INDEX_CLASS_NAME} using the path of the configuration file that would otherwise have to
+ * contain them.
+ *
+ * The processor is not registered automatically. It has to be activated explicitly for the module that contains the
+ * application's configuration, e.g. through <code>annotationProcessors</code> of the Maven Compiler Plugin or
+ * <code>javac -processor com.anaptecs.jeaf.xfun.api.config.ConfigurationIndexProcessor</code>. As there can only be
+ * one index per application this should only be done for one module.
+ *
+ * Configuration files whose content can not be expressed through the index are left out of it and will still be read
+ * from the classpath. This is the case if a class is not public or if more than one class defines a configuration that
+ * only allows one class.
+ *
+ * @author JEAF Development Team
+ */
+@SupportedAnnotationTypes({ "com.anaptecs.jeaf.xfun.annotations.XFunConfig",
+  "com.anaptecs.jeaf.xfun.annotations.TraceConfig", "com.anaptecs.jeaf.xfun.annotations.StartupInfoConfig",
+  "com.anaptecs.jeaf.xfun.annotations.MessageResource", "com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter",
+  "com.anaptecs.jeaf.xfun.annotations.DatatypeConverterImpl" })
+public class ConfigurationIndexProcessor extends AbstractProcessor {
+  /**
+   * Map contains the path of the configuration file for every supported annotation.
+   */
+  private static final Map<String, String> CONFIGURATION_FILES;
+
+  /**
+   * Set contains the paths of all configuration files that must not contain more than one class.
+   */
+  private static final Set<String> SINGLE_CLASS_FILES;
+
+  static {
+    Map<String, String> lFiles = new HashMap<>();
+    lFiles.put(XFunConfig.class.getName(), XFunConfig.XFUN_CONFIG_PATH);
+    lFiles.put(TraceConfig.class.getName(), TraceConfig.TRACE_CONFIG_PATH);
+    lFiles.put(StartupInfoConfig.class.getName(), StartupInfoConfig.STARTUP_INFO_CONFIG_PATH);
+    lFiles.put(MessageResource.class.getName(), MessageResource.MESSAGE_RESOURCES_PATH);
+    lFiles.put(TraceObjectFormatter.class.getName(), TraceObjectFormatter.TRACE_OBJECT_FORMATTER_PATH);
+    lFiles.put(DatatypeConverterImpl.class.getName(), DatatypeConverterImpl.DATATYPE_CONVERTERS_PATH);
+    CONFIGURATION_FILES = Collections.unmodifiableMap(lFiles);
+
+    Set<String> lSingleClassFiles = new HashSet<>();
+    lSingleClassFiles.add(XFunConfig.XFUN_CONFIG_PATH);
+    lSingleClassFiles.add(TraceConfig.TRACE_CONFIG_PATH);
+    lSingleClassFiles.add(StartupInfoConfig.STARTUP_INFO_CONFIG_PATH);
+    SINGLE_CLASS_FILES = Collections.unmodifiableSet(lSingleClassFiles);
+  }
+
+  /**
+   * Classes that were found so far per configuration file. Classes are sorted by name so that the generated index does
+   * not depend on the order in which the compiler passes the classes.
+   */
+  private final Map<String, Set<String>> configurationFiles = new TreeMap<>();
+
+  /**
+   * Configuration files that can not be expressed through the index.
+   */
+  private final Set<String> excludedFiles = new HashSet<>();
+
+  /**
+   * Originating elements of the generated index.
+   */
+  private final List<Element> originatingElements = new ArrayList<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion( ) {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process( Set<? extends TypeElement> pAnnotations, RoundEnvironment pRoundEnv ) {
+    // Collect annotated classes of this round.
+    for (TypeElement lAnnotation : pAnnotations) {
+      String lPath = CONFIGURATION_FILES.get(lAnnotation.getQualifiedName().toString());
+      for (Element lElement : pRoundEnv.getElementsAnnotatedWith(lAnnotation)) {
+        if (lElement instanceof TypeElement) {
+          this.addClass(lPath, (TypeElement) lElement);
+        }
+      }
+    }
+
+    // Index is written once all classes are known.
+    if (pRoundEnv.processingOver() == true) {
+      this.writeIndex();
+    }
+    // Annotations may also be processed by other processors.
+    return false;
+  }
+
+  /**
+   * Method adds the passed class to the configuration file with the passed path.
+   *
+   * @param pPath Path of the configuration file.
+   * @param pClass Annotated class.
+   */
+  private void addClass( String pPath, TypeElement pClass ) {
+    String lClassName = pClass.getQualifiedName().toString();
+    if (this.isAccessible(pClass) == true) {
+      Set<String> lClasses = configurationFiles.computeIfAbsent(pPath, p -> new TreeSet<>());
+      lClasses.add(lClassName);
+      originatingElements.add(pClass);
+
+      if (lClasses.size() > 1 && SINGLE_CLASS_FILES.contains(pPath) && excludedFiles.add(pPath)) {
+        processingEnv.getMessager().printMessage(Kind.WARNING, "Configuration file " + pPath
+            + " must not contain more than one class but found " + lClasses + ". File is not added to the index.",
+            pClass);
+      }
+    }
+    // Generated index would not compile.
+    else if (excludedFiles.add(pPath) == true) {
+      processingEnv.getMessager().printMessage(Kind.WARNING, "Class " + lClassName
+          + " is not public. Configuration file " + pPath + " is not added to the index.", pClass);
+    }
+  }
+
+  /**
+   * Method checks if the passed class can be referenced from the generated index.
+   *
+   * @param pClass Class that should be checked.
+   * @return boolean Method returns true if the class is public and only nested in public classes.
+   */
+  private boolean isAccessible( TypeElement pClass ) {
+    boolean lAccessible = pClass.getModifiers().contains(Modifier.PUBLIC);
+    if (lAccessible == true && pClass.getNestingKind() == NestingKind.MEMBER) {
+      lAccessible = this.isAccessible((TypeElement) pClass.getEnclosingElement());
+    }
+    return lAccessible;
+  }
+
+  /**
+   * Method writes the source code of the index.
+   */
+  private void writeIndex( ) {
+    configurationFiles.keySet().removeAll(excludedFiles);
+    if (configurationFiles.isEmpty() == false) {
+      String lClassName = ConfigurationIndex.INDEX_CLASS_NAME;
+      int lSeparator = lClassName.lastIndexOf('.');
+      try {
+        JavaFileObject lSourceFile = processingEnv.getFiler().createSourceFile(lClassName,
+            originatingElements.toArray(new Element[originatingElements.size()]));
+        try (Writer lWriter = lSourceFile.openWriter(); PrintWriter lOut = new PrintWriter(lWriter)) {
+          lOut.println("package " + lClassName.substring(0, lSeparator) + ";");
+          lOut.println();
+          lOut.println("import java.util.Arrays;");
+          lOut.println("import java.util.Collections;");
+          lOut.println("import java.util.HashMap;");
+          lOut.println("import java.util.List;");
+          lOut.println("import java.util.Map;");
+          lOut.println();
+          lOut.println("import " + ConfigurationIndex.class.getName() + ";");
+          lOut.println();
+          lOut.println("/**");
+          lOut.println(" * Index of JEAF X-Fun configuration files. Class is generated by "
+              + ConfigurationIndexProcessor.class.getSimpleName() + ". Do not edit.");
+          lOut.println(" */");
+          lOut.println("public final class " + lClassName.substring(lSeparator + 1) + " implements "
+              + ConfigurationIndex.class.getSimpleName() + " {");
+          lOut.println("  private static final Map<String, List<Class<?>>> CONFIGURATION_FILES;");
+          lOut.println();
+          lOut.println("  static {");
+          lOut.println("    Map<String, List<Class<?>>> lFiles = new HashMap<>();");
+          for (Map.Entry<String, Set<String>> lEntry : configurationFiles.entrySet()) {
+            StringBuilder lClasses = new StringBuilder();
+            for (String lNextClass : lEntry.getValue()) {
+              if (lClasses.length() > 0) {
+                lClasses.append(", ");
+              }
+              lClasses.append(lNextClass).append(".class");
+            }
+            lOut.println("    lFiles.put(\"" + lEntry.getKey()
+                + "\", Collections.unmodifiableList(Arrays.<Class<?>> asList(" + lClasses + ")));");
+          }
+          lOut.println("    CONFIGURATION_FILES = Collections.unmodifiableMap(lFiles);");
+          lOut.println("  }");
+          lOut.println();
+          lOut.println("  @Override");
+          lOut.println("  public Map<String, List<Class<?>>> getConfigurationFiles( ) {");
+          lOut.println("    return CONFIGURATION_FILES;");
+          lOut.println("  }");
+          lOut.println("}");
+        }
+      }
+      catch (IOException e) {
+        processingEnv.getMessager().printMessage(Kind.ERROR,
+            "Unable to write configuration index " + lClassName + ". " + e.getMessage());
+      }
+    }
+  }
+}
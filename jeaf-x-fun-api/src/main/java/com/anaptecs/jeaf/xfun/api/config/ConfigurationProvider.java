@@ -30,6 +30,21 @@ public interface ConfigurationProvider {
    */
   Configuration getComponentConfiguration( ComponentID pComponentID );
 
+  /**
+   * Method returns the configuration resource from which the configuration of the passed component is read. It is used
+   * to detect which configuration values of a component changed when JEAF X-Fun is reloaded (see
+   * {@link ConfigurationChangeBus}).
+   * 
+   * @param pComponentID ID of the component whose configuration resource should be returned. The parameter must not be
+   * null.
+   * @return {@link ConfigurationResource} Configuration resource of the component. The method returns null if the
+   * provider does not support this. In this case reloads of JEAF X-Fun do not lead to notifications about changed
+   * configuration values of components.
+   */
+  default ConfigurationResource getComponentConfigurationResource( ComponentID pComponentID ) {
+    return null;
+  }
+
   /**
    * Method returns a configuration representing the operating system environment variables.
    * 
@@ -82,7 +97,8 @@ public interface ConfigurationProvider {
 
   /**
    * Method replaces may be existing place holders for system properties inside the passed string. Place holders are
-   * defined by a leading '${' and an ending '}'.
+   * defined by a leading '${' and an ending '}'. Implementations should use {@link PlaceholderTemplate} so that values
+   * that are resolved again and again only have to be parsed once.
    * 
    * @param pValue String inside which system properties should be replaced. The parameter may be null.
    * @return String with replaced system properties. If no system properties are defined inside the string then a same
@@ -90,4 +106,41 @@ public interface ConfigurationProvider {
    */
   String replaceSystemProperties( String pValue );
 
+  /**
+   * Method binds the passed configuration interface to the configuration of the component with the passed ID. All
+   * configuration values are resolved and converted once. Afterwards the returned object only returns the already
+   * resolved values. When JEAF X-Fun is reloaded the values are resolved again (see {@link ConfigurationBinding}).
+   * 
+   * @param pConfigInterface Configuration interface that should be bound. The parameter must not be null.
+   * @param pComponentID ID of the component whose configuration should be used. The parameter must not be null.
+   * @return T Implementation of the passed configuration interface. The method never returns null.
+   * @throws com.anaptecs.jeaf.xfun.api.XFunRuntimeException if the interface is invalid or if at least one
+   * configuration value could not be resolved. The exception describes all problems together.
+   */
+  default <T> T bind( Class<T> pConfigInterface, ComponentID pComponentID ) {
+    return ConfigurationBinding.bind(pConfigInterface, pComponentID);
+  }
+
+  /**
+   * Method registers the passed listener for changes of all configuration keys of the passed component that start with
+   * the passed prefix. Changes are delivered asynchronously (see {@link ConfigurationChangeBus}).
+   * 
+   * @param pComponentID ID of the component whose configuration should be observed. The parameter must not be null.
+   * @param pKeyPrefix Prefix of all keys that should be observed. An empty string means that all keys of the component
+   * are observed. The parameter must not be null.
+   * @param pListener Listener that should be notified. The parameter must not be null.
+   */
+  default void addConfigurationChangeListener( ComponentID pComponentID, String pKeyPrefix,
+      ConfigurationChangeListener pListener ) {
+    ConfigurationChangeBus.getInstance().addListener(pComponentID, pKeyPrefix, pListener);
+  }
+
+  /**
+   * Method removes all registrations of the passed listener.
+   * 
+   * @param pListener Listener that should not be notified any longer. The parameter must not be null.
+   */
+  default void removeConfigurationChangeListener( ConfigurationChangeListener pListener ) {
+    ConfigurationChangeBus.getInstance().removeListener(pListener);
+  }
 }
@@ -12,14 +12,18 @@ import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.anaptecs.jeaf.xfun.api.XFunRuntimeException;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationResourceCache.CachedResource;
 import com.anaptecs.jeaf.xfun.bootstrap.Assert;
 import com.anaptecs.jeaf.xfun.bootstrap.Check;
 import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
@@ -33,11 +37,102 @@ import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
  * 
  * Configuration classes are expected to consist of one class name per line.
  * 
+ * Parsed configuration files and the resolved classes are cached per class loader and shared between all instances of
+ * this class. The cache can be cleared using {@link #clearCache()}.
+ * 
+ * By default configuration files and classes are loaded through the class loader of this class. Applications that use
+ * their own JEAF X-Fun context (see {@link com.anaptecs.jeaf.xfun.api.XFun#createContext(ClassLoader)}) can read
+ * their configuration through another class loader using {@link #callWithClassLoader(ClassLoader, Supplier)}.
+ * 
  * @author JEAF Development Team
  */
 public class ConfigurationReader {
+  /**
+   * Constant for the name of the system property that can be used to enable parallel loading of configured classes.
+   * By default classes are loaded one after the other.
+   */
+  public static final String PARALLEL_CLASS_LOADING = "xfun.config.parallelClassLoading";
+
+  /**
+   * Constant for the name of the system property that defines the minimum amount of classes of a configuration file
+   * from which on the classes are loaded in parallel. If not set then
+   * {@value #DEFAULT_PARALLEL_CLASS_LOADING_THRESHOLD} is used.
+   */
+  public static final String PARALLEL_CLASS_LOADING_THRESHOLD = "xfun.config.parallelClassLoadingThreshold";
+
+  /**
+   * Constant for the name of the system property that defines the maximum amount of threads that are used to load
+   * classes in parallel. If not set then the amount of available processors but not more than
+   * {@value #DEFAULT_PARALLEL_CLASS_LOADING_THREADS} threads are used.
+   */
+  public static final String PARALLEL_CLASS_LOADING_THREADS = "xfun.config.parallelClassLoadingThreads";
+
+  /**
+   * Default minimum amount of classes of a configuration file from which on parallel class loading is used.
+   */
+  public static final int DEFAULT_PARALLEL_CLASS_LOADING_THRESHOLD = 32;
+
+  /**
+   * Default maximum amount of threads that are used for parallel class loading.
+   */
+  public static final int DEFAULT_PARALLEL_CLASS_LOADING_THREADS = 4;
+
+  /**
+   * Constant for the name of the system property that can be used to ignore the generated configuration index (see
+   * {@link ConfigurationIndex}). In this case all configuration files are read from the classpath.
+   */
+  public static final String IGNORE_CONFIGURATION_INDEX = "xfun.config.ignoreIndex";
+
   private static final String UTF_8 = StandardCharsets.UTF_8.name();
 
+  /**
+   * Class loader that is used by the current thread instead of the class loader of this class. The value is only set
+   * while {@link #callWithClassLoader(ClassLoader, Supplier)} is executed.
+   */
+  private static final ThreadLocal<ClassLoader> SCOPED_CLASS_LOADER = new ThreadLocal<>();
+
+  /**
+   * Method executes the passed supplier so that all configuration files and classes that are read by the current thread
+   * are loaded through the passed class loader. Calls may be nested.
+   * 
+   * @param pClassLoader Class loader that should be used. The parameter must not be null.
+   * @param pSupplier Supplier that should be executed. The parameter must not be null.
+   * @return T Result of the supplier.
+   */
+  public static <T> T callWithClassLoader( ClassLoader pClassLoader, Supplier<T> pSupplier ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pClassLoader, "pClassLoader");
+    Check.checkInvalidParameterNull(pSupplier, "pSupplier");
+
+    ClassLoader lPreviousClassLoader = SCOPED_CLASS_LOADER.get();
+    SCOPED_CLASS_LOADER.set(pClassLoader);
+    try {
+      return pSupplier.get();
+    }
+    finally {
+      if (lPreviousClassLoader != null) {
+        SCOPED_CLASS_LOADER.set(lPreviousClassLoader);
+      }
+      // Outermost call restores default behavior.
+      else {
+        SCOPED_CLASS_LOADER.remove();
+      }
+    }
+  }
+
+  /**
+   * Method returns the class loader through which configuration files and classes are loaded by the current thread.
+   * 
+   * @return {@link ClassLoader} Class loader that is used. The method never returns null.
+   */
+  static ClassLoader getClassLoader( ) {
+    ClassLoader lClassLoader = SCOPED_CLASS_LOADER.get();
+    if (lClassLoader == null) {
+      lClassLoader = ConfigurationReader.class.getClassLoader();
+    }
+    return lClassLoader;
+  }
+
   /**
    * Method reads all classes from the configuration file with the passed name. This method is intended to be used in
    * cases where a config file should not consists of more than one class name.
@@ -115,32 +210,28 @@ public class ConfigurationReader {
     Check.checkInvalidParameterNull(pConfigurationFilePath, "pConfigurationFilePath");
     Check.checkInvalidParameterNull(pType, "pType");
 
-    // Resolve URL of configuration file
-    URL lResourceURL = this.resolveResource(pConfigurationFilePath);
+    // Resolve configuration file. Parsed configuration files are cached.
+    CachedResource lResource = this.getResource(pConfigurationFilePath);
 
     // Configuration file could be located.
-    Collection<String> lConfigurationFileEntries;
-    if (lResourceURL != null) {
-      try (InputStreamReader lInputStream = new InputStreamReader(lResourceURL.openStream(), UTF_8);
-          BufferedReader lReader = new BufferedReader(lInputStream);) {
-
-        // Read configuration entries.
-        lConfigurationFileEntries = lReader.lines().collect(Collectors.toList());
-      }
-      catch (IOException e) {
-        throw new XFunRuntimeException(
-            "Unable to read configuration from resource " + pConfigurationFilePath + ". " + e.getMessage(), e);
+    List<Class<?>> lClasses;
+    if (lResource.isAvailable() == true) {
+      // Class objects are only resolved once per configuration file.
+      lClasses = lResource.getClasses();
+      if (lClasses == null) {
+        lClasses = this.toClasses(lResource.getEntries(), pConfigurationFilePath, pType);
+        lResource.setClasses(lClasses);
       }
     }
     // Configuration file could not be found.
     else {
       FallbackTraceProviderImpl.EMERGENCY_TRACE
           .warn("Configuration file " + pConfigurationFilePath + " could not be found in the application's classpath.");
-      lConfigurationFileEntries = Collections.emptyList();
+      lClasses = Collections.emptyList();
     }
 
-    // Get classes objects for all configured class names
-    return this.toClasses(lConfigurationFileEntries, pType, pConfigurationFilePath);
+    // Return only those classes that match the expected type.
+    return this.filterClasses(lClasses, pType, pConfigurationFilePath);
   }
 
   /**
@@ -243,7 +334,16 @@ public class ConfigurationReader {
     // Check parameter
     Check.checkInvalidParameterNull(pConfigurationFilePath, "pConfigurationFilePath");
 
-    return this.resolveResource(pConfigurationFilePath) != null;
+    return this.getResource(pConfigurationFilePath).isAvailable();
+  }
+
+  /**
+   * Method clears the cache of parsed configuration files. Afterwards all configuration files will be read again when
+   * they are requested the next time. The cache is shared between all instances of this class and is cleared when JEAF
+   * X-Fun is reloaded.
+   */
+  public static void clearCache( ) {
+    ConfigurationResourceCache.clear();
   }
 
   /**
@@ -390,53 +490,245 @@ public class ConfigurationReader {
   }
 
   /**
-   * Method converts a list of class names into a list of class objects.
+   * Method converts a list of class names into a list of class objects. Classes that can not be loaded will be
+   * reported and ignored. If parallel class loading is enabled (see {@link #PARALLEL_CLASS_LOADING}) and the list is
+   * large enough then the classes are resolved in parallel. Nevertheless the order of the returned classes as well as
+   * the order of the reported errors is the same as in the passed list.
+   * 
+   * Classes are only resolved in parallel but not initialized. Static initializers are executed afterwards by the
+   * calling thread in the order of the passed list. This way static initializers that use JEAF X-Fun do not wait for
+   * the initialization of JEAF X-Fun which in turn would wait for them. Classes that are not of the expected type are
+   * not initialized at all.
    * 
    * @param pClassNames List with all class names. The parameter must not be null.
+   * @param pResourceName Name of the resource from which the class names were read. The parameter must not be null.
+   * @param pType Expected type of the classes. Only classes of this type are initialized. The parameter must not be
+   * null.
    * @return {@link List} with all class objects to the passed class names. The method never returns null. The returned
    * {@link List} is immutable.
    */
-  private <T> List<Class<? extends T>> toClasses( Collection<String> pClassNames, Class<T> pType,
-      String pResourceName ) {
-    List<Class<T>> lClasses = new ArrayList<>(pClassNames.size());
-    for (String lNextClassName : pClassNames) {
-      try {
-        @SuppressWarnings("unchecked")
-        Class<T> lNextClass = (Class<T>) Class.forName(lNextClassName);
-
-        // As Java generics not really check at runtime that the types match we have to do this manually now.
-        if (pType.isAssignableFrom(lNextClass)) {
-          lClasses.add(lNextClass);
-        }
-        else {
-          String lMessage = "Configuration error for " + pResourceName + ". Class " + lNextClassName
-              + " is not an subclass / implementation of " + pType.getName();
-          FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage);
-        }
+  private List<Class<?>> toClasses( List<String> pClassNames, String pResourceName, Class<?> pType ) {
+    // Resolve all classes. Result is either the resolved class or the problem that occurred.
+    int lSize = pClassNames.size();
+    Object[] lResults = new Object[lSize];
+    ClassLoader lClassLoader = getClassLoader();
+    if (this.isParallelClassLoadingEnabled(lSize) == true) {
+      ClassLoadingPool.getPool().submit(() -> IntStream.range(0, lSize).parallel()
+          .forEach(i -> lResults[i] = loadClass(pClassNames.get(i), false, lClassLoader))).join();
+    }
+    else {
+      for (int i = 0; i < lSize; i++) {
+        lResults[i] = loadClass(pClassNames.get(i), false, lClassLoader);
       }
-      catch (ExceptionInInitializerError e) {
-        Throwable lCause = e.getCause();
-        String lCauseMessage;
-        if (lCause != null) {
-          lCauseMessage = "Root-Cause: " + lCause.getMessage();
-        }
-        else {
-          lCauseMessage = "";
-        }
-        String lMessage = "Configuration error for " + pResourceName + ". Class " + lNextClassName
-            + " could not be loaded. " + lCauseMessage;
-        FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage, e);
+    }
 
+    // Initialize classes, collect them and report problems in the order of the configuration file.
+    List<Class<?>> lClasses = new ArrayList<>(lSize);
+    for (int i = 0; i < lSize; i++) {
+      Object lResult = lResults[i];
+      if (lResult instanceof Class && pType.isAssignableFrom((Class<?>) lResult) == true) {
+        lResult = loadClass(pClassNames.get(i), true, lClassLoader);
+      }
+      if (lResult instanceof Class) {
+        lClasses.add((Class<?>) lResult);
       }
-      catch (Throwable e) {
-        String lMessage = "Configuration error for " + pResourceName + ". Class " + lNextClassName
-            + " could not be loaded. " + e.getMessage();
-        FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage, e);
+      else {
+        this.reportClassLoadingProblem(pClassNames.get(i), (Throwable) lResult, pResourceName);
       }
     }
     return Collections.unmodifiableList(lClasses);
   }
 
+  /**
+   * Method loads the class with the passed name.
+   * 
+   * @param pClassName Name of the class that should be loaded.
+   * @param pInitialize Parameter defines if the class should also be initialized.
+   * @param pClassLoader Class loader that should be used.
+   * @return Object Loaded class or the problem that occurred while loading the class. The method never returns null.
+   */
+  private static Object loadClass( String pClassName, boolean pInitialize, ClassLoader pClassLoader ) {
+    Object lResult;
+    try {
+      lResult = Class.forName(pClassName, pInitialize, pClassLoader);
+    }
+    catch (Exception | LinkageError e) {
+      lResult = e;
+    }
+    return lResult;
+  }
+
+  /**
+   * Method reports a problem that occurred while a configured class was loaded.
+   * 
+   * @param pClassName Name of the class that could not be loaded.
+   * @param pThrowable Problem that occurred.
+   * @param pResourceName Name of the resource from which the class name was read.
+   */
+  private void reportClassLoadingProblem( String pClassName, Throwable pThrowable, String pResourceName ) {
+    if (pThrowable instanceof ExceptionInInitializerError) {
+      Throwable lCause = pThrowable.getCause();
+      String lCauseMessage;
+      if (lCause != null) {
+        lCauseMessage = "Root-Cause: " + lCause.getMessage();
+      }
+      else {
+        lCauseMessage = "";
+      }
+      String lMessage = "Configuration error for " + pResourceName + ". Class " + pClassName + " could not be loaded. "
+          + lCauseMessage;
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage, pThrowable);
+    }
+    else {
+      String lMessage = "Configuration error for " + pResourceName + ". Class " + pClassName + " could not be loaded. "
+          + pThrowable.getMessage();
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage, pThrowable);
+    }
+  }
+
+  /**
+   * Method checks if the passed amount of classes should be loaded in parallel.
+   * 
+   * @param pClassCount Amount of classes that have to be loaded.
+   * @return boolean The method returns true if the classes should be loaded in parallel and false otherwise.
+   */
+  private boolean isParallelClassLoadingEnabled( int pClassCount ) {
+    boolean lEnabled;
+    if (Boolean.getBoolean(PARALLEL_CLASS_LOADING) == true) {
+      int lThreshold = Integer.getInteger(PARALLEL_CLASS_LOADING_THRESHOLD, DEFAULT_PARALLEL_CLASS_LOADING_THRESHOLD);
+      lEnabled = pClassCount > 1 && pClassCount >= lThreshold;
+    }
+    else {
+      lEnabled = false;
+    }
+    return lEnabled;
+  }
+
+  /**
+   * Method filters the passed classes so that only those of the expected type are returned.
+   * 
+   * @param pClasses Classes that should be filtered. The parameter must not be null.
+   * @param pType Class object representing the expected type of the returned classes. The parameter must not be null.
+   * @param pResourceName Name of the resource from which the classes were read. The parameter must not be null.
+   * @return {@link List} with all classes that are of the expected type. The method never returns null. The returned
+   * {@link List} is immutable.
+   */
+  private <T> List<Class<? extends T>> filterClasses( List<Class<?>> pClasses, Class<T> pType, String pResourceName ) {
+    List<Class<? extends T>> lClasses = new ArrayList<>(pClasses.size());
+    for (Class<?> lNextClass : pClasses) {
+      // As Java generics not really check at runtime that the types match we have to do this manually now.
+      if (pType.isAssignableFrom(lNextClass)) {
+        lClasses.add(lNextClass.asSubclass(pType));
+      }
+      else {
+        String lMessage = "Configuration error for " + pResourceName + ". Class " + lNextClass.getName()
+            + " is not an subclass / implementation of " + pType.getName();
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage);
+      }
+    }
+    return Collections.unmodifiableList(lClasses);
+  }
+
+  /**
+   * Method returns the cached configuration file with the passed path. If the file is not yet cached then it will be
+   * taken from the configuration index or located and read.
+   * 
+   * @param pConfigurationFilePath Path of configuration file. The parameter must not be null.
+   * @return {@link CachedResource} Cached configuration file. The method never returns null. If the file could not be
+   * found then the returned resource is not available.
+   */
+  private CachedResource getResource( String pConfigurationFilePath ) {
+    // Resources are cached per class loader as the same path may point to different files. Custom base paths may be
+    // defined with a leading or trailing '/' so paths have to be normalized to find them in the cache and the index.
+    String lPath = normalizePath(pConfigurationFilePath);
+    ClassLoader lClassLoader = getClassLoader();
+    Map<String, CachedResource> lResources = ConfigurationResourceCache.getResources(lClassLoader);
+    CachedResource lResource = lResources.get(lPath);
+    if (lResource == null) {
+      // Configuration file is part of the index so neither the classpath has to be searched nor classes have to be
+      // loaded via reflection.
+      CachedResource lIndexedResource;
+      if (Boolean.getBoolean(IGNORE_CONFIGURATION_INDEX) == false) {
+        lIndexedResource = ConfigurationResourceCache.getIndex(lClassLoader).get(lPath);
+      }
+      // Usage of configuration index is switched off.
+      else {
+        lIndexedResource = null;
+      }
+
+      if (lIndexedResource != null) {
+        lResource = lResources.computeIfAbsent(lPath, p -> lIndexedResource);
+      }
+      // Configuration file has to be read from the classpath.
+      else {
+        lResource = this.readResource(lPath, lResources);
+      }
+    }
+    return lResource;
+  }
+
+  /**
+   * Method normalizes the passed path of a configuration file. Leading and duplicate separators are removed as they are
+   * not supported when resources are loaded through a class loader.
+   * 
+   * @param pConfigurationFilePath Path of configuration file. The parameter must not be null.
+   * @return String Normalized path. The method never returns null.
+   */
+  static String normalizePath( String pConfigurationFilePath ) {
+    String lPath = pConfigurationFilePath;
+    int lStart = 0;
+    while (lStart < lPath.length() && lPath.charAt(lStart) == '/') {
+      lStart++;
+    }
+    if (lStart > 0) {
+      lPath = lPath.substring(lStart);
+    }
+    if (lPath.contains("//") == true) {
+      lPath = lPath.replaceAll("/{2,}", "/");
+    }
+    return lPath;
+  }
+
+  /**
+   * Method locates and reads the configuration file with the passed path and adds it to the passed cache.
+   * 
+   * @param pConfigurationFilePath Path of configuration file. The parameter must not be null.
+   * @param pResources Cached resources of the current class loader. The parameter must not be null.
+   * @return {@link CachedResource} Cached configuration file. The method never returns null. If the file could not be
+   * found then the returned resource has no URL.
+   */
+  private CachedResource readResource( String pConfigurationFilePath, Map<String, CachedResource> pResources ) {
+    // Resolve URL of configuration file
+    URL lResourceURL = this.resolveResource(pConfigurationFilePath);
+
+    // Configuration file could be located.
+    List<String> lConfigurationFileEntries;
+    if (lResourceURL != null) {
+      try (InputStreamReader lInputStream = new InputStreamReader(lResourceURL.openStream(), UTF_8);
+          BufferedReader lReader = new BufferedReader(lInputStream);) {
+
+        // Read configuration entries.
+        lConfigurationFileEntries = Collections.unmodifiableList(lReader.lines().collect(Collectors.toList()));
+      }
+      catch (IOException e) {
+        throw new XFunRuntimeException(
+            "Unable to read configuration from resource " + pConfigurationFilePath + ". " + e.getMessage(), e);
+      }
+    }
+    // Configuration file could not be found.
+    else {
+      lConfigurationFileEntries = null;
+    }
+
+    // Concurrent threads may have read the same file in the meantime. In this case we use their result.
+    CachedResource lNewResource = new CachedResource(lResourceURL, lConfigurationFileEntries);
+    CachedResource lResource = pResources.putIfAbsent(pConfigurationFilePath, lNewResource);
+    if (lResource == null) {
+      lResource = lNewResource;
+    }
+    return lResource;
+  }
+
   /**
    * Method resolves the URL of the passed configuration file using the application's classpath.
    * 
@@ -449,7 +741,7 @@ public class ConfigurationReader {
     Assert.assertNotNull(pConfigurationFilePath, "pConfigurationFilePath");
 
     // Try to locate resource
-    URL lResourceURL = this.getClass().getClassLoader().getResource(pConfigurationFilePath);
+    URL lResourceURL = getClassLoader().getResource(pConfigurationFilePath);
 
     // Try to locate resource as system resource if we could not find it directly.
     if (lResourceURL == null) {
@@ -459,4 +751,39 @@ public class ConfigurationReader {
     return lResourceURL;
   }
 
+  /**
+   * Class holds the fork / join pool that is used for parallel class loading. The pool is only created if parallel
+   * class loading is really used. Its size is bounded (see {@link ConfigurationReader#PARALLEL_CLASS_LOADING_THREADS}).
+   */
+  private static final class ClassLoadingPool {
+    /**
+     * Pool that is used for parallel class loading. Its threads are daemon threads so that they never prevent the JVM
+     * from shutting down.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(getParallelism(), pPool -> {
+      ForkJoinWorkerThread lThread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pPool);
+      lThread.setName("XFun-ClassLoading-" + lThread.getPoolIndex());
+      lThread.setDaemon(true);
+      return lThread;
+    }, null, false);
+
+    /**
+     * Method returns the pool that is used for parallel class loading.
+     * 
+     * @return {@link ForkJoinPool} Pool for parallel class loading. The method never returns null.
+     */
+    static ForkJoinPool getPool( ) {
+      return POOL;
+    }
+
+    /**
+     * Method determines the amount of threads that are used for parallel class loading.
+     * 
+     * @return int Amount of threads. The value is always 1 or greater.
+     */
+    private static int getParallelism( ) {
+      int lDefault = Math.min(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_CLASS_LOADING_THREADS);
+      return Math.max(1, Integer.getInteger(PARALLEL_CLASS_LOADING_THREADS, lDefault));
+    }
+  }
 }
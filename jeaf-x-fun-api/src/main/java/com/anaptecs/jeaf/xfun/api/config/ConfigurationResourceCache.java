@@ -0,0 +1,266 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class implements the cache that is used by {@link ConfigurationReader} to avoid that the same configuration files
+ * are located, read and resolved again and again. Cached resources are kept separately per class loader. Class loaders
+ * are only weakly referenced so that they can still be garbage collected e.g. after a redeployment. As a cached
+ * resource would otherwise keep its class loader reachable through the resolved classes, these classes are also only
+ * weakly referenced. This is sufficient as a class can not be unloaded as long as its class loader is alive.
+ *
+ * The cache is cleared whenever JEAF X-Fun is reloaded. This is done before the new instance is created and again by a
+ * reload listener after it was published (see {@link ConfigurationReader#clearCache()}).
+ *
+ * @author JEAF Development Team
+ */
+final class ConfigurationResourceCache {
+  /**
+   * Map contains the cached resources per class loader. As {@link WeakHashMap} is not thread-safe all accesses have to
+   * be synchronized on the map.
+   */
+  private static final Map<ClassLoader, Map<String, CachedResource>> CACHE = new WeakHashMap<>();
+
+  /**
+   * Map contains the resources of the configuration index per class loader. Class loaders without index are mapped to
+   * an empty map. As {@link WeakHashMap} is not thread-safe all accesses have to be synchronized on the map.
+   */
+  private static final Map<ClassLoader, Map<String, CachedResource>> INDEXES = new WeakHashMap<>();
+
+  /**
+   * Constructor is private as only static methods are provided.
+   */
+  private ConfigurationResourceCache( ) {
+  }
+
+  /**
+   * Method returns the cached resources of the passed class loader.
+   *
+   * @param pClassLoader Class loader whose cached resources should be returned. The parameter may be null in case of
+   * the bootstrap class loader.
+   * @return {@link Map} Map with all cached resources of the class loader. The method never returns null.
+   */
+  static Map<String, CachedResource> getResources( ClassLoader pClassLoader ) {
+    synchronized (CACHE) {
+      return CACHE.computeIfAbsent(pClassLoader, pKey -> new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Method returns the configuration index of the passed class loader. The index is only loaded once per class loader.
+   *
+   * @param pClassLoader Class loader whose configuration index should be returned. The parameter must not be null.
+   * @return {@link Map} Resources of all configuration files that are part of the index using the normalized path of
+   * the configuration file as key (see {@link ConfigurationReader#normalizePath(String)}). The method never returns
+   * null. If no index is available then an empty map is returned.
+   */
+  static Map<String, CachedResource> getIndex( ClassLoader pClassLoader ) {
+    synchronized (INDEXES) {
+      return INDEXES.computeIfAbsent(pClassLoader, ConfigurationResourceCache::loadIndex);
+    }
+  }
+
+  /**
+   * Method loads the configuration index that was generated for the application.
+   *
+   * @param pClassLoader Class loader that should be used to load the index.
+   * @return {@link Map} Resources of all configuration files that are part of the index. The method never returns null.
+   */
+  private static Map<String, CachedResource> loadIndex( ClassLoader pClassLoader ) {
+    Map<String, CachedResource> lIndex;
+    try {
+      Class<?> lIndexClass = Class.forName(ConfigurationIndex.INDEX_CLASS_NAME, true, pClassLoader);
+      Map<String, List<Class<?>>> lConfigurationFiles =
+          ((ConfigurationIndex) lIndexClass.getDeclaredConstructor().newInstance()).getConfigurationFiles();
+      lIndex = new HashMap<>();
+      for (Map.Entry<String, List<Class<?>>> lNext : lConfigurationFiles.entrySet()) {
+        lIndex.put(ConfigurationReader.normalizePath(lNext.getKey()), new CachedResource(lNext.getValue()));
+      }
+      lIndex = Collections.unmodifiableMap(lIndex);
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.info("Using configuration index " + ConfigurationIndex.INDEX_CLASS_NAME
+          + " for configuration files " + lIndex.keySet());
+    }
+    // No index was generated. This is the regular case.
+    catch (ClassNotFoundException e) {
+      lIndex = Collections.emptyMap();
+    }
+    // Index is not usable so we have to read the configuration files.
+    catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+      String lMessage =
+          "Unable to load configuration index " + ConfigurationIndex.INDEX_CLASS_NAME + ". " + e.getMessage();
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.error(lMessage, e);
+      lIndex = Collections.emptyMap();
+    }
+    return lIndex;
+  }
+
+  /**
+   * Method removes all cached resources and indexes of all class loaders.
+   */
+  static void clear( ) {
+    synchronized (CACHE) {
+      CACHE.clear();
+    }
+    synchronized (INDEXES) {
+      INDEXES.clear();
+    }
+  }
+
+  /**
+   * Class represents a cached configuration resource. It contains the location of the resource, its parsed entries and
+   * the classes that could be resolved from them. Resources that are taken from the configuration index do not have a
+   * location but their classes are already resolved.
+   */
+  static final class CachedResource {
+    /**
+     * URL of the resource. The reference is null if the resource could not be found.
+     */
+    private final URL url;
+
+    /**
+     * All entries of the resource. The reference is null if the resource could not be found.
+     */
+    private final List<String> entries;
+
+    /**
+     * All classes that could be loaded from the entries of the resource. The classes are only resolved if they are
+     * really requested. They are only weakly referenced so that the resource does not keep their class loader alive.
+     */
+    private volatile List<WeakReference<Class<?>>> classes;
+
+    /**
+     * Attribute defines if the resource was taken from the configuration index.
+     */
+    private final boolean indexed;
+
+    /**
+     * Initialize object.
+     *
+     * @param pURL URL of the resource. The parameter may be null if the resource could not be found.
+     * @param pEntries All entries of the resource. The parameter may be null if the resource could not be found.
+     */
+    CachedResource( URL pURL, List<String> pEntries ) {
+      url = pURL;
+      entries = pEntries;
+      indexed = false;
+    }
+
+    /**
+     * Initialize object for a resource that is part of the configuration index.
+     *
+     * @param pClasses Immutable list with all classes of the resource. The parameter must not be null.
+     */
+    CachedResource( List<Class<?>> pClasses ) {
+      Assert.assertNotNull(pClasses, "pClasses");
+      url = null;
+      entries = Collections.unmodifiableList(pClasses.stream().map(Class::getName).collect(Collectors.toList()));
+      classes = toWeakReferences(pClasses);
+      indexed = true;
+    }
+
+    /**
+     * Method checks if the resource is available either through the classpath or through the configuration index.
+     *
+     * @return boolean Method returns true if the resource is available and false otherwise.
+     */
+    boolean isAvailable( ) {
+      return url != null || indexed == true;
+    }
+
+    /**
+     * Method checks if the resource was taken from the configuration index.
+     *
+     * @return boolean Method returns true if the resource is part of the configuration index and false otherwise.
+     */
+    boolean isIndexed( ) {
+      return indexed;
+    }
+
+    /**
+     * Method returns the URL of the resource.
+     *
+     * @return {@link URL} URL of the resource or null if the resource could not be found or is part of the
+     * configuration index.
+     */
+    URL getURL( ) {
+      return url;
+    }
+
+    /**
+     * Method returns all entries of the resource.
+     *
+     * @return {@link List} Immutable list with all entries of the resource or null if the resource could not be found.
+     */
+    List<String> getEntries( ) {
+      return entries;
+    }
+
+    /**
+     * Method returns all classes that could be loaded from the entries of the resource.
+     *
+     * @return {@link List} Immutable list with all loaded classes or null if they were not resolved yet or are no
+     * longer available.
+     */
+    List<Class<?>> getClasses( ) {
+      List<WeakReference<Class<?>>> lReferences = classes;
+      List<Class<?>> lClasses;
+      if (lReferences != null) {
+        lClasses = new ArrayList<>(lReferences.size());
+        for (WeakReference<Class<?>> lNext : lReferences) {
+          Class<?> lClass = lNext.get();
+          if (lClass == null) {
+            lClasses = null;
+            break;
+          }
+          lClasses.add(lClass);
+        }
+      }
+      // Classes were not resolved yet.
+      else {
+        lClasses = null;
+      }
+      return lClasses != null ? Collections.unmodifiableList(lClasses) : null;
+    }
+
+    /**
+     * Method sets all classes that could be loaded from the entries of the resource.
+     *
+     * @param pClasses Immutable list with all loaded classes. The parameter must not be null.
+     */
+    void setClasses( List<Class<?>> pClasses ) {
+      Assert.assertNotNull(pClasses, "pClasses");
+      classes = toWeakReferences(pClasses);
+    }
+
+    /**
+     * Method converts the passed classes into weak references.
+     *
+     * @param pClasses Classes that should be converted. The parameter must not be null.
+     * @return {@link List} Immutable list with weak references to the passed classes. The method never returns null.
+     */
+    private static List<WeakReference<Class<?>>> toWeakReferences( List<Class<?>> pClasses ) {
+      List<WeakReference<Class<?>>> lReferences = new ArrayList<>(pClasses.size());
+      for (Class<?> lNext : pClasses) {
+        lReferences.add(new WeakReference<>(lNext));
+      }
+      return Collections.unmodifiableList(lReferences);
+    }
+  }
+}
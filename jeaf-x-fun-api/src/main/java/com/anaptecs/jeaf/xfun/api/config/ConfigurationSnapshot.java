@@ -0,0 +1,414 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.anaptecs.jeaf.xfun.api.XFunRuntimeException;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationResourceCache.CachedResource;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class writes and reads binary snapshots of all configuration files that were resolved by {@link ConfigurationReader}.
+ * This includes the configuration files that define the X-Fun factories, trace configuration, object formatters,
+ * startup info writers, message resources and datatype converters. Files that could not be found are also part of the
+ * snapshot. When a snapshot is loaded the configuration files neither have to be located through the classpath nor
+ * parsed again. Configured classes are still loaded as usual.
+ *
+ * Every snapshot contains a fingerprint of the classpath. It is calculated from the classpath itself, the Java version
+ * as well as size and modification time of all classpath entries. As classpath entries may also be directories every
+ * configuration file additionally stores size and modification time of the file it was read from (the JAR file for
+ * configuration files inside a JAR). Configuration files that could not be found must still not exist in any directory
+ * of the classpath. A snapshot is only used if its fingerprint matches and none of its configuration files changed.
+ * Otherwise JEAF X-Fun falls back to its regular startup.
+ *
+ * Snapshots are activated by setting system property {@link #SNAPSHOT_FILE}. If the snapshot file does not exist or
+ * does not match then a new one is written by a background thread after JEAF X-Fun was started. As most configuration
+ * files are only read when the factory or provider that needs them is used for the first time, the thread resolves
+ * everything that is loaded lazily before the snapshot is written (see
+ * {@link com.anaptecs.jeaf.xfun.api.XFunTrainingRun}).
+ *
+ * @author JEAF Development Team
+ */
+public final class ConfigurationSnapshot {
+  /**
+   * Name of the system property that defines the snapshot file.
+   */
+  public static final String SNAPSHOT_FILE = "xfun.config.snapshotFile";
+
+  /**
+   * Magic number at the beginning of every snapshot file ("XFCS").
+   */
+  private static final int MAGIC_NUMBER = 0x58464353;
+
+  /**
+   * Version of the file format. It has to be incremented whenever the format changes.
+   */
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * Attribute defines if a snapshot should be written once JEAF X-Fun is started.
+   */
+  private static volatile boolean writeRequired;
+
+  /**
+   * Constructor is private as only static methods are provided.
+   */
+  private ConfigurationSnapshot( ) {
+  }
+
+  /**
+   * Method loads the snapshot that is defined by system property {@link #SNAPSHOT_FILE}. The method is called by JEAF
+   * X-Fun before its configuration is read.
+   *
+   * @return boolean Method returns true if a snapshot was loaded and false otherwise.
+   */
+  public static boolean loadConfiguredSnapshot( ) {
+    String lSnapshotFile = System.getProperty(SNAPSHOT_FILE);
+    boolean lLoaded;
+    if (lSnapshotFile != null) {
+      lLoaded = ConfigurationSnapshot.load(Paths.get(lSnapshotFile));
+      writeRequired = lLoaded == false;
+    }
+    // Snapshots are not used.
+    else {
+      lLoaded = false;
+    }
+    return lLoaded;
+  }
+
+  /**
+   * Method checks if the snapshot that is defined by system property {@link #SNAPSHOT_FILE} has to be written as it
+   * could not be loaded before.
+   *
+   * @return boolean Method returns true if the snapshot has to be written and false otherwise.
+   */
+  public static boolean isWriteRequired( ) {
+    return writeRequired == true && System.getProperty(SNAPSHOT_FILE) != null;
+  }
+
+  /**
+   * Method writes the snapshot that is defined by system property {@link #SNAPSHOT_FILE} if it could not be loaded
+   * before. The method is called by JEAF X-Fun after all configuration files were resolved. Problems are only traced.
+   */
+  public static void writeConfiguredSnapshot( ) {
+    String lSnapshotFile = System.getProperty(SNAPSHOT_FILE);
+    if (lSnapshotFile != null && writeRequired == true) {
+      writeRequired = false;
+      try {
+        ConfigurationSnapshot.write(Paths.get(lSnapshotFile));
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.info("Configuration snapshot written to " + lSnapshotFile);
+      }
+      catch (XFunRuntimeException e) {
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.error(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Method loads the passed snapshot. Configuration files that are already cached are not replaced.
+   *
+   * @param pSnapshotFile Snapshot file that should be loaded. The parameter must not be null.
+   * @return boolean Method returns true if the snapshot was loaded and false if it does not exist, does not match the
+   * current classpath or configuration files or could not be read.
+   */
+  public static boolean load( Path pSnapshotFile ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pSnapshotFile, "pSnapshotFile");
+
+    boolean lLoaded = false;
+    if (Files.isRegularFile(pSnapshotFile) == true) {
+      try (DataInputStream lInput =
+          new DataInputStream(new BufferedInputStream(Files.newInputStream(pSnapshotFile), 64 * 1024))) {
+
+        Map<String, CachedResource> lSnapshot = ConfigurationSnapshot.read(lInput);
+        if (lSnapshot != null) {
+          Map<String, CachedResource> lResources = ConfigurationResourceCache.getResources(getClassLoader());
+          for (Map.Entry<String, CachedResource> lNext : lSnapshot.entrySet()) {
+            lResources.putIfAbsent(lNext.getKey(), lNext.getValue());
+          }
+          lLoaded = true;
+          FallbackTraceProviderImpl.EMERGENCY_TRACE.info("Using configuration snapshot " + pSnapshotFile);
+        }
+        else {
+          FallbackTraceProviderImpl.EMERGENCY_TRACE.info("Configuration snapshot " + pSnapshotFile
+              + " does not match the current classpath and will be ignored.");
+        }
+      }
+      // Snapshot is corrupt so we do a regular startup.
+      catch (IOException | RuntimeException e) {
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.warn("Unable to read configuration snapshot " + pSnapshotFile + ". "
+            + e.getMessage());
+      }
+    }
+    return lLoaded;
+  }
+
+  /**
+   * Method writes all configuration files that are currently cached by {@link ConfigurationReader} to the passed
+   * snapshot file. Configuration files that are part of the configuration index are not written.
+   *
+   * @param pSnapshotFile File to which the snapshot should be written. The file is replaced atomically if it already
+   * exists. The parameter must not be null.
+   * @throws XFunRuntimeException if the snapshot can not be written.
+   */
+  public static void write( Path pSnapshotFile ) throws XFunRuntimeException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pSnapshotFile, "pSnapshotFile");
+
+    // Sort resources so that the same state always results in the same file.
+    Map<String, CachedResource> lResources = new TreeMap<>();
+    for (Map.Entry<String, CachedResource> lNext : ConfigurationResourceCache.getResources(getClassLoader())
+        .entrySet()) {
+      if (lNext.getValue().isIndexed() == false) {
+        lResources.put(lNext.getKey(), lNext.getValue());
+      }
+    }
+
+    Path lTempFile = null;
+    try {
+      Path lDirectory = pSnapshotFile.toAbsolutePath().getParent();
+      Files.createDirectories(lDirectory);
+      lTempFile = Files.createTempFile(lDirectory, pSnapshotFile.getFileName().toString(), ".tmp");
+      try (DataOutputStream lOutput =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(lTempFile), 64 * 1024))) {
+
+        lOutput.writeInt(MAGIC_NUMBER);
+        lOutput.writeInt(FORMAT_VERSION);
+        byte[] lFingerprint = ConfigurationSnapshot.calculateFingerprint();
+        lOutput.writeInt(lFingerprint.length);
+        lOutput.write(lFingerprint);
+        lOutput.writeInt(lResources.size());
+        for (Map.Entry<String, CachedResource> lNext : lResources.entrySet()) {
+          CachedResource lResource = lNext.getValue();
+          lOutput.writeUTF(lNext.getKey());
+          lOutput.writeBoolean(lResource.isAvailable());
+          if (lResource.isAvailable() == true) {
+            lOutput.writeUTF(lResource.getURL().toExternalForm());
+            long[] lStamp = ConfigurationSnapshot.getModificationStamp(lResource.getURL());
+            lOutput.writeLong(lStamp[0]);
+            lOutput.writeLong(lStamp[1]);
+            List<String> lEntries = lResource.getEntries();
+            lOutput.writeInt(lEntries.size());
+            for (String lNextEntry : lEntries) {
+              lOutput.writeUTF(lNextEntry);
+            }
+          }
+        }
+      }
+      Files.move(lTempFile, pSnapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException e) {
+      throw new XFunRuntimeException("Unable to write configuration snapshot " + pSnapshotFile + ". " + e.getMessage(),
+          e);
+    }
+    finally {
+      ConfigurationSnapshot.deleteQuietly(lTempFile);
+    }
+  }
+
+  /**
+   * Method reads all configuration files from the passed snapshot.
+   *
+   * @param pInput Stream from which the snapshot is read.
+   * @return {@link Map} All configuration files of the snapshot or null if the snapshot does not match the current
+   * classpath, configuration files or file format.
+   * @throws IOException if the snapshot can not be read.
+   */
+  private static Map<String, CachedResource> read( DataInputStream pInput ) throws IOException {
+    Map<String, CachedResource> lResources;
+    if (pInput.readInt() == MAGIC_NUMBER && pInput.readInt() == FORMAT_VERSION) {
+      byte[] lFingerprint = new byte[pInput.readInt()];
+      pInput.readFully(lFingerprint);
+      if (Arrays.equals(lFingerprint, ConfigurationSnapshot.calculateFingerprint()) == true) {
+        int lCount = pInput.readInt();
+        lResources = new HashMap<>(lCount * 2);
+        boolean lUnchanged = true;
+        for (int i = 0; i < lCount; i++) {
+          String lPath = pInput.readUTF();
+          CachedResource lResource;
+          if (pInput.readBoolean() == true) {
+            URL lURL = new URL(pInput.readUTF());
+            long[] lStamp = new long[] { pInput.readLong(), pInput.readLong() };
+            if (Arrays.equals(lStamp, ConfigurationSnapshot.getModificationStamp(lURL)) == false) {
+              lUnchanged = false;
+            }
+            int lEntryCount = pInput.readInt();
+            List<String> lEntries = new ArrayList<>(lEntryCount);
+            for (int j = 0; j < lEntryCount; j++) {
+              lEntries.add(pInput.readUTF());
+            }
+            lResource = new CachedResource(lURL, Collections.unmodifiableList(lEntries));
+          }
+          // Configuration file did not exist when the snapshot was written.
+          else {
+            lResource = new CachedResource(null, null);
+            if (ConfigurationSnapshot.existsInClasspathDirectory(lPath) == true) {
+              lUnchanged = false;
+            }
+          }
+          lResources.put(lPath, lResource);
+        }
+        // At least one configuration file changed since the snapshot was written.
+        if (lUnchanged == false) {
+          lResources = null;
+        }
+      }
+      // Classpath changed.
+      else {
+        lResources = null;
+      }
+    }
+    // Unknown file format
+    else {
+      lResources = null;
+    }
+    return lResources;
+  }
+
+  /**
+   * Method calculates the fingerprint of the current classpath.
+   *
+   * @return byte[] Fingerprint of the classpath. The method never returns null.
+   */
+  static byte[] calculateFingerprint( ) {
+    try {
+      MessageDigest lDigest = MessageDigest.getInstance("SHA-256");
+      String lClasspath = System.getProperty("java.class.path", "");
+      StringBuilder lBuilder = new StringBuilder();
+      lBuilder.append(System.getProperty("java.version")).append('\n');
+      lBuilder.append(lClasspath).append('\n');
+      for (String lNextEntry : lClasspath.split(File.pathSeparator)) {
+        File lFile = new File(lNextEntry);
+        lBuilder.append(lFile.length()).append(':').append(lFile.lastModified()).append('\n');
+      }
+      return lDigest.digest(lBuilder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new XFunRuntimeException("Unable to calculate classpath fingerprint. " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Method returns size and modification time of the file from which the passed configuration file is read. For
+   * configuration files inside a JAR file size and modification time of the JAR file are returned.
+   *
+   * @param pURL URL of the configuration file. The parameter must not be null.
+   * @return long[] Array with size and modification time. If the URL does not refer to a local file then both values
+   * are -1. The method never returns null.
+   */
+  static long[] getModificationStamp( URL pURL ) {
+    long[] lStamp;
+    File lFile = ConfigurationSnapshot.toFile(pURL);
+    if (lFile != null) {
+      lStamp = new long[] { lFile.length(), lFile.lastModified() };
+    }
+    // Configuration file is not read from a local file so only the classpath fingerprint is relevant.
+    else {
+      lStamp = new long[] { -1, -1 };
+    }
+    return lStamp;
+  }
+
+  /**
+   * Method resolves the local file from which the passed configuration file is read.
+   *
+   * @param pURL URL of the configuration file. The parameter must not be null.
+   * @return {@link File} Local file or JAR file that contains the configuration file. The method returns null if the
+   * URL does not refer to a local file.
+   */
+  private static File toFile( URL pURL ) {
+    File lFile;
+    try {
+      URL lURL = pURL;
+      if ("jar".equals(lURL.getProtocol()) == true) {
+        String lPath = lURL.getPath();
+        int lSeparator = lPath.indexOf("!/");
+        if (lSeparator >= 0) {
+          lPath = lPath.substring(0, lSeparator);
+        }
+        lURL = new URL(lPath);
+      }
+      if ("file".equals(lURL.getProtocol()) == true) {
+        lFile = new File(lURL.toURI());
+      }
+      else {
+        lFile = null;
+      }
+    }
+    catch (MalformedURLException | URISyntaxException | IllegalArgumentException e) {
+      lFile = null;
+    }
+    return lFile;
+  }
+
+  /**
+   * Method checks if the passed configuration file exists in one of the directories of the classpath. Configuration
+   * files inside JAR files are covered by the classpath fingerprint.
+   *
+   * @param pPath Path of the configuration file relative to the classpath root.
+   * @return boolean Method returns true if the file exists in at least one directory of the classpath.
+   */
+  private static boolean existsInClasspathDirectory( String pPath ) {
+    boolean lExists = false;
+    for (String lNextEntry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+      File lDirectory = new File(lNextEntry);
+      if (lDirectory.isDirectory() == true && new File(lDirectory, pPath).exists() == true) {
+        lExists = true;
+        break;
+      }
+    }
+    return lExists;
+  }
+
+  /**
+   * Method returns the class loader whose configuration files are part of the snapshot.
+   *
+   * @return {@link ClassLoader} Class loader that is used by {@link ConfigurationReader}.
+   */
+  private static ClassLoader getClassLoader( ) {
+    return ConfigurationReader.getClassLoader();
+  }
+
+  /**
+   * Method deletes the passed file if it exists. Problems are ignored.
+   *
+   * @param pFile File that should be deleted. The parameter may be null.
+   */
+  private static void deleteQuietly( Path pFile ) {
+    if (pFile != null) {
+      try {
+        Files.deleteIfExists(pFile);
+      }
+      catch (IOException e) {
+        // Nothing to do.
+      }
+    }
+  }
+}
@@ -0,0 +1,436 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.Set;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+
+/**
+ * Class merges a stack of configuration resources into one flat view. Layers are passed in the order of their priority.
+ * If a configuration key is defined in several layers then the value of the first layer wins. This way e.g. "env
+ * overrides system property overrides file" can be expressed as
+ * <code>new LayeredConfiguration(lEnvironment, lSystemProperties, lFile)</code>.
+ *
+ * All layers are read once when the object is created and merged into an immutable map. Thus looking up a
+ * configuration value only costs one map access no matter how many layers exist. For diagnostic purposes the layer
+ * that provides a value can be requested using {@link #getSource(String)}.
+ *
+ * Changes of a layer are not detected automatically. After a layer changed either {@link #layerChanged(int)} or
+ * {@link #refresh()} has to be called. Only the changed layer is read again and only the keys that are defined in it
+ * are merged again. Every change of the merged values leads to a new version of this resource. Thus it can be used
+ * together with {@link CachingConfiguration}. If the configuration belongs to a component then all keys whose merged
+ * value changed are published through {@link ConfigurationChangeBus}. Changes that are detected by one call of
+ * {@link #refresh()} are published as one reload cycle.
+ *
+ * @author JEAF Development Team
+ */
+public class LayeredConfiguration implements VersionedConfigurationResource {
+  /**
+   * Layers in the order of their priority. The list is immutable.
+   */
+  private final List<ConfigurationResource> layers;
+
+  /**
+   * ID of the component to which the configuration belongs. The reference is null if changes should not be published.
+   */
+  private final ComponentID componentID;
+
+  /**
+   * Current state of the merged configuration values. The reference is never null.
+   */
+  private volatile State state;
+
+  /**
+   * Initialize object.
+   *
+   * @param pLayers Layers in the order of their priority. The first layer has the highest priority. The parameter must
+   * not be null and must not contain null.
+   */
+  public LayeredConfiguration( ConfigurationResource... pLayers ) {
+    this(null, LayeredConfiguration.toList(pLayers));
+  }
+
+  /**
+   * Initialize object.
+   *
+   * @param pLayers Layers in the order of their priority. The first layer has the highest priority. The parameter must
+   * not be null and must not contain null.
+   */
+  public LayeredConfiguration( List<? extends ConfigurationResource> pLayers ) {
+    this(null, pLayers);
+  }
+
+  /**
+   * Initialize object. Changes of the merged values will be published through {@link ConfigurationChangeBus}.
+   *
+   * @param pComponentID ID of the component to which the configuration belongs. The parameter may be null. In this
+   * case changes are not published.
+   * @param pLayers Layers in the order of their priority. The first layer has the highest priority. The parameter must
+   * not be null and must not contain null.
+   */
+  public LayeredConfiguration( ComponentID pComponentID, List<? extends ConfigurationResource> pLayers ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pLayers, "pLayers");
+    for (ConfigurationResource lNextLayer : pLayers) {
+      Check.checkInvalidParameterNull(lNextLayer, "pLayers[i]");
+    }
+
+    componentID = pComponentID;
+    layers = Collections.unmodifiableList(new ArrayList<>(pLayers));
+    List<Map<String, String>> lLayerValues = new ArrayList<>(layers.size());
+    long[] lLayerVersions = new long[layers.size()];
+    for (int i = 0; i < layers.size(); i++) {
+      lLayerVersions[i] = this.getLayerVersion(i);
+      lLayerValues.add(this.readLayer(i));
+    }
+
+    // Lower layers are merged first so that higher layers overwrite their values.
+    Map<String, Entry> lValues = new HashMap<>();
+    for (int i = layers.size() - 1; i >= 0; i--) {
+      for (Map.Entry<String, String> lNext : lLayerValues.get(i).entrySet()) {
+        lValues.put(lNext.getKey(), new Entry(lNext.getValue(), i));
+      }
+    }
+    state = new State(lValues, lLayerValues, lLayerVersions, 0);
+  }
+
+  /**
+   * Method returns all layers of this configuration.
+   *
+   * @return {@link List} Immutable list with all layers in the order of their priority. The method never returns null.
+   */
+  public List<ConfigurationResource> getLayers( ) {
+    return layers;
+  }
+
+  /**
+   * Method returns the ID of the component to which the configuration belongs.
+   *
+   * @return {@link ComponentID} ID of the component or null if changes are not published.
+   */
+  public ComponentID getComponentID( ) {
+    return componentID;
+  }
+
+  /**
+   * Method returns the layer that provides the value of the passed configuration key.
+   *
+   * @param pConfigurationKey Configuration key whose source should be returned. The parameter must not be null.
+   * @return {@link ConfigurationResource} Layer that provides the value or null if the key is not defined in any layer.
+   */
+  public ConfigurationResource getSource( String pConfigurationKey ) {
+    Entry lEntry = state.values.get(pConfigurationKey);
+    ConfigurationResource lSource;
+    if (lEntry != null) {
+      lSource = layers.get(lEntry.layer);
+    }
+    else {
+      lSource = null;
+    }
+    return lSource;
+  }
+
+  /**
+   * Method reads all layers that implement {@link VersionedConfigurationResource} and whose version changed again.
+   *
+   * @return boolean Method returns true if the merged values changed and false otherwise.
+   */
+  public synchronized boolean refresh( ) {
+    ConfigurationChangeBus.ChangeCycle lCycle = ConfigurationChangeBus.getInstance().newCycle();
+    boolean lChanged = false;
+    for (int i = 0; i < layers.size(); i++) {
+      boolean lVersioned = layers.get(i) instanceof VersionedConfigurationResource;
+      if (lVersioned == true && this.getLayerVersion(i) != state.layerVersions[i]) {
+        lChanged = this.layerChanged(i, lCycle) || lChanged;
+      }
+    }
+    lCycle.publish();
+    return lChanged;
+  }
+
+  /**
+   * Method reads the layer with the passed index again and merges its values.
+   *
+   * @param pLayer Index of the layer that changed.
+   * @return boolean Method returns true if the merged values changed and false otherwise.
+   */
+  public synchronized boolean layerChanged( int pLayer ) {
+    // Check parameter.
+    Check.checkIsPartOfSet(0, layers.size() - 1, pLayer);
+
+    ConfigurationChangeBus.ChangeCycle lCycle = ConfigurationChangeBus.getInstance().newCycle();
+    boolean lChanged = this.layerChanged(pLayer, lCycle);
+    lCycle.publish();
+    return lChanged;
+  }
+
+  /**
+   * Method reads the layer with the passed index again and merges its values. All keys whose merged value changed are
+   * added to the passed cycle if the configuration belongs to a component.
+   *
+   * @param pLayer Index of the layer that changed.
+   * @param pCycle Reload cycle to which changed keys are added.
+   * @return boolean Method returns true if the merged values changed and false otherwise.
+   */
+  private boolean layerChanged( int pLayer, ConfigurationChangeBus.ChangeCycle pCycle ) {
+    State lCurrent = state;
+    long[] lLayerVersions = lCurrent.layerVersions.clone();
+    lLayerVersions[pLayer] = this.getLayerVersion(pLayer);
+    Map<String, String> lOldLayerValues = lCurrent.layerValues.get(pLayer);
+    Map<String, String> lNewLayerValues = this.readLayer(pLayer);
+    List<Map<String, String>> lLayerValues = new ArrayList<>(lCurrent.layerValues);
+    lLayerValues.set(pLayer, lNewLayerValues);
+
+    // Only keys that are defined in the old or the new version of the layer have to be merged again.
+    Set<String> lAffectedKeys = new HashSet<>(lOldLayerValues.keySet());
+    lAffectedKeys.addAll(lNewLayerValues.keySet());
+    Map<String, Entry> lValues = null;
+    Set<String> lChangedKeys = new HashSet<>();
+    for (String lNextKey : lAffectedKeys) {
+      Entry lOldEntry = lCurrent.values.get(lNextKey);
+      Entry lNewEntry = this.merge(lNextKey, lLayerValues);
+      if (lNewEntry == null ? lOldEntry != null : lNewEntry.equals(lOldEntry) == false) {
+        if (lValues == null) {
+          lValues = new HashMap<>(lCurrent.values);
+        }
+        // Only a change of the value itself is relevant for listeners but not a change of the providing layer.
+        String lOldValue = lOldEntry != null ? lOldEntry.value : null;
+        String lNewValue = lNewEntry != null ? lNewEntry.value : null;
+        if (lOldEntry == null || lNewEntry == null || Objects.equals(lOldValue, lNewValue) == false) {
+          lChangedKeys.add(lNextKey);
+        }
+        if (lNewEntry != null) {
+          lValues.put(lNextKey, lNewEntry);
+        }
+        else {
+          lValues.remove(lNextKey);
+        }
+      }
+    }
+
+    // Version is only incremented if a value really changed.
+    boolean lChanged;
+    if (lValues != null) {
+      state = new State(lValues, lLayerValues, lLayerVersions, lCurrent.version + 1);
+      lChanged = true;
+      if (componentID != null) {
+        pCycle.addChanges(componentID, lChangedKeys);
+      }
+    }
+    else {
+      state = new State(lCurrent.values, lLayerValues, lLayerVersions, lCurrent.version);
+      lChanged = false;
+    }
+    return lChanged;
+  }
+
+  @Override
+  public long getVersion( ) {
+    return state.version;
+  }
+
+  @Override
+  public String getResourceName( ) {
+    List<String> lNames = new ArrayList<>(layers.size());
+    for (ConfigurationResource lNextLayer : layers) {
+      lNames.add(lNextLayer.getResourceName());
+    }
+    return "LayeredConfiguration" + lNames;
+  }
+
+  @Override
+  public String getResourceLocation( ) {
+    List<String> lLocations = new ArrayList<>(layers.size());
+    for (ConfigurationResource lNextLayer : layers) {
+      lLocations.add(lNextLayer.getResourceLocation());
+    }
+    return lLocations.toString();
+  }
+
+  @Override
+  public boolean hasConfigurationValue( String pConfigurationKey ) {
+    return state.values.containsKey(pConfigurationKey);
+  }
+
+  @Override
+  public List<String> getAllConfigurationKeys( ) {
+    return new ArrayList<>(state.values.keySet());
+  }
+
+  @Override
+  public String getConfigurationValue( String pConfigurationKey ) throws MissingResourceException {
+    Entry lEntry = state.values.get(pConfigurationKey);
+    if (lEntry == null) {
+      throw new MissingResourceException("Configuration key '" + pConfigurationKey + "' is not defined in any layer of "
+          + this.getResourceName() + ".", this.getClass().getName(), pConfigurationKey);
+    }
+    return lEntry.value;
+  }
+
+  /**
+   * Method converts the passed layers into a list.
+   *
+   * @param pLayers Layers that should be converted. The parameter must not be null.
+   * @return {@link List} List with all passed layers. The method never returns null.
+   */
+  private static List<ConfigurationResource> toList( ConfigurationResource[] pLayers ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pLayers, "pLayers");
+    return Arrays.asList(pLayers);
+  }
+
+  /**
+   * Method determines the entry of the passed key based on the passed values of all layers.
+   *
+   * @param pConfigurationKey Key whose entry should be determined.
+   * @param pLayerValues Values of all layers.
+   * @return {@link Entry} Entry of the first layer that defines the key or null if no layer defines it.
+   */
+  private Entry merge( String pConfigurationKey, List<Map<String, String>> pLayerValues ) {
+    Entry lEntry = null;
+    for (int i = 0; i < pLayerValues.size() && lEntry == null; i++) {
+      Map<String, String> lNextValues = pLayerValues.get(i);
+      if (lNextValues.containsKey(pConfigurationKey) == true) {
+        lEntry = new Entry(lNextValues.get(pConfigurationKey), i);
+      }
+    }
+    return lEntry;
+  }
+
+  /**
+   * Method reads all configuration values of the layer with the passed index.
+   *
+   * @param pLayer Index of the layer.
+   * @return {@link Map} Immutable map with all values of the layer. The method never returns null.
+   */
+  private Map<String, String> readLayer( int pLayer ) {
+    ConfigurationResource lLayer = layers.get(pLayer);
+    Map<String, String> lValues = new HashMap<>();
+    for (String lNextKey : lLayer.getAllConfigurationKeys()) {
+      try {
+        lValues.put(lNextKey, lLayer.getConfigurationValue(lNextKey));
+      }
+      // Key was removed in the meantime.
+      catch (MissingResourceException e) {
+        // Nothing to do.
+      }
+    }
+    return Collections.unmodifiableMap(lValues);
+  }
+
+  /**
+   * Method returns the current version of the layer with the passed index.
+   *
+   * @param pLayer Index of the layer.
+   * @return long Version of the layer. Layers that are not versioned always have version 0.
+   */
+  private long getLayerVersion( int pLayer ) {
+    ConfigurationResource lLayer = layers.get(pLayer);
+    long lVersion;
+    if (lLayer instanceof VersionedConfigurationResource) {
+      lVersion = ((VersionedConfigurationResource) lLayer).getVersion();
+    }
+    else {
+      lVersion = 0;
+    }
+    return lVersion;
+  }
+
+  /**
+   * Class represents a merged configuration value together with the layer that provides it.
+   */
+  private static final class Entry {
+    /**
+     * Configuration value. The value may be null if the key is defined but not set.
+     */
+    private final String value;
+
+    /**
+     * Index of the layer that provides the value.
+     */
+    private final int layer;
+
+    /**
+     * Initialize object.
+     *
+     * @param pValue Configuration value.
+     * @param pLayer Index of the layer that provides the value.
+     */
+    Entry( String pValue, int pLayer ) {
+      value = pValue;
+      layer = pLayer;
+    }
+
+    @Override
+    public int hashCode( ) {
+      return (value == null ? 0 : value.hashCode()) * 31 + layer;
+    }
+
+    @Override
+    public boolean equals( Object pObject ) {
+      boolean lEquals;
+      if (pObject instanceof Entry) {
+        Entry lOther = (Entry) pObject;
+        lEquals = layer == lOther.layer && (value == null ? lOther.value == null : value.equals(lOther.value));
+      }
+      else {
+        lEquals = false;
+      }
+      return lEquals;
+    }
+  }
+
+  /**
+   * Class represents an immutable state of the merged configuration values.
+   */
+  private static final class State {
+    /**
+     * Merged values of all layers.
+     */
+    private final Map<String, Entry> values;
+
+    /**
+     * Values of each layer as they were read last time.
+     */
+    private final List<Map<String, String>> layerValues;
+
+    /**
+     * Versions of each layer as they were read last time.
+     */
+    private final long[] layerVersions;
+
+    /**
+     * Version of the merged values.
+     */
+    private final long version;
+
+    /**
+     * Initialize object.
+     *
+     * @param pValues Merged values of all layers.
+     * @param pLayerValues Values of each layer.
+     * @param pLayerVersions Versions of each layer.
+     * @param pVersion Version of the merged values.
+     */
+    State( Map<String, Entry> pValues, List<Map<String, String>> pLayerValues, long[] pLayerVersions, long pVersion ) {
+      values = pValues;
+      layerValues = pLayerValues;
+      layerVersions = pLayerVersions;
+      version = pVersion;
+    }
+  }
+}
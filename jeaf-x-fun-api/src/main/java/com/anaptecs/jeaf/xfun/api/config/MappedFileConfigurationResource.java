@@ -0,0 +1,440 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.anaptecs.jeaf.xfun.api.XFunMessages;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class implements a configuration resource for large files in properties format. Instead of loading the whole file
+ * into a {@link java.util.Properties} object the file is mapped into memory. When the resource is created the file is
+ * scanned once and only the hash code and the offset of every key are stored in an open addressing hash table. Values
+ * are decoded on their first access and cached afterwards. Thus the heap that is required is proportional to the
+ * number of configuration keys that are actually used and not to the size of the file.
+ *
+ * The format of the file is the same as for {@link java.util.Properties#load(java.io.Reader)} including comments, line
+ * continuations and escape sequences. Files are expected to be encoded in UTF-8. The file must not change as long as
+ * the resource is used and its size is limited to 2 GB.
+ *
+ * @author JEAF Development Team
+ */
+public class MappedFileConfigurationResource implements ConfigurationResource {
+  /**
+   * Marker for empty slots in the hash table.
+   */
+  private static final int EMPTY = -1;
+
+  /**
+   * Name of the file as it was passed when the resource was created.
+   */
+  private final String fileName;
+
+  /**
+   * Absolute and normalized path of the file.
+   */
+  private final Path path;
+
+  /**
+   * Content of the file. Only absolute read operations are used so that the buffer can be shared between threads.
+   */
+  private final MappedByteBuffer buffer;
+
+  /**
+   * Hash codes of all keys. The array has the same size as {@link #offsets}.
+   */
+  private final int[] hashes;
+
+  /**
+   * Offsets of all keys inside the file. Empty slots are marked with {@link #EMPTY}. The size of the array is always a
+   * power of 2.
+   */
+  private final int[] offsets;
+
+  /**
+   * Number of keys in the file.
+   */
+  private final int size;
+
+  /**
+   * Map contains all values that were decoded so far.
+   */
+  private final Map<String, String> values = new ConcurrentHashMap<>();
+
+  /**
+   * Initialize object. The file will be mapped and indexed immediately.
+   *
+   * @param pFileName Name of the properties file. The parameter must not be null.
+   * @throws JEAFSystemException if the file can not be read.
+   */
+  public MappedFileConfigurationResource( String pFileName ) throws JEAFSystemException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pFileName, "pFileName");
+
+    fileName = pFileName;
+    path = Paths.get(pFileName).toAbsolutePath().normalize();
+    try (FileChannel lChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long lSize = lChannel.size();
+      if (lSize > Integer.MAX_VALUE) {
+        throw new IOException("File " + path + " is too large to be mapped.");
+      }
+      buffer = lChannel.map(FileChannel.MapMode.READ_ONLY, 0, lSize);
+    }
+    catch (IOException | IllegalArgumentException e) {
+      throw new JEAFSystemException(XFunMessages.FILE_NOT_FOUND, e, pFileName);
+    }
+
+    // Collect offsets of all keys.
+    int[] lKeyOffsets = new int[64];
+    int lCount = 0;
+    int lPosition = 0;
+    int lLimit = buffer.limit();
+    while (lPosition < lLimit) {
+      lPosition = this.skipWhitespace(lPosition);
+      if (lPosition < lLimit) {
+        int lNext = buffer.get(lPosition);
+        // Blank lines and comments are ignored.
+        if (lNext == '\n' || lNext == '\r' || lNext == '#' || lNext == '!') {
+          lPosition = this.skipLine(lPosition);
+        }
+        // Line contains a key
+        else {
+          if (lCount == lKeyOffsets.length) {
+            lKeyOffsets = Arrays.copyOf(lKeyOffsets, lCount * 2);
+          }
+          lKeyOffsets[lCount] = lPosition;
+          lCount++;
+          lPosition = this.decode(this.decode(lPosition, null, true), null, false);
+        }
+      }
+    }
+
+    // Build hash table. Later definitions of a key replace earlier ones.
+    int lCapacity = Integer.highestOneBit(Math.max(lCount, 8) * 2 - 1) << 1;
+    hashes = new int[lCapacity];
+    offsets = new int[lCapacity];
+    Arrays.fill(offsets, EMPTY);
+    int lSize = 0;
+    StringBuilder lBuilder = new StringBuilder();
+    for (int i = 0; i < lCount; i++) {
+      lBuilder.setLength(0);
+      this.decode(lKeyOffsets[i], lBuilder, true);
+      String lKey = lBuilder.toString();
+      int lSlot = this.findSlot(lKey);
+      if (offsets[lSlot] == EMPTY) {
+        hashes[lSlot] = lKey.hashCode();
+        lSize++;
+      }
+      offsets[lSlot] = lKeyOffsets[i];
+    }
+    size = lSize;
+  }
+
+  /**
+   * Method returns the absolute path of the file from which the configuration values are read.
+   *
+   * @return {@link Path} Path of the file. The method never returns null.
+   */
+  public Path getPath( ) {
+    return path;
+  }
+
+  @Override
+  public String getResourceName( ) {
+    return fileName;
+  }
+
+  @Override
+  public String getResourceLocation( ) {
+    return path.toString();
+  }
+
+  @Override
+  public boolean hasConfigurationValue( String pConfigurationKey ) {
+    return values.containsKey(pConfigurationKey) || offsets[this.findSlot(pConfigurationKey)] != EMPTY;
+  }
+
+  @Override
+  public List<String> getAllConfigurationKeys( ) {
+    List<String> lKeys = new ArrayList<>(size);
+    StringBuilder lBuilder = new StringBuilder();
+    for (int lOffset : offsets) {
+      if (lOffset != EMPTY) {
+        lBuilder.setLength(0);
+        this.decode(lOffset, lBuilder, true);
+        lKeys.add(lBuilder.toString());
+      }
+    }
+    return lKeys;
+  }
+
+  @Override
+  public String getConfigurationValue( String pConfigurationKey ) throws MissingResourceException {
+    String lValue = values.get(pConfigurationKey);
+    if (lValue == null) {
+      int lOffset = offsets[this.findSlot(pConfigurationKey)];
+      if (lOffset != EMPTY) {
+        StringBuilder lBuilder = new StringBuilder();
+        this.decode(this.decode(lOffset, null, true), lBuilder, false);
+        lValue = lBuilder.toString();
+        values.put(pConfigurationKey, lValue);
+      }
+      // Key is not defined in file.
+      else {
+        throw new MissingResourceException("Configuration key '" + pConfigurationKey + "' is not defined in file "
+            + path + ".", fileName, pConfigurationKey);
+      }
+    }
+    return lValue;
+  }
+
+  /**
+   * Method returns the slot of the hash table that contains the passed key or the empty slot where it would have to be
+   * stored.
+   *
+   * @param pKey Key that should be looked up. The parameter must not be null.
+   * @return int Index of the slot.
+   */
+  private int findSlot( String pKey ) {
+    int lHash = pKey.hashCode();
+    int lMask = offsets.length - 1;
+    int lSlot = (lHash ^ (lHash >>> 16)) & lMask;
+    while (offsets[lSlot] != EMPTY && (hashes[lSlot] != lHash || this.keyEquals(offsets[lSlot], pKey) == false)) {
+      lSlot = (lSlot + 1) & lMask;
+    }
+    return lSlot;
+  }
+
+  /**
+   * Method checks if the key at the passed offset equals the passed key.
+   *
+   * @param pOffset Offset of the key inside the file.
+   * @param pKey Key that should be compared.
+   * @return boolean Method returns true if both keys are equal.
+   */
+  private boolean keyEquals( int pOffset, String pKey ) {
+    StringBuilder lBuilder = new StringBuilder(pKey.length());
+    this.decode(pOffset, lBuilder, true);
+    return pKey.contentEquals(lBuilder);
+  }
+
+  /**
+   * Method skips all whitespace characters that do not end a line.
+   *
+   * @param pPosition Position where to start.
+   * @return int Position of the first character that is not a whitespace.
+   */
+  private int skipWhitespace( int pPosition ) {
+    int lPosition = pPosition;
+    int lLimit = buffer.limit();
+    while (lPosition < lLimit && this.isWhitespace(buffer.get(lPosition)) == true) {
+      lPosition++;
+    }
+    return lPosition;
+  }
+
+  /**
+   * Method skips the rest of the current physical line including its line terminator.
+   *
+   * @param pPosition Position inside the line.
+   * @return int Position of the first character of the next line.
+   */
+  private int skipLine( int pPosition ) {
+    int lPosition = pPosition;
+    int lLimit = buffer.limit();
+    while (lPosition < lLimit && buffer.get(lPosition) != '\n' && buffer.get(lPosition) != '\r') {
+      lPosition++;
+    }
+    return this.skipLineTerminator(lPosition);
+  }
+
+  /**
+   * Method skips the line terminator at the passed position if there is one.
+   *
+   * @param pPosition Position of the line terminator.
+   * @return int Position after the line terminator.
+   */
+  private int skipLineTerminator( int pPosition ) {
+    int lPosition = pPosition;
+    int lLimit = buffer.limit();
+    if (lPosition < lLimit && buffer.get(lPosition) == '\r') {
+      lPosition++;
+    }
+    if (lPosition < lLimit && buffer.get(lPosition) == '\n') {
+      lPosition++;
+    }
+    return lPosition;
+  }
+
+  /**
+   * Method decodes a key or a value of a logical line. Escape sequences and line continuations are handled the same
+   * way as by {@link java.util.Properties}.
+   *
+   * @param pPosition Position of the first character of the key or value.
+   * @param pResult Builder to which the decoded characters are appended. The parameter may be null if the key or value
+   * should only be skipped.
+   * @param pKey Parameter defines if a key or a value should be decoded. Keys end at the first unescaped separator. In
+   * case of a key all separators are skipped as well.
+   * @return int Position after the key including its separators or position of the next line in case of a value.
+   */
+  private int decode( int pPosition, StringBuilder pResult, boolean pKey ) {
+    int lPosition = pPosition;
+    int lLimit = buffer.limit();
+    boolean lEnd = false;
+    while (lEnd == false && lPosition < lLimit) {
+      int lNext = buffer.get(lPosition) & 0xFF;
+      // End of logical line
+      if (lNext == '\n' || lNext == '\r') {
+        if (pKey == false) {
+          lPosition = this.skipLineTerminator(lPosition);
+        }
+        lEnd = true;
+      }
+      // End of key
+      else if (pKey == true && (lNext == '=' || lNext == ':' || this.isWhitespace((byte) lNext) == true)) {
+        lPosition = this.skipWhitespace(lPosition);
+        if (lPosition < lLimit && (buffer.get(lPosition) == '=' || buffer.get(lPosition) == ':')) {
+          lPosition = this.skipWhitespace(lPosition + 1);
+        }
+        lEnd = true;
+      }
+      else if (lNext == '\\') {
+        lPosition++;
+        if (lPosition < lLimit) {
+          lNext = buffer.get(lPosition) & 0xFF;
+          // Line continues on next physical line.
+          if (lNext == '\n' || lNext == '\r') {
+            lPosition = this.skipWhitespace(this.skipLineTerminator(lPosition));
+          }
+          // Unicode escape sequence
+          else if (lNext == 'u') {
+            int lCharacter = 0;
+            for (int i = 0; i < 4; i++) {
+              lPosition++;
+              int lDigit = lPosition < lLimit ? Character.digit(buffer.get(lPosition), 16) : -1;
+              if (lDigit < 0) {
+                throw new IllegalArgumentException("Malformed \\uxxxx encoding in file " + path + ".");
+              }
+              lCharacter = (lCharacter << 4) | lDigit;
+            }
+            this.append(pResult, (char) lCharacter);
+            lPosition++;
+          }
+          else {
+            lPosition = this.decodeCharacter(lPosition, pResult, true);
+          }
+        }
+      }
+      else {
+        lPosition = this.decodeCharacter(lPosition, pResult, false);
+      }
+    }
+    return lPosition;
+  }
+
+  /**
+   * Method decodes the UTF-8 encoded character at the passed position.
+   *
+   * @param pPosition Position of the first byte of the character.
+   * @param pResult Builder to which the decoded character is appended. The parameter may be null.
+   * @param pEscaped Parameter defines if the character is preceded by a backslash.
+   * @return int Position after the character.
+   */
+  private int decodeCharacter( int pPosition, StringBuilder pResult, boolean pEscaped ) {
+    int lFirst = buffer.get(pPosition) & 0xFF;
+    int lLength;
+    int lCodePoint;
+    if (lFirst < 0x80) {
+      lLength = 1;
+      lCodePoint = lFirst;
+      if (pEscaped == true) {
+        lCodePoint = this.unescape(lCodePoint);
+      }
+    }
+    else if (lFirst >= 0xF0) {
+      lLength = 4;
+      lCodePoint = lFirst & 0x07;
+    }
+    else if (lFirst >= 0xE0) {
+      lLength = 3;
+      lCodePoint = lFirst & 0x0F;
+    }
+    else {
+      lLength = 2;
+      lCodePoint = lFirst & 0x1F;
+    }
+    int lEnd = Math.min(pPosition + lLength, buffer.limit());
+    for (int i = pPosition + 1; i < lEnd; i++) {
+      lCodePoint = (lCodePoint << 6) | (buffer.get(i) & 0x3F);
+    }
+    if (pResult != null) {
+      pResult.appendCodePoint(lCodePoint);
+    }
+    return lEnd;
+  }
+
+  /**
+   * Method returns the character that is represented by the passed escaped character.
+   *
+   * @param pCharacter Character that follows a backslash.
+   * @return int Represented character.
+   */
+  private int unescape( int pCharacter ) {
+    int lCharacter;
+    switch (pCharacter) {
+      case 't':
+        lCharacter = '\t';
+        break;
+      case 'n':
+        lCharacter = '\n';
+        break;
+      case 'r':
+        lCharacter = '\r';
+        break;
+      case 'f':
+        lCharacter = '\f';
+        break;
+      default:
+        lCharacter = pCharacter;
+    }
+    return lCharacter;
+  }
+
+  /**
+   * Method appends the passed character if a builder is passed.
+   *
+   * @param pResult Builder to which the character should be appended. The parameter may be null.
+   * @param pCharacter Character that should be appended.
+   */
+  private void append( StringBuilder pResult, char pCharacter ) {
+    if (pResult != null) {
+      pResult.append(pCharacter);
+    }
+  }
+
+  /**
+   * Method checks if the passed byte is a whitespace that does not end a line.
+   *
+   * @param pByte Byte that should be checked.
+   * @return boolean Method returns true if the byte is a space, tab or form feed.
+   */
+  private boolean isWhitespace( byte pByte ) {
+    return pByte == ' ' || pByte == '\t' || pByte == '\f';
+  }
+}
@@ -0,0 +1,520 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class represents a compiled template with placeholders as they are used e.g. by
+ * {@link ConfigurationProvider#replaceSystemProperties(String)}. Templates are parsed only once into literal and
+ * reference segments. Rendering a template afterwards only requires to resolve its references and to append all
+ * segments to one buffer.
+ *
+ * Placeholders are defined by a leading '${' and an ending '}'. The following variants are supported:
+ * <ul>
+ * <li><code>${name}</code> is replaced by the value of <code>name</code>.</li>
+ * <li><code>${name:-default}</code> is replaced by the value of <code>name</code> or by <code>default</code> if
+ * <code>name</code> can not be resolved.</li>
+ * <li>Names and default values may contain further placeholders e.g. <code>${db.${stage}.url:-${db.url}}</code>.</li>
+ * </ul>
+ * A single ':' is not treated as separator. Thus <code>${a:b}</code> still references the value with name
+ * <code>a:b</code>.
+ * Placeholders that can not be resolved and that do not have a default value remain unchanged. Resolved values are not
+ * scanned for further placeholders.
+ *
+ * Compiled templates are immutable and thread-safe. Templates that are created using {@link #compile(String)} are
+ * cached. The size of the cache can be defined using system property {@link #TEMPLATE_CACHE_SIZE}. If the cache is full
+ * then further templates are still compiled but not cached any longer. The cache is cleared whenever JEAF X-Fun is
+ * reloaded.
+ *
+ * @author JEAF Development Team
+ */
+public final class PlaceholderTemplate {
+  /**
+   * Name of the system property that defines how many compiled templates are cached.
+   */
+  public static final String TEMPLATE_CACHE_SIZE = "xfun.config.templateCacheSize";
+
+  /**
+   * Default number of compiled templates that are cached.
+   */
+  public static final int DEFAULT_TEMPLATE_CACHE_SIZE = 1024;
+
+  /**
+   * Maximum number of cached templates.
+   */
+  private static final int MAX_CACHE_SIZE = Integer.getInteger(TEMPLATE_CACHE_SIZE, DEFAULT_TEMPLATE_CACHE_SIZE);
+
+  /**
+   * Map contains all cached templates. The template string is used as key. Cached templates can be read without any
+   * locking.
+   */
+  private static final Map<String, PlaceholderTemplate> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * Parser mode for the top level of a template.
+   */
+  private static final int TEXT = 0;
+
+  /**
+   * Parser mode for the name of a placeholder.
+   */
+  private static final int NAME = 1;
+
+  /**
+   * Parser mode for the default value of a placeholder.
+   */
+  private static final int DEFAULT = 2;
+
+  /**
+   * Template string from which this object was compiled.
+   */
+  private final String template;
+
+  /**
+   * Segments of the template.
+   */
+  private final Segment[] segments;
+
+  /**
+   * Length of the last rendered result. It is used to size the buffer for the next rendering.
+   */
+  private volatile int lastLength;
+
+  /**
+   * Initialize object.
+   *
+   * @param pTemplate Template string that should be compiled. The parameter must not be null.
+   */
+  private PlaceholderTemplate( String pTemplate ) {
+    template = pTemplate;
+    segments = new Parser(pTemplate).parse();
+    lastLength = pTemplate.length() + 16;
+  }
+
+  /**
+   * Method returns the compiled template for the passed template string. Compiled templates are cached.
+   *
+   * @param pTemplate Template string that should be compiled. The parameter must not be null.
+   * @return {@link PlaceholderTemplate} Compiled template. The method never returns null.
+   */
+  public static PlaceholderTemplate compile( String pTemplate ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pTemplate, "pTemplate");
+
+    PlaceholderTemplate lTemplate = CACHE.get(pTemplate);
+    // Concurrent threads may compile the same template but this is harmless.
+    if (lTemplate == null) {
+      lTemplate = new PlaceholderTemplate(pTemplate);
+
+      // Cache is bounded in case that an application uses arbitrary templates.
+      if (CACHE.size() < MAX_CACHE_SIZE) {
+        CACHE.put(pTemplate, lTemplate);
+      }
+    }
+    return lTemplate;
+  }
+
+  /**
+   * Method replaces all placeholders inside the passed string with the values of the matching system properties.
+   *
+   * @param pValue String inside which placeholders should be replaced. The parameter may be null.
+   * @return String with replaced placeholders. The method returns null if null is passed.
+   */
+  public static String replaceSystemProperties( String pValue ) {
+    String lResult;
+    if (pValue != null) {
+      lResult = PlaceholderTemplate.compile(pValue).render();
+    }
+    else {
+      lResult = null;
+    }
+    return lResult;
+  }
+
+  /**
+   * Method removes all cached templates.
+   */
+  public static void clearCache( ) {
+    CACHE.clear();
+  }
+
+  /**
+   * Method returns the template string from which this object was compiled.
+   *
+   * @return String Template string. The method never returns null.
+   */
+  public String getTemplate( ) {
+    return template;
+  }
+
+  /**
+   * Method checks if the template contains any placeholders.
+   *
+   * @return boolean Method returns true if the template does not contain any placeholders and false otherwise.
+   */
+  public boolean isConstant( ) {
+    return segments.length == 0 || (segments.length == 1 && segments[0] instanceof Literal);
+  }
+
+  /**
+   * Method renders the template using system properties to resolve placeholders.
+   *
+   * @return String Rendered template. The method never returns null.
+   */
+  public String render( ) {
+    return this.render(System::getProperty);
+  }
+
+  /**
+   * Method renders the template.
+   *
+   * @param pResolver Function that is used to resolve the values of placeholders. The function has to return null if a
+   * placeholder can not be resolved. The parameter must not be null.
+   * @return String Rendered template. The method never returns null.
+   */
+  public String render( Function<String, String> pResolver ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pResolver, "pResolver");
+
+    String lResult;
+    if (this.isConstant() == true) {
+      lResult = template;
+    }
+    else {
+      StringBuilder lBuilder = new StringBuilder(lastLength);
+      PlaceholderTemplate.render(segments, pResolver, lBuilder);
+      lastLength = lBuilder.length();
+      lResult = lBuilder.toString();
+    }
+    return lResult;
+  }
+
+  @Override
+  public String toString( ) {
+    return template;
+  }
+
+  /**
+   * Method appends all passed segments to the passed buffer.
+   *
+   * @param pSegments Segments that should be rendered.
+   * @param pResolver Function that is used to resolve placeholders.
+   * @param pBuilder Buffer to which the segments are appended.
+   */
+  private static void render( Segment[] pSegments, Function<String, String> pResolver, StringBuilder pBuilder ) {
+    for (Segment lNextSegment : pSegments) {
+      lNextSegment.render(pResolver, pBuilder);
+    }
+  }
+
+  /**
+   * Interface is implemented by all parts of a compiled template.
+   */
+  private interface Segment {
+    /**
+     * Method appends the segment to the passed buffer.
+     *
+     * @param pResolver Function that is used to resolve placeholders.
+     * @param pBuilder Buffer to which the segment is appended.
+     */
+    void render( Function<String, String> pResolver, StringBuilder pBuilder );
+  }
+
+  /**
+   * Class represents a part of a template that is copied unchanged.
+   */
+  private static final class Literal implements Segment {
+    /**
+     * Text of the literal.
+     */
+    private final String text;
+
+    /**
+     * Initialize object.
+     *
+     * @param pText Text of the literal.
+     */
+    Literal( String pText ) {
+      text = pText;
+    }
+
+    @Override
+    public void render( Function<String, String> pResolver, StringBuilder pBuilder ) {
+      pBuilder.append(text);
+    }
+  }
+
+  /**
+   * Class represents a placeholder.
+   */
+  private static final class Reference implements Segment {
+    /**
+     * Placeholder as it is defined in the template.
+     */
+    private final String source;
+
+    /**
+     * Name of the referenced value if the name does not contain any placeholders and null otherwise.
+     */
+    private final String name;
+
+    /**
+     * Segments of the name if it contains placeholders and null otherwise.
+     */
+    private final Segment[] nameSegments;
+
+    /**
+     * Segments of the default value or null if no default value is defined.
+     */
+    private final Segment[] defaultSegments;
+
+    /**
+     * Initialize object.
+     *
+     * @param pSource Placeholder as it is defined in the template.
+     * @param pNameSegments Segments of the name.
+     * @param pDefaultSegments Segments of the default value. The parameter may be null.
+     */
+    Reference( String pSource, Segment[] pNameSegments, Segment[] pDefaultSegments ) {
+      source = pSource;
+      if (pNameSegments.length == 1 && pNameSegments[0] instanceof Literal) {
+        name = ((Literal) pNameSegments[0]).text;
+        nameSegments = null;
+      }
+      else {
+        name = null;
+        nameSegments = pNameSegments;
+      }
+      defaultSegments = pDefaultSegments;
+    }
+
+    @Override
+    public void render( Function<String, String> pResolver, StringBuilder pBuilder ) {
+      String lName;
+      if (name != null) {
+        lName = name;
+      }
+      else {
+        StringBuilder lNameBuilder = new StringBuilder();
+        PlaceholderTemplate.render(nameSegments, pResolver, lNameBuilder);
+        lName = lNameBuilder.toString();
+      }
+
+      String lValue = pResolver.apply(lName);
+      if (lValue != null) {
+        pBuilder.append(lValue);
+      }
+      // Placeholder can not be resolved so the default value is used.
+      else if (defaultSegments != null) {
+        PlaceholderTemplate.render(defaultSegments, pResolver, pBuilder);
+      }
+      // We can not substitute the placeholder.
+      else {
+        XFun.getTrace().warn("Unable to substitute placeholder " + lName + ". Value is not set.");
+        pBuilder.append(source);
+      }
+    }
+  }
+
+  /**
+   * Class represents a placeholder whose end was not yet reached while a template is parsed.
+   */
+  private static final class Frame {
+    /**
+     * Parser mode of the frame.
+     */
+    private int mode;
+
+    /**
+     * Position of the leading '$' of the placeholder or -1 for the top level of the template.
+     */
+    private final int start;
+
+    /**
+     * Segments of the name of the placeholder. They are only set after the frame switched to mode {@link #DEFAULT}.
+     */
+    private Segment[] nameSegments;
+
+    /**
+     * Segments of the currently parsed part.
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * Literal text that was collected since the last segment.
+     */
+    private final StringBuilder literal = new StringBuilder();
+
+    /**
+     * Initialize object.
+     *
+     * @param pMode Parser mode of the frame.
+     * @param pStart Position of the leading '$' of the placeholder or -1 for the top level of the template.
+     */
+    Frame( int pMode, int pStart ) {
+      mode = pMode;
+      start = pStart;
+    }
+
+    /**
+     * Method adds the passed segment to the currently parsed part.
+     *
+     * @param pSegment Segment that should be added.
+     */
+    void addSegment( Segment pSegment ) {
+      if (pSegment instanceof Literal) {
+        literal.append(((Literal) pSegment).text);
+      }
+      else {
+        this.flush();
+        segments.add(pSegment);
+      }
+    }
+
+    /**
+     * Method returns all segments of the currently parsed part.
+     *
+     * @return {@link Segment} Segments of the currently parsed part. The method never returns null.
+     */
+    Segment[] toSegments( ) {
+      this.flush();
+      return segments.toArray(new Segment[segments.size()]);
+    }
+
+    /**
+     * Method adds the text of this unterminated placeholder as it is to the passed frame. Nested placeholders that were
+     * terminated remain placeholders.
+     *
+     * @param pParent Frame that contains this frame.
+     */
+    void addAsLiteral( Frame pParent ) {
+      pParent.literal.append("${");
+      if (nameSegments != null) {
+        for (Segment lNextSegment : nameSegments) {
+          pParent.addSegment(lNextSegment);
+        }
+        pParent.literal.append(":-");
+      }
+      for (Segment lNextSegment : this.toSegments()) {
+        pParent.addSegment(lNextSegment);
+      }
+    }
+
+    /**
+     * Method adds the collected literal text as segment.
+     */
+    private void flush( ) {
+      if (literal.length() > 0) {
+        segments.add(new Literal(literal.toString()));
+        literal.setLength(0);
+      }
+    }
+  }
+
+  /**
+   * Class parses a template string into segments. The template is parsed in a single pass from left to right. All
+   * placeholders whose end was not yet reached are kept on a stack. If the end of the template is reached while
+   * placeholders are still open then they are added as literal text to their enclosing part. Thus parsing time is
+   * linear to the length of the template and does not depend on the nesting depth of placeholders.
+   */
+  private static final class Parser {
+    /**
+     * Template string that is parsed.
+     */
+    private final String text;
+
+    /**
+     * Initialize object.
+     *
+     * @param pText Template string that should be parsed.
+     */
+    Parser( String pText ) {
+      text = pText;
+    }
+
+    /**
+     * Method parses the template.
+     *
+     * @return {@link Segment} Parsed segments of the template. The method never returns null.
+     */
+    Segment[] parse( ) {
+      Deque<Frame> lOpenFrames = new ArrayDeque<>();
+      Frame lCurrent = new Frame(TEXT, -1);
+      int lPosition = 0;
+      while (lPosition < text.length()) {
+        char lNext = text.charAt(lPosition);
+        if (lCurrent.mode != TEXT && (lNext == '}' || (lCurrent.mode == NAME && this.isDefaultSeparator(lPosition)))) {
+          Frame lFrame = lCurrent;
+          Segment[] lSegments = lFrame.toSegments();
+          boolean lEmptyName = lFrame.mode == NAME && lSegments.length == 0;
+          // Placeholders with an empty name are invalid. Their leading '${' is treated as literal and the terminating
+          // character is processed again as part of the enclosing part.
+          if (lEmptyName == true) {
+            lCurrent = lOpenFrames.pop();
+            lCurrent.literal.append("${");
+          }
+          // Name of the placeholder is followed by a default value.
+          else if (lNext == ':') {
+            lFrame.mode = DEFAULT;
+            lFrame.nameSegments = lSegments;
+            lFrame.segments.clear();
+            lPosition = lPosition + 2;
+          }
+          // Placeholder is terminated.
+          else {
+            lCurrent = lOpenFrames.pop();
+            String lSource = text.substring(lFrame.start, lPosition + 1);
+            if (lFrame.mode == NAME) {
+              lCurrent.addSegment(new Reference(lSource, lSegments, null));
+            }
+            else {
+              lCurrent.addSegment(new Reference(lSource, lFrame.nameSegments, lSegments));
+            }
+            lPosition++;
+          }
+        }
+        else if (lNext == '$' && text.startsWith("{", lPosition + 1) == true) {
+          lOpenFrames.push(lCurrent);
+          lCurrent = new Frame(NAME, lPosition);
+          lPosition = lPosition + 2;
+        }
+        else {
+          lCurrent.literal.append(lNext);
+          lPosition++;
+        }
+      }
+
+      // End of template is reached so all open placeholders are not terminated and remain unchanged.
+      while (lOpenFrames.isEmpty() == false) {
+        Frame lFrame = lCurrent;
+        lCurrent = lOpenFrames.pop();
+        lFrame.addAsLiteral(lCurrent);
+      }
+      return lCurrent.toSegments();
+    }
+
+    /**
+     * Method checks if the separator ':-' between the name and the default value of a placeholder starts at the passed
+     * position.
+     *
+     * @param pPosition Position inside the template.
+     * @return boolean Method returns true if the separator starts at the passed position and false otherwise.
+     */
+    private boolean isDefaultSeparator( int pPosition ) {
+      return text.startsWith(":-", pPosition);
+    }
+  }
+}
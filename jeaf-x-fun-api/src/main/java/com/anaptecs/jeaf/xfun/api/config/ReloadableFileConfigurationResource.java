@@ -0,0 +1,353 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.anaptecs.jeaf.xfun.api.XFunMessages;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class implements a configuration resource that reads its values from a properties file and reloads them whenever the
+ * file changes. Changes of the file are detected using a {@link java.nio.file.WatchService}. The file is parsed in the
+ * background and the new values are published as immutable snapshot with a single volatile write. Thus readers never
+ * have to lock and always see a consistent state of the file.
+ *
+ * Every snapshot that contains different values than its predecessor gets a new version (see
+ * {@link VersionedConfigurationResource}). If the file can not be read any longer then the last successfully read
+ * values are kept.
+ *
+ * If the resource belongs to a component then all changed keys are published through {@link ConfigurationChangeBus}.
+ * Files that are reloaded together by the watcher are published as one reload cycle. Resources that are created by
+ * {@link ReloadableFileConfigurationResourceFactory} publish their changes using the component ID of their file (see
+ * {@link #toComponentID(String)}).
+ *
+ * Files are expected to be in properties format using UTF-8 encoding. Watching of the file ends as soon as the resource
+ * is closed.
+ *
+ * @author JEAF Development Team
+ */
+public class ReloadableFileConfigurationResource implements VersionedConfigurationResource, AutoCloseable {
+  /**
+   * Name of the system property that defines how many milliseconds the watcher waits after a change was detected before
+   * the file is read. This way files that are written in several steps are not read while they are still incomplete and
+   * multiple changes are coalesced into one reload.
+   */
+  public static final String RELOAD_DELAY = "xfun.config.reloadDelay";
+
+  /**
+   * Default delay in milliseconds before changed files are read.
+   */
+  public static final int DEFAULT_RELOAD_DELAY = 100;
+
+  /**
+   * Name of the file as it was passed when the resource was created.
+   */
+  private final String fileName;
+
+  /**
+   * Absolute and normalized path of the file.
+   */
+  private final Path path;
+
+  /**
+   * ID of the component to which the resource belongs. The reference is null if changes should not be published.
+   */
+  private final ComponentID componentID;
+
+  /**
+   * Callback that is executed when the resource is closed. The reference may be null.
+   */
+  private final Consumer<ReloadableFileConfigurationResource> closeCallback;
+
+  /**
+   * Flag indicates if the resource was already closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Current snapshot of the configuration values. The reference is never null.
+   */
+  private volatile Snapshot snapshot;
+
+  /**
+   * Initialize object. The file will be read immediately and watched afterwards.
+   *
+   * @param pFileName Name of the properties file. The parameter must not be null.
+   * @throws JEAFSystemException if the file can not be read.
+   */
+  public ReloadableFileConfigurationResource( String pFileName ) throws JEAFSystemException {
+    this(pFileName, null);
+  }
+
+  /**
+   * Initialize object. The file will be read immediately and watched afterwards. Changes of the file will be published
+   * for the passed component.
+   *
+   * @param pFileName Name of the properties file. The parameter must not be null.
+   * @param pComponentID ID of the component to which the resource belongs. The parameter may be null. In this case
+   * changes are not published.
+   * @throws JEAFSystemException if the file can not be read.
+   */
+  public ReloadableFileConfigurationResource( String pFileName, ComponentID pComponentID ) throws JEAFSystemException {
+    this(pFileName, pComponentID, null);
+  }
+
+  /**
+   * Initialize object. The file will be read immediately and watched afterwards. Changes of the file will be published
+   * for the passed component.
+   *
+   * @param pFileName Name of the properties file. The parameter must not be null.
+   * @param pComponentID ID of the component to which the resource belongs. The parameter may be null. In this case
+   * changes are not published.
+   * @param pCloseCallback Callback that is executed with the resource when it is closed. The parameter may be null.
+   * @throws JEAFSystemException if the file can not be read.
+   */
+  ReloadableFileConfigurationResource( String pFileName, ComponentID pComponentID,
+      Consumer<ReloadableFileConfigurationResource> pCloseCallback ) throws JEAFSystemException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pFileName, "pFileName");
+
+    fileName = pFileName;
+    componentID = pComponentID;
+    closeCallback = pCloseCallback;
+    path = Paths.get(pFileName).toAbsolutePath().normalize();
+    try {
+      snapshot = new Snapshot(this.readFile(), 0);
+    }
+    catch (IOException | IllegalArgumentException e) {
+      throw new JEAFSystemException(XFunMessages.FILE_NOT_FOUND, e, pFileName);
+    }
+    ConfigurationFileWatcher.getInstance().register(this);
+  }
+
+  /**
+   * Method returns the component ID under which changes of the passed file are published by resources that are created
+   * through {@link ReloadableFileConfigurationResourceFactory}. Listeners for changes of the file can be registered at
+   * {@link ConfigurationChangeBus} using this ID.
+   *
+   * @param pFileName Name of the file. The parameter must not be null.
+   * @return {@link ComponentID} ID of the file. Its name is the absolute and normalized path of the file. The method
+   * never returns null.
+   */
+  public static ComponentID toComponentID( String pFileName ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pFileName, "pFileName");
+
+    Path lPath = Paths.get(pFileName).toAbsolutePath().normalize();
+    return new ComponentID(lPath.toString(), ReloadableFileConfigurationResource.class.getPackage().getName());
+  }
+
+  /**
+   * Method returns the absolute path of the file from which the configuration values are read.
+   *
+   * @return {@link Path} Path of the file. The method never returns null.
+   */
+  public Path getPath( ) {
+    return path;
+  }
+
+  /**
+   * Method returns the ID of the component to which the resource belongs.
+   *
+   * @return {@link ComponentID} ID of the component or null if changes are not published.
+   */
+  public ComponentID getComponentID( ) {
+    return componentID;
+  }
+
+  @Override
+  public String getResourceName( ) {
+    return fileName;
+  }
+
+  @Override
+  public String getResourceLocation( ) {
+    return path.toString();
+  }
+
+  @Override
+  public boolean hasConfigurationValue( String pConfigurationKey ) {
+    return snapshot.values.containsKey(pConfigurationKey);
+  }
+
+  @Override
+  public List<String> getAllConfigurationKeys( ) {
+    return new ArrayList<>(snapshot.values.keySet());
+  }
+
+  @Override
+  public String getConfigurationValue( String pConfigurationKey ) throws MissingResourceException {
+    // Snapshot must only be read once to get a consistent result.
+    Map<String, String> lValues = snapshot.values;
+    String lValue = lValues.get(pConfigurationKey);
+    if (lValue == null && lValues.containsKey(pConfigurationKey) == false) {
+      throw new MissingResourceException("Configuration key '" + pConfigurationKey + "' is not defined in file "
+          + path + ".", fileName, pConfigurationKey);
+    }
+    return lValue;
+  }
+
+  @Override
+  public long getVersion( ) {
+    return snapshot.version;
+  }
+
+  /**
+   * Method reads the file again and publishes its values if they changed. The method is called automatically whenever
+   * a change of the file is detected. It may also be called explicitly. In this case changes are published as reload
+   * cycle of their own.
+   *
+   * @return boolean Method returns true if a new version of the configuration values was published and false
+   * otherwise.
+   * @throws IOException if the file can not be read. In this case the current values are kept.
+   */
+  public boolean reload( ) throws IOException {
+    ConfigurationChangeBus.ChangeCycle lCycle = ConfigurationChangeBus.getInstance().newCycle();
+    boolean lChanged = this.reload(lCycle);
+    lCycle.publish();
+    return lChanged;
+  }
+
+  /**
+   * Method reads the file again and publishes its values if they changed. Changed keys are added to the passed cycle.
+   *
+   * @param pCycle Reload cycle to which changes are added. The parameter must not be null.
+   * @return boolean Method returns true if a new version of the configuration values was published and false
+   * otherwise.
+   * @throws IOException if the file can not be read. In this case the current values are kept.
+   */
+  synchronized boolean reload( ConfigurationChangeBus.ChangeCycle pCycle ) throws IOException {
+    Map<String, String> lValues;
+    try {
+      lValues = this.readFile();
+    }
+    catch (IllegalArgumentException e) {
+      throw new IOException("File " + path + " is not a valid properties file. " + e.getMessage(), e);
+    }
+
+    // Touching a file without changing it must not invalidate values that are cached by readers.
+    boolean lChanged;
+    Snapshot lCurrent = snapshot;
+    if (lCurrent.values.equals(lValues) == false) {
+      snapshot = new Snapshot(lValues, lCurrent.version + 1);
+      lChanged = true;
+      if (componentID != null) {
+        pCycle.addChanges(componentID, ReloadableFileConfigurationResource.getChangedKeys(lCurrent.values, lValues));
+      }
+    }
+    else {
+      lChanged = false;
+    }
+    return lChanged;
+  }
+
+  /**
+   * Method stops watching the file. The values that were read so far are still available.
+   */
+  @Override
+  public void close( ) {
+    if (closed == false) {
+      closed = true;
+      ConfigurationFileWatcher.getInstance().unregister(this);
+      if (closeCallback != null) {
+        closeCallback.accept(this);
+      }
+    }
+  }
+
+  /**
+   * Method checks if the resource was closed.
+   *
+   * @return boolean Method returns true if the resource was closed and its file is no longer watched.
+   */
+  public boolean isClosed( ) {
+    return closed;
+  }
+
+  /**
+   * Method determines all keys that were added, modified or removed.
+   *
+   * @param pOldValues Previous configuration values.
+   * @param pNewValues New configuration values.
+   * @return {@link Set} All changed keys. The method never returns null.
+   */
+  private static Set<String> getChangedKeys( Map<String, String> pOldValues, Map<String, String> pNewValues ) {
+    Set<String> lChangedKeys = new HashSet<>();
+    for (Map.Entry<String, String> lNext : pNewValues.entrySet()) {
+      if (lNext.getValue().equals(pOldValues.get(lNext.getKey())) == false) {
+        lChangedKeys.add(lNext.getKey());
+      }
+    }
+    for (String lNextKey : pOldValues.keySet()) {
+      if (pNewValues.containsKey(lNextKey) == false) {
+        lChangedKeys.add(lNextKey);
+      }
+    }
+    return lChangedKeys;
+  }
+
+  /**
+   * Method reads all configuration values from the file.
+   *
+   * @return {@link Map} Immutable map with all configuration values. The method never returns null.
+   * @throws IOException if the file can not be read.
+   */
+  private Map<String, String> readFile( ) throws IOException {
+    Properties lProperties = new Properties();
+    try (Reader lReader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      lProperties.load(lReader);
+    }
+    Map<String, String> lValues = new HashMap<>(lProperties.size() * 2);
+    for (String lNextKey : lProperties.stringPropertyNames()) {
+      lValues.put(lNextKey, lProperties.getProperty(lNextKey));
+    }
+    return Collections.unmodifiableMap(lValues);
+  }
+
+  /**
+   * Class represents an immutable state of the configuration values of the file.
+   */
+  private static final class Snapshot {
+    /**
+     * Immutable map with all configuration values.
+     */
+    private final Map<String, String> values;
+
+    /**
+     * Version of the snapshot.
+     */
+    private final long version;
+
+    /**
+     * Initialize object.
+     *
+     * @param pValues Immutable map with all configuration values.
+     * @param pVersion Version of the snapshot.
+     */
+    Snapshot( Map<String, String> pValues, long pVersion ) {
+      values = pValues;
+      version = pVersion;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+/**
+ * Class implements a {@link FileConfigurationResourceFactory} that returns
+ * {@link ReloadableFileConfigurationResource}s. Thus changes of configuration files become visible without restarting
+ * the application or reloading JEAF X-Fun. The factory can be activated through
+ * {@link com.anaptecs.jeaf.xfun.annotations.ConfigurationProviderConfig#fileConfigurationResourceFactory()}.
+ *
+ * Resources are shared per file so that every file is only read and watched once. Changes of a file are published
+ * through {@link ConfigurationChangeBus} using the component ID of the file (see
+ * {@link ReloadableFileConfigurationResource#toComponentID(String)}). As soon as a resource is closed it is removed
+ * from the factory so that the next request for the file returns a new resource.
+ *
+ * @author JEAF Development Team
+ */
+public class ReloadableFileConfigurationResourceFactory implements FileConfigurationResourceFactory {
+  /**
+   * Map contains all resources that were created so far. The absolute and normalized path of the file is used as key.
+   */
+  private final Map<Path, ReloadableFileConfigurationResource> resources = new ConcurrentHashMap<>();
+
+  /**
+   * Method returns the reloadable configuration resource of the file with the passed name.
+   *
+   * @param pFileName Name of the file from which the configuration values should be read. The parameter must not be
+   * null.
+   * @return {@link ConfigurationResource} Configuration resource of the passed file. The returned object is an instance
+   * of {@link ReloadableFileConfigurationResource}. The method never returns null.
+   * @throws JEAFSystemException In case that the file could not be opened an {@link JEAFSystemException} will be
+   * thrown.
+   */
+  @Override
+  public ConfigurationResource getFileConfigurationResource( String pFileName ) throws JEAFSystemException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pFileName, "pFileName");
+
+    Path lPath = Paths.get(pFileName).toAbsolutePath().normalize();
+    return resources.computeIfAbsent(lPath, p -> this.createResource(p, pFileName));
+  }
+
+  /**
+   * Method creates a new resource for the passed file. The resource removes itself from this factory when it is closed.
+   *
+   * @param pPath Absolute and normalized path of the file.
+   * @param pFileName Name of the file as it was passed to the factory.
+   * @return {@link ReloadableFileConfigurationResource} Created resource. The method never returns null.
+   */
+  private ReloadableFileConfigurationResource createResource( Path pPath, String pFileName ) {
+    ComponentID lComponentID = ReloadableFileConfigurationResource.toComponentID(pFileName);
+    return new ReloadableFileConfigurationResource(pFileName, lComponentID,
+        pResource -> resources.remove(pPath, pResource));
+  }
+}
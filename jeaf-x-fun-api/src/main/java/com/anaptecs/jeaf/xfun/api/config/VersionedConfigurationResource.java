@@ -0,0 +1,23 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.config;
+
+/**
+ * Interface has to be implemented by configuration resources whose values may change at runtime. Every change of the
+ * configuration values has to lead to a new version. This way caches like {@link CachingConfiguration} can detect that
+ * the values they hold are outdated.
+ *
+ * @author JEAF Development Team
+ */
+public interface VersionedConfigurationResource extends ConfigurationResource {
+  /**
+   * Method returns the current version of the configuration values of this resource.
+   *
+   * @return long Current version. The version has to change whenever a configuration value of the resource changes.
+   * Besides that there are no further requirements concerning the value.
+   */
+  long getVersion( );
+}
@@ -0,0 +1,487 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.messages;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.errorhandling.ErrorCode;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFBootstrapException;
+import com.anaptecs.jeaf.xfun.api.errorhandling.SystemException;
+import com.anaptecs.jeaf.xfun.api.trace.TraceConfiguration;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.bootstrap.Check;
+
+/**
+ * Class implements a message repository that stores its message definitions in arrays that are indexed by the
+ * localization ID. Thus resolving a message is just a few array loads and no boxing of the localization ID is required.
+ *
+ * In order to also support sparse ID ranges the arrays are organized in pages. A localization ID is split into a
+ * directory index, a table index and a slot within a page. Pages are only created for ID ranges that are really used.
+ *
+ * Reads do not require any lock. All changes are done on a copy of the affected arrays which is published afterwards.
+ *
+ * @author JEAF Development Team
+ */
+public class ArrayMessageRepository implements MessageRepository {
+  /**
+   * Default serial version uid.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Number of bits of a localization ID that address a slot within a page or a page within a table.
+   */
+  private static final int PAGE_BITS = 10;
+
+  /**
+   * Number of entries of a page or table.
+   */
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+  /**
+   * Mask to get the slot of a localization ID within a page or table.
+   */
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  /**
+   * Maximum number of requested locales whose fallback locales are cached.
+   */
+  private static final int MAX_CACHED_LOCALES = 256;
+
+  /**
+   * Map contains the fallback locales of all requested locales (see {@link #getFallbackLocales(Locale)}). As only few
+   * different locales are used by an application they are shared by all repositories.
+   */
+  private static final Map<Locale, Locale[]> FALLBACK_LOCALES = new ConcurrentHashMap<>();
+
+  /**
+   * Directory with all message definitions. It is never modified after it was published.
+   */
+  private volatile MessageDefinition[][][] directory = new MessageDefinition[0][][];
+
+  /**
+   * Set contains the names of all message resources that were already loaded.
+   */
+  private final Set<String> loadedResources = new HashSet<>();
+
+  /**
+   * Method loads the message data into the repository that is contained in the resource file with the passed name.
+   * Message resources are XML files as defined by {@link MessageDataDTD}.
+   *
+   * @param pMessageResource Name of the resource file that should be loaded. The parameter must not be null.
+   */
+  @Override
+  public void loadResource( String pMessageResource ) throws SystemException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pMessageResource, "pMessageResource");
+
+    List<MessageDefinition> lMessages = this.parseResource(pMessageResource);
+    synchronized (this) {
+      if (loadedResources.add(pMessageResource) == true) {
+        this.addAllMessages(lMessages);
+      }
+      // Message resources must not be loaded twice.
+      else {
+        throw new JEAFBootstrapException("Message resource '" + pMessageResource + "' was already loaded.");
+      }
+    }
+  }
+
+  /**
+   * Method adds all passed messages to this repository. Changes are done on a copy of the affected pages. Concurrent
+   * readers either see all or none of the passed messages.
+   *
+   * @param pMessages List with all messages that should be added to the repository. The parameter must not be null.
+   * @throws JEAFBootstrapException if one of the passed messages has a negative localization ID. In this case none of
+   * the passed messages is added.
+   */
+  @Override
+  public synchronized void addAllMessages( List<MessageDefinition> pMessages ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pMessages, "pMessages");
+
+    // Resolve required size of directory.
+    int lMaxID = -1;
+    for (MessageDefinition lNextMessage : pMessages) {
+      int lLocalizationID = lNextMessage.getLocalizedObject().getLocalizationID();
+      if (lLocalizationID < 0) {
+        throw new JEAFBootstrapException(
+            "Localization ID " + lLocalizationID + " is invalid. IDs must not be negative.");
+      }
+      lMaxID = Math.max(lMaxID, lLocalizationID);
+    }
+    int lDirectoryLength = Math.max(directory.length, (lMaxID >>> (2 * PAGE_BITS)) + 1);
+    MessageDefinition[][][] lDirectory = Arrays.copyOf(directory, lDirectoryLength);
+
+    // Arrays that were already copied during this call can be modified directly.
+    Set<Object> lCopies = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (MessageDefinition lNextMessage : pMessages) {
+      int lLocalizationID = lNextMessage.getLocalizedObject().getLocalizationID();
+      int lDirectoryIndex = lLocalizationID >>> (2 * PAGE_BITS);
+      MessageDefinition[][] lTable = lDirectory[lDirectoryIndex];
+      if (lTable == null) {
+        lTable = new MessageDefinition[PAGE_SIZE][];
+        lCopies.add(lTable);
+      }
+      // Existing table is shared with readers.
+      else if (lCopies.contains(lTable) == false) {
+        lTable = lTable.clone();
+        lCopies.add(lTable);
+      }
+      lDirectory[lDirectoryIndex] = lTable;
+
+      int lTableIndex = (lLocalizationID >>> PAGE_BITS) & PAGE_MASK;
+      MessageDefinition[] lPage = lTable[lTableIndex];
+      if (lPage == null) {
+        lPage = new MessageDefinition[PAGE_SIZE];
+        lCopies.add(lPage);
+      }
+      // Existing page is shared with readers.
+      else if (lCopies.contains(lPage) == false) {
+        lPage = lPage.clone();
+        lCopies.add(lPage);
+      }
+      lTable[lTableIndex] = lPage;
+      lPage[lLocalizationID & PAGE_MASK] = lNextMessage;
+    }
+
+    // Publish new version.
+    directory = lDirectory;
+  }
+
+  /**
+   * Method returns all messages of the repository.
+   *
+   * @return {@link List} List with all messages of the repository ordered by their localization ID. The method never
+   * returns null.
+   */
+  @Override
+  public List<MessageDefinition> getAllMessages( ) {
+    List<MessageDefinition> lMessages = new ArrayList<>();
+    for (MessageDefinition[][] lNextTable : directory) {
+      if (lNextTable != null) {
+        for (MessageDefinition[] lNextPage : lNextTable) {
+          if (lNextPage != null) {
+            for (MessageDefinition lNextMessage : lNextPage) {
+              if (lNextMessage != null) {
+                lMessages.add(lNextMessage);
+              }
+            }
+          }
+        }
+      }
+    }
+    return lMessages;
+  }
+
+  @Override
+  public LocalizedObject getLocalizedObject( int pLocalizationID ) throws SystemException {
+    return this.getRequiredMessage(pLocalizationID).getLocalizedObject();
+  }
+
+  @Override
+  public MessageID getMessageID( int pMessageCode ) throws SystemException {
+    return this.getLocalizedObject(pMessageCode, MessageID.class);
+  }
+
+  @Override
+  public boolean existsMessage( int pMessageCode ) {
+    return this.getMessageDefinition(pMessageCode) != null;
+  }
+
+  @Override
+  public ErrorCode getErrorCode( int pErrorCode ) throws SystemException {
+    return this.getLocalizedObject(pErrorCode, ErrorCode.class);
+  }
+
+  @Override
+  public LocalizedString getLocalizedString( int pLocalizationID ) throws SystemException {
+    return this.getLocalizedObject(pLocalizationID, LocalizedString.class);
+  }
+
+  @Override
+  public String getMessage( LocalizedObject pLocalizedObject, String... pMessageParameters ) {
+    return this.getMessage(pLocalizedObject, XFun.getLocaleProvider().getCurrentLocale(), pMessageParameters);
+  }
+
+  @Override
+  public String getMessage( LocalizedObject pLocalizedObject, Locale pLocale, String... pMessageParameters ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pLocalizedObject, "pLocalizedObject");
+    Check.checkInvalidParameterNull(pLocale, "pLocale");
+
+    String lMessage;
+    MessageDefinition lDefinition = this.getMessageDefinition(pLocalizedObject.getLocalizationID());
+    if (lDefinition != null) {
+      MessageFormat lFormat = this.resolveFormat(lDefinition, pLocale);
+      Object[] lParameters;
+      if (pMessageParameters != null) {
+        lParameters = pMessageParameters;
+      }
+      else {
+        lParameters = new Object[0];
+      }
+      // MessageFormat is not thread-safe. Formatting a copy avoids that all threads have to wait for each other.
+      MessageFormat lCopy = (MessageFormat) lFormat.clone();
+      lMessage = lCopy.format(lParameters);
+    }
+    // Unknown messages must not cause any error as they are typically used for tracing and exception handling.
+    else {
+      StringBuilder lBuilder = new StringBuilder();
+      lBuilder.append(pLocalizedObject.getLocalizationID());
+      if (pMessageParameters != null && pMessageParameters.length > 0) {
+        lBuilder.append(':');
+        for (String lNextParameter : pMessageParameters) {
+          lBuilder.append(' ');
+          lBuilder.append(lNextParameter);
+        }
+      }
+      lMessage = lBuilder.toString();
+    }
+    return lMessage;
+  }
+
+  @Override
+  public String getTraceMessage( LocalizedObject pLocalizedObject, String... pMessageParameters ) {
+    TraceConfiguration lTraceConfiguration = TraceConfiguration.getInstance();
+    Locale lLocale;
+    if (lTraceConfiguration.isTraceWithSystemLocaleEnabled() == true) {
+      lLocale = Locale.getDefault();
+    }
+    else {
+      lLocale = lTraceConfiguration.getCustomTraceLocale();
+    }
+    return this.getMessage(pLocalizedObject, lLocale, pMessageParameters);
+  }
+
+  /**
+   * Method returns the message definition with the passed localization ID.
+   *
+   * @param pLocalizationID Localization ID of the message.
+   * @return {@link MessageDefinition} Message definition or null if no message with the passed ID is defined.
+   */
+  private MessageDefinition getMessageDefinition( int pLocalizationID ) {
+    MessageDefinition lDefinition = null;
+    if (pLocalizationID >= 0) {
+      MessageDefinition[][][] lDirectory = directory;
+      int lDirectoryIndex = pLocalizationID >>> (2 * PAGE_BITS);
+      if (lDirectoryIndex < lDirectory.length) {
+        MessageDefinition[][] lTable = lDirectory[lDirectoryIndex];
+        if (lTable != null) {
+          MessageDefinition[] lPage = lTable[(pLocalizationID >>> PAGE_BITS) & PAGE_MASK];
+          if (lPage != null) {
+            lDefinition = lPage[pLocalizationID & PAGE_MASK];
+          }
+        }
+      }
+    }
+    return lDefinition;
+  }
+
+  /**
+   * Method returns the message definition with the passed localization ID.
+   *
+   * @param pLocalizationID Localization ID of the message.
+   * @return {@link MessageDefinition} Message definition. The method never returns null.
+   * @throws JEAFBootstrapException if no message with the passed ID is defined.
+   */
+  private MessageDefinition getRequiredMessage( int pLocalizationID ) {
+    MessageDefinition lDefinition = this.getMessageDefinition(pLocalizationID);
+    if (lDefinition != null) {
+      return lDefinition;
+    }
+    // Message is not defined.
+    else {
+      throw new JEAFBootstrapException("No message with localization ID " + pLocalizationID + " is defined.");
+    }
+  }
+
+  /**
+   * Method returns the localized object with the passed localization ID.
+   *
+   * @param pLocalizationID Localization ID of the message.
+   * @param pType Expected type of the localized object. The parameter must not be null.
+   * @return T Localized object. The method never returns null.
+   * @throws JEAFBootstrapException if no message with the passed ID and type is defined.
+   */
+  private <T extends LocalizedObject> T getLocalizedObject( int pLocalizationID, Class<T> pType ) {
+    LocalizedObject lLocalizedObject = this.getRequiredMessage(pLocalizationID).getLocalizedObject();
+    if (pType.isInstance(lLocalizedObject) == true) {
+      return pType.cast(lLocalizedObject);
+    }
+    // Message has a different type.
+    else {
+      throw new JEAFBootstrapException("Message with localization ID " + pLocalizationID + " is not of type "
+          + pType.getSimpleName() + ".");
+    }
+  }
+
+  /**
+   * Method resolves the message format for the passed locale. If no localization exists for the locale then the
+   * localizations for its language and country and its language are checked. Otherwise the default message is used.
+   *
+   * @param pDefinition Message definition. The parameter must not be null.
+   * @param pLocale Requested locale. The parameter must not be null.
+   * @return {@link MessageFormat} Message format that should be used. The method never returns null.
+   */
+  private MessageFormat resolveFormat( MessageDefinition pDefinition, Locale pLocale ) {
+    Map<Locale, MessageFormat> lLocalizedMessages = pDefinition.getLocalizedMessages();
+    MessageFormat lFormat = null;
+    if (lLocalizedMessages.isEmpty() == false) {
+      // In most cases the requested locale matches directly so fallback locales are only resolved if required.
+      lFormat = lLocalizedMessages.get(pLocale);
+      if (lFormat == null) {
+        for (Locale lNextLocale : ArrayMessageRepository.getFallbackLocales(pLocale)) {
+          lFormat = lLocalizedMessages.get(lNextLocale);
+          if (lFormat != null) {
+            break;
+          }
+        }
+      }
+    }
+    if (lFormat == null) {
+      lFormat = pDefinition.getDefaultMessage();
+    }
+    return lFormat;
+  }
+
+  /**
+   * Method returns the locales that are checked if no localization exists for the passed locale. These are the locale
+   * with the language, country and variant of the passed locale, the one with its language and country and the one with
+   * only its language. Locales that are equal to the passed locale or to a previous one are skipped. Fallback locales
+   * are cached so that no locale has to be created when messages are resolved.
+   *
+   * @param pLocale Requested locale. The parameter must not be null.
+   * @return {@link Locale} Fallback locales in the order in which they should be checked. The method never returns
+   * null. The returned array must not be modified.
+   */
+  private static Locale[] getFallbackLocales( Locale pLocale ) {
+    Locale[] lFallbackLocales = FALLBACK_LOCALES.get(pLocale);
+    if (lFallbackLocales == null) {
+      List<Locale> lLocales = new ArrayList<>(3);
+      lLocales.add(pLocale);
+      String lLanguage = pLocale.getLanguage();
+      String lCountry = pLocale.getCountry();
+      Locale[] lCandidates = new Locale[] { new Locale(lLanguage, lCountry, pLocale.getVariant()),
+        new Locale(lLanguage, lCountry), new Locale(lLanguage) };
+      for (Locale lNextCandidate : lCandidates) {
+        if (lLocales.contains(lNextCandidate) == false) {
+          lLocales.add(lNextCandidate);
+        }
+      }
+      lFallbackLocales = lLocales.subList(1, lLocales.size()).toArray(new Locale[0]);
+
+      // Cache is bounded in case that an application uses arbitrary locales.
+      if (FALLBACK_LOCALES.size() < MAX_CACHED_LOCALES) {
+        FALLBACK_LOCALES.put(pLocale, lFallbackLocales);
+      }
+    }
+    return lFallbackLocales;
+  }
+
+  /**
+   * Method parses the passed message resource.
+   *
+   * @param pMessageResource Name of the message resource. The parameter must not be null.
+   * @return {@link List} List with all message definitions of the resource. The method never returns null.
+   */
+  private List<MessageDefinition> parseResource( String pMessageResource ) {
+    ClassLoader lClassLoader = Thread.currentThread().getContextClassLoader();
+    if (lClassLoader == null) {
+      lClassLoader = ArrayMessageRepository.class.getClassLoader();
+    }
+    try (InputStream lInputStream = lClassLoader.getResourceAsStream(pMessageResource)) {
+      if (lInputStream == null) {
+        throw new JEAFBootstrapException(
+            "Message resource '" + pMessageResource + "' could not be found within the application class path.");
+      }
+
+      // DTD is not required as message resources are not validated.
+      DocumentBuilder lBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+      lBuilder.setEntityResolver(( pPublicID, pSystemID ) -> new InputSource(new StringReader("")));
+      Document lDocument = lBuilder.parse(lInputStream);
+
+      NodeList lMessageNodes = lDocument.getElementsByTagName(MessageDataDTD.MESSAGE);
+      List<MessageDefinition> lMessages = new ArrayList<>(lMessageNodes.getLength());
+      for (int i = 0; i < lMessageNodes.getLength(); i++) {
+        lMessages.add(this.createMessageDefinition((Element) lMessageNodes.item(i)));
+      }
+      return lMessages;
+    }
+    catch (IOException | SAXException | ParserConfigurationException | IllegalArgumentException e) {
+      throw new JEAFBootstrapException("Unable to load message resource '" + pMessageResource + "'. " + e.getMessage(),
+          e);
+    }
+  }
+
+  /**
+   * Method creates a message definition from the passed XML element.
+   *
+   * @param pMessageElement XML element describing a message. The parameter must not be null.
+   * @return {@link MessageDefinition} Created message definition. The method never returns null.
+   */
+  private MessageDefinition createMessageDefinition( Element pMessageElement ) {
+    int lMessageID = Integer.parseInt(pMessageElement.getAttribute(MessageDataDTD.MESSAGE_ID));
+    String lTraceLevelName = pMessageElement.getAttribute(MessageDataDTD.MESSAGE_TRACE_LEVEL);
+    TraceLevel lTraceLevel;
+    if (lTraceLevelName.isEmpty() == false) {
+      lTraceLevel = TraceLevel.valueOf(lTraceLevelName);
+    }
+    else {
+      lTraceLevel = TraceLevel.ERROR;
+    }
+
+    LocalizedObject lLocalizedObject;
+    String lType = pMessageElement.getAttribute(MessageDataDTD.TYPE);
+    if (MessageDataDTD.TYPE_ERROR.equals(lType) == true) {
+      lLocalizedObject = new ErrorCode(lMessageID, lTraceLevel);
+    }
+    // Localized strings do not have a trace level.
+    else if (MessageDataDTD.TYPE_LOCALIZED_STRING.equals(lType) == true) {
+      lLocalizedObject = new LocalizedString(lMessageID);
+    }
+    else {
+      lLocalizedObject = new MessageID(lMessageID, lTraceLevel);
+    }
+
+    Map<Locale, MessageFormat> lLocalizedMessages = new HashMap<>();
+    NodeList lLocalizedNodes = pMessageElement.getElementsByTagName(MessageDataDTD.LOCALIZED_MESSAGE);
+    for (int i = 0; i < lLocalizedNodes.getLength(); i++) {
+      Element lNextElement = (Element) lLocalizedNodes.item(i);
+      Locale lLocale = new Locale(lNextElement.getAttribute(MessageDataDTD.LANGUAGE),
+          lNextElement.getAttribute(MessageDataDTD.COUNTRY), lNextElement.getAttribute(MessageDataDTD.VARIANT));
+      String lText = lNextElement.getAttribute(MessageDataDTD.LOCALIZED_TEXT);
+      lLocalizedMessages.put(lLocale, new MessageFormat(lText, lLocale));
+    }
+    String lDefaultText = pMessageElement.getAttribute(MessageDataDTD.MESSAGE_DEFAULT_TEXT);
+    return new MessageDefinition(lLocalizedObject, new MessageFormat(lDefaultText), lLocalizedMessages);
+  }
+}
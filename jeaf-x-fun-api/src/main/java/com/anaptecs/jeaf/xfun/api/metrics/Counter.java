@@ -0,0 +1,72 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class implements a lock-free counter whose value can only be increased.
+ */
+public final class Counter {
+  /**
+   * Name of the counter. The reference is never null.
+   */
+  private final String name;
+
+  /**
+   * Current value of the counter.
+   */
+  private final LongAdder value = new LongAdder();
+
+  /**
+   * Initialize object.
+   * 
+   * @param pName Name of the counter. The parameter must not be null.
+   */
+  public Counter( String pName ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+    name = pName;
+  }
+
+  /**
+   * Method returns the name of this counter.
+   * 
+   * @return {@link String} Name of the counter. The method never returns null.
+   */
+  public String getName( ) {
+    return name;
+  }
+
+  /**
+   * Method increments the counter by 1.
+   */
+  public void increment( ) {
+    value.increment();
+  }
+
+  /**
+   * Method increments the counter by the passed amount.
+   * 
+   * @param pAmount Amount by which the counter should be increased. Negative values will be ignored.
+   */
+  public void add( long pAmount ) {
+    if (pAmount > 0) {
+      value.add(pAmount);
+    }
+  }
+
+  /**
+   * Method returns the current value of the counter.
+   * 
+   * @return long Current value.
+   */
+  public long getValue( ) {
+    return value.sum();
+  }
+}
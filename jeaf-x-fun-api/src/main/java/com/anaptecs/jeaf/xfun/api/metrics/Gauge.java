@@ -0,0 +1,103 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class implements a gauge. A gauge represents a value that can go up and down. Its value is either set explicitly or
+ * it is provided by a {@link LongSupplier} whenever it is read.
+ */
+public final class Gauge {
+  /**
+   * Name of the gauge. The reference is never null.
+   */
+  private final String name;
+
+  /**
+   * Current value of the gauge if it is not backed by a supplier.
+   */
+  private final AtomicLong value = new AtomicLong();
+
+  /**
+   * Supplier that provides the value of the gauge. The reference may be null.
+   */
+  private final LongSupplier supplier;
+
+  /**
+   * Initialize object. The value of the gauge has to be set explicitly.
+   * 
+   * @param pName Name of the gauge. The parameter must not be null.
+   */
+  public Gauge( String pName ) {
+    this(pName, null);
+  }
+
+  /**
+   * Initialize object.
+   * 
+   * @param pName Name of the gauge. The parameter must not be null.
+   * @param pSupplier Supplier that provides the value of the gauge. The parameter may be null. In this case the value
+   * of the gauge has to be set explicitly.
+   */
+  public Gauge( String pName, LongSupplier pSupplier ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+    name = pName;
+    supplier = pSupplier;
+  }
+
+  /**
+   * Method returns the name of this gauge.
+   * 
+   * @return {@link String} Name of the gauge. The method never returns null.
+   */
+  public String getName( ) {
+    return name;
+  }
+
+  /**
+   * Method sets the value of the gauge. If the gauge is backed by a supplier then the value will be ignored.
+   * 
+   * @param pValue New value of the gauge.
+   */
+  public void set( long pValue ) {
+    value.set(pValue);
+  }
+
+  /**
+   * Method increments the value of the gauge by 1.
+   */
+  public void increment( ) {
+    value.incrementAndGet();
+  }
+
+  /**
+   * Method decrements the value of the gauge by 1.
+   */
+  public void decrement( ) {
+    value.decrementAndGet();
+  }
+
+  /**
+   * Method returns the current value of the gauge.
+   * 
+   * @return long Current value.
+   */
+  public long getValue( ) {
+    long lValue;
+    if (supplier != null) {
+      lValue = supplier.getAsLong();
+    }
+    else {
+      lValue = value.get();
+    }
+    return lValue;
+  }
+}
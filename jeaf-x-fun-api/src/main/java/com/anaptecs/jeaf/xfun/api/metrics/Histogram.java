@@ -0,0 +1,245 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class implements a lock-free histogram with fixed memory consumption. Recorded values are counted in log-linear
+ * buckets: Every power of 2 is divided into {@value #SUB_BUCKET_COUNT} equally sized sub buckets. This way the relative
+ * error of all values that are derived from the histogram (e.g. percentiles) is at most 1 / {@value #SUB_BUCKET_COUNT}
+ * independent of the magnitude of the recorded values. The approach is the same as the one used by HdrHistogram.
+ * 
+ * Recording values is wait-free and does not create any garbage. Thus histograms can be used on hot code paths.
+ * Negative values are not supported and will be recorded as 0.
+ */
+public final class Histogram {
+  /**
+   * Number of bits that are used to define the sub buckets of a power of 2.
+   */
+  private static final int SUB_BUCKET_BITS = 5;
+
+  /**
+   * Amount of sub buckets per power of 2.
+   */
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Total amount of buckets that are required to cover all positive long values.
+   */
+  static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  /**
+   * Name of the histogram. The reference is never null.
+   */
+  private final String name;
+
+  /**
+   * Counters of all buckets.
+   */
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Total amount of recorded values.
+   */
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Sum of all recorded values.
+   */
+  private final LongAdder sum = new LongAdder();
+
+  /**
+   * Minimum value that was recorded.
+   */
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+  /**
+   * Maximum value that was recorded.
+   */
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Initialize object.
+   * 
+   * @param pName Name of the histogram. The parameter must not be null.
+   */
+  public Histogram( String pName ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+    name = pName;
+  }
+
+  /**
+   * Method returns the name of this histogram.
+   * 
+   * @return {@link String} Name of the histogram. The method never returns null.
+   */
+  public String getName( ) {
+    return name;
+  }
+
+  /**
+   * Method records the passed value.
+   * 
+   * @param pValue Value that should be recorded. Negative values will be recorded as 0.
+   */
+  public void record( long pValue ) {
+    long lValue = Math.max(pValue, 0);
+    buckets.incrementAndGet(getBucketIndex(lValue));
+    count.increment();
+    sum.add(lValue);
+    if (lValue < min.get()) {
+      min.accumulateAndGet(lValue, Math::min);
+    }
+    if (lValue > max.get()) {
+      max.accumulateAndGet(lValue, Math::max);
+    }
+  }
+
+  /**
+   * Method returns the amount of recorded values.
+   * 
+   * @return long Amount of recorded values.
+   */
+  public long getCount( ) {
+    return count.sum();
+  }
+
+  /**
+   * Method returns the sum of all recorded values.
+   * 
+   * @return long Sum of all recorded values.
+   */
+  public long getSum( ) {
+    return sum.sum();
+  }
+
+  /**
+   * Method returns the mean of all recorded values.
+   * 
+   * @return double Mean of all recorded values. If no values were recorded then 0 is returned.
+   */
+  public double getMean( ) {
+    long lCount = count.sum();
+    double lMean;
+    if (lCount > 0) {
+      lMean = (double) sum.sum() / lCount;
+    }
+    else {
+      lMean = 0;
+    }
+    return lMean;
+  }
+
+  /**
+   * Method returns the minimum of all recorded values.
+   * 
+   * @return long Minimum value. If no values were recorded then 0 is returned.
+   */
+  public long getMin( ) {
+    long lMin = min.get();
+    if (lMin == Long.MAX_VALUE) {
+      lMin = 0;
+    }
+    return lMin;
+  }
+
+  /**
+   * Method returns the maximum of all recorded values.
+   * 
+   * @return long Maximum value. If no values were recorded then 0 is returned.
+   */
+  public long getMax( ) {
+    return max.get();
+  }
+
+  /**
+   * Method returns the value at the passed percentile. As values are recorded in buckets the result is the upper bound
+   * of the bucket that contains the percentile.
+   * 
+   * @param pPercentile Percentile that should be returned. The value has to be between 0 and 100.
+   * @return long Value at the passed percentile. If no values were recorded then 0 is returned.
+   */
+  public long getValueAtPercentile( double pPercentile ) {
+    return this.snapshot().getValueAtPercentile(pPercentile);
+  }
+
+  /**
+   * Method creates a snapshot of the current state of this histogram.
+   * 
+   * @return {@link HistogramSnapshot} Snapshot of this histogram. The method never returns null.
+   */
+  public HistogramSnapshot snapshot( ) {
+    long[] lCounts = new long[BUCKET_COUNT];
+    long lCount = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      lCounts[i] = buckets.get(i);
+      lCount = lCount + lCounts[i];
+    }
+    return new HistogramSnapshot(name, lCounts, lCount, sum.sum(), this.getMin(), max.get());
+  }
+
+  /**
+   * Method resets this histogram. Concurrent recordings during reset may get lost.
+   */
+  public void reset( ) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    min.set(Long.MAX_VALUE);
+    max.set(0);
+  }
+
+  /**
+   * Method returns the index of the bucket to which the passed value belongs.
+   * 
+   * @param pValue Value whose bucket should be returned. The value must not be negative.
+   * @return int Index of the bucket.
+   */
+  static int getBucketIndex( long pValue ) {
+    int lIndex;
+    if (pValue < SUB_BUCKET_COUNT) {
+      lIndex = (int) pValue;
+    }
+    else {
+      int lShift = Long.SIZE - 1 - Long.numberOfLeadingZeros(pValue) - SUB_BUCKET_BITS;
+      lIndex = SUB_BUCKET_COUNT + lShift * SUB_BUCKET_COUNT + (int) (pValue >>> lShift) - SUB_BUCKET_COUNT;
+    }
+    return lIndex;
+  }
+
+  /**
+   * Method returns the highest value that belongs to the bucket with the passed index.
+   * 
+   * @param pIndex Index of the bucket.
+   * @return long Highest value of the bucket.
+   */
+  static long getUpperBound( int pIndex ) {
+    long lUpperBound;
+    if (pIndex < SUB_BUCKET_COUNT) {
+      lUpperBound = pIndex;
+    }
+    else {
+      int lShift = (pIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+      long lSubBucket = SUB_BUCKET_COUNT + (pIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+      // The very last bucket ends at the highest possible value.
+      if (lSubBucket == 2 * SUB_BUCKET_COUNT - 1 && lShift == Long.SIZE - 1 - SUB_BUCKET_BITS - 1) {
+        lUpperBound = Long.MAX_VALUE;
+      }
+      else {
+        lUpperBound = ((lSubBucket + 1) << lShift) - 1;
+      }
+    }
+    return lUpperBound;
+  }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class represents an immutable snapshot of a {@link Histogram}.
+ */
+public final class HistogramSnapshot {
+  /**
+   * Name of the histogram.
+   */
+  private final String name;
+
+  /**
+   * Counters of all buckets of the histogram.
+   */
+  private final long[] buckets;
+
+  /**
+   * Amount of recorded values.
+   */
+  private final long count;
+
+  /**
+   * Sum of all recorded values.
+   */
+  private final long sum;
+
+  /**
+   * Minimum of all recorded values.
+   */
+  private final long min;
+
+  /**
+   * Maximum of all recorded values.
+   */
+  private final long max;
+
+  /**
+   * Initialize object.
+   * 
+   * @param pName Name of the histogram. The parameter must not be null.
+   * @param pBuckets Counters of all buckets. The parameter must not be null. The array will not be copied.
+   * @param pCount Amount of recorded values.
+   * @param pSum Sum of all recorded values.
+   * @param pMin Minimum of all recorded values.
+   * @param pMax Maximum of all recorded values.
+   */
+  HistogramSnapshot( String pName, long[] pBuckets, long pCount, long pSum, long pMin, long pMax ) {
+    // Check parameters
+    Assert.assertNotNull(pName, "pName");
+    Assert.assertNotNull(pBuckets, "pBuckets");
+
+    name = pName;
+    buckets = pBuckets;
+    count = pCount;
+    sum = pSum;
+    min = pMin;
+    max = pMax;
+  }
+
+  /**
+   * Method returns the name of the histogram.
+   * 
+   * @return {@link String} Name of the histogram. The method never returns null.
+   */
+  public String getName( ) {
+    return name;
+  }
+
+  /**
+   * Method returns the amount of recorded values.
+   * 
+   * @return long Amount of recorded values.
+   */
+  public long getCount( ) {
+    return count;
+  }
+
+  /**
+   * Method returns the sum of all recorded values.
+   * 
+   * @return long Sum of all recorded values.
+   */
+  public long getSum( ) {
+    return sum;
+  }
+
+  /**
+   * Method returns the mean of all recorded values.
+   * 
+   * @return double Mean of all recorded values. If no values were recorded then 0 is returned.
+   */
+  public double getMean( ) {
+    double lMean;
+    if (count > 0) {
+      lMean = (double) sum / count;
+    }
+    else {
+      lMean = 0;
+    }
+    return lMean;
+  }
+
+  /**
+   * Method returns the minimum of all recorded values.
+   * 
+   * @return long Minimum value. If no values were recorded then 0 is returned.
+   */
+  public long getMin( ) {
+    return min;
+  }
+
+  /**
+   * Method returns the maximum of all recorded values.
+   * 
+   * @return long Maximum value. If no values were recorded then 0 is returned.
+   */
+  public long getMax( ) {
+    return max;
+  }
+
+  /**
+   * Method returns the value at the passed percentile. As values are recorded in buckets the result is the upper bound
+   * of the bucket that contains the percentile. It will never be larger than the maximum value.
+   * 
+   * @param pPercentile Percentile that should be returned. The value has to be between 0 and 100.
+   * @return long Value at the passed percentile. If no values were recorded then 0 is returned.
+   */
+  public long getValueAtPercentile( double pPercentile ) {
+    long lValue = 0;
+    if (count > 0) {
+      double lPercentile = Math.min(Math.max(pPercentile, 0), 100);
+      long lTarget = Math.max((long) Math.ceil(count * lPercentile / 100), 1);
+      long lCumulated = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        lCumulated = lCumulated + buckets[i];
+        if (lCumulated >= lTarget) {
+          lValue = Math.min(Histogram.getUpperBound(i), max);
+          break;
+        }
+      }
+    }
+    return lValue;
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.util.Map;
+
+/**
+ * Interface defines the management interface through which metrics are exposed via JMX.
+ */
+public interface MetricsMXBean {
+  /**
+   * Name under which metrics are registered at the platform MBean server.
+   */
+  String OBJECT_NAME = "com.anaptecs.jeaf.xfun:type=Metrics";
+
+  /**
+   * Method returns the values of all counters.
+   * 
+   * @return {@link Map} Values of all counters. The method never returns null.
+   */
+  Map<String, Long> getCounters( );
+
+  /**
+   * Method returns the values of all gauges.
+   * 
+   * @return {@link Map} Values of all gauges. The method never returns null.
+   */
+  Map<String, Long> getGauges( );
+
+  /**
+   * Method returns the names of all histograms.
+   * 
+   * @return {@link String} Names of all histograms. The method never returns null.
+   */
+  String[] getHistogramNames( );
+
+  /**
+   * Method returns the value at the passed percentile of the histogram with the passed name.
+   * 
+   * @param pHistogramName Name of the histogram.
+   * @param pPercentile Percentile between 0 and 100.
+   * @return long Value at the passed percentile or 0 if the histogram does not exist.
+   */
+  long getValueAtPercentile( String pHistogramName, double pPercentile );
+
+  /**
+   * Method returns all metrics in Prometheus text exposition format.
+   * 
+   * @return {@link String} All metrics in Prometheus text format. The method never returns null.
+   */
+  String getPrometheusText( );
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.util.function.LongSupplier;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
+
+/**
+ * Interface defines JEAF's metrics facilities. Metrics providers offer counters, gauges and histograms that can be used
+ * to record values from application code with predictable overhead. Metrics are identified by their name. Requesting a
+ * metric with the same name multiple times always returns the same instance.
+ * 
+ * Snapshots of all metrics can be created using {@link #getSnapshot()} and then be exported e.g. in Prometheus text
+ * format.
+ */
+public interface MetricsProvider {
+  /**
+   * Name of the counter that counts the failed checks of {@link com.anaptecs.jeaf.xfun.api.checks.Check}.
+   */
+  String CHECK_FAILURES = "xfun.check.failures";
+
+  /**
+   * Prefix of the names of all metrics that are recorded for health checks.
+   */
+  String HEALTH_CHECK_PREFIX = "xfun.health.";
+
+  /**
+   * Method returns the metrics provider that is configured.
+   * 
+   * @return {@link MetricsProvider} Metrics provider that is used. The method never returns null.
+   */
+  static MetricsProvider getMetricsProvider( ) {
+    return XFun.getMetricsProvider();
+  }
+
+  /**
+   * Method returns the counter with the passed name. If no counter with this name exists then it will be created.
+   * 
+   * @param pName Name of the counter. The parameter must not be null.
+   * @return {@link Counter} Counter with the passed name. The method never returns null.
+   */
+  Counter getCounter( String pName );
+
+  /**
+   * Method returns the gauge with the passed name. If no gauge with this name exists then it will be created.
+   * 
+   * @param pName Name of the gauge. The parameter must not be null.
+   * @return {@link Gauge} Gauge with the passed name. The method never returns null.
+   */
+  Gauge getGauge( String pName );
+
+  /**
+   * Method registers a gauge whose value is provided by the passed supplier. An existing gauge with the same name will
+   * be replaced.
+   * 
+   * @param pName Name of the gauge. The parameter must not be null.
+   * @param pSupplier Supplier that provides the value of the gauge. The parameter must not be null.
+   * @return {@link Gauge} Registered gauge. The method never returns null.
+   */
+  Gauge registerGauge( String pName, LongSupplier pSupplier );
+
+  /**
+   * Method returns the histogram with the passed name. If no histogram with this name exists then it will be created.
+   * 
+   * @param pName Name of the histogram. The parameter must not be null.
+   * @return {@link Histogram} Histogram with the passed name. The method never returns null.
+   */
+  Histogram getHistogram( String pName );
+
+  /**
+   * Method records the result of a health check. For every check the status is exposed as gauge
+   * <code>xfun.health.&lt;check&gt;.status</code> (ordinal of the status) and the amount of warnings and errors are
+   * counted. JEAF X-Fun does not execute health checks itself. Components that execute health checks are expected to
+   * report their results through this method.
+   * 
+   * @param pCheckName Name of the health check. The parameter must not be null.
+   * @param pResult Result of the health check. The parameter must not be null.
+   */
+  void recordHealthCheck( String pCheckName, HealthCheckResult pResult );
+
+  /**
+   * Method creates a snapshot of all metrics.
+   * 
+   * @return {@link MetricsSnapshot} Snapshot of all metrics. The method never returns null.
+   */
+  MetricsSnapshot getSnapshot( );
+}
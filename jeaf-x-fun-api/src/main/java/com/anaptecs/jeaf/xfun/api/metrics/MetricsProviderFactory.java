@@ -0,0 +1,21 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import com.anaptecs.jeaf.xfun.annotations.XFunConfig;
+
+/**
+ * Interface defines the factory that is used to create the {@link MetricsProvider}. Which factory should be used can be
+ * configured through {@link XFunConfig#metricsProviderFactory()}.
+ */
+public interface MetricsProviderFactory {
+  /**
+   * Method returns the metrics provider.
+   * 
+   * @return {@link MetricsProvider} Metrics provider. The method must not return null.
+   */
+  MetricsProvider getMetricsProvider( );
+}
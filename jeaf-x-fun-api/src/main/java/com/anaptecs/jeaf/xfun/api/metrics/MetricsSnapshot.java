@@ -0,0 +1,167 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class represents an immutable snapshot of all metrics of a {@link MetricsProvider}. Snapshots can be exported in
+ * Prometheus text exposition format.
+ */
+public final class MetricsSnapshot {
+  /**
+   * Percentiles that are exported for every histogram.
+   */
+  private static final double[] EXPORTED_PERCENTILES = new double[] { 50, 90, 99, 99.9 };
+
+  /**
+   * Values of all counters. The name of the counter is used as key.
+   */
+  private final Map<String, Long> counters;
+
+  /**
+   * Values of all gauges. The name of the gauge is used as key.
+   */
+  private final Map<String, Long> gauges;
+
+  /**
+   * Snapshots of all histograms. The name of the histogram is used as key.
+   */
+  private final Map<String, HistogramSnapshot> histograms;
+
+  /**
+   * Initialize object.
+   * 
+   * @param pCounters Values of all counters. The parameter must not be null.
+   * @param pGauges Values of all gauges. The parameter must not be null.
+   * @param pHistograms Snapshots of all histograms. The parameter must not be null.
+   */
+  public MetricsSnapshot( Map<String, Long> pCounters, Map<String, Long> pGauges,
+      Map<String, HistogramSnapshot> pHistograms ) {
+    // Check parameters
+    Check.checkInvalidParameterNull(pCounters, "pCounters");
+    Check.checkInvalidParameterNull(pGauges, "pGauges");
+    Check.checkInvalidParameterNull(pHistograms, "pHistograms");
+
+    counters = Collections.unmodifiableMap(new TreeMap<>(pCounters));
+    gauges = Collections.unmodifiableMap(new TreeMap<>(pGauges));
+    histograms = Collections.unmodifiableMap(new TreeMap<>(pHistograms));
+  }
+
+  /**
+   * Method returns the values of all counters.
+   * 
+   * @return {@link Map} Values of all counters sorted by their name. The method never returns null. The returned map is
+   * unmodifiable.
+   */
+  public Map<String, Long> getCounters( ) {
+    return counters;
+  }
+
+  /**
+   * Method returns the values of all gauges.
+   * 
+   * @return {@link Map} Values of all gauges sorted by their name. The method never returns null. The returned map is
+   * unmodifiable.
+   */
+  public Map<String, Long> getGauges( ) {
+    return gauges;
+  }
+
+  /**
+   * Method returns the snapshots of all histograms.
+   * 
+   * @return {@link Map} Snapshots of all histograms sorted by their name. The method never returns null. The returned
+   * map is unmodifiable.
+   */
+  public Map<String, HistogramSnapshot> getHistograms( ) {
+    return histograms;
+  }
+
+  /**
+   * Method writes this snapshot in Prometheus text exposition format to the passed appendable. Histograms are exported
+   * as summaries with quantiles 0.5, 0.9, 0.99 and 0.999.
+   * 
+   * @param pAppendable Appendable to which the snapshot should be written. The parameter must not be null.
+   * @throws IOException in case that the snapshot could not be written.
+   */
+  public void writePrometheusText( Appendable pAppendable ) throws IOException {
+    // Check parameter
+    Check.checkInvalidParameterNull(pAppendable, "pAppendable");
+
+    // Write counters
+    for (Map.Entry<String, Long> lNext : counters.entrySet()) {
+      String lName = toPrometheusName(lNext.getKey());
+      pAppendable.append("# TYPE ").append(lName).append(" counter\n");
+      pAppendable.append(lName).append(' ').append(String.valueOf(lNext.getValue())).append('\n');
+    }
+
+    // Write gauges
+    for (Map.Entry<String, Long> lNext : gauges.entrySet()) {
+      String lName = toPrometheusName(lNext.getKey());
+      pAppendable.append("# TYPE ").append(lName).append(" gauge\n");
+      pAppendable.append(lName).append(' ').append(String.valueOf(lNext.getValue())).append('\n');
+    }
+
+    // Write histograms as summaries.
+    for (HistogramSnapshot lNext : histograms.values()) {
+      String lName = toPrometheusName(lNext.getName());
+      pAppendable.append("# TYPE ").append(lName).append(" summary\n");
+      for (double lPercentile : EXPORTED_PERCENTILES) {
+        pAppendable.append(lName).append("{quantile=\"").append(String.valueOf(lPercentile / 100)).append("\"} ");
+        pAppendable.append(String.valueOf(lNext.getValueAtPercentile(lPercentile))).append('\n');
+      }
+      pAppendable.append(lName).append("_sum ").append(String.valueOf(lNext.getSum())).append('\n');
+      pAppendable.append(lName).append("_count ").append(String.valueOf(lNext.getCount())).append('\n');
+    }
+  }
+
+  /**
+   * Method returns this snapshot in Prometheus text exposition format.
+   * 
+   * @return {@link String} Snapshot in Prometheus text format. The method never returns null.
+   */
+  public String toPrometheusText( ) {
+    StringBuilder lBuilder = new StringBuilder(256);
+    try {
+      this.writePrometheusText(lBuilder);
+    }
+    // StringBuilder never throws IOExceptions.
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return lBuilder.toString();
+  }
+
+  /**
+   * Method converts the passed metric name into a valid Prometheus metric name. All characters that are not allowed
+   * will be replaced by '_'.
+   * 
+   * @param pName Name of the metric. The parameter must not be null.
+   * @return {@link String} Valid Prometheus metric name. The method never returns null.
+   */
+  static String toPrometheusName( String pName ) {
+    StringBuilder lBuilder = new StringBuilder(pName.length());
+    for (int i = 0; i < pName.length(); i++) {
+      char lChar = pName.charAt(i);
+      boolean lValid = (lChar >= 'a' && lChar <= 'z') || (lChar >= 'A' && lChar <= 'Z') || lChar == '_' || lChar == ':'
+          || (i > 0 && lChar >= '0' && lChar <= '9');
+      if (lValid == true) {
+        lBuilder.append(lChar);
+      }
+      else {
+        lBuilder.append('_');
+      }
+    }
+    return lBuilder.toString();
+  }
+}
@@ -5,6 +5,8 @@
  */
 package com.anaptecs.jeaf.xfun.api.trace;
 
+import java.util.List;
+
 import com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter;
 import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
 import com.anaptecs.jeaf.xfun.api.errorhandling.ErrorCode;
@@ -92,7 +94,7 @@ public abstract class AbstractTraceImpl implements Trace {
     // In order to avoid garbage we ensure that log level is really enabled.
     if (this.isLevelEnabled(pTraceLevel) == true) {
       // Convert objects to String.
-      String[] lStrings = this.toStrings(pMessageParameters, pTraceLevel);
+      String[] lStrings = AbstractTraceImpl.formatObjects(pMessageParameters, pTraceLevel);
       this.log(pTraceLevel, pMessageID, pThrowable, lStrings);
     }
   }
@@ -159,7 +161,7 @@ public abstract class AbstractTraceImpl implements Trace {
 
     // Ensure that trace level is enabled.
     if (pObject != null && this.isLevelEnabled(pTraceLevel) == true) {
-      String lString = this.toString(pObject, pTraceLevel);
+      String lString = AbstractTraceImpl.formatObject(pObject, pTraceLevel);
       this.log(pTraceLevel, lString, null);
     }
   }
@@ -207,6 +209,25 @@ public abstract class AbstractTraceImpl implements Trace {
     }
   }
 
+  /**
+   * Method logs all the passed messages with the passed trace level. Every message results in its own log entry. This
+   * method is used by {@link TraceBatch} to hand over all collected messages in one call. By default every message is
+   * passed to {@link #log(TraceLevel, String, Throwable)}. Implementations may override this method in case that the
+   * underlying tracing framework offers a more efficient way to write multiple log entries at once.
+   * 
+   * @param pTraceLevel Trace level of the log entries. The parameter must not be null.
+   * @param pMessages Messages that should be traced. The parameter must not be null.
+   */
+  protected void logBatch( TraceLevel pTraceLevel, List<String> pMessages ) {
+    // Check parameters.
+    Assert.assertNotNull(pTraceLevel, "pTraceLevel");
+    Assert.assertNotNull(pMessages, "pMessages");
+
+    for (String lNext : pMessages) {
+      this.log(pTraceLevel, lNext, null);
+    }
+  }
+
   /**
    * Method transforms the passed object into a string using the matching {@link ObjectFormatter}.
    * 
@@ -216,7 +237,7 @@ public abstract class AbstractTraceImpl implements Trace {
    * @return {@link String} String that was created out of the passed object. The method returns null if null is passed.
    */
   @SuppressWarnings({ "unchecked", "rawtypes" })
-  private String toString( Object pObject, TraceLevel pTraceLevel ) {
+  static String formatObject( Object pObject, TraceLevel pTraceLevel ) {
     // Check parameter. Only trace level needs to be checked.
     Assert.assertNotNull(pTraceLevel, "pTraceLevel");
 
@@ -250,12 +271,12 @@ public abstract class AbstractTraceImpl implements Trace {
    * @return {@link String} String array that was created out of the passed objects. The method never returns null. If
    * an element of the array is null then the string array will also have null on this index.
    */
-  private String[] toStrings( Object[] pObjects, TraceLevel pTraceLevel ) {
+  static String[] formatObjects( Object[] pObjects, TraceLevel pTraceLevel ) {
     String[] lStrings;
     if (pObjects != null) {
       lStrings = new String[pObjects.length];
       for (int i = 0; i < pObjects.length; i++) {
-        lStrings[i] = this.toString(pObjects[i], pTraceLevel);
+        lStrings[i] = AbstractTraceImpl.formatObject(pObjects[i], pTraceLevel);
       }
     }
     else {
@@ -25,6 +25,17 @@ public class ContextStackElement {
    */
   private final ComponentID componentID;
 
+  /**
+   * Point in time in nanoseconds when this context was started. As the value is based on {@link System#nanoTime()} it
+   * can only be used to measure durations.
+   */
+  private final long startTime;
+
+  /**
+   * Point in time in nanoseconds when this context was ended. As long as the context is not ended the value is 0.
+   */
+  private volatile long endTime;
+
   /**
    * Initialize object.
    * 
@@ -38,6 +49,7 @@ public class ContextStackElement {
 
     contextName = pContextName;
     componentID = pComponentID;
+    startTime = System.nanoTime();
   }
 
   /**
@@ -58,4 +70,67 @@ public class ContextStackElement {
     return componentID;
   }
 
+  /**
+   * Method returns the point in time when this context was started.
+   * 
+   * @return long Start time in nanoseconds as returned by {@link System#nanoTime()}.
+   */
+  public long getStartTime( ) {
+    return startTime;
+  }
+
+  /**
+   * Method returns the point in time when this context was ended.
+   * 
+   * @return long End time in nanoseconds as returned by {@link System#nanoTime()}. If the context is not yet ended then
+   * 0 is returned.
+   */
+  public long getEndTime( ) {
+    return endTime;
+  }
+
+  /**
+   * Method checks if this context is already ended.
+   * 
+   * @return boolean The method returns true if the context is already ended and false otherwise.
+   */
+  public boolean isEnded( ) {
+    return endTime != 0;
+  }
+
+  /**
+   * Method ends this context. If the context is already ended then calling this method has no effect.
+   * 
+   * @return long Duration of the context in nanoseconds.
+   */
+  public long end( ) {
+    if (endTime == 0) {
+      long lEndTime = System.nanoTime();
+      // Ensure that end time can be distinguished from "not ended"
+      if (lEndTime == 0) {
+        lEndTime = 1;
+      }
+      endTime = lEndTime;
+    }
+    return this.getDuration();
+  }
+
+  /**
+   * Method returns the duration of this context.
+   * 
+   * @return long Duration of the context in nanoseconds. If the context is not yet ended then the duration until now
+   * will be returned.
+   */
+  public long getDuration( ) {
+    long lEndTime = endTime;
+    long lDuration;
+    if (lEndTime != 0) {
+      lDuration = lEndTime - startTime;
+    }
+    // Context is still running.
+    else {
+      lDuration = System.nanoTime() - startTime;
+    }
+    return lDuration;
+  }
 }
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+/**
+ * Enumeration defines which diagnostic information about the runtime environment is traced when JEAF X-Fun is started.
+ * The level can be defined through {@link com.anaptecs.jeaf.xfun.annotations.StartupInfoConfig#startupDiagnostics()}
+ * and overwritten through system property {@link StartupInfoConfiguration#STARTUP_DIAGNOSTICS}.
+ *
+ * @author JEAF Development Team
+ */
+public enum StartupDiagnosticsLevel {
+  /**
+   * No diagnostic information is traced.
+   */
+  NONE,
+
+  /**
+   * Information about operating system, JVM and memory is traced. The classpath is not traced.
+   */
+  BASIC,
+
+  /**
+   * Like {@link #BASIC} but every entry of the classpath is traced additionally.
+   */
+  FULL,
+
+  /**
+   * Like {@link #FULL} but all information is traced by a background thread after the startup of JEAF X-Fun was
+   * completed.
+   */
+  ASYNC;
+}
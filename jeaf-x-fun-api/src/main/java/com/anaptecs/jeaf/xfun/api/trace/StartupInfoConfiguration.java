@@ -9,15 +9,30 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import com.anaptecs.jeaf.xfun.annotations.StartupInfoConfig;
 import com.anaptecs.jeaf.xfun.annotations.StartupInfoWriterImpl;
 import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.config.AnnotationBasedConfiguration;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+import com.anaptecs.jeaf.xfun.bootstrap.Check;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
 
 @StartupInfoConfig
 public final class StartupInfoConfiguration extends AnnotationBasedConfiguration<StartupInfoConfig> {
+  /**
+   * Name of the system property that can be used to overwrite the configured startup diagnostics level (see
+   * {@link StartupDiagnosticsLevel}).
+   */
+  public static final String STARTUP_DIAGNOSTICS = "xfun.startup.diagnostics";
+
+  /**
+   * Startup info writers that were passed programmatically. The reference is null if the startup info writers are read
+   * from the configuration.
+   */
+  private final List<StartupInfoWriter> registeredStartupInfoWriters;
+
   /**
    * Initialize object.
    */
@@ -40,6 +55,22 @@ public final class StartupInfoConfiguration extends AnnotationBasedConfiguration
 
     // Class super class constructor.
     super(pCustomConfigurationResourceName, pCustomConfigurationBasePackagePath, pExceptionOnError);
+    registeredStartupInfoWriters = null;
+  }
+
+  /**
+   * Initialize object with default values and the passed startup info writers. No configuration annotations are read.
+   * This constructor is intended to be used in case of programmatic bootstrap (see
+   * {@link com.anaptecs.jeaf.xfun.bootstrap.BootstrapRegistry}).
+   * 
+   * @param pStartupInfoWriters Startup info writers that should be used. The parameter must not be null.
+   */
+  public StartupInfoConfiguration( List<StartupInfoWriter> pStartupInfoWriters ) {
+    super(StartupInfoConfiguration.newEmptyConfiguration(), false, StartupInfoConfiguration.class);
+
+    // Check parameter.
+    Check.checkInvalidParameterNull(pStartupInfoWriters, "pStartupInfoWriters");
+    registeredStartupInfoWriters = new ArrayList<>(pStartupInfoWriters);
   }
 
   @Override
@@ -54,6 +85,15 @@ public final class StartupInfoConfiguration extends AnnotationBasedConfiguration
 
   @Override
   public StartupInfoConfig getEmptyConfiguration( ) {
+    return StartupInfoConfiguration.newEmptyConfiguration();
+  }
+
+  /**
+   * Method creates an empty configuration.
+   * 
+   * @return {@link StartupInfoConfig} Empty configuration. The method never returns null.
+   */
+  private static StartupInfoConfig newEmptyConfiguration( ) {
     return new StartupInfoConfig() {
 
       @Override
@@ -75,6 +115,11 @@ public final class StartupInfoConfiguration extends AnnotationBasedConfiguration
       public String startupInfoWritersResourcePath( ) {
         return StartupInfoWriterImpl.STARTUP_INFO_WRITERS_PATH;
       }
+
+      @Override
+      public StartupDiagnosticsLevel startupDiagnostics( ) {
+        return StartupInfoConfig.DEFAULT_STARTUP_DIAGNOSTICS;
+      }
     };
   }
 
@@ -112,23 +157,69 @@ public final class StartupInfoConfiguration extends AnnotationBasedConfiguration
     return theConfig.startupInfoWritersResourcePath();
   }
 
+  /**
+   * Method returns which diagnostic information should be traced on startup. The configured level can be overwritten
+   * through system property {@link #STARTUP_DIAGNOSTICS}.
+   * 
+   * @return {@link StartupDiagnosticsLevel} Level of startup diagnostics. The method never returns null.
+   */
+  public StartupDiagnosticsLevel getStartupDiagnosticsLevel( ) {
+    StartupDiagnosticsLevel lLevel = StartupInfoConfiguration.getStartupDiagnosticsLevelProperty();
+    if (lLevel == null) {
+      lLevel = theConfig.startupDiagnostics();
+    }
+    return lLevel;
+  }
+
+  /**
+   * Method returns the startup diagnostics level that is defined through system property {@link #STARTUP_DIAGNOSTICS}.
+   * 
+   * @return {@link StartupDiagnosticsLevel} Level that is defined through the system property or null if the property
+   * is not set or invalid.
+   */
+  private static StartupDiagnosticsLevel getStartupDiagnosticsLevelProperty( ) {
+    String lValue = System.getProperty(STARTUP_DIAGNOSTICS);
+    StartupDiagnosticsLevel lLevel;
+    if (lValue != null) {
+      try {
+        lLevel = StartupDiagnosticsLevel.valueOf(lValue.trim().toUpperCase(Locale.ROOT));
+      }
+      catch (IllegalArgumentException e) {
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.warn("Invalid value '" + lValue + "' for system property "
+            + STARTUP_DIAGNOSTICS + ". Configured startup diagnostics level will be used.");
+        lLevel = null;
+      }
+    }
+    // Property is not set.
+    else {
+      lLevel = null;
+    }
+    return lLevel;
+  }
+
   /**
    * Method returns all startup info writers that were configured and could be created.
    * 
    * @return {@link List} List with all configured startup info writer. The method never returns null.
    */
   public List<StartupInfoWriter> getStartupInfoWriters( ) {
+    List<StartupInfoWriter> lWriters;
+    if (registeredStartupInfoWriters != null) {
+      lWriters = new ArrayList<>(registeredStartupInfoWriters);
+    }
     // Resolve all configured classes.
-    ConfigurationReader lReader = new ConfigurationReader();
-    List<Class<? extends StartupInfoWriter>> lClasses =
-        lReader.readClassesFromConfigFile(this.startupInfoWritersResourcePath(), StartupInfoWriter.class);
-
-    // Create new info writer objects for all configured classes.
-    List<StartupInfoWriter> lWriters = new ArrayList<>(lClasses.size());
-    for (Class<? extends StartupInfoWriter> lNextClass : lClasses) {
-      StartupInfoWriter lNewWriter = this.newInstance(lNextClass, exceptionOnError);
-      if (lNewWriter != null) {
-        lWriters.add(lNewWriter);
+    else {
+      ConfigurationReader lReader = new ConfigurationReader();
+      List<Class<? extends StartupInfoWriter>> lClasses =
+          lReader.readClassesFromConfigFile(this.startupInfoWritersResourcePath(), StartupInfoWriter.class);
+
+      // Create new info writer objects for all configured classes.
+      lWriters = new ArrayList<>(lClasses.size());
+      for (Class<? extends StartupInfoWriter> lNextClass : lClasses) {
+        StartupInfoWriter lNewWriter = this.newInstance(lNextClass, exceptionOnError);
+        if (lNewWriter != null) {
+          lWriters.add(lNewWriter);
+        }
       }
     }
     return lWriters;
@@ -5,21 +5,51 @@
  */
 package com.anaptecs.jeaf.xfun.api.trace;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class collects startup completed events and dispatches them to all registered {@link StartupInfoEventHandler}s. The
+ * class does not use any global lock. Event handlers are always called without holding a lock so components that
+ * start in parallel do not block each other while one of them writes its startup info.
+ *
+ * Events are either dispatched in the calling thread or, if system property {@link #ASYNC_DISPATCH} is set to true, by
+ * a single background thread. In both cases events of the same source are delivered in the order in which they
+ * occurred. Exceptions of event handlers are traced and do not affect other event handlers or the caller.
+ */
 public class StartupInfoEventCollector {
+  /**
+   * Name of the system property that defines if startup info events should be dispatched asynchronously.
+   */
+  public static final String ASYNC_DISPATCH = "xfun.startup.events.async";
+
   private static final StartupInfoEventCollector INSTANCE = new StartupInfoEventCollector();
 
-  private List<Class<?>> delayedStartupCompletedEvents = new ArrayList<>();
+  /**
+   * Events that occurred before the first event handler was registered.
+   */
+  private final Queue<Class<?>> delayedStartupCompletedEvents = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Flag indicates that delayed events are currently dispatched. It ensures that delayed events are delivered in the
+   * order in which they occurred.
+   */
+  private final AtomicBoolean dispatchingDelayedEvents = new AtomicBoolean(false);
 
-  private List<StartupInfoEventHandler> eventHandlers = new ArrayList<>();
+  private final List<StartupInfoEventHandler> eventHandlers = new CopyOnWriteArrayList<>();
 
   /**
    * Method notifies that the startup of a class is completed. This is used as trigger for all startup info writers that
    * are registered for that specific class. If no event handler are yet registered (e.g. during early pahses of
    * bootstrapping) then the events will be stored until the first event handler becomes available.
-   * 
+   *
    * @param pClass Class whose startup is completed. The parameter must not be null.
    */
   public static void startupCompleted( Class<?> pClass ) {
@@ -30,41 +60,124 @@ public class StartupInfoEventCollector {
     INSTANCE.internalRegisterEventHandler(pEventHandler);
   }
 
+  /**
+   * Method removes the passed event handler.
+   *
+   * @param pEventHandler Event handler that should be removed. The parameter may be null.
+   * @return boolean Method returns true if the event handler was registered and false otherwise.
+   */
+  public static boolean unregisterEventHandler( StartupInfoEventHandler pEventHandler ) {
+    return INSTANCE.eventHandlers.remove(pEventHandler);
+  }
+
+  /**
+   * Method checks if startup info events are dispatched asynchronously.
+   *
+   * @return boolean Method returns true if system property {@link #ASYNC_DISPATCH} is set to true and false otherwise.
+   */
+  public static boolean isAsyncDispatch( ) {
+    return Boolean.getBoolean(ASYNC_DISPATCH);
+  }
+
   /**
    * Method notifies the the startup of a class is completed. This is used as trigger for all startup info writers that
    * are registered for that specific class.
-   * 
+   *
    * @param pClass Class whose startup is completed. The parameter must not be null.
    */
-  synchronized void internalStartupCompleted( Class<?> pClass ) {
-    // No event handlers are registered yet, so we have to delay notification about the event
-    if (eventHandlers.isEmpty() == true) {
+  void internalStartupCompleted( Class<?> pClass ) {
+    // No event handlers are registered yet, so we have to delay notification about the event. As a handler might have
+    // been registered concurrently we have to check again afterwards. As long as delayed events are pending the event
+    // also has to be queued. Otherwise it could overtake them.
+    if (eventHandlers.isEmpty() == true || dispatchingDelayedEvents.get() == true
+        || delayedStartupCompletedEvents.isEmpty() == false) {
       delayedStartupCompletedEvents.add(pClass);
+      if (eventHandlers.isEmpty() == false) {
+        this.dispatchDelayedEvents();
+      }
     }
     else {
-      this.notifyEventHandlers(pClass);
+      this.dispatch(pClass);
     }
   }
 
-  synchronized void internalRegisterEventHandler( StartupInfoEventHandler pEventHandler ) {
-    // Register new event handler
+  void internalRegisterEventHandler( StartupInfoEventHandler pEventHandler ) {
+    // Register new event handler and process may be delayed events
     if (pEventHandler != null) {
       eventHandlers.add(pEventHandler);
+      this.dispatchDelayedEvents();
+    }
+  }
 
-      // Process may be delayed events
-      if (delayedStartupCompletedEvents.isEmpty() == false) {
-        for (Class<?> lNextEvent : delayedStartupCompletedEvents) {
-          this.notifyEventHandlers(lNextEvent);
+  /**
+   * Method dispatches all delayed events. Only one thread at a time dispatches delayed events. Other threads do not
+   * wait for it but leave it to that thread.
+   */
+  private void dispatchDelayedEvents( ) {
+    while (delayedStartupCompletedEvents.isEmpty() == false
+        && dispatchingDelayedEvents.compareAndSet(false, true) == true) {
+      try {
+        Class<?> lNextEvent = delayedStartupCompletedEvents.poll();
+        while (lNextEvent != null) {
+          this.dispatch(lNextEvent);
+          lNextEvent = delayedStartupCompletedEvents.poll();
         }
-        delayedStartupCompletedEvents.clear();
       }
+      finally {
+        dispatchingDelayedEvents.set(false);
+      }
+    }
+  }
+
+  /**
+   * Method dispatches the passed event either in the current thread or asynchronously.
+   *
+   * @param pClass Class whose startup is completed. The parameter must not be null.
+   */
+  private void dispatch( Class<?> pClass ) {
+    if (isAsyncDispatch() == true) {
+      AsyncDispatcher.EXECUTOR.execute(( ) -> this.notifyEventHandlers(pClass));
+    }
+    // Dispatch event within current thread.
+    else {
+      this.notifyEventHandlers(pClass);
     }
   }
 
+  /**
+   * Method notifies all event handlers. Exceptions of an event handler are traced so that the remaining event handlers
+   * are still notified.
+   *
+   * @param pClass Class whose startup is completed. The parameter must not be null.
+   */
   private void notifyEventHandlers( Class<?> pClass ) {
     // Notify all event handlers
-    for (StartupInfoEventHandler lNextHandler : eventHandlers) {
-      lNextHandler.handleStartupInfoEvent(pClass);
+    StartupTimeline.Phase lPhase = StartupTimeline.startPhase("StartupInfoEvent " + pClass.getName());
+    try {
+      for (StartupInfoEventHandler lNextHandler : eventHandlers) {
+        try {
+          lNextHandler.handleStartupInfoEvent(pClass);
+        }
+        catch (RuntimeException e) {
+          FallbackTraceProviderImpl.EMERGENCY_TRACE.error(
+              "Unable to handle startup info event of " + pClass.getName() + ". " + e.getMessage(), e);
+        }
+      }
     }
+    finally {
+      lPhase.close();
+    }
+  }
+
+  /**
+   * Class holds the executor for asynchronous dispatching. It is only created if it is really used. A single thread
+   * ensures that events are delivered in the order in which they occurred.
+   */
+  private static final class AsyncDispatcher {
+    static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(pRunnable -> {
+      Thread lThread = new Thread(pRunnable, "XFun-StartupInfoEvents");
+      lThread.setDaemon(true);
+      return lThread;
+    });
   }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+/**
+ * Class represents one completed phase of the startup of JEAF X-Fun (see {@link StartupTimeline}). Objects of this
+ * class are immutable.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupPhase {
+  /**
+   * Name of the phase.
+   */
+  private final String name;
+
+  /**
+   * Name of the thread that executed the phase.
+   */
+  private final String threadName;
+
+  /**
+   * Start of the phase in nanoseconds relative to the start of the timeline.
+   */
+  private final long startOffset;
+
+  /**
+   * Duration of the phase in nanoseconds.
+   */
+  private final long duration;
+
+  /**
+   * Initialize object.
+   *
+   * @param pName Name of the phase.
+   * @param pThreadName Name of the thread that executed the phase.
+   * @param pStartOffset Start of the phase in nanoseconds relative to the start of the timeline.
+   * @param pDuration Duration of the phase in nanoseconds.
+   */
+  StartupPhase( String pName, String pThreadName, long pStartOffset, long pDuration ) {
+    name = pName;
+    threadName = pThreadName;
+    startOffset = pStartOffset;
+    duration = pDuration;
+  }
+
+  /**
+   * Method returns the name of the phase.
+   *
+   * @return {@link String} Name of the phase. The method never returns null.
+   */
+  public String getName( ) {
+    return name;
+  }
+
+  /**
+   * Method returns the name of the thread that executed the phase.
+   *
+   * @return {@link String} Name of the thread. The method never returns null.
+   */
+  public String getThreadName( ) {
+    return threadName;
+  }
+
+  /**
+   * Method returns the start of the phase.
+   *
+   * @return long Start of the phase in nanoseconds relative to the start of the timeline.
+   */
+  public long getStartOffset( ) {
+    return startOffset;
+  }
+
+  /**
+   * Method returns the duration of the phase.
+   *
+   * @return long Duration of the phase in nanoseconds.
+   */
+  public long getDuration( ) {
+    return duration;
+  }
+
+  @Override
+  public String toString( ) {
+    return String.format("%1$10.3f ms %2$10.3f ms    %3$s [%4$s]", startOffset / 1000000.0, duration / 1000000.0, name,
+        threadName);
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class represents a phase of the startup of JEAF X-Fun as Java Flight Recorder event. The class is only loaded if JFR
+ * events are enabled (see {@link StartupTimeline#JFR_EVENTS}). Thus JEAF X-Fun also works on JVMs without JFR.
+ *
+ * @author JEAF Development Team
+ */
+@Name("com.anaptecs.jeaf.xfun.StartupPhase")
+@Label("JEAF X-Fun Startup Phase")
+@Category({ "JEAF", "X-Fun" })
+final class StartupPhaseEvent extends Event {
+  /**
+   * Name of the phase.
+   */
+  @Label("Phase")
+  String phase;
+
+  /**
+   * Method creates a new event and starts its timing.
+   *
+   * @param pPhase Name of the phase.
+   * @return Object Started event. Callers only get an object to avoid that this class is loaded when JFR is disabled.
+   */
+  static Object begin( String pPhase ) {
+    StartupPhaseEvent lEvent = new StartupPhaseEvent();
+    lEvent.phase = pPhase;
+    lEvent.begin();
+    return lEvent;
+  }
+
+  /**
+   * Method ends the passed event and commits it if it is enabled in the current recording.
+   *
+   * @param pEvent Event that was created by {@link #begin(String)}.
+   */
+  static void commit( Object pEvent ) {
+    StartupPhaseEvent lEvent = (StartupPhaseEvent) pEvent;
+    lEvent.end();
+    if (lEvent.shouldCommit() == true) {
+      lEvent.commit();
+    }
+  }
+}
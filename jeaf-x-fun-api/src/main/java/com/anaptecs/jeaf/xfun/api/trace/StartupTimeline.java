@@ -0,0 +1,247 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+
+/**
+ * Class records the timing of all phases of the startup of JEAF X-Fun e.g. tracing of the classpath, resolution of
+ * configuration resources, loading of configuration annotations, creation of factories, initialization of tracing as
+ * well as all startup info writers and events. Timings are measured with nanosecond precision using
+ * {@link System#nanoTime()}. The timeline is restarted whenever JEAF X-Fun is initialized.
+ *
+ * Phases have to be closed in a finally block:
+ *
+ * <pre>
+ * StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Load something");
+ * try {
+ *   ...
+ * }
+ * finally {
+ *   lPhase.close();
+ * }
+ * </pre>
+ *
+ * As {@link Phase} implements {@link AutoCloseable} try-with-resources may be used as well. However, as the phase is
+ * usually not referenced inside the block this leads to compiler warnings.
+ *
+ * The recorded phases are available as structured data (see {@link #getPhases()}) and as report (see
+ * {@link #getReport()}). The report is written together with the startup info if system property
+ * {@link #TRACE_TIMELINE} is set to true. If system property {@link #JFR_EVENTS} is set to true then every phase is
+ * also emitted as Java Flight Recorder event.
+ *
+ * @author JEAF Development Team
+ */
+public final class StartupTimeline {
+  /**
+   * Name of the system property that defines if the timeline should be written together with the startup info.
+   */
+  public static final String TRACE_TIMELINE = "xfun.startup.traceTimeline";
+
+  /**
+   * Name of the system property that defines if phases should also be emitted as Java Flight Recorder events.
+   */
+  public static final String JFR_EVENTS = "xfun.startup.jfrEvents";
+
+  /**
+   * Maximum amount of phases that are recorded per timeline. Further phases are ignored.
+   */
+  public static final int MAX_PHASES = 4096;
+
+  /**
+   * Attribute defines if Java Flight Recorder events are supported by the current JVM.
+   */
+  private static final boolean JFR_AVAILABLE = isJFRAvailable();
+
+  /**
+   * Timeline of the current startup. The reference is never null.
+   */
+  private static volatile StartupTimeline current = new StartupTimeline();
+
+  /**
+   * Time in nanoseconds when the timeline was started.
+   */
+  private final long origin = System.nanoTime();
+
+  /**
+   * All completed phases of this timeline.
+   */
+  private final Queue<StartupPhase> phases = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Amount of recorded phases.
+   */
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Constructor is private as timelines are created through {@link #restart()}.
+   */
+  private StartupTimeline( ) {
+  }
+
+  /**
+   * Method starts a new timeline. All phases that were recorded so far are discarded. The method is called by JEAF
+   * X-Fun whenever it is initialized.
+   */
+  public static void restart( ) {
+    current = new StartupTimeline();
+  }
+
+  /**
+   * Method starts a new phase of the current timeline. The phase ends when it is closed.
+   *
+   * @param pName Name of the phase. The parameter must not be null.
+   * @return {@link Phase} Started phase. The method never returns null.
+   */
+  public static Phase startPhase( String pName ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pName, "pName");
+
+    return new Phase(current, pName);
+  }
+
+  /**
+   * Method returns all completed phases of the current timeline.
+   *
+   * @return {@link List} Immutable list with all completed phases sorted by their start. The method never returns null.
+   */
+  public static List<StartupPhase> getPhases( ) {
+    List<StartupPhase> lPhases = new ArrayList<>(current.phases);
+    lPhases.sort(Comparator.comparingLong(StartupPhase::getStartOffset));
+    return Collections.unmodifiableList(lPhases);
+  }
+
+  /**
+   * Method returns a report of the current timeline. The report contains one line per phase with its start relative to
+   * the start of the timeline, its duration, its name and the thread that executed it.
+   *
+   * @return {@link List} Lines of the report. The method never returns null.
+   */
+  public static List<String> getReport( ) {
+    List<StartupPhase> lPhases = StartupTimeline.getPhases();
+    List<String> lReport = new ArrayList<>(lPhases.size() + 1);
+    lReport.add(String.format("JEAF X-Fun startup timeline (%1$d phases):", lPhases.size()));
+    for (StartupPhase lNextPhase : lPhases) {
+      lReport.add("    " + lNextPhase.toString());
+    }
+    return lReport;
+  }
+
+  /**
+   * Method writes the report of the current timeline to the passed trace if system property {@link #TRACE_TIMELINE} is
+   * set to true.
+   *
+   * @param pTrace Trace to which the report should be written. The parameter must not be null.
+   * @param pTraceLevel Trace level that should be used. The parameter must not be null.
+   */
+  public static void traceReport( Trace pTrace, TraceLevel pTraceLevel ) {
+    if (Boolean.getBoolean(TRACE_TIMELINE) == true) {
+      for (String lNextLine : StartupTimeline.getReport()) {
+        pTrace.writeInitInfo(lNextLine, pTraceLevel);
+      }
+    }
+  }
+
+  /**
+   * Method adds the passed phase to this timeline.
+   *
+   * @param pPhase Phase that should be added.
+   */
+  private void add( StartupPhase pPhase ) {
+    if (size.incrementAndGet() <= MAX_PHASES) {
+      phases.add(pPhase);
+    }
+  }
+
+  /**
+   * Method checks if Java Flight Recorder events can be used.
+   *
+   * @return boolean Method returns true if JFR is available and false otherwise.
+   */
+  private static boolean isJFRAvailable( ) {
+    boolean lAvailable;
+    try {
+      Class.forName("jdk.jfr.Event", false, StartupTimeline.class.getClassLoader());
+      lAvailable = true;
+    }
+    catch (ClassNotFoundException | LinkageError e) {
+      lAvailable = false;
+    }
+    return lAvailable;
+  }
+
+  /**
+   * Class represents a running phase of a timeline.
+   */
+  public static final class Phase implements AutoCloseable {
+    /**
+     * Timeline to which the phase belongs.
+     */
+    private final StartupTimeline timeline;
+
+    /**
+     * Name of the phase.
+     */
+    private final String name;
+
+    /**
+     * Time in nanoseconds when the phase was started.
+     */
+    private final long start;
+
+    /**
+     * JFR event of this phase. The reference is null if JFR events are not enabled.
+     */
+    private final Object event;
+
+    /**
+     * Attribute marks if the phase was already closed.
+     */
+    private boolean closed;
+
+    /**
+     * Initialize object.
+     *
+     * @param pTimeline Timeline to which the phase belongs.
+     * @param pName Name of the phase.
+     */
+    private Phase( StartupTimeline pTimeline, String pName ) {
+      timeline = pTimeline;
+      name = pName;
+      if (JFR_AVAILABLE == true && Boolean.getBoolean(JFR_EVENTS) == true) {
+        event = StartupPhaseEvent.begin(pName);
+      }
+      // JFR events are not used.
+      else {
+        event = null;
+      }
+      start = System.nanoTime();
+    }
+
+    /**
+     * Method ends this phase and records it. Closing a phase multiple times has no effect.
+     */
+    @Override
+    public void close( ) {
+      if (closed == false) {
+        closed = true;
+        long lEnd = System.nanoTime();
+        timeline.add(new StartupPhase(name, Thread.currentThread().getName(), start - timeline.origin, lEnd - start));
+        if (event != null) {
+          StartupPhaseEvent.commit(event);
+        }
+      }
+    }
+  }
+}
@@ -7,6 +7,7 @@ package com.anaptecs.jeaf.xfun.api.trace;
 
 import com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter;
 import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
 import com.anaptecs.jeaf.xfun.api.errorhandling.ApplicationException;
 import com.anaptecs.jeaf.xfun.api.errorhandling.SystemException;
 import com.anaptecs.jeaf.xfun.api.messages.MessageID;
@@ -105,6 +106,43 @@ public interface Trace {
    */
   void writeInitInfo( String pMessage, TraceLevel pTraceLevel );
 
+  /**
+   * Method creates a new timing span. The span pushes a new element to the context stack. When the span is closed the
+   * element will be popped again and the duration of the span will be recorded in {@link TraceSpanStatistics}. Spans
+   * are supposed to be used with try-with-resources.
+   * 
+   * @param pContextName Name of the context of the span. The parameter must not be null.
+   * @param pComponentID ID of the component to which the context belongs to. The parameter must not be null.
+   * @return {@link TraceSpan} Created span. The method never returns null.
+   */
+  default TraceSpan span( String pContextName, ComponentID pComponentID ) {
+    ContextStackElement lContextStackElement = new ContextStackElement(pContextName, pComponentID);
+    this.pushContextStackElement(lContextStackElement);
+    return new TraceSpan(this, lContextStackElement);
+  }
+
+  /**
+   * Method creates a new batch that can be used to trace many messages with the same trace level in one call. This is
+   * intended for loops that trace many records e.g. during batch imports. The check whether the trace level is enabled
+   * is only done once and the collected messages are handed over to the trace backend in one call when the batch is
+   * flushed or closed. Every message still results in its own log entry.
+   * 
+   * @param pTraceLevel Trace level that should be used for all messages of the batch. The parameter may be null. In
+   * this case {@link TraceLevel#ERROR} will be used.
+   * @return {@link TraceBatch} Created batch. The method never returns null.
+   */
+  default TraceBatch newBatch( TraceLevel pTraceLevel ) {
+    TraceLevel lTraceLevel;
+    if (pTraceLevel != null) {
+      lTraceLevel = pTraceLevel;
+    }
+    // Use default trace level.
+    else {
+      lTraceLevel = TraceLevel.ERROR;
+    }
+    return new TraceBatch(this, lTraceLevel);
+  }
+
   /**
    * Method checks whether the trace level "TRACE" is enabled.
    * 
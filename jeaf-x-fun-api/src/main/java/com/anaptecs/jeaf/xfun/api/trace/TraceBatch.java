@@ -0,0 +1,256 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class collects multiple trace messages of the same trace level and hands them over to the underlying tracing
+ * framework in one call. Trace batches are intended to be used in loops where many records are traced e.g. during
+ * batch imports or bulk validations. Using a batch the check whether the trace level is enabled is only done once and
+ * the trace backend receives all collected messages in one call. Every message still results in its own log entry.
+ *
+ * Trace batches are obtained through {@link Trace#newBatch(TraceLevel)} and should be used together with
+ * try-with-resources so that the collected messages are written when the batch is closed:
+ *
+ * <pre>
+ * try (TraceBatch lBatch = XFun.getTrace().newBatch(TraceLevel.DEBUG)) {
+ *   for (Record lNext : lRecords) {
+ *     lBatch.add("Importing record " + lNext.getID());
+ *   }
+ * }
+ * </pre>
+ *
+ * <b>Remark: </b>Trace batches are not thread-safe. They are supposed to be used by one thread only.
+ *
+ * @author JEAF Development Team
+ */
+public final class TraceBatch implements AutoCloseable {
+  /**
+   * Default capacity of a trace batch.
+   */
+  private static final int DEFAULT_CAPACITY = 64;
+
+  /**
+   * Trace object to which the collected messages will be written. The reference is never null.
+   */
+  private final Trace trace;
+
+  /**
+   * Trace level that is used for all messages of this batch. The reference is never null.
+   */
+  private final TraceLevel traceLevel;
+
+  /**
+   * Attribute defines if the trace level of this batch is enabled. The check is only done once when the batch is
+   * created.
+   */
+  private final boolean enabled;
+
+  /**
+   * List with all collected messages that were not yet written. If the trace level of this batch is not enabled then
+   * the list is never used.
+   */
+  private List<String> messages;
+
+  /**
+   * Initialize object. Trace batches are created through {@link Trace#newBatch(TraceLevel)}.
+   *
+   * @param pTrace Trace object to which the collected messages will be written. The parameter must not be null.
+   * @param pTraceLevel Trace level that is used for all messages of this batch. The parameter must not be null.
+   */
+  TraceBatch( Trace pTrace, TraceLevel pTraceLevel ) {
+    // Check parameters.
+    Assert.assertNotNull(pTrace, "pTrace");
+    Assert.assertNotNull(pTraceLevel, "pTraceLevel");
+
+    trace = pTrace;
+    traceLevel = pTraceLevel;
+    enabled = pTrace.isLevelEnabled(pTraceLevel);
+
+    // In order to avoid garbage the list is only created if the trace level is really enabled.
+    if (enabled == true) {
+      messages = new ArrayList<>(DEFAULT_CAPACITY);
+    }
+    else {
+      messages = Collections.emptyList();
+    }
+  }
+
+  /**
+   * Method returns the trace level that is used for all messages of this batch.
+   *
+   * @return {@link TraceLevel} Trace level of this batch. The method never returns null.
+   */
+  public TraceLevel getTraceLevel( ) {
+    return traceLevel;
+  }
+
+  /**
+   * Method checks if the trace level of this batch is enabled. If it is not enabled then all messages that are added to
+   * the batch will be ignored. Using this method callers can avoid to create expensive trace messages.
+   *
+   * @return boolean The method returns true if the trace level of this batch is enabled and false otherwise.
+   */
+  public boolean isEnabled( ) {
+    return enabled;
+  }
+
+  /**
+   * Method returns the amount of messages that were added to the batch and that were not yet written.
+   *
+   * @return int Amount of pending messages.
+   */
+  public int size( ) {
+    return messages.size();
+  }
+
+  /**
+   * Method adds the passed message to this batch.
+   *
+   * @param pMessage Message that should be traced. The parameter may be null. In this case the message will be ignored.
+   * @return {@link TraceBatch} This batch. The method never returns null.
+   */
+  public TraceBatch add( String pMessage ) {
+    if (enabled == true && pMessage != null) {
+      messages.add(pMessage);
+    }
+    return this;
+  }
+
+  /**
+   * Method adds the passed object to this batch. The object will be formatted according to the defined
+   * {@link TraceObjectFormatter}. If no specific formatter is defined then {@link Object#toString()} will be used.
+   *
+   * @param pObject Object that should be traced. The parameter may be null. In this case the object will be ignored.
+   * @return {@link TraceBatch} This batch. The method never returns null.
+   */
+  public TraceBatch addObject( Object pObject ) {
+    if (enabled == true && pObject != null) {
+      messages.add(AbstractTraceImpl.formatObject(pObject, traceLevel));
+    }
+    return this;
+  }
+
+  /**
+   * Method adds a message that will be created from the passed message id and the passed parameters to this batch.
+   *
+   * @param pMessageID Id of the message that should be traced. The parameter may be null. In this case the message will
+   * be ignored.
+   * @param pMessageParameters Values that are used to parameterize the trace message. The parameter may be null.
+   * @return {@link TraceBatch} This batch. The method never returns null.
+   */
+  public TraceBatch add( MessageID pMessageID, String... pMessageParameters ) {
+    if (enabled == true && pMessageID != null) {
+      messages.add(this.getMessage(pMessageID, pMessageParameters));
+    }
+    return this;
+  }
+
+  /**
+   * Method adds a message that will be created from the passed message id and the passed parameters to this batch.
+   *
+   * @param pMessageID Id of the message that should be traced. The parameter may be null. In this case the message will
+   * be ignored.
+   * @param pMessageParameters Objects that are used to parameterize the trace message. The matching
+   * {@link ObjectFormatter} will be used to convert the passed objects into Strings. The parameter may be null.
+   * @return {@link TraceBatch} This batch. The method never returns null.
+   */
+  public TraceBatch add( MessageID pMessageID, Object... pMessageParameters ) {
+    if (enabled == true && pMessageID != null) {
+      String[] lStrings = AbstractTraceImpl.formatObjects(pMessageParameters, traceLevel);
+      messages.add(this.getMessage(pMessageID, lStrings));
+    }
+    return this;
+  }
+
+  /**
+   * Method writes all collected messages to the underlying trace backend in one call. Afterwards the batch is empty and
+   * can be reused.
+   */
+  public void flush( ) {
+    if (messages.isEmpty() == false) {
+      List<String> lMessages = messages;
+      messages = new ArrayList<>(DEFAULT_CAPACITY);
+      if (trace instanceof AbstractTraceImpl) {
+        ((AbstractTraceImpl) trace).logBatch(traceLevel, lMessages);
+      }
+      // Other trace implementations only offer one method per trace level to write a message.
+      else {
+        for (String lNext : lMessages) {
+          this.write(lNext);
+        }
+      }
+    }
+  }
+
+  /**
+   * Method closes this batch which means that all collected messages will be written.
+   */
+  @Override
+  public void close( ) {
+    this.flush();
+  }
+
+  /**
+   * Method creates the message for the passed message id and parameters.
+   *
+   * @param pMessageID Id of the message. The parameter must not be null.
+   * @param pMessageParameters Values that are used to parameterize the message. The parameter may be null.
+   * @return String Created message. The method may return null.
+   */
+  private String getMessage( MessageID pMessageID, String[] pMessageParameters ) {
+    String lMessage;
+    if (trace instanceof AbstractTraceImpl) {
+      lMessage = ((AbstractTraceImpl) trace).getMessage(pMessageID, pMessageParameters);
+    }
+    // Other trace implementations do not provide their way to create messages.
+    else {
+      lMessage = XFun.getMessageRepository().getMessage(pMessageID, pMessageParameters);
+    }
+    return lMessage;
+  }
+
+  /**
+   * Method writes the passed message with the trace level of this batch using the public methods of {@link Trace}.
+   *
+   * @param pMessage Message that should be written.
+   */
+  private void write( String pMessage ) {
+    switch (traceLevel) {
+      case TRACE:
+        trace.trace(pMessage);
+        break;
+
+      case DEBUG:
+        trace.debug(pMessage);
+        break;
+
+      case INFO:
+        trace.info(pMessage);
+        break;
+
+      case WARN:
+        trace.warn(pMessage);
+        break;
+
+      case ERROR:
+        trace.error(pMessage);
+        break;
+
+      default:
+        trace.fatal(pMessage);
+        break;
+    }
+  }
+}
@@ -7,6 +7,8 @@ package com.anaptecs.jeaf.xfun.api.trace;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -30,9 +32,9 @@ import com.anaptecs.jeaf.xfun.bootstrap.Check;
  */
 public final class TraceConfiguration extends AnnotationBasedConfiguration<TraceConfig> implements StartupInfoWriter {
   /**
-   * Only instance of this class.
+   * Current instance of this class. It is replaced when JEAF X-Fun is reloaded.
    */
-  private static final TraceConfiguration INSTANCE = new TraceConfiguration();
+  private static volatile TraceConfiguration instance = new TraceConfiguration();
 
   /**
    * Map contains all trace object formatters that were configured.
@@ -73,7 +75,7 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
       try {
         TraceObjectFormatter lAnnotation = lNextClass.getAnnotation(TraceObjectFormatter.class);
         for (Class<?> lSupportedClass : lAnnotation.supportedClasses()) {
-          objectFormatters.put(lSupportedClass, lNextClass.newInstance());
+          objectFormatters.put(lSupportedClass, lNextClass.getDeclaredConstructor().newInstance());
         }
       }
       catch (ReflectiveOperationException e) {
@@ -84,12 +86,20 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
   }
 
   /**
-   * Method returns only instance of this class.
+   * Method returns the current instance of this class.
    * 
-   * @return {@link TraceConfiguration} Only instance of this class. The method never returns null.
+   * @return {@link TraceConfiguration} Current instance of this class. The method never returns null.
    */
   public static TraceConfiguration getInstance( ) {
-    return INSTANCE;
+    return instance;
+  }
+
+  /**
+   * Method reads the trace configuration again and replaces the current instance. The method is called when JEAF X-Fun
+   * is reloaded (see {@link XFun#reload()}).
+   */
+  public static void reload( ) {
+    instance = new TraceConfiguration();
   }
 
   @Override
@@ -160,6 +170,21 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
       public String objectFormattersResourcePath( ) {
         return XFun.X_FUN_BASE_PATH + "/" + TraceConfig.TRACE_CONFIG_RESOURCE_NAME;
       }
+
+      @Override
+      public int spanTraceThreshold( ) {
+        return TraceConfig.SPAN_TRACE_THRESHOLD;
+      }
+
+      @Override
+      public boolean exposeSpanStatisticsViaJMX( ) {
+        return TraceConfig.EXPOSE_SPAN_STATISTICS_VIA_JMX;
+      }
+
+      @Override
+      public String[] traceLevels( ) {
+        return new String[] {};
+      }
     };
   }
 
@@ -190,6 +215,16 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
       }
     }
 
+    // Check trace level definitions
+    for (String lNext : pCustomConfiguration.traceLevels()) {
+      try {
+        TraceLevelResolver.parseTraceLevels(new String[] { lNext });
+      }
+      catch (IllegalArgumentException e) {
+        lConfigErrors.add(e.getMessage());
+      }
+    }
+
     // Return result of configuration check.
     return lConfigErrors;
   }
@@ -273,6 +308,39 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
     return theConfig.objectFormattersResourcePath();
   }
 
+  /**
+   * @see TraceConfig#spanTraceThreshold()
+   */
+  public int getSpanTraceThreshold( ) {
+    return theConfig.spanTraceThreshold();
+  }
+
+  /**
+   * @see TraceConfig#exposeSpanStatisticsViaJMX()
+   */
+  public boolean exposeSpanStatisticsViaJMX( ) {
+    return theConfig.exposeSpanStatisticsViaJMX();
+  }
+
+  /**
+   * Method returns the trace levels that are configured per prefix. Invalid definitions are ignored.
+   * 
+   * @return {@link Map} Map with the trace level per prefix. The method never returns null.
+   */
+  public Map<String, TraceLevel> getTraceLevels( ) {
+    Map<String, TraceLevel> lTraceLevels = new HashMap<>();
+    for (String lNext : theConfig.traceLevels()) {
+      try {
+        lTraceLevels.putAll(TraceLevelResolver.parseTraceLevels(new String[] { lNext }));
+      }
+      // Invalid definitions are already reported by the configuration check.
+      catch (IllegalArgumentException e) {
+        // Nothing to do.
+      }
+    }
+    return lTraceLevels;
+  }
+
   /**
    * Method returns the object formatter for the passed class. If no formatter is defined for the class itself then we
    * recursively check for its super classes.
@@ -301,6 +369,16 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
     return lFormatter;
   }
 
+  /**
+   * Method returns all configured object formatters.
+   * 
+   * @return {@link Collection} All configured object formatters. The method never returns null. The returned collection
+   * is immutable.
+   */
+  public Collection<ObjectFormatter<?>> getObjectFormatters( ) {
+    return Collections.unmodifiableCollection(objectFormatters.values());
+  }
+
   @Override
   public Class<?> getStartupCompletedEventSource( ) {
     return XFun.class;
@@ -315,6 +393,7 @@ public final class TraceConfiguration extends AnnotationBasedConfiguration<Trace
     pTrace.info("Trace indentation size:   " + this.getIndentSize());
     pTrace.info("Trace with system locale: " + this.isTraceWithSystemLocaleEnabled());
     pTrace.info("Show current user:        " + this.showCurrentUserInTraces());
+    pTrace.info("Span trace threshold:     " + this.getSpanTraceThreshold() + "ms");
     pTrace.info("Custom trace locale:      " + this.getCustomTraceLocale());
   }
 }
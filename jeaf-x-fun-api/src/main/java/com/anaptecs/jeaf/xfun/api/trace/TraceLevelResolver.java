@@ -0,0 +1,552 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.anaptecs.jeaf.xfun.annotations.TraceConfig;
+import com.anaptecs.jeaf.xfun.api.XFunReloadListener;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+
+/**
+ * Class resolves the effective trace level of loggers, classes and components. The configured trace levels (see
+ * {@link TraceConfig#traceLevels()}) are compiled into an immutable prefix trie whose nodes are the segments of the
+ * configured prefixes (separated by '.' or '$'). Resolving a name walks the trie along the segments of the name and
+ * returns the trace level of the most specific matching prefix. Lookups neither take locks nor create any garbage.
+ *
+ * Whenever the configured trace levels change a new trie is built and published atomically. Trace implementations
+ * should use a {@link CachedTraceLevel} per trace instance. It only resolves the trace level again if a new trie was
+ * published in the meantime. This way checking the trace level is amortized O(1). When JEAF X-Fun is reloaded the
+ * trace levels are taken from the new trace configuration.
+ *
+ * @author JEAF Development Team
+ */
+public final class TraceLevelResolver implements XFunReloadListener {
+  /**
+   * Only instance of this class.
+   */
+  private static final TraceLevelResolver INSTANCE = new TraceLevelResolver();
+
+  /**
+   * Trie without any trace levels.
+   */
+  private static final Node EMPTY = Node.build(Collections.emptyMap());
+
+  /**
+   * Root node of the trie that is currently used. The reference is null until the trace levels were taken from the
+   * trace configuration.
+   */
+  private volatile Node root;
+
+  /**
+   * Initialize object. The trace levels are taken from the trace configuration with the first access.
+   */
+  private TraceLevelResolver( ) {
+  }
+
+  /**
+   * Method returns the only instance of this class.
+   *
+   * @return {@link TraceLevelResolver} Trace level resolver. The method never returns null.
+   */
+  public static TraceLevelResolver getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Method replaces all currently defined trace levels. The new trace levels will be visible to all
+   * {@link CachedTraceLevel}s with their next access.
+   *
+   * @param pTraceLevels Map with the trace levels per prefix. {@link TraceConfig#ROOT_PREFIX} defines the trace level of
+   * the root logger. The parameter must not be null.
+   */
+  public synchronized void setTraceLevels( Map<String, TraceLevel> pTraceLevels ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pTraceLevels, "pTraceLevels");
+
+    root = Node.build(pTraceLevels);
+  }
+
+  /**
+   * Method takes the trace levels from the trace configuration of the reloaded JEAF X-Fun instance.
+   *
+   * @param pGeneration Generation of the new instance.
+   */
+  @Override
+  public void xfunReloaded( long pGeneration ) {
+    this.setTraceLevels(TraceConfiguration.getInstance().getTraceLevels());
+  }
+
+  /**
+   * Method returns the trie that is currently used. If the trace levels were not yet taken from the trace configuration
+   * then this is done now.
+   *
+   * @return {@link Node} Root node of the trie. The method never returns null.
+   */
+  private Node getRoot( ) {
+    Node lRoot = root;
+    if (lRoot == null) {
+      lRoot = this.loadTraceLevels();
+    }
+    return lRoot;
+  }
+
+  /**
+   * Method takes the trace levels from the trace configuration unless they were already set in the meantime.
+   *
+   * @return {@link Node} Root node of the trie. The method never returns null.
+   */
+  private synchronized Node loadTraceLevels( ) {
+    Node lRoot = root;
+    if (lRoot == null) {
+      // Trace configuration is not available while it is initialized itself, e.g. if it writes a trace. In this case no
+      // trace levels are defined yet.
+      TraceConfiguration lConfiguration = TraceConfiguration.getInstance();
+      if (lConfiguration != null) {
+        lRoot = Node.build(lConfiguration.getTraceLevels());
+        root = lRoot;
+      }
+      // Trace levels will be loaded with the next access.
+      else {
+        lRoot = EMPTY;
+      }
+    }
+    return lRoot;
+  }
+
+  /**
+   * Method returns all currently defined trace levels.
+   *
+   * @return {@link Map} Map with the trace levels per prefix sorted by prefix. The method never returns null.
+   */
+  public Map<String, TraceLevel> getTraceLevels( ) {
+    Map<String, TraceLevel> lTraceLevels = new TreeMap<>();
+    Node lRoot = this.getRoot();
+    if (lRoot.level != null) {
+      lTraceLevels.put(TraceConfig.ROOT_PREFIX, lRoot.level);
+    }
+    lRoot.collect(lTraceLevels);
+    return Collections.unmodifiableMap(lTraceLevels);
+  }
+
+  /**
+   * Method resolves the effective trace level of the logger with the passed name.
+   *
+   * @param pLoggerName Name of the logger. The parameter must not be null.
+   * @return {@link TraceLevel} Trace level of the most specific matching prefix. If no prefix matches and no root level
+   * is defined then null is returned.
+   */
+  public TraceLevel resolve( String pLoggerName ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+
+    return this.getRoot().resolve(pLoggerName);
+  }
+
+  /**
+   * Method resolves the effective trace level of the passed class.
+   *
+   * @param pClass Class whose trace level should be resolved. The parameter must not be null.
+   * @return {@link TraceLevel} Trace level of the most specific matching prefix. If no prefix matches and no root level
+   * is defined then null is returned.
+   */
+  public TraceLevel resolve( Class<?> pClass ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClass, "pClass");
+
+    return this.getRoot().resolve(pClass.getName());
+  }
+
+  /**
+   * Method resolves the effective trace level of the passed component based on its base package.
+   *
+   * @param pComponentID ID of the component whose trace level should be resolved. The parameter must not be null.
+   * @return {@link TraceLevel} Trace level of the most specific matching prefix. If no prefix matches and no root level
+   * is defined then null is returned.
+   */
+  public TraceLevel resolve( ComponentID pComponentID ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+
+    return this.getRoot().resolve(pComponentID.getBasePackage());
+  }
+
+  /**
+   * Method creates a new cached trace level for the logger with the passed name.
+   *
+   * @param pLoggerName Name of the logger. The parameter must not be null.
+   * @return {@link CachedTraceLevel} Cached trace level for the logger. The method never returns null.
+   */
+  public CachedTraceLevel newCachedTraceLevel( String pLoggerName ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+
+    return new CachedTraceLevel(this, pLoggerName);
+  }
+
+  /**
+   * Method parses the passed trace level definitions. Each definition has the format {@code <prefix>=<trace level>}.
+   *
+   * @param pDefinitions Trace level definitions. The parameter must not be null.
+   * @return {@link Map} Map with the trace level per prefix. The method never returns null.
+   * @throws IllegalArgumentException if one of the definitions is invalid.
+   */
+  public static Map<String, TraceLevel> parseTraceLevels( String[] pDefinitions ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pDefinitions, "pDefinitions");
+
+    Map<String, TraceLevel> lTraceLevels = new HashMap<>();
+    for (String lNext : pDefinitions) {
+      int lIndex = lNext != null ? lNext.lastIndexOf('=') : -1;
+      if (lIndex <= 0) {
+        throw new IllegalArgumentException("Invalid trace level definition '" + lNext
+            + "'. Expected format is <prefix>=<trace level>.");
+      }
+      String lPrefix = lNext.substring(0, lIndex).trim();
+      String lLevel = lNext.substring(lIndex + 1).trim();
+      try {
+        lTraceLevels.put(lPrefix, TraceLevel.valueOf(lLevel));
+      }
+      catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid trace level '" + lLevel + "' in trace level definition '" + lNext
+            + "'. Supported levels are " + Arrays.toString(TraceLevel.values()) + ".", e);
+      }
+    }
+    return lTraceLevels;
+  }
+
+  /**
+   * Class caches the resolved trace level of one logger. The trace level is only resolved again if a new trie was
+   * published by the resolver. Instances are thread-safe.
+   */
+  public static final class CachedTraceLevel {
+    /**
+     * Resolver that is used. The reference is never null.
+     */
+    private final TraceLevelResolver resolver;
+
+    /**
+     * Name of the logger. The reference is never null.
+     */
+    private final String loggerName;
+
+    /**
+     * Last resolved state. As it is replaced as a whole no further synchronization is required.
+     */
+    private volatile Resolved resolved;
+
+    /**
+     * Initialize object.
+     *
+     * @param pResolver Resolver that is used. The parameter must not be null.
+     * @param pLoggerName Name of the logger. The parameter must not be null.
+     */
+    private CachedTraceLevel( TraceLevelResolver pResolver, String pLoggerName ) {
+      resolver = pResolver;
+      loggerName = pLoggerName;
+    }
+
+    /**
+     * Method returns the name of the logger.
+     *
+     * @return String Name of the logger. The method never returns null.
+     */
+    public String getLoggerName( ) {
+      return loggerName;
+    }
+
+    /**
+     * Method returns the effective trace level of the logger.
+     *
+     * @return {@link TraceLevel} Effective trace level. If no prefix matches and no root level is defined then null is
+     * returned.
+     */
+    public TraceLevel getTraceLevel( ) {
+      Node lRoot = resolver.getRoot();
+      Resolved lResolved = resolved;
+      if (lResolved == null || lResolved.root != lRoot) {
+        lResolved = new Resolved(lRoot, lRoot.resolve(loggerName));
+        resolved = lResolved;
+      }
+      return lResolved.level;
+    }
+
+    /**
+     * Method checks if the passed trace level is enabled for the logger.
+     *
+     * @param pTraceLevel Trace level that should be checked. The parameter may be null.
+     * @return boolean The method returns true if the passed trace level is enabled and false otherwise. If no trace
+     * level is defined for the logger then false is returned.
+     */
+    public boolean isEnabled( TraceLevel pTraceLevel ) {
+      TraceLevel lTraceLevel = this.getTraceLevel();
+      return lTraceLevel != null && pTraceLevel != null && pTraceLevel.ordinal() >= lTraceLevel.ordinal();
+    }
+  }
+
+  /**
+   * Class holds a resolved trace level together with the trie that was used to resolve it.
+   */
+  private static final class Resolved {
+    /**
+     * Trie that was used.
+     */
+    private final Node root;
+
+    /**
+     * Resolved trace level. The reference may be null.
+     */
+    private final TraceLevel level;
+
+    /**
+     * Initialize object.
+     *
+     * @param pRoot Trie that was used.
+     * @param pLevel Resolved trace level.
+     */
+    Resolved( Node pRoot, TraceLevel pLevel ) {
+      root = pRoot;
+      level = pLevel;
+    }
+  }
+
+  /**
+   * Class represents an immutable node of the prefix trie. Children are stored in arrays that are sorted by their
+   * segment names so that they can be found using binary search.
+   */
+  private static final class Node {
+    /**
+     * Empty array of nodes.
+     */
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * Segment name of this node. For the root node the name is empty.
+     */
+    private final String name;
+
+    /**
+     * Configured prefix that belongs to this node. The reference is null if no trace level is defined for the node.
+     */
+    private final String prefix;
+
+    /**
+     * Trace level that is defined for this node. The reference may be null.
+     */
+    private final TraceLevel level;
+
+    /**
+     * Children of this node sorted by their names.
+     */
+    private final Node[] children;
+
+    /**
+     * Initialize object.
+     *
+     * @param pName Segment name of this node.
+     * @param pPrefix Configured prefix that belongs to this node. The parameter may be null.
+     * @param pLevel Trace level that is defined for this node. The parameter may be null.
+     * @param pChildren Children of this node sorted by their names.
+     */
+    private Node( String pName, String pPrefix, TraceLevel pLevel, Node[] pChildren ) {
+      name = pName;
+      prefix = pPrefix;
+      level = pLevel;
+      children = pChildren;
+    }
+
+    /**
+     * Method builds a new trie from the passed trace levels.
+     *
+     * @param pTraceLevels Trace levels per prefix.
+     * @return {@link Node} Root node of the trie.
+     */
+    static Node build( Map<String, TraceLevel> pTraceLevels ) {
+      Builder lRoot = new Builder("");
+      for (Map.Entry<String, TraceLevel> lNext : pTraceLevels.entrySet()) {
+        String lPrefix = lNext.getKey();
+        if (lPrefix == null || TraceConfig.ROOT_PREFIX.equals(lPrefix) || lPrefix.isEmpty()) {
+          lRoot.level = lNext.getValue();
+        }
+        else {
+          Builder lCurrent = lRoot;
+          int lStart = 0;
+          while (lStart <= lPrefix.length()) {
+            int lEnd = nextSeparator(lPrefix, lStart);
+            lCurrent = lCurrent.children.computeIfAbsent(lPrefix.substring(lStart, lEnd), Builder::new);
+            lStart = lEnd + 1;
+          }
+          lCurrent.prefix = lPrefix;
+          lCurrent.level = lNext.getValue();
+        }
+      }
+      return lRoot.toNode();
+    }
+
+    /**
+     * Method resolves the trace level of the passed name.
+     *
+     * @param pName Name that should be resolved.
+     * @return {@link TraceLevel} Trace level of the most specific matching node or null.
+     */
+    TraceLevel resolve( String pName ) {
+      TraceLevel lLevel = level;
+      Node lCurrent = this;
+      int lStart = 0;
+      while (lStart <= pName.length() && lCurrent.children.length > 0) {
+        int lEnd = nextSeparator(pName, lStart);
+        lCurrent = lCurrent.findChild(pName, lStart, lEnd);
+        if (lCurrent == null) {
+          break;
+        }
+        else if (lCurrent.level != null) {
+          lLevel = lCurrent.level;
+        }
+        lStart = lEnd + 1;
+      }
+      return lLevel;
+    }
+
+    /**
+     * Method collects all trace levels that are defined for the children of this node.
+     *
+     * @param pTraceLevels Map to which the trace levels are added.
+     */
+    void collect( Map<String, TraceLevel> pTraceLevels ) {
+      for (Node lChild : children) {
+        if (lChild.level != null) {
+          pTraceLevels.put(lChild.prefix, lChild.level);
+        }
+        lChild.collect(pTraceLevels);
+      }
+    }
+
+    /**
+     * Method searches for the child whose name is equal to the passed region of the passed string.
+     *
+     * @param pName String containing the segment.
+     * @param pStart Start index of the segment (inclusive).
+     * @param pEnd End index of the segment (exclusive).
+     * @return {@link Node} Matching child or null if there is none.
+     */
+    private Node findChild( String pName, int pStart, int pEnd ) {
+      int lLow = 0;
+      int lHigh = children.length - 1;
+      Node lResult = null;
+      while (lLow <= lHigh) {
+        int lMiddle = (lLow + lHigh) >>> 1;
+        int lCompare = compare(children[lMiddle].name, pName, pStart, pEnd);
+        if (lCompare < 0) {
+          lLow = lMiddle + 1;
+        }
+        else if (lCompare > 0) {
+          lHigh = lMiddle - 1;
+        }
+        else {
+          lResult = children[lMiddle];
+          break;
+        }
+      }
+      return lResult;
+    }
+
+    /**
+     * Method compares the passed segment name with a region of the passed string in the same way as
+     * {@link String#compareTo(String)} does.
+     *
+     * @param pSegment Segment name of a node.
+     * @param pName String containing the region.
+     * @param pStart Start index of the region (inclusive).
+     * @param pEnd End index of the region (exclusive).
+     * @return int Negative value, zero or a positive value if the segment is less, equal or greater than the region.
+     */
+    private static int compare( String pSegment, String pName, int pStart, int pEnd ) {
+      int lLength = pEnd - pStart;
+      int lMin = Math.min(pSegment.length(), lLength);
+      for (int i = 0; i < lMin; i++) {
+        int lDiff = pSegment.charAt(i) - pName.charAt(pStart + i);
+        if (lDiff != 0) {
+          return lDiff;
+        }
+      }
+      return pSegment.length() - lLength;
+    }
+
+    /**
+     * Method returns the index of the next segment separator ('.' or '$') starting at the passed index.
+     *
+     * @param pName Name that is split into segments.
+     * @param pStart Index at which the search starts.
+     * @return int Index of the next separator or the length of the string if there is none.
+     */
+    private static int nextSeparator( String pName, int pStart ) {
+      int lIndex = pStart;
+      while (lIndex < pName.length() && pName.charAt(lIndex) != '.' && pName.charAt(lIndex) != '$') {
+        lIndex++;
+      }
+      return lIndex;
+    }
+
+    /**
+     * Mutable node that is only used while the trie is built.
+     */
+    private static final class Builder {
+      /**
+       * Segment name of the node.
+       */
+      private final String name;
+
+      /**
+       * Children of the node sorted by their names.
+       */
+      private final Map<String, Builder> children = new TreeMap<>();
+
+      /**
+       * Trace level that is defined for the node. The reference may be null.
+       */
+      private TraceLevel level;
+
+      /**
+       * Configured prefix that belongs to the node. The reference may be null.
+       */
+      private String prefix;
+
+      /**
+       * Initialize object.
+       *
+       * @param pName Segment name of the node.
+       */
+      Builder( String pName ) {
+        name = pName;
+      }
+
+      /**
+       * Method converts this builder and all its children into immutable nodes.
+       *
+       * @return {@link Node} Created node.
+       */
+      Node toNode( ) {
+        Node[] lChildren;
+        if (children.isEmpty() == true) {
+          lChildren = NO_CHILDREN;
+        }
+        else {
+          lChildren = new Node[children.size()];
+          int i = 0;
+          for (Builder lNext : children.values()) {
+            lChildren[i++] = lNext.toNode();
+          }
+        }
+        return new Node(name, prefix, level, lChildren);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class represents a timing span that is based on JEAF's context stack. Spans are created through
+ * {@link Trace#span(String, com.anaptecs.jeaf.xfun.api.common.ComponentID)} which pushes a new element to the context
+ * stack. When the span is closed the element will be removed from the context stack again and its duration will be
+ * recorded in {@link TraceSpanStatistics}. If the duration is above the configured threshold (see
+ * {@link TraceConfiguration#getSpanTraceThreshold()}) then it will also be written to the trace.
+ *
+ * Spans should be used together with try-with-resources:
+ *
+ * <pre>
+ * try (TraceSpan lSpan = XFun.getTrace().span("placeOrder", COMPONENT_ID)) {
+ *   ...
+ * }
+ * </pre>
+ */
+public final class TraceSpan implements AutoCloseable {
+  /**
+   * Trace object that was used to create the span. The reference is never null.
+   */
+  private final Trace trace;
+
+  /**
+   * Context stack element that belongs to this span. The reference is never null.
+   */
+  private final ContextStackElement contextStackElement;
+
+  /**
+   * Initialize object. Spans are created through
+   * {@link Trace#span(String, com.anaptecs.jeaf.xfun.api.common.ComponentID)}.
+   * 
+   * @param pTrace Trace object that was used to create the span. The parameter must not be null.
+   * @param pContextStackElement Context stack element that belongs to this span. The parameter must not be null.
+   */
+  TraceSpan( Trace pTrace, ContextStackElement pContextStackElement ) {
+    // Check parameters.
+    Assert.assertNotNull(pTrace, "pTrace");
+    Assert.assertNotNull(pContextStackElement, "pContextStackElement");
+
+    trace = pTrace;
+    contextStackElement = pContextStackElement;
+  }
+
+  /**
+   * Method returns the context stack element that belongs to this span.
+   * 
+   * @return {@link ContextStackElement} Context stack element of this span. The method never returns null.
+   */
+  public ContextStackElement getContextStackElement( ) {
+    return contextStackElement;
+  }
+
+  /**
+   * Method returns the duration of this span.
+   * 
+   * @return long Duration in nanoseconds. If the span is not yet closed then the duration until now will be returned.
+   */
+  public long getDuration( ) {
+    return contextStackElement.getDuration();
+  }
+
+  /**
+   * Method closes this span. The context stack element will be popped from the context stack and its duration will be
+   * recorded. Closing a span multiple times has no effect.
+   * 
+   * If spans are closed in a different order than they were created then the element on top of the context stack does
+   * not belong to this span. In this case the context stack is left unchanged and a warning is traced. The element of
+   * this span is removed as soon as it is on top of the context stack again.
+   */
+  @Override
+  public void close( ) {
+    if (contextStackElement.isEnded() == false) {
+      long lDuration = contextStackElement.end();
+      ContextStackElement lTopElement = trace.popContextStackElement();
+      if (lTopElement == contextStackElement) {
+        this.removeEndedElements();
+      }
+      // Span is closed out of order. The element of the other context has to stay on the context stack.
+      else if (lTopElement != null) {
+        trace.pushContextStackElement(lTopElement);
+        if (trace.isWarnEnabled() == true) {
+          trace.warn("Span " + TraceSpanStatistics.getContextName(contextStackElement)
+              + " was closed out of order. Current context is " + TraceSpanStatistics.getContextName(lTopElement)
+              + ".");
+        }
+      }
+
+      // Record duration and write it to the trace if it is above the threshold.
+      TraceSpanStatistics lStatistics = TraceSpanStatistics.getInstance();
+      lStatistics.record(contextStackElement);
+      if (lStatistics.isAboveTraceThreshold(lDuration) == true && trace.isWarnEnabled() == true) {
+        trace.warn("Span " + TraceSpanStatistics.getContextName(contextStackElement) + " took "
+            + lDuration / 1000000.0 + "ms.");
+      }
+    }
+  }
+
+  /**
+   * Method removes the elements of all spans that were closed out of order and are now on top of the context stack.
+   */
+  private void removeEndedElements( ) {
+    ContextStackElement lTopElement = trace.popContextStackElement();
+    while (lTopElement != null && lTopElement.isEnded() == true) {
+      lTopElement = trace.popContextStackElement();
+    }
+    if (lTopElement != null) {
+      trace.pushContextStackElement(lTopElement);
+    }
+  }
+}
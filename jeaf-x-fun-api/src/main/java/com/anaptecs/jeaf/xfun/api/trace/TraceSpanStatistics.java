@@ -0,0 +1,221 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.anaptecs.jeaf.xfun.api.XFunReloadListener;
+import com.anaptecs.jeaf.xfun.api.metrics.Histogram;
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class collects the durations of all spans (see {@link Trace#span(String, com.anaptecs.jeaf.xfun.api.common.ComponentID)})
+ * in one latency histogram per context. Depending on the trace configuration the statistics are exposed via JMX under
+ * the name {@value #OBJECT_NAME}. When JEAF X-Fun is reloaded the trace threshold is read again from the trace
+ * configuration.
+ */
+public final class TraceSpanStatistics implements TraceSpanStatisticsMXBean, XFunReloadListener {
+  /**
+   * Name under which the statistics are registered at the platform MBean server.
+   */
+  public static final String OBJECT_NAME = "com.anaptecs.jeaf.xfun:type=TraceSpanStatistics";
+
+  /**
+   * Only instance of this class.
+   */
+  private static final TraceSpanStatistics INSTANCE = new TraceSpanStatistics();
+
+  /**
+   * Constant is used to convert nanoseconds into milliseconds.
+   */
+  private static final double NANOS_PER_MILLI = 1000000.0;
+
+  /**
+   * Map contains the histograms of all contexts. The name of the context is used as key.
+   */
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Threshold in milliseconds above which span durations are written to the trace.
+   */
+  private volatile int traceThreshold;
+
+  /**
+   * Initialize object. Threshold is read from trace configuration and if configured the statistics will be registered
+   * at the platform MBean server.
+   */
+  private TraceSpanStatistics( ) {
+    TraceConfiguration lConfiguration = TraceConfiguration.getInstance();
+    traceThreshold = lConfiguration.getSpanTraceThreshold();
+
+    if (lConfiguration.exposeSpanStatisticsViaJMX() == true) {
+      try {
+        MBeanServer lMBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName lObjectName = new ObjectName(OBJECT_NAME);
+        if (lMBeanServer.isRegistered(lObjectName) == false) {
+          lMBeanServer.registerMBean(this, lObjectName);
+        }
+      }
+      // JMX is not essential so problems will only be traced.
+      catch (Exception | LinkageError e) {
+        FallbackTraceProviderImpl.EMERGENCY_TRACE.writeEmergencyTrace(
+            "Unable to register span statistics via JMX. " + e.getMessage(), e, TraceLevel.WARN);
+      }
+    }
+  }
+
+  /**
+   * Method returns the only instance of this class.
+   * 
+   * @return {@link TraceSpanStatistics} Span statistics. The method never returns null.
+   */
+  public static TraceSpanStatistics getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Method returns the name of the passed context as it is used as key for the statistics.
+   * 
+   * @param pContextStackElement Context whose name should be returned. The parameter must not be null.
+   * @return {@link String} Name of the context. The method never returns null.
+   */
+  public static String getContextName( ContextStackElement pContextStackElement ) {
+    return pContextStackElement.getComponentID().getComponentName() + ':' + pContextStackElement.getContextName();
+  }
+
+  /**
+   * Method records the duration of the passed context.
+   * 
+   * @param pContextStackElement Context whose duration should be recorded. The parameter must not be null.
+   */
+  public void record( ContextStackElement pContextStackElement ) {
+    // Check parameter
+    Assert.assertNotNull(pContextStackElement, "pContextStackElement");
+
+    String lContextName = getContextName(pContextStackElement);
+    Histogram lHistogram = histograms.get(lContextName);
+    if (lHistogram == null) {
+      lHistogram = histograms.computeIfAbsent(lContextName, Histogram::new);
+    }
+    lHistogram.record(pContextStackElement.getDuration());
+  }
+
+  /**
+   * Method checks if the passed duration is above the trace threshold.
+   * 
+   * @param pDuration Duration in nanoseconds.
+   * @return boolean The method returns true if the duration should be traced and false otherwise.
+   */
+  public boolean isAboveTraceThreshold( long pDuration ) {
+    int lThreshold = traceThreshold;
+    return lThreshold >= 0 && pDuration >= lThreshold * 1000000L;
+  }
+
+  @Override
+  public String[] getContextNames( ) {
+    return histograms.keySet().toArray(new String[0]);
+  }
+
+  @Override
+  public long getCount( String pContextName ) {
+    Histogram lHistogram = this.getHistogram(pContextName);
+    long lCount;
+    if (lHistogram != null) {
+      lCount = lHistogram.getCount();
+    }
+    else {
+      lCount = 0;
+    }
+    return lCount;
+  }
+
+  @Override
+  public double getMeanMillis( String pContextName ) {
+    Histogram lHistogram = this.getHistogram(pContextName);
+    double lMean;
+    if (lHistogram != null) {
+      lMean = lHistogram.getMean() / NANOS_PER_MILLI;
+    }
+    else {
+      lMean = 0;
+    }
+    return lMean;
+  }
+
+  @Override
+  public double getMaxMillis( String pContextName ) {
+    Histogram lHistogram = this.getHistogram(pContextName);
+    double lMax;
+    if (lHistogram != null) {
+      lMax = lHistogram.getMax() / NANOS_PER_MILLI;
+    }
+    else {
+      lMax = 0;
+    }
+    return lMax;
+  }
+
+  @Override
+  public double getPercentileMillis( String pContextName, double pPercentile ) {
+    Histogram lHistogram = this.getHistogram(pContextName);
+    double lValue;
+    if (lHistogram != null) {
+      lValue = lHistogram.getValueAtPercentile(pPercentile) / NANOS_PER_MILLI;
+    }
+    else {
+      lValue = 0;
+    }
+    return lValue;
+  }
+
+  @Override
+  public int getTraceThreshold( ) {
+    return traceThreshold;
+  }
+
+  @Override
+  public void setTraceThreshold( int pTraceThreshold ) {
+    traceThreshold = pTraceThreshold;
+  }
+
+  @Override
+  public void reset( ) {
+    histograms.clear();
+  }
+
+  /**
+   * Method reads the trace threshold again from the current trace configuration.
+   * 
+   * @param pGeneration Generation of the new X-Fun instance.
+   */
+  @Override
+  public void xfunReloaded( long pGeneration ) {
+    traceThreshold = TraceConfiguration.getInstance().getSpanTraceThreshold();
+  }
+
+  /**
+   * Method returns the histogram of the passed context.
+   * 
+   * @param pContextName Name of the context. The parameter may be null.
+   * @return {@link Histogram} Histogram of the context or null if no spans were recorded for it.
+   */
+  private Histogram getHistogram( String pContextName ) {
+    Histogram lHistogram;
+    if (pContextName != null) {
+      lHistogram = histograms.get(pContextName);
+    }
+    else {
+      lHistogram = null;
+    }
+    return lHistogram;
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace;
+
+/**
+ * Interface defines the management interface through which the latency statistics of spans are exposed via JMX.
+ * 
+ * @see TraceSpanStatistics
+ */
+public interface TraceSpanStatisticsMXBean {
+  /**
+   * Method returns the names of all contexts for which spans were recorded. The names consist of the name of the
+   * component and the name of the context separated by ':'.
+   * 
+   * @return {@link String} Names of all contexts. The method never returns null.
+   */
+  String[] getContextNames( );
+
+  /**
+   * Method returns the amount of spans that were recorded for the passed context.
+   * 
+   * @param pContextName Name of the context as returned by {@link #getContextNames()}.
+   * @return long Amount of recorded spans.
+   */
+  long getCount( String pContextName );
+
+  /**
+   * Method returns the mean duration of all spans of the passed context.
+   * 
+   * @param pContextName Name of the context as returned by {@link #getContextNames()}.
+   * @return double Mean duration in milliseconds.
+   */
+  double getMeanMillis( String pContextName );
+
+  /**
+   * Method returns the maximum duration of all spans of the passed context.
+   * 
+   * @param pContextName Name of the context as returned by {@link #getContextNames()}.
+   * @return double Maximum duration in milliseconds.
+   */
+  double getMaxMillis( String pContextName );
+
+  /**
+   * Method returns the duration at the passed percentile of all spans of the passed context.
+   * 
+   * @param pContextName Name of the context as returned by {@link #getContextNames()}.
+   * @param pPercentile Percentile between 0 and 100.
+   * @return double Duration in milliseconds.
+   */
+  double getPercentileMillis( String pContextName, double pPercentile );
+
+  /**
+   * Method returns the threshold above which span durations are written to the trace.
+   * 
+   * @return int Threshold in milliseconds. A negative value means that span durations are not traced.
+   */
+  int getTraceThreshold( );
+
+  /**
+   * Method sets the threshold above which span durations are written to the trace.
+   * 
+   * @param pTraceThreshold Threshold in milliseconds. A negative value means that span durations are not traced.
+   */
+  void setTraceThreshold( int pTraceThreshold );
+
+  /**
+   * Method resets all statistics.
+   */
+  void reset( );
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.messages.MessageRepository;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+
+/**
+ * Class decodes traces that were written by {@link BinaryTraceSink} and renders them back into text. Message texts are
+ * resolved from the passed {@link MessageRepository} using the locale of the decoder. Thus the same binary trace can be
+ * rendered in any locale that is supported by the message resources.
+ *
+ * The decoder can also be used from the command line:
+ *
+ * <pre>
+ * java com.anaptecs.jeaf.xfun.api.trace.binary.BinaryTraceDecoder &lt;trace-file&gt; [&lt;language-tag&gt;]
+ * </pre>
+ *
+ * In this case the message repository of JEAF X-Fun is used. Therefore all message resources that were used by the
+ * traced application also have to be on the classpath of the decoder.
+ *
+ * @author JEAF Development Team
+ */
+public final class BinaryTraceDecoder {
+  /**
+   * Format that is used to render events. It is the same format as the one of the fallback trace implementation.
+   */
+  private static final String EVENT_FORMAT = "[%1$tF %1$tT.%1$tL] [%2$-7s] %3$s: %4$s";
+
+  /**
+   * Message repository that is used to resolve the message texts. The reference is never null.
+   */
+  private final MessageRepository messageRepository;
+
+  /**
+   * Locale in which the messages are rendered. The reference is never null.
+   */
+  private final Locale locale;
+
+  /**
+   * Initialize object.
+   *
+   * @param pMessageRepository Message repository that is used to resolve the message texts. The parameter must not be
+   * null.
+   * @param pLocale Locale in which the messages should be rendered. The parameter must not be null.
+   */
+  public BinaryTraceDecoder( MessageRepository pMessageRepository, Locale pLocale ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pMessageRepository, "pMessageRepository");
+    Check.checkInvalidParameterNull(pLocale, "pLocale");
+
+    messageRepository = pMessageRepository;
+    locale = pLocale;
+  }
+
+  /**
+   * Method reads all events from the passed stream.
+   *
+   * @param pInputStream Stream containing the segments of a binary trace. The parameter must not be null.
+   * @return {@link List} List with all events in the order in which they were written. The method never returns null.
+   * @throws IOException if the stream can not be read or does not contain a valid binary trace.
+   */
+  public List<BinaryTraceEvent> readEvents( InputStream pInputStream ) throws IOException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pInputStream, "pInputStream");
+
+    List<BinaryTraceEvent> lEvents = new ArrayList<>();
+    DataInputStream lInput = new DataInputStream(pInputStream);
+    ByteBuffer lSegment;
+    while ((lSegment = this.readSegment(lInput)) != null) {
+      this.readEvents(lSegment, lEvents);
+    }
+    return lEvents;
+  }
+
+  /**
+   * Method decodes all events from the passed stream and appends their textual representation to the passed
+   * appendable. Every event is written as a separate line.
+   *
+   * @param pInputStream Stream containing the segments of a binary trace. The parameter must not be null.
+   * @param pAppendable Appendable to which the rendered events are written. The parameter must not be null.
+   * @throws IOException if the stream can not be read or does not contain a valid binary trace.
+   */
+  public void decode( InputStream pInputStream, Appendable pAppendable ) throws IOException {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pInputStream, "pInputStream");
+    Check.checkInvalidParameterNull(pAppendable, "pAppendable");
+
+    String lSeparator = System.lineSeparator();
+    for (BinaryTraceEvent lNext : this.readEvents(pInputStream)) {
+      pAppendable.append(this.render(lNext));
+      pAppendable.append(lSeparator);
+    }
+  }
+
+  /**
+   * Method renders the passed event into text.
+   *
+   * @param pEvent Event that should be rendered. The parameter must not be null.
+   * @return String Textual representation of the event. The method never returns null.
+   */
+  public String render( BinaryTraceEvent pEvent ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pEvent, "pEvent");
+
+    String lMessage;
+    if (pEvent.isTextMessage() == true) {
+      lMessage = pEvent.getTextMessage();
+    }
+    else {
+      lMessage = this.resolveMessage(pEvent.getMessageCode(), pEvent.getMessageParameters());
+    }
+    String lText = String.format(locale, EVENT_FORMAT, new Date(pEvent.getTimestamp()), pEvent.getTraceLevel(),
+        pEvent.getLoggerName(), lMessage);
+
+    // Add stack trace in case of exceptions.
+    if (pEvent.getStackTrace() != null) {
+      lText = lText + System.lineSeparator() + pEvent.getStackTrace().trim();
+    }
+    return lText;
+  }
+
+  /**
+   * Method resolves the text of the message with the passed code. If the message is not known by the message
+   * repository then the code and the parameters will be rendered.
+   *
+   * @param pMessageCode Code of the message.
+   * @param pMessageParameters Parameters of the message.
+   * @return String Message text. The method never returns null.
+   */
+  private String resolveMessage( int pMessageCode, String[] pMessageParameters ) {
+    String lMessage;
+    try {
+      MessageID lMessageID = messageRepository.getMessageID(pMessageCode);
+      lMessage = messageRepository.getMessage(lMessageID, locale, pMessageParameters);
+    }
+    // Message resources of the traced application are not available.
+    catch (RuntimeException e) {
+      lMessage = null;
+    }
+
+    if (lMessage == null) {
+      lMessage = "Message-Code: " + pMessageCode + " Details: " + Arrays.toString(pMessageParameters);
+    }
+    return lMessage;
+  }
+
+  /**
+   * Method reads the next segment from the passed stream.
+   *
+   * @param pInput Stream from which the segment should be read.
+   * @return {@link ByteBuffer} Payload of the segment positioned after the header or null if the end of the stream
+   * was reached.
+   * @throws IOException if the stream can not be read or does not contain a valid segment.
+   */
+  private ByteBuffer readSegment( DataInputStream pInput ) throws IOException {
+    ByteBuffer lSegment;
+    int lMagic;
+    try {
+      lMagic = pInput.readInt();
+    }
+    // End of trace is reached.
+    catch (EOFException e) {
+      return null;
+    }
+
+    if (lMagic != BinaryTraceFormat.MAGIC) {
+      throw new IOException("Stream does not contain a valid binary trace segment.");
+    }
+    byte lVersion = pInput.readByte();
+    if (lVersion != BinaryTraceFormat.VERSION) {
+      throw new IOException("Unsupported version of binary trace format: " + lVersion);
+    }
+    long lBaseTimestamp = pInput.readLong();
+    int lPayloadLength = pInput.readInt();
+    if (lPayloadLength < 0) {
+      throw new IOException("Invalid payload length of binary trace segment: " + lPayloadLength);
+    }
+    byte[] lPayload = new byte[lPayloadLength];
+    pInput.readFully(lPayload);
+
+    // Base timestamp is passed in front of the payload.
+    lSegment = ByteBuffer.allocate(8 + lPayloadLength);
+    lSegment.putLong(lBaseTimestamp);
+    lSegment.put(lPayload);
+    lSegment.flip();
+    return lSegment;
+  }
+
+  /**
+   * Method reads all events from the passed segment.
+   *
+   * @param pSegment Segment as returned by {@link #readSegment(DataInputStream)}.
+   * @param pEvents List to which the events will be added.
+   * @throws IOException if the segment is corrupted.
+   */
+  private void readEvents( ByteBuffer pSegment, List<BinaryTraceEvent> pEvents ) throws IOException {
+    TraceLevel[] lTraceLevels = TraceLevel.values();
+    Map<Integer, String> lLoggerNames = new HashMap<>();
+    long lTimestamp = pSegment.getLong();
+    try {
+      while (pSegment.hasRemaining()) {
+        int lType = pSegment.get() & 0xFF;
+
+        // Logger definitions only have to be remembered.
+        if (lType == BinaryTraceFormat.LOGGER_DEFINITION) {
+          int lLoggerID = (int) BinaryTraceFormat.readVarint(pSegment);
+          lLoggerNames.put(lLoggerID, BinaryTraceFormat.readString(pSegment));
+        }
+        // Read event
+        else {
+          int lLevel = lType & BinaryTraceFormat.LEVEL_MASK;
+          if (lLevel >= lTraceLevels.length) {
+            throw new IOException("Invalid trace level in binary trace: " + lLevel);
+          }
+          lTimestamp = lTimestamp + BinaryTraceFormat.readVarint(pSegment);
+          int lLoggerID = (int) BinaryTraceFormat.readVarint(pSegment);
+          String lLoggerName = lLoggerNames.get(lLoggerID);
+          if (lLoggerName == null) {
+            throw new IOException("Undefined logger ID in binary trace: " + lLoggerID);
+          }
+
+          boolean lTextMessage = (lType & BinaryTraceFormat.TEXT_FLAG) != 0;
+          int lMessageCode;
+          String[] lParameters;
+          if (lTextMessage == true) {
+            lMessageCode = -1;
+            lParameters = new String[] { BinaryTraceFormat.readString(pSegment) };
+          }
+          else {
+            lMessageCode = (int) BinaryTraceFormat.readVarint(pSegment);
+            lParameters = new String[(int) BinaryTraceFormat.readVarint(pSegment)];
+            for (int i = 0; i < lParameters.length; i++) {
+              lParameters[i] = BinaryTraceFormat.readString(pSegment);
+            }
+          }
+
+          String lStackTrace;
+          if ((lType & BinaryTraceFormat.THROWABLE_FLAG) != 0) {
+            lStackTrace = BinaryTraceFormat.readString(pSegment);
+          }
+          else {
+            lStackTrace = null;
+          }
+          pEvents.add(new BinaryTraceEvent(lTimestamp, lTraceLevels[lLevel], lLoggerName, lTextMessage, lMessageCode,
+              lParameters, lStackTrace));
+        }
+      }
+    }
+    catch (IllegalStateException | NegativeArraySizeException e) {
+      throw new IOException("Binary trace segment is corrupted.", e);
+    }
+  }
+
+  /**
+   * Method decodes the binary trace file that is passed as first argument and writes it to the console.
+   *
+   * @param pArgs Command line arguments. The first argument is the path of the binary trace file. The optional second
+   * argument is the language tag of the locale that should be used to render the messages, e.g. "de-DE". If it is not
+   * passed then the default locale is used.
+   */
+  public static void main( String[] pArgs ) {
+    if (pArgs.length == 0) {
+      System.err.println("Usage: BinaryTraceDecoder <trace-file> [<language-tag>]");
+    }
+    else {
+      Locale lLocale;
+      if (pArgs.length > 1) {
+        lLocale = Locale.forLanguageTag(pArgs[1]);
+      }
+      else {
+        lLocale = Locale.getDefault();
+      }
+
+      BinaryTraceDecoder lDecoder = new BinaryTraceDecoder(XFun.getMessageRepository(), lLocale);
+      PrintStream lOut = System.out;
+      try (InputStream lInput = new BufferedInputStream(Files.newInputStream(Paths.get(pArgs[0])))) {
+        lDecoder.decode(lInput, lOut);
+        lOut.flush();
+      }
+      catch (IOException e) {
+        System.err.println("Unable to decode binary trace " + pArgs[0] + ": " + e.getMessage());
+      }
+    }
+  }
+}
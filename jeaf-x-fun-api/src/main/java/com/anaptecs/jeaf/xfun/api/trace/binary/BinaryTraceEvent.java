@@ -0,0 +1,166 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.bootstrap.Assert;
+
+/**
+ * Class represents a single event that was read from a binary trace by {@link BinaryTraceDecoder}.
+ *
+ * @author JEAF Development Team
+ */
+public final class BinaryTraceEvent {
+  /**
+   * Timestamp of the event in milliseconds since 1970-01-01.
+   */
+  private final long timestamp;
+
+  /**
+   * Trace level of the event. The reference is never null.
+   */
+  private final TraceLevel traceLevel;
+
+  /**
+   * Name of the logger that created the event. The reference is never null.
+   */
+  private final String loggerName;
+
+  /**
+   * Attribute defines if the event contains a plain text message instead of a message code.
+   */
+  private final boolean textMessage;
+
+  /**
+   * Code of the message. The value is only valid if the event is not a text message.
+   */
+  private final int messageCode;
+
+  /**
+   * Parameters of the message. In case of text messages the array contains the message text as only element. The
+   * reference is never null.
+   */
+  private final String[] messageParameters;
+
+  /**
+   * Stack trace of the exception that is related to the event. The reference may be null.
+   */
+  private final String stackTrace;
+
+  /**
+   * Initialize object.
+   *
+   * @param pTimestamp Timestamp of the event in milliseconds since 1970-01-01.
+   * @param pTraceLevel Trace level of the event. The parameter must not be null.
+   * @param pLoggerName Name of the logger that created the event. The parameter must not be null.
+   * @param pTextMessage Parameter defines if the event contains a plain text message.
+   * @param pMessageCode Code of the message.
+   * @param pMessageParameters Parameters of the message. The parameter must not be null.
+   * @param pStackTrace Stack trace of the related exception. The parameter may be null.
+   */
+  BinaryTraceEvent( long pTimestamp, TraceLevel pTraceLevel, String pLoggerName, boolean pTextMessage,
+      int pMessageCode, String[] pMessageParameters, String pStackTrace ) {
+    // Check parameters.
+    Assert.assertNotNull(pTraceLevel, "pTraceLevel");
+    Assert.assertNotNull(pLoggerName, "pLoggerName");
+    Assert.assertNotNull(pMessageParameters, "pMessageParameters");
+
+    timestamp = pTimestamp;
+    traceLevel = pTraceLevel;
+    loggerName = pLoggerName;
+    textMessage = pTextMessage;
+    messageCode = pMessageCode;
+    messageParameters = pMessageParameters;
+    stackTrace = pStackTrace;
+  }
+
+  /**
+   * Method returns the timestamp of the event.
+   *
+   * @return long Timestamp of the event in milliseconds since 1970-01-01.
+   */
+  public long getTimestamp( ) {
+    return timestamp;
+  }
+
+  /**
+   * Method returns the trace level of the event.
+   *
+   * @return {@link TraceLevel} Trace level of the event. The method never returns null.
+   */
+  public TraceLevel getTraceLevel( ) {
+    return traceLevel;
+  }
+
+  /**
+   * Method returns the name of the logger that created the event.
+   *
+   * @return String Name of the logger. The method never returns null.
+   */
+  public String getLoggerName( ) {
+    return loggerName;
+  }
+
+  /**
+   * Method checks if the event contains a plain text message instead of a message code.
+   *
+   * @return boolean The method returns true if the event contains a plain text message and false otherwise.
+   */
+  public boolean isTextMessage( ) {
+    return textMessage;
+  }
+
+  /**
+   * Method returns the code of the message of this event.
+   *
+   * @return int Code of the message. If the event contains a plain text message then -1 is returned.
+   */
+  public int getMessageCode( ) {
+    int lMessageCode;
+    if (textMessage == false) {
+      lMessageCode = messageCode;
+    }
+    else {
+      lMessageCode = -1;
+    }
+    return lMessageCode;
+  }
+
+  /**
+   * Method returns the parameters of the message.
+   *
+   * @return String[] Parameters of the message. In case of a text message the array contains the message text as only
+   * element. The method never returns null.
+   */
+  public String[] getMessageParameters( ) {
+    return messageParameters.clone();
+  }
+
+  /**
+   * Method returns the plain text message of this event.
+   *
+   * @return String Text message of this event. If the event is not a text message then null is returned.
+   */
+  public String getTextMessage( ) {
+    String lMessage;
+    if (textMessage == true) {
+      lMessage = messageParameters[0];
+    }
+    else {
+      lMessage = null;
+    }
+    return lMessage;
+  }
+
+  /**
+   * Method returns the stack trace of the exception that is related to this event.
+   *
+   * @return String Stack trace of the exception. The method returns null if the event has no related exception.
+   */
+  public String getStackTrace( ) {
+    return stackTrace;
+  }
+}
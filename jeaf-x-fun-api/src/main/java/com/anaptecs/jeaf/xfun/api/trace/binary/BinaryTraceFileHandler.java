@@ -0,0 +1,70 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class implements a segment handler that appends all completed segments of a {@link BinaryTraceSink} to a file. The
+ * resulting file can be rendered using {@link BinaryTraceDecoder}.
+ *
+ * @author JEAF Development Team
+ */
+public final class BinaryTraceFileHandler implements BinaryTraceSegmentHandler, Closeable {
+  /**
+   * File channel to which the segments are written. The reference is never null.
+   */
+  private final FileChannel channel;
+
+  /**
+   * Initialize object. If the file already exists then the segments will be appended.
+   *
+   * @param pPath Path of the file to which the segments should be written. The parameter must not be null.
+   * @throws IOException if the file can not be opened.
+   */
+  public BinaryTraceFileHandler( Path pPath ) throws IOException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pPath, "pPath");
+
+    channel = FileChannel.open(pPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Method writes the passed segment to the file.
+   *
+   * @param pSegment Completed segment. The parameter is never null.
+   */
+  @Override
+  public void segmentCompleted( ByteBuffer pSegment ) {
+    try {
+      while (pSegment.hasRemaining()) {
+        channel.write(pSegment);
+      }
+    }
+    // Tracing must never break the application so problems are only reported.
+    catch (IOException e) {
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.writeEmergencyTrace("Unable to write binary trace segment.", e);
+    }
+  }
+
+  /**
+   * Method closes the underlying file.
+   *
+   * @throws IOException if the file can not be closed.
+   */
+  @Override
+  public void close( ) throws IOException {
+    channel.close();
+  }
+}
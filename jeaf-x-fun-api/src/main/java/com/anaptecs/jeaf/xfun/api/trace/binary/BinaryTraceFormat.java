@@ -0,0 +1,232 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Class defines the layout of JEAF's binary trace format and provides the low level encoding and decoding operations.
+ *
+ * A binary trace consists of a sequence of segments. Each segment starts with a header (magic number, format version,
+ * base timestamp in milliseconds and length of the payload) followed by the records of the segment. Every record starts
+ * with a type byte:
+ * <ul>
+ * <li>Logger definitions ({@link #LOGGER_DEFINITION}) assign a numeric ID to a logger name. They are written before
+ * the first event of a logger inside a segment so that every segment can be decoded on its own.</li>
+ * <li>Events use the lower bits of the type byte for the ordinal of the trace level. They are followed by the
+ * timestamp delta to the previous event of the segment, the logger ID, the message code (not for text events) and the
+ * message parameters. Events with a throwable contain its stack trace as last element.</li>
+ * </ul>
+ * All numbers are encoded as variable length integers, strings as length prefixed UTF-8 byte sequences.
+ *
+ * @author JEAF Development Team
+ */
+final class BinaryTraceFormat {
+  /**
+   * Magic number that identifies a segment of a binary trace ("JXBT").
+   */
+  static final int MAGIC = 0x4A584254;
+
+  /**
+   * Version of the binary trace format.
+   */
+  static final byte VERSION = 1;
+
+  /**
+   * Size of the segment header in bytes (magic, version, base timestamp, payload length).
+   */
+  static final int HEADER_SIZE = 4 + 1 + 8 + 4;
+
+  /**
+   * Position of the payload length inside the segment header.
+   */
+  static final int PAYLOAD_LENGTH_POSITION = 4 + 1 + 8;
+
+  /**
+   * Type byte of a logger definition record.
+   */
+  static final int LOGGER_DEFINITION = 0x40;
+
+  /**
+   * Mask to extract the ordinal of the trace level from the type byte of an event.
+   */
+  static final int LEVEL_MASK = 0x07;
+
+  /**
+   * Flag marks an event that contains a plain text message instead of a message code.
+   */
+  static final int TEXT_FLAG = 0x08;
+
+  /**
+   * Flag marks an event that contains the stack trace of a throwable.
+   */
+  static final int THROWABLE_FLAG = 0x10;
+
+  /**
+   * Maximum amount of bytes that is required for a variable length encoded long.
+   */
+  static final int MAX_VARINT_SIZE = 10;
+
+  /**
+   * Constructor is private as only static methods are provided.
+   */
+  private BinaryTraceFormat( ) {
+  }
+
+  /**
+   * Method reads a variable length integer from the passed buffer.
+   *
+   * @param pBuffer Buffer from which the value should be read. The parameter must not be null.
+   * @return long Read value.
+   * @throws IllegalStateException if the buffer does not contain a valid variable length integer.
+   */
+  static long readVarint( ByteBuffer pBuffer ) {
+    long lValue = 0;
+    int lShift = 0;
+    try {
+      while (true) {
+        byte lNext = pBuffer.get();
+        lValue |= (long) (lNext & 0x7F) << lShift;
+        // Highest bit is not set so this was the last byte.
+        if ((lNext & 0x80) == 0) {
+          break;
+        }
+        // Protect against corrupted data.
+        else {
+          lShift = lShift + 7;
+          if (lShift >= 64) {
+            throw new IllegalStateException("Malformed variable length integer in binary trace.");
+          }
+        }
+      }
+    }
+    catch (BufferUnderflowException e) {
+      throw new IllegalStateException("Unexpected end of binary trace segment.", e);
+    }
+    return lValue;
+  }
+
+  /**
+   * Method reads a length prefixed UTF-8 string from the passed buffer.
+   *
+   * @param pBuffer Buffer from which the string should be read. The parameter must not be null.
+   * @return String Read string. The method returns null if a null value was encoded.
+   * @throws IllegalStateException if the buffer does not contain a valid string.
+   */
+  static String readString( ByteBuffer pBuffer ) {
+    // Length is stored with an offset of one so that 0 can be used for null values.
+    int lLength = (int) readVarint(pBuffer);
+    String lString;
+    if (lLength == 0) {
+      lString = null;
+    }
+    else if (lLength - 1 > pBuffer.remaining() || lLength < 0) {
+      throw new IllegalStateException("Unexpected end of binary trace segment.");
+    }
+    else {
+      byte[] lBytes = new byte[lLength - 1];
+      pBuffer.get(lBytes);
+      lString = new String(lBytes, StandardCharsets.UTF_8);
+    }
+    return lString;
+  }
+
+  /**
+   * Class implements a growable byte array that is used to encode records before they are copied into a segment.
+   * Encoders are reused and are not thread-safe.
+   */
+  static final class Encoder {
+    /**
+     * Encoded bytes.
+     */
+    private byte[] bytes;
+
+    /**
+     * Amount of bytes that are currently used.
+     */
+    private int size;
+
+    /**
+     * Initialize object.
+     *
+     * @param pInitialCapacity Initial capacity of the encoder in bytes.
+     */
+    Encoder( int pInitialCapacity ) {
+      bytes = new byte[pInitialCapacity];
+    }
+
+    /**
+     * Method resets the encoder so that it can be reused.
+     */
+    void reset( ) {
+      size = 0;
+    }
+
+    /**
+     * Method returns the amount of encoded bytes.
+     *
+     * @return int Amount of encoded bytes.
+     */
+    int size( ) {
+      return size;
+    }
+
+    /**
+     * Method writes all encoded bytes to the passed buffer.
+     *
+     * @param pBuffer Buffer to which the bytes should be written. The buffer must have enough space left.
+     */
+    void writeTo( ByteBuffer pBuffer ) {
+      pBuffer.put(bytes, 0, size);
+    }
+
+    /**
+     * Method appends the passed value as variable length integer.
+     *
+     * @param pValue Value that should be appended. Negative values are treated as unsigned values.
+     */
+    void putVarint( long pValue ) {
+      this.ensureCapacity(MAX_VARINT_SIZE);
+      while ((pValue & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((pValue & 0x7F) | 0x80);
+        pValue >>>= 7;
+      }
+      bytes[size++] = (byte) pValue;
+    }
+
+    /**
+     * Method appends the passed string as length prefixed UTF-8 byte sequence.
+     *
+     * @param pValue String that should be appended. The parameter may be null.
+     */
+    void putString( String pValue ) {
+      if (pValue == null) {
+        this.putVarint(0);
+      }
+      else {
+        byte[] lBytes = pValue.getBytes(StandardCharsets.UTF_8);
+        this.putVarint(lBytes.length + 1);
+        this.ensureCapacity(lBytes.length);
+        System.arraycopy(lBytes, 0, bytes, size, lBytes.length);
+        size = size + lBytes.length;
+      }
+    }
+
+    /**
+     * Method ensures that the passed amount of bytes can be appended.
+     *
+     * @param pRequired Amount of bytes that will be appended.
+     */
+    private void ensureCapacity( int pRequired ) {
+      if (size + pRequired > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + pRequired));
+      }
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.util.Arrays;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.AbstractTraceImpl;
+import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+
+/**
+ * Class implements a trace that writes all events to a {@link BinaryTraceSink}. Messages that are based on a
+ * {@link MessageID} are not rendered at all. Only the message code and its parameters are written to the sink.
+ *
+ * @author JEAF Development Team
+ */
+public class BinaryTraceImpl extends AbstractTraceImpl {
+  /**
+   * Name of the logger of this trace. The reference is never null.
+   */
+  private final String loggerName;
+
+  /**
+   * Sink to which all events are written. The reference is never null.
+   */
+  private final BinaryTraceSink sink;
+
+  /**
+   * Trace level that is enabled for this trace. The reference may be null. In this case tracing is disabled.
+   */
+  private volatile TraceLevel traceLevel;
+
+  /**
+   * Initialize object.
+   *
+   * @param pLoggerName Name of the logger of this trace. The parameter must not be null.
+   * @param pSink Sink to which all events are written. The parameter must not be null.
+   * @param pTraceLevel Trace level that is enabled for this trace. The parameter may be null. In this case tracing is
+   * disabled.
+   */
+  public BinaryTraceImpl( String pLoggerName, BinaryTraceSink pSink, TraceLevel pTraceLevel ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+    Check.checkInvalidParameterNull(pSink, "pSink");
+
+    loggerName = pLoggerName;
+    sink = pSink;
+    traceLevel = pTraceLevel;
+  }
+
+  /**
+   * Method returns the name of the logger of this trace.
+   *
+   * @return String Name of the logger. The method never returns null.
+   */
+  public String getLoggerName( ) {
+    return loggerName;
+  }
+
+  /**
+   * Method sets the trace level that is enabled for this trace.
+   *
+   * @param pTraceLevel Trace level that should be enabled. The parameter may be null. In this case tracing is disabled.
+   */
+  public void setLevel( TraceLevel pTraceLevel ) {
+    traceLevel = pTraceLevel;
+  }
+
+  /**
+   * Method writes the passed string and / or exception as text event to the binary sink.
+   *
+   * @param pTraceLevel Trace level of the log entry. The parameter must not be null.
+   * @param pMessage Message that should be traced. The parameter may be null.
+   * @param pThrowable Exception that is related to the message. The parameter may be null.
+   */
+  @Override
+  protected void log( TraceLevel pTraceLevel, String pMessage, Throwable pThrowable ) {
+    if (this.isLevelEnabled(pTraceLevel) == true && (pMessage != null || pThrowable != null)) {
+      sink.write(pTraceLevel, loggerName, pMessage, pThrowable);
+    }
+  }
+
+  /**
+   * Method writes the passed message ID and its parameters to the binary sink. The message itself is not rendered.
+   *
+   * @param pTraceLevel Trace level that should be used for the created log entry. The parameter may be null. In this
+   * case {@link TraceLevel#ERROR} is used.
+   * @param pMessageID MessageID of the message that should be written. The parameter may be null.
+   * @param pThrowable Exception that should be logged. The parameter may be null.
+   * @param pMessageParameters Message parameters that should be used to parameterize the message. The parameter may be
+   * null.
+   */
+  @Override
+  protected void log( TraceLevel pTraceLevel, MessageID pMessageID, Throwable pThrowable,
+      String... pMessageParameters ) {
+
+    // Check parameters.
+    if (pTraceLevel == null) {
+      pTraceLevel = TraceLevel.ERROR;
+    }
+
+    // Messages without message ID can only be written as text.
+    if (this.isLevelEnabled(pTraceLevel) == true) {
+      if (pMessageID != null) {
+        sink.write(pTraceLevel, loggerName, pMessageID, pMessageParameters, pThrowable);
+      }
+      else {
+        sink.write(pTraceLevel, loggerName, this.getMessage(null, pMessageParameters), pThrowable);
+      }
+    }
+  }
+
+  /**
+   * Method creates a message based on the passed message ID. As binary traces do not contain rendered messages this is
+   * only required for trace batches. The message contains the message code and its parameters.
+   *
+   * @param pMessageID Id of the message that should be traced. The parameter may be null.
+   * @param pMessageParameters Values that are used to parameterize the trace message. The parameter may be null.
+   * @return String Created message. The method never returns null.
+   */
+  @Override
+  protected String getMessage( MessageID pMessageID, String[] pMessageParameters ) {
+    StringBuilder lBuilder = new StringBuilder();
+    lBuilder.append("Message-Code: ");
+    if (pMessageID != null) {
+      lBuilder.append(pMessageID.getLocalizationID());
+    }
+    else {
+      lBuilder.append("?");
+    }
+
+    if (pMessageParameters != null && pMessageParameters.length > 0) {
+      lBuilder.append(" Details: ");
+      lBuilder.append(Arrays.toString(pMessageParameters));
+    }
+    return lBuilder.toString();
+  }
+
+  /**
+   * Binary traces do not support context stacks.
+   *
+   * @param pContextStackElement First element for new context stack. The parameter must not be null.
+   */
+  @Override
+  public void newContextStack( ContextStackElement pContextStackElement ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Binary traces do not support context stacks.
+   *
+   * @param pContextStackElement New element for the context stack. The parameter must not be null.
+   */
+  @Override
+  public void pushContextStackElement( ContextStackElement pContextStackElement ) {
+    // Nothing to do.
+  }
+
+  /**
+   * Binary traces do not support context stacks.
+   *
+   * @return {@link ContextStackElement} The method always returns null.
+   */
+  @Override
+  public ContextStackElement popContextStackElement( ) {
+    return null;
+  }
+
+  /**
+   * Method writes an emergency trace. Emergency traces are always written to the sink independent of the current trace
+   * level.
+   *
+   * @param pMessage Message that should be written. The parameter may be null.
+   * @param pThrowable Exception that occurred. The parameter may be null.
+   * @param pTraceLevel Level with which the message should be traced. The parameter may be null. In this case
+   * {@link TraceLevel#FATAL} will be used.
+   */
+  @Override
+  public void writeEmergencyTrace( String pMessage, Throwable pThrowable, TraceLevel pTraceLevel ) {
+    if (pTraceLevel == null) {
+      pTraceLevel = TraceLevel.FATAL;
+    }
+    sink.write(pTraceLevel, loggerName, pMessage, pThrowable);
+  }
+
+  /**
+   * Method check if the passed trace level is enabled on this trace object.
+   *
+   * @param pTraceLevel Trace level that should be checked. The parameter must not be null.
+   * @return boolean The method returns true if the passed trace level is enabled on this trace object and false in all
+   * other cases.
+   */
+  @Override
+  public boolean isLevelEnabled( TraceLevel pTraceLevel ) {
+    TraceLevel lTraceLevel = traceLevel;
+    return lTraceLevel != null && pTraceLevel != null && pTraceLevel.ordinal() >= lTraceLevel.ordinal();
+  }
+
+  /**
+   * Method returns the trace level that is currently enabled.
+   *
+   * @return {@link TraceLevel} Trace level that is currently enabled. If tracing is completely disabled then this
+   * method returns null.
+   */
+  @Override
+  public TraceLevel getLevel( ) {
+    return traceLevel;
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.api.trace.TraceProvider;
+
+/**
+ * Class implements a trace provider that writes all traces to one {@link BinaryTraceSink}. This way the binary trace
+ * format can be plugged in wherever a {@link TraceProvider} is expected.
+ *
+ * @author JEAF Development Team
+ */
+public class BinaryTraceProviderImpl implements TraceProvider {
+  /**
+   * Name of the logger that is used for the current trace.
+   */
+  public static final String ROOT_LOGGER_NAME = "";
+
+  /**
+   * Sink to which all traces of this provider write. The reference is never null.
+   */
+  private final BinaryTraceSink sink;
+
+  /**
+   * Trace level that is enabled for all traces of this provider. The reference may be null.
+   */
+  private final TraceLevel traceLevel;
+
+  /**
+   * Map contains all traces that were already created by this provider.
+   */
+  private final Map<String, BinaryTraceImpl> traces = new ConcurrentHashMap<>();
+
+  /**
+   * Initialize object.
+   *
+   * @param pSink Sink to which all traces of this provider write. The parameter must not be null.
+   * @param pTraceLevel Trace level that is enabled for all traces of this provider. The parameter may be null. In this
+   * case tracing is disabled.
+   */
+  public BinaryTraceProviderImpl( BinaryTraceSink pSink, TraceLevel pTraceLevel ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pSink, "pSink");
+
+    sink = pSink;
+    traceLevel = pTraceLevel;
+  }
+
+  /**
+   * Method returns the sink to which all traces of this provider write.
+   *
+   * @return {@link BinaryTraceSink} Sink of this provider. The method never returns null.
+   */
+  public BinaryTraceSink getSink( ) {
+    return sink;
+  }
+
+  @Override
+  public Trace getTrace( String pLoggerName ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+
+    return traces.computeIfAbsent(pLoggerName, pName -> new BinaryTraceImpl(pName, sink, traceLevel));
+  }
+
+  @Override
+  public Trace getTrace( Class<?> pClass ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClass, "pClass");
+
+    return this.getTrace(pClass.getName());
+  }
+
+  @Override
+  public Trace getTrace( ComponentID pComponentID ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pComponentID, "pComponentID");
+
+    return this.getTrace(pComponentID.getBasePackage());
+  }
+
+  @Override
+  public Trace getCurrentTrace( ) {
+    return this.getTrace(ROOT_LOGGER_NAME);
+  }
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface defines the callback that is used by {@link BinaryTraceSink} to hand over completed segments e.g. to write
+ * them to a file or to send them over the network.
+ *
+ * @author JEAF Development Team
+ */
+public interface BinaryTraceSegmentHandler {
+  /**
+   * Method is called whenever a segment of a binary trace sink is completed. The passed buffer contains the complete
+   * segment including its header, starting at its current position and ending at its limit. The buffer is only valid
+   * during this call as the sink will reuse the underlying memory for upcoming events.
+   *
+   * @param pSegment Read-only view on the completed segment. The parameter is never null.
+   */
+  void segmentCompleted( ByteBuffer pSegment );
+}
@@ -0,0 +1,419 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.api.trace.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+
+/**
+ * Class implements a sink for JEAF's compact binary trace format. Instead of rendered message texts the sink only
+ * stores the trace level, a timestamp delta, an interned logger ID, the code of the {@link MessageID} and the message
+ * parameters. Message texts are resolved later on when the trace is decoded using {@link BinaryTraceDecoder}. This way
+ * the trace can also be rendered in any locale.
+ *
+ * All events are written into segments that are preallocated when the sink is created. Thus writing events does not
+ * create any garbage apart from the encoding of the message parameters. If a segment is full then it is handed over to
+ * the configured {@link BinaryTraceSegmentHandler} and the next segment is reused. If no handler is configured then the
+ * sink works as ring buffer that keeps the latest segments in memory. They can be written to a stream using
+ * {@link #writeTo(OutputStream)}.
+ *
+ * Every segment is self-contained which means that it can be decoded without any of the other segments.
+ *
+ * @author JEAF Development Team
+ */
+public final class BinaryTraceSink implements AutoCloseable {
+  /**
+   * Default size of a segment in bytes.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+  /**
+   * Default amount of preallocated segments.
+   */
+  public static final int DEFAULT_SEGMENT_COUNT = 4;
+
+  /**
+   * Minimum size of a segment in bytes.
+   */
+  public static final int MIN_SEGMENT_SIZE = 256;
+
+  /**
+   * Maximum amount of segments of a sink.
+   */
+  public static final int MAX_SEGMENT_COUNT = 1024;
+
+  /**
+   * Preallocated segments of this sink.
+   */
+  private final ByteBuffer[] segments;
+
+  /**
+   * Handler to which completed segments are passed. The reference may be null.
+   */
+  private final BinaryTraceSegmentHandler segmentHandler;
+
+  /**
+   * Map contains the IDs of all loggers that were used with this sink.
+   */
+  private final Map<String, Integer> loggerIDs = new HashMap<>();
+
+  /**
+   * Bit set contains the IDs of all loggers whose definition was already written to the current segment.
+   */
+  private final BitSet definedLoggers = new BitSet();
+
+  /**
+   * Encoder that is used to encode the events before they are copied into the current segment.
+   */
+  private final BinaryTraceFormat.Encoder encoder = new BinaryTraceFormat.Encoder(256);
+
+  /**
+   * Index of the segment that is currently used.
+   */
+  private int currentSegment;
+
+  /**
+   * Amount of segments that were completed so far.
+   */
+  private long completedSegments;
+
+  /**
+   * Timestamp of the last event that was written to the current segment.
+   */
+  private long lastTimestamp;
+
+  /**
+   * Amount of events that were dropped as they did not fit into a segment.
+   */
+  private long droppedEvents;
+
+  /**
+   * Attribute indicates whether the sink was already closed.
+   */
+  private boolean closed;
+
+  /**
+   * Initialize object using the default segment size and count.
+   *
+   * @param pSegmentHandler Handler to which completed segments are passed. The parameter may be null. In this case the
+   * sink works as in memory ring buffer.
+   */
+  public BinaryTraceSink( BinaryTraceSegmentHandler pSegmentHandler ) {
+    this(DEFAULT_SEGMENT_SIZE, DEFAULT_SEGMENT_COUNT, pSegmentHandler);
+  }
+
+  /**
+   * Initialize object.
+   *
+   * @param pSegmentSize Size of a segment in bytes. The value must be at least {@link #MIN_SEGMENT_SIZE}.
+   * @param pSegmentCount Amount of segments that should be preallocated. The value must be between 1 and
+   * {@link #MAX_SEGMENT_COUNT}.
+   * @param pSegmentHandler Handler to which completed segments are passed. The parameter may be null. In this case the
+   * sink works as in memory ring buffer.
+   */
+  public BinaryTraceSink( int pSegmentSize, int pSegmentCount, BinaryTraceSegmentHandler pSegmentHandler ) {
+    // Check parameters.
+    Check.checkIsPartOfSet(MIN_SEGMENT_SIZE, Integer.MAX_VALUE, pSegmentSize);
+    Check.checkIsPartOfSet(1, MAX_SEGMENT_COUNT, pSegmentCount);
+
+    segmentHandler = pSegmentHandler;
+    segments = new ByteBuffer[pSegmentCount];
+    for (int i = 0; i < pSegmentCount; i++) {
+      segments[i] = ByteBuffer.allocate(pSegmentSize);
+    }
+    this.startSegment(System.currentTimeMillis());
+  }
+
+  /**
+   * Method writes an event for the passed message ID.
+   *
+   * @param pTraceLevel Trace level of the event. The parameter must not be null.
+   * @param pLoggerName Name of the logger that created the event. The parameter must not be null.
+   * @param pMessageID Message ID of the event. The parameter must not be null.
+   * @param pMessageParameters Parameters of the message. The parameter may be null.
+   * @param pThrowable Exception that is related to the event. The parameter may be null.
+   */
+  public void write( TraceLevel pTraceLevel, String pLoggerName, MessageID pMessageID, String[] pMessageParameters,
+      Throwable pThrowable ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pTraceLevel, "pTraceLevel");
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+    Check.checkInvalidParameterNull(pMessageID, "pMessageID");
+
+    String lStackTrace = this.toStackTrace(pThrowable);
+    synchronized (this) {
+      if (closed == false) {
+        encoder.reset();
+        int lLoggerID = this.getLoggerID(pLoggerName);
+        encoder.putVarint(lLoggerID);
+        encoder.putVarint(pMessageID.getLocalizationID());
+        if (pMessageParameters != null) {
+          encoder.putVarint(pMessageParameters.length);
+          for (String lNext : pMessageParameters) {
+            encoder.putString(lNext);
+          }
+        }
+        else {
+          encoder.putVarint(0);
+        }
+        this.append(pTraceLevel.ordinal(), pLoggerName, lLoggerID, lStackTrace);
+      }
+    }
+  }
+
+  /**
+   * Method writes an event with the passed plain text message. Plain text messages are supported for traces that are
+   * not based on message IDs. They can not be localized when the trace is decoded.
+   *
+   * @param pTraceLevel Trace level of the event. The parameter must not be null.
+   * @param pLoggerName Name of the logger that created the event. The parameter must not be null.
+   * @param pMessage Message of the event. The parameter may be null.
+   * @param pThrowable Exception that is related to the event. The parameter may be null.
+   */
+  public void write( TraceLevel pTraceLevel, String pLoggerName, String pMessage, Throwable pThrowable ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pTraceLevel, "pTraceLevel");
+    Check.checkInvalidParameterNull(pLoggerName, "pLoggerName");
+
+    String lStackTrace = this.toStackTrace(pThrowable);
+    synchronized (this) {
+      if (closed == false) {
+        encoder.reset();
+        int lLoggerID = this.getLoggerID(pLoggerName);
+        encoder.putVarint(lLoggerID);
+        encoder.putString(pMessage);
+        this.append(pTraceLevel.ordinal() | BinaryTraceFormat.TEXT_FLAG, pLoggerName, lLoggerID, lStackTrace);
+      }
+    }
+  }
+
+  /**
+   * Method returns the amount of events that were dropped as they were larger than a segment.
+   *
+   * @return long Amount of dropped events.
+   */
+  public synchronized long getDroppedEvents( ) {
+    return droppedEvents;
+  }
+
+  /**
+   * Method hands over the current segment to the segment handler even if it is not full yet. If no segment handler is
+   * configured or if the current segment does not contain any records then nothing happens.
+   */
+  public synchronized void flush( ) {
+    if (segmentHandler != null && segments[currentSegment].position() > BinaryTraceFormat.HEADER_SIZE) {
+      this.completeSegment(System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Method writes all segments that are still kept by this sink to the passed stream. Segments are written from the
+   * oldest to the latest one. If a segment handler is configured then only the current segment is kept by the sink.
+   *
+   * @param pOutputStream Stream to which the segments should be written. The parameter must not be null.
+   * @throws IOException if an error occurs while writing to the stream.
+   */
+  public synchronized void writeTo( OutputStream pOutputStream ) throws IOException {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pOutputStream, "pOutputStream");
+
+    // Determine the amount of completed segments that are still available.
+    int lRetainedSegments;
+    if (segmentHandler == null) {
+      lRetainedSegments = (int) Math.min(completedSegments, segments.length - 1);
+    }
+    else {
+      lRetainedSegments = 0;
+    }
+
+    // Write the retained segments followed by the current one.
+    for (int i = lRetainedSegments; i >= 0; i--) {
+      int lIndex = (currentSegment - i + segments.length) % segments.length;
+      ByteBuffer lSegment = segments[lIndex];
+      if (lSegment.position() > BinaryTraceFormat.HEADER_SIZE) {
+        this.updatePayloadLength(lSegment);
+        pOutputStream.write(lSegment.array(), 0, lSegment.position());
+      }
+    }
+    pOutputStream.flush();
+  }
+
+  /**
+   * Method flushes the sink and closes it afterwards. All events that are written to a closed sink will be ignored.
+   */
+  @Override
+  public synchronized void close( ) {
+    if (closed == false) {
+      this.flush();
+      closed = true;
+    }
+  }
+
+  /**
+   * Method appends the event that is currently contained in the encoder to the current segment.
+   *
+   * @param pType Type byte of the event.
+   * @param pLoggerName Name of the logger of the event.
+   * @param pLoggerID ID of the logger of the event.
+   * @param pStackTrace Stack trace that should be added to the event. The parameter may be null.
+   */
+  private void append( int pType, String pLoggerName, int pLoggerID, String pStackTrace ) {
+    // Stack trace is the last element of an event.
+    int lType = pType;
+    if (pStackTrace != null) {
+      lType = lType | BinaryTraceFormat.THROWABLE_FLAG;
+      encoder.putString(pStackTrace);
+    }
+
+    // Check if the event still fits into the current segment or if we have to start a new one.
+    long lTimestamp = System.currentTimeMillis();
+    ByteBuffer lSegment = segments[currentSegment];
+    int lMaxSize = this.getLoggerDefinitionSize(pLoggerName) + 1 + BinaryTraceFormat.MAX_VARINT_SIZE + encoder.size();
+    if (lMaxSize > lSegment.capacity() - BinaryTraceFormat.HEADER_SIZE) {
+      // Event is too large even for an empty segment.
+      droppedEvents++;
+      return;
+    }
+    else if (lMaxSize > lSegment.remaining()) {
+      this.completeSegment(lTimestamp);
+      lSegment = segments[currentSegment];
+    }
+
+    // Write logger definition if the logger is not yet known inside this segment.
+    if (definedLoggers.get(pLoggerID) == false) {
+      byte[] lName = pLoggerName.getBytes(StandardCharsets.UTF_8);
+      lSegment.put((byte) BinaryTraceFormat.LOGGER_DEFINITION);
+      this.putVarint(lSegment, pLoggerID);
+      this.putVarint(lSegment, lName.length + 1);
+      lSegment.put(lName);
+      definedLoggers.set(pLoggerID);
+    }
+
+    // Write the event itself. Clocks may move backwards so negative deltas are avoided.
+    long lDelta = Math.max(0, lTimestamp - lastTimestamp);
+    lastTimestamp = lastTimestamp + lDelta;
+    lSegment.put((byte) lType);
+    this.putVarint(lSegment, lDelta);
+    encoder.writeTo(lSegment);
+  }
+
+  /**
+   * Method returns the maximum amount of bytes that is required to write the definition of the passed logger.
+   *
+   * @param pLoggerName Name of the logger.
+   * @return int Maximum amount of required bytes.
+   */
+  private int getLoggerDefinitionSize( String pLoggerName ) {
+    // UTF-8 requires at most 3 bytes per char.
+    return 1 + 2 * BinaryTraceFormat.MAX_VARINT_SIZE + pLoggerName.length() * 3;
+  }
+
+  /**
+   * Method returns the ID of the logger with the passed name. If the logger is not yet known then a new ID will be
+   * assigned.
+   *
+   * @param pLoggerName Name of the logger.
+   * @return int ID of the logger.
+   */
+  private int getLoggerID( String pLoggerName ) {
+    Integer lLoggerID = loggerIDs.get(pLoggerName);
+    if (lLoggerID == null) {
+      lLoggerID = loggerIDs.size();
+      loggerIDs.put(pLoggerName, lLoggerID);
+    }
+    return lLoggerID;
+  }
+
+  /**
+   * Method completes the current segment and starts the next one.
+   *
+   * @param pTimestamp Base timestamp of the next segment.
+   */
+  private void completeSegment( long pTimestamp ) {
+    ByteBuffer lSegment = segments[currentSegment];
+    this.updatePayloadLength(lSegment);
+    completedSegments++;
+
+    // Pass completed segment to handler.
+    if (segmentHandler != null) {
+      ByteBuffer lCompleted = lSegment.asReadOnlyBuffer();
+      lCompleted.flip();
+      segmentHandler.segmentCompleted(lCompleted);
+    }
+
+    currentSegment = (currentSegment + 1) % segments.length;
+    this.startSegment(pTimestamp);
+  }
+
+  /**
+   * Method starts a new segment by writing its header.
+   *
+   * @param pTimestamp Base timestamp of the segment.
+   */
+  private void startSegment( long pTimestamp ) {
+    ByteBuffer lSegment = segments[currentSegment];
+    lSegment.clear();
+    lSegment.putInt(BinaryTraceFormat.MAGIC);
+    lSegment.put(BinaryTraceFormat.VERSION);
+    lSegment.putLong(pTimestamp);
+    lSegment.putInt(0);
+    lastTimestamp = pTimestamp;
+    definedLoggers.clear();
+  }
+
+  /**
+   * Method updates the payload length inside the header of the passed segment.
+   *
+   * @param pSegment Segment whose header should be updated.
+   */
+  private void updatePayloadLength( ByteBuffer pSegment ) {
+    pSegment.putInt(BinaryTraceFormat.PAYLOAD_LENGTH_POSITION, pSegment.position() - BinaryTraceFormat.HEADER_SIZE);
+  }
+
+  /**
+   * Method writes the passed value as variable length integer into the passed buffer.
+   *
+   * @param pBuffer Buffer to which the value should be written.
+   * @param pValue Value that should be written.
+   */
+  private void putVarint( ByteBuffer pBuffer, long pValue ) {
+    while ((pValue & ~0x7FL) != 0) {
+      pBuffer.put((byte) ((pValue & 0x7F) | 0x80));
+      pValue >>>= 7;
+    }
+    pBuffer.put((byte) pValue);
+  }
+
+  /**
+   * Method converts the passed throwable into its stack trace.
+   *
+   * @param pThrowable Throwable that should be converted. The parameter may be null.
+   * @return String Stack trace of the throwable or null if null was passed.
+   */
+  private String toStackTrace( Throwable pThrowable ) {
+    String lStackTrace;
+    if (pThrowable != null) {
+      StringWriter lWriter = new StringWriter();
+      pThrowable.printStackTrace(new PrintWriter(lWriter));
+      lStackTrace = lWriter.toString();
+    }
+    else {
+      lStackTrace = null;
+    }
+    return lStackTrace;
+  }
+}
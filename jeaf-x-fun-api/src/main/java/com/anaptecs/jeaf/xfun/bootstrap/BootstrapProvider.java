@@ -0,0 +1,25 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.bootstrap;
+
+/**
+ * Interface has to be implemented by classes that register the factories of JEAF X-Fun programmatically. Providers are
+ * located using {@link java.util.ServiceLoader} if programmatic bootstrap is enabled (see
+ * {@link BootstrapRegistry#PROGRAMMATIC_BOOTSTRAP}). Thus they have to be listed in file
+ * <code>META-INF/services/com.anaptecs.jeaf.xfun.bootstrap.BootstrapProvider</code>. Providers are typically generated
+ * at build time.
+ *
+ * @author JEAF Development Team
+ */
+@FunctionalInterface
+public interface BootstrapProvider {
+  /**
+   * Method registers all factories and startup info writers of this provider.
+   *
+   * @param pRegistry Registry to which all factories should be added. The parameter is never null.
+   */
+  void register( BootstrapRegistry pRegistry );
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.anaptecs.jeaf.xfun.api.trace.StartupInfoWriter;
+
+/**
+ * Class holds factories of JEAF X-Fun that were registered programmatically instead of being configured through
+ * annotations and configuration files. Registered factories are always preferred to the configured ones. Applications
+ * register their factories before JEAF X-Fun is used for the first time:
+ *
+ * <pre>
+ * BootstrapRegistry.getInstance().registerFactory(MessageRepositoryFactory.class, new MyMessageRepositoryFactory());
+ * </pre>
+ *
+ * If system property {@link #PROGRAMMATIC_BOOTSTRAP} is set to true then JEAF X-Fun only uses this registry. No
+ * configuration annotations are read and no classes are loaded or instantiated through reflection. This makes startup
+ * faster and works well with ahead-of-time compilation and class data sharing. In this mode all
+ * {@link BootstrapProvider}s that can be found through {@link ServiceLoader} also add their factories.
+ *
+ * The registry is shared by all contexts of JEAF X-Fun within a class loader.
+ *
+ * @author JEAF Development Team
+ */
+public final class BootstrapRegistry {
+  /**
+   * Name of the system property that defines if JEAF X-Fun should be started only with the factories of this registry.
+   */
+  public static final String PROGRAMMATIC_BOOTSTRAP = "xfun.bootstrap.programmatic";
+
+  /**
+   * Only instance of this class.
+   */
+  private static final BootstrapRegistry INSTANCE = new BootstrapRegistry();
+
+  /**
+   * Map contains all registered factories. The factory interface is used as key.
+   */
+  private final Map<Class<?>, Object> factories = new ConcurrentHashMap<>();
+
+  /**
+   * List contains all registered startup info writers.
+   */
+  private final List<StartupInfoWriter> startupInfoWriters = new CopyOnWriteArrayList<>();
+
+  /**
+   * Set contains the classes of all providers that already registered their factories. Provider classes are only weakly
+   * referenced so that their class loader can still be garbage collected. As {@link WeakHashMap} is not thread-safe all
+   * accesses have to be synchronized on the map.
+   */
+  private final Map<Class<?>, Boolean> loadedProviders = new WeakHashMap<>();
+
+  /**
+   * Constructor is private as this class is a singleton.
+   */
+  private BootstrapRegistry( ) {
+  }
+
+  /**
+   * Method returns the only instance of this class.
+   *
+   * @return {@link BootstrapRegistry} Only instance of this class. The method never returns null.
+   */
+  public static BootstrapRegistry getInstance( ) {
+    return INSTANCE;
+  }
+
+  /**
+   * Method checks if JEAF X-Fun should be started only with the factories of this registry.
+   *
+   * @return boolean Method returns true if system property {@link #PROGRAMMATIC_BOOTSTRAP} is set to true and false
+   * otherwise.
+   */
+  public static boolean isProgrammaticBootstrap( ) {
+    return Boolean.getBoolean(PROGRAMMATIC_BOOTSTRAP);
+  }
+
+  /**
+   * Method registers the passed factory. An already registered factory of the same type will be replaced. Changes only
+   * affect instances of JEAF X-Fun that are created afterwards.
+   *
+   * @param pFactoryType Interface of the factory e.g. <code>MessageRepositoryFactory.class</code>. The parameter must
+   * not be null.
+   * @param pFactory Factory that should be used. The parameter must not be null.
+   */
+  public <T> void registerFactory( Class<T> pFactoryType, T pFactory ) {
+    // Check parameters.
+    Check.checkInvalidParameterNull(pFactoryType, "pFactoryType");
+    Check.checkInvalidParameterNull(pFactory, "pFactory");
+
+    factories.put(pFactoryType, pFactory);
+  }
+
+  /**
+   * Method returns the registered factory of the passed type.
+   *
+   * @param pFactoryType Interface of the factory. The parameter must not be null.
+   * @return T Registered factory or null if no factory of the passed type was registered.
+   */
+  public <T> T getFactory( Class<T> pFactoryType ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pFactoryType, "pFactoryType");
+
+    return pFactoryType.cast(factories.get(pFactoryType));
+  }
+
+  /**
+   * Method adds the passed startup info writer. Registered writers are only used in case of programmatic bootstrap.
+   *
+   * @param pStartupInfoWriter Startup info writer that should be added. The parameter must not be null.
+   */
+  public void addStartupInfoWriter( StartupInfoWriter pStartupInfoWriter ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pStartupInfoWriter, "pStartupInfoWriter");
+
+    startupInfoWriters.add(pStartupInfoWriter);
+  }
+
+  /**
+   * Method returns all registered startup info writers.
+   *
+   * @return {@link List} List with all registered startup info writers. The method never returns null. The returned
+   * list can be modified.
+   */
+  public List<StartupInfoWriter> getStartupInfoWriters( ) {
+    return new ArrayList<>(startupInfoWriters);
+  }
+
+  /**
+   * Method removes all registered factories and startup info writers. Afterwards providers will register their
+   * factories again the next time they are loaded.
+   */
+  public void clear( ) {
+    factories.clear();
+    startupInfoWriters.clear();
+    synchronized (loadedProviders) {
+      loadedProviders.clear();
+    }
+  }
+
+  /**
+   * Method lets all {@link BootstrapProvider}s that are visible through the passed class loader register their
+   * factories. Every provider is only called once, no matter how often JEAF X-Fun is reloaded or how many contexts can
+   * see it. Otherwise e.g. startup info writers that are added by a provider would be registered several times.
+   *
+   * @param pClassLoader Class loader that is used to locate the providers. The parameter must not be null.
+   * @return {@link List} Names of all providers that are visible through the passed class loader. This also includes
+   * providers that already registered their factories before. The method never returns null.
+   */
+  public List<String> loadProviders( ClassLoader pClassLoader ) {
+    // Check parameter.
+    Check.checkInvalidParameterNull(pClassLoader, "pClassLoader");
+
+    List<String> lProviders = new ArrayList<>();
+    for (BootstrapProvider lProvider : ServiceLoader.load(BootstrapProvider.class, pClassLoader)) {
+      Class<?> lProviderClass = lProvider.getClass();
+      boolean lAlreadyLoaded;
+      synchronized (loadedProviders) {
+        lAlreadyLoaded = loadedProviders.put(lProviderClass, Boolean.TRUE) != null;
+      }
+      if (lAlreadyLoaded == false) {
+        lProvider.register(this);
+      }
+      lProviders.add(lProviderClass.getName());
+    }
+    return Collections.unmodifiableList(lProviders);
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.fallback.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsMXBean;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProviderFactory;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+/**
+ * Class implements a factory for the fallback metrics provider. As metrics should survive reloads of JEAF X-Fun all
+ * instances of this factory share the same metrics provider. The shared metrics provider is only exposed via JMX once
+ * this factory is actually used, so that it does not block the registration of a configured metrics provider.
+ */
+public class MetricsProviderFactoryImpl implements MetricsProviderFactory {
+  /**
+   * Metrics provider that is shared by all factories.
+   */
+  private static final MetricsProviderImpl METRICS_PROVIDER = new MetricsProviderImpl();
+
+  /**
+   * Initialize object. The shared metrics provider will be registered at the platform MBean server under the name
+   * {@value MetricsMXBean#OBJECT_NAME} if no other metrics provider is already registered.
+   */
+  public MetricsProviderFactoryImpl( ) {
+    MetricsProviderFactoryImpl.registerMBean(METRICS_PROVIDER);
+  }
+
+  /**
+   * Method returns the metrics provider that is shared by all factories without registering it via JMX. It is used
+   * while the configured metrics provider is not available yet.
+   *
+   * @return {@link MetricsProvider} Shared metrics provider. The method never returns null.
+   */
+  public static MetricsProvider getSharedMetricsProvider( ) {
+    return METRICS_PROVIDER;
+  }
+
+  @Override
+  public MetricsProvider getMetricsProvider( ) {
+    return METRICS_PROVIDER;
+  }
+
+  /**
+   * Method registers the passed metrics at the platform MBean server if no other metrics are already registered.
+   *
+   * @param pMetrics Metrics that should be registered.
+   */
+  private static synchronized void registerMBean( MetricsMXBean pMetrics ) {
+    try {
+      MBeanServer lMBeanServer = ManagementFactory.getPlatformMBeanServer();
+      ObjectName lObjectName = new ObjectName(MetricsMXBean.OBJECT_NAME);
+      if (lMBeanServer.isRegistered(lObjectName) == false) {
+        lMBeanServer.registerMBean(pMetrics, lObjectName);
+      }
+    }
+    // JMX is not essential so problems will only be traced.
+    catch (Exception | LinkageError e) {
+      FallbackTraceProviderImpl.EMERGENCY_TRACE.writeEmergencyTrace(
+          "Unable to register metrics via JMX. " + e.getMessage(), e, TraceLevel.WARN);
+    }
+  }
+}
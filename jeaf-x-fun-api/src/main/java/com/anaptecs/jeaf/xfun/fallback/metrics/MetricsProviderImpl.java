@@ -0,0 +1,159 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.fallback.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
+import com.anaptecs.jeaf.xfun.api.metrics.Counter;
+import com.anaptecs.jeaf.xfun.api.metrics.Gauge;
+import com.anaptecs.jeaf.xfun.api.metrics.Histogram;
+import com.anaptecs.jeaf.xfun.api.metrics.HistogramSnapshot;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsMXBean;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsSnapshot;
+
+/**
+ * Class implements a fallback metrics provider that keeps all metrics in memory. They are exposed via JMX by
+ * {@link MetricsProviderFactoryImpl}.
+ */
+public class MetricsProviderImpl implements MetricsProvider, MetricsMXBean {
+  /**
+   * Map contains all counters. The name of the counter is used as key.
+   */
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+  /**
+   * Map contains all gauges. The name of the gauge is used as key.
+   */
+  private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+  /**
+   * Map contains all histograms. The name of the histogram is used as key.
+   */
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public Counter getCounter( String pName ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+
+    Counter lCounter = counters.get(pName);
+    if (lCounter == null) {
+      lCounter = counters.computeIfAbsent(pName, Counter::new);
+    }
+    return lCounter;
+  }
+
+  @Override
+  public Gauge getGauge( String pName ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+
+    Gauge lGauge = gauges.get(pName);
+    if (lGauge == null) {
+      lGauge = gauges.computeIfAbsent(pName, Gauge::new);
+    }
+    return lGauge;
+  }
+
+  @Override
+  public Gauge registerGauge( String pName, LongSupplier pSupplier ) {
+    // Check parameters
+    Check.checkInvalidParameterNull(pName, "pName");
+    Check.checkInvalidParameterNull(pSupplier, "pSupplier");
+
+    Gauge lGauge = new Gauge(pName, pSupplier);
+    gauges.put(pName, lGauge);
+    return lGauge;
+  }
+
+  @Override
+  public Histogram getHistogram( String pName ) {
+    // Check parameter
+    Check.checkInvalidParameterNull(pName, "pName");
+
+    Histogram lHistogram = histograms.get(pName);
+    if (lHistogram == null) {
+      lHistogram = histograms.computeIfAbsent(pName, Histogram::new);
+    }
+    return lHistogram;
+  }
+
+  @Override
+  public void recordHealthCheck( String pCheckName, HealthCheckResult pResult ) {
+    // Check parameters
+    Check.checkInvalidParameterNull(pCheckName, "pCheckName");
+    Check.checkInvalidParameterNull(pResult, "pResult");
+
+    String lPrefix = HEALTH_CHECK_PREFIX + pCheckName;
+    this.getGauge(lPrefix + ".status").set(pResult.getHealthStatus().ordinal());
+    this.getCounter(lPrefix + ".executions").increment();
+    this.getCounter(lPrefix + ".warnings").add(pResult.getWarnings().size());
+    this.getCounter(lPrefix + ".errors").add(pResult.getErrors().size());
+  }
+
+  @Override
+  public MetricsSnapshot getSnapshot( ) {
+    Map<String, HistogramSnapshot> lHistograms = new HashMap<>();
+    for (Histogram lNext : histograms.values()) {
+      lHistograms.put(lNext.getName(), lNext.snapshot());
+    }
+    return new MetricsSnapshot(this.getCounters(), this.getGauges(), lHistograms);
+  }
+
+  @Override
+  public Map<String, Long> getCounters( ) {
+    Map<String, Long> lCounters = new HashMap<>();
+    for (Counter lNext : counters.values()) {
+      lCounters.put(lNext.getName(), lNext.getValue());
+    }
+    return lCounters;
+  }
+
+  @Override
+  public Map<String, Long> getGauges( ) {
+    Map<String, Long> lGauges = new HashMap<>();
+    for (Gauge lNext : gauges.values()) {
+      lGauges.put(lNext.getName(), lNext.getValue());
+    }
+    return lGauges;
+  }
+
+  @Override
+  public String[] getHistogramNames( ) {
+    return histograms.keySet().toArray(new String[0]);
+  }
+
+  @Override
+  public long getValueAtPercentile( String pHistogramName, double pPercentile ) {
+    Histogram lHistogram;
+    if (pHistogramName != null) {
+      lHistogram = histograms.get(pHistogramName);
+    }
+    else {
+      lHistogram = null;
+    }
+
+    long lValue;
+    if (lHistogram != null) {
+      lValue = lHistogram.getValueAtPercentile(pPercentile);
+    }
+    else {
+      lValue = 0;
+    }
+    return lValue;
+  }
+
+  @Override
+  public String getPrometheusText( ) {
+    return this.getSnapshot().toPrometheusText();
+  }
+}
@@ -6,6 +6,7 @@
 package com.anaptecs.jeaf.xfun.fallback.trace;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -15,6 +16,8 @@ import com.anaptecs.jeaf.xfun.api.messages.MessageID;
 import com.anaptecs.jeaf.xfun.api.trace.AbstractTraceImpl;
 import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
 import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevelResolver;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevelResolver.CachedTraceLevel;
 import com.anaptecs.jeaf.xfun.bootstrap.Assert;
 
 /**
@@ -37,6 +40,11 @@ public class FallbackTraceImpl extends AbstractTraceImpl {
    */
   private final Logger logger;
 
+  /**
+   * Trace level that is configured for the logger (see {@link TraceLevelResolver}). The reference is never null.
+   */
+  private final CachedTraceLevel configuredTraceLevel;
+
   /**
    * Initialize a new Trace-Object for the passed component.
    * 
@@ -51,6 +59,7 @@ public class FallbackTraceImpl extends AbstractTraceImpl {
     lConsoleHandler.setFormatter(new SimpleFormatter());
     logger = Logger.getLogger(pLoggerName);
     logger.setLevel(Level.FINEST);
+    configuredTraceLevel = TraceLevelResolver.getInstance().newCachedTraceLevel(pLoggerName);
   }
 
   /**
@@ -72,6 +81,29 @@ public class FallbackTraceImpl extends AbstractTraceImpl {
     }
   }
 
+  /**
+   * Method logs all the passed messages with the passed trace level using JDK logging implementation. The trace level
+   * is only checked and converted once for all messages.
+   * 
+   * @param pTraceLevel Trace level of the log entries. The parameter must not be null.
+   * @param pMessages Messages that should be traced. The parameter must not be null.
+   */
+  @Override
+  protected void logBatch( TraceLevel pTraceLevel, List<String> pMessages ) {
+    // Check parameters.
+    Assert.assertNotNull(pTraceLevel, "pTraceLevel");
+    Assert.assertNotNull(pMessages, "pMessages");
+
+    if (this.isLevelEnabled(pTraceLevel) == true) {
+      Level lLevel = this.toLevel(pTraceLevel);
+      for (String lNext : pMessages) {
+        if (lNext != null) {
+          logger.log(lLevel, lNext);
+        }
+      }
+    }
+  }
+
   /**
    * Method creates a new message based on the locale to use for tracing and the passed parameters.
    * 
@@ -155,7 +187,8 @@ public class FallbackTraceImpl extends AbstractTraceImpl {
   }
 
   /**
-   * Method check if the passed trace level is enabled on this trace object.
+   * Method check if the passed trace level is enabled on this trace object. If a trace level is configured for the
+   * logger then it is used. Otherwise the level of the JDK logger decides.
    * 
    * @param pTraceLevel Trace level that should be checked. The parameter must not be null.
    * @return boolean The method returns true if the passed trace level is enabled on this trace object and false in all
@@ -163,8 +196,16 @@ public class FallbackTraceImpl extends AbstractTraceImpl {
    */
   @Override
   public boolean isLevelEnabled( TraceLevel pTraceLevel ) {
-    Level lLevel = this.toLevel(pTraceLevel);
-    return logger.isLoggable(lLevel);
+    boolean lEnabled;
+    if (configuredTraceLevel.getTraceLevel() != null) {
+      lEnabled = configuredTraceLevel.isEnabled(pTraceLevel);
+    }
+    // No trace level is configured for the logger.
+    else {
+      Level lLevel = this.toLevel(pTraceLevel);
+      lEnabled = logger.isLoggable(lLevel);
+    }
+    return lEnabled;
   }
 
   /**
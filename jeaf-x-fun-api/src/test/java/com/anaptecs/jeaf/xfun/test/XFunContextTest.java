@@ -0,0 +1,175 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunConfiguration;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+import com.anaptecs.jeaf.xfun.test.config.ConfigurationIndexFixture;
+import com.anaptecs.jeaf.xfun.test_default_runtime.XFunConfig;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class XFunContextTest {
+  @Test
+  @Order(10)
+  public void testContextPerClassLoader( ) throws Exception {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    XFun.reload();
+    XFunConfiguration lDefaultConfiguration = XFun.getConfiguration();
+    assertEquals(XFunConfig.class, lDefaultConfiguration.getConfigurationClass());
+
+    // Configuration of the context is only visible through its class loader.
+    Path lDirectory = Files.createTempDirectory("xfun-context");
+    Path lConfigFile = lDirectory.resolve(XFun.X_FUN_BASE_PATH + "/CONTEXT_CONFIG");
+    Files.createDirectories(lConfigFile.getParent());
+    Files.write(lConfigFile, MessageResourcesAvailable.class.getName().getBytes(StandardCharsets.UTF_8));
+
+    ClassLoader lParent = XFunContextTest.class.getClassLoader();
+    try (URLClassLoader lContextClassLoader = new URLClassLoader(new URL[] { lDirectory.toUri().toURL() }, lParent);
+        URLClassLoader lChildClassLoader = new URLClassLoader(new URL[0], lContextClassLoader)) {
+      assertFalse(XFun.hasContext(lContextClassLoader));
+      System.setProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME, "CONTEXT_CONFIG");
+      try {
+        XFun.createContext(lContextClassLoader);
+      }
+      finally {
+        System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+      }
+      assertTrue(XFun.hasContext(lContextClassLoader));
+      assertFalse(XFun.hasContext(lChildClassLoader));
+
+      // Threads of the context class loader and its children use the context.
+      XFunConfiguration lContextConfiguration = runWith(lContextClassLoader, XFun::getConfiguration);
+      assertNotSame(lDefaultConfiguration, lContextConfiguration);
+      assertEquals(MessageResourcesAvailable.class, lContextConfiguration.getConfigurationClass());
+      assertSame(lContextConfiguration, runWith(lChildClassLoader, XFun::getConfiguration));
+      assertTrue(runWith(lContextClassLoader, XFun::getTrace) != null);
+
+      // All other threads still use the default context.
+      assertSame(lDefaultConfiguration, XFun.getConfiguration());
+      assertSame(lDefaultConfiguration, runWith(lParent, XFun::getConfiguration));
+      assertSame(lDefaultConfiguration, runWith(null, XFun::getConfiguration));
+
+      // Generation of a context does not depend on the calling thread.
+      assertNull(XFun.getContext());
+      assertSame(lContextClassLoader, runWith(lChildClassLoader, XFun::getContext));
+      long lContextGeneration = runWith(lContextClassLoader, XFun::getGeneration);
+      assertNotEquals(XFun.getGeneration(), lContextGeneration);
+      assertEquals(lContextGeneration, XFun.getGeneration(lContextClassLoader));
+      assertEquals(XFun.getGeneration(), runWith(lContextClassLoader, ( ) -> XFun.getGeneration(null)));
+
+      // After removal the default context is used again.
+      assertTrue(XFun.removeContext(lContextClassLoader));
+      assertFalse(XFun.removeContext(lContextClassLoader));
+      assertFalse(XFun.hasContext(lContextClassLoader));
+      assertSame(lDefaultConfiguration, runWith(lContextClassLoader, XFun::getConfiguration));
+      assertEquals(XFun.getGeneration(), XFun.getGeneration(lContextClassLoader));
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testInvalidParameters( ) {
+    try {
+      XFun.createContext(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pClassLoader' must not be null.", e.getMessage());
+    }
+    try {
+      XFun.removeContext(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pClassLoader' must not be null.", e.getMessage());
+    }
+    try {
+      ConfigurationReader.callWithClassLoader(null, ( ) -> null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pClassLoader' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testClassLoaderIsCollectedAfterRemoval( ) throws Exception {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+
+    Path lDirectory = Files.createTempDirectory("xfun-context");
+    try {
+      WeakReference<ClassLoader> lReference = createAndRemoveContext(lDirectory);
+      for (int i = 0; i < 100 && lReference.get() != null; i++) {
+        System.gc();
+        Thread.sleep(10);
+      }
+      assertNull(lReference.get(), "Class loader of removed context was not garbage collected.");
+    }
+    finally {
+      ConfigurationIndexFixture.delete(lDirectory);
+    }
+  }
+
+  /**
+   * Method creates a context whose class loader defines classes that are cached by JEAF X-Fun and removes it again.
+   */
+  private static WeakReference<ClassLoader> createAndRemoveContext( Path pDirectory ) throws Exception {
+    URLClassLoader lClassLoader = ConfigurationIndexFixture.createClassLoader(pDirectory);
+    XFun.createContext(lClassLoader);
+    assertTrue(runWith(lClassLoader, XFun::getConfiguration) != null);
+    List<Class<?>> lClasses = ConfigurationReader.callWithClassLoader(lClassLoader,
+        ( ) -> new ConfigurationReader().readClassesFromConfigFile(ConfigurationIndexFixture.INDEXED_FIXTURE_PATH));
+    assertSame(lClassLoader, lClasses.get(0).getClassLoader());
+
+    assertTrue(XFun.removeContext(lClassLoader));
+    lClassLoader.close();
+    return new WeakReference<>(lClassLoader);
+  }
+
+  /**
+   * Method executes the passed callable with the passed context class loader.
+   */
+  private static <T> T runWith( ClassLoader pClassLoader, Callable<T> pCallable ) throws Exception {
+    Thread lThread = Thread.currentThread();
+    ClassLoader lPrevious = lThread.getContextClassLoader();
+    lThread.setContextClassLoader(pClassLoader);
+    try {
+      return pCallable.call();
+    }
+    finally {
+      lThread.setContextClassLoader(lPrevious);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationProvider;
+import com.anaptecs.jeaf.xfun.fallback.checks.FallbackVerifierImpl;
+import com.anaptecs.jeaf.xfun.fallback.info.InfoProviderImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationProviderImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.DatatypeConverterRegistryImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.LocaleProviderImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.MessageRepositoryImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.PrincipalProviderImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class XFunLazyInitializationTest {
+  @Test
+  @Order(10)
+  public void testConcurrentFirstAccess( ) throws InterruptedException, ExecutionException {
+    // Factories must work correctly even if they are used for the first time concurrently.
+    this.useDefaultConfiguration();
+    XFun.reload();
+    ExecutorService lExecutor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ConfigurationProvider>> lResults = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        lResults.add(lExecutor.submit(XFun::getConfigurationProvider));
+      }
+      for (Future<ConfigurationProvider> lNext : lResults) {
+        assertEquals(ConfigurationProviderImpl.class, lNext.get().getClass());
+      }
+    }
+    finally {
+      lExecutor.shutdown();
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testParallelWarmUp( ) {
+    this.useDefaultConfiguration();
+    System.setProperty(XFun.X_FUN_PARALLEL_WARM_UP, "true");
+    try {
+      XFun.reload();
+      assertEquals(ConfigurationProviderImpl.class, XFun.getConfigurationProvider().getClass());
+      assertEquals(DatatypeConverterRegistryImpl.class, XFun.getDatatypeConverterRegistry().getClass());
+      assertEquals(InfoProviderImpl.class, XFun.getInfoProvider().getClass());
+      assertEquals(LocaleProviderImpl.class, XFun.getLocaleProvider().getClass());
+      assertEquals(MessageRepositoryImpl.class, XFun.getMessageRepository().getClass());
+      assertEquals(PrincipalProviderImpl.class, XFun.getPrincipalProvider().getClass());
+      assertEquals(FallbackVerifierImpl.class, XFun.getVerifier().getClass());
+    }
+    finally {
+      System.clearProperty(XFun.X_FUN_PARALLEL_WARM_UP);
+      XFun.reload();
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testParallelWarmUpInNewJVM( ) throws IOException, InterruptedException {
+    // Warm-up is also used when JEAF X-Fun is initialized for the first time. This must not block the initialization.
+    Path lOutput = Files.createTempFile("xfun-warm-up", ".log");
+    try {
+      String lJava = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+      ProcessBuilder lBuilder = new ProcessBuilder(lJava, "-D" + XFun.X_FUN_PARALLEL_WARM_UP + "=true", "-cp",
+          System.getProperty("java.class.path"), WarmUpStarter.class.getName());
+      lBuilder.redirectErrorStream(true);
+      lBuilder.redirectOutput(lOutput.toFile());
+      Process lProcess = lBuilder.start();
+      boolean lTerminated = lProcess.waitFor(60, TimeUnit.SECONDS);
+      if (lTerminated == false) {
+        lProcess.destroyForcibly();
+      }
+      String lLog = new String(Files.readAllBytes(lOutput), StandardCharsets.UTF_8);
+      assertTrue(lTerminated, "JEAF X-Fun initialization with parallel warm-up did not terminate. " + lLog);
+      assertEquals(0, lProcess.exitValue(), lLog);
+    }
+    finally {
+      Files.deleteIfExists(lOutput);
+    }
+  }
+
+  /**
+   * Class initializes JEAF X-Fun in a new JVM. The JVM exits with status 0 if all factories are available.
+   */
+  public static class WarmUpStarter {
+    public static void main( String[] pArgs ) {
+      boolean lSuccess = XFun.getConfigurationProvider() instanceof ConfigurationProviderImpl
+          && XFun.getMessageRepository() instanceof MessageRepositoryImpl
+          && XFun.getLocaleProvider() instanceof LocaleProviderImpl;
+      System.exit(lSuccess == true ? 0 : 1);
+    }
+  }
+
+  private void useDefaultConfiguration( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+  }
+}
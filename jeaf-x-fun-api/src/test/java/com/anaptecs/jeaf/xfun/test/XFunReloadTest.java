@@ -0,0 +1,112 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunConfiguration;
+import com.anaptecs.jeaf.xfun.api.XFunReloadListener;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class XFunReloadTest {
+  @Test
+  @Order(10)
+  public void testReloadListener( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+
+    List<Long> lGenerations = new ArrayList<>();
+    List<XFunConfiguration> lConfigurations = new ArrayList<>();
+    XFunReloadListener lFailingListener = pGeneration -> {
+      throw new IllegalStateException("Listener failed.");
+    };
+    XFunReloadListener lListener = pGeneration -> {
+      lGenerations.add(pGeneration);
+      lConfigurations.add(XFun.getConfiguration());
+    };
+    XFun.addReloadListener(lFailingListener);
+    XFun.addReloadListener(lListener);
+    try {
+      long lGeneration = XFun.getGeneration();
+      XFun.reload();
+
+      // Listener is called with the generation of the already published instance.
+      assertEquals(1, lGenerations.size());
+      assertTrue(lGenerations.get(0) > lGeneration);
+      assertEquals(XFun.getGeneration(), lGenerations.get(0).longValue());
+      assertTrue(lConfigurations.get(0) == XFun.getConfiguration());
+
+      // Generation does not change without reload.
+      assertEquals(lGenerations.get(0).longValue(), XFun.getGeneration());
+    }
+    finally {
+      XFun.removeReloadListener(lFailingListener);
+      XFun.removeReloadListener(lListener);
+    }
+
+    // Removed listeners are not called any longer.
+    XFun.reload();
+    assertEquals(1, lGenerations.size());
+
+    try {
+      XFun.addReloadListener(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pListener' must not be null.", e.getMessage());
+    }
+    try {
+      XFun.removeReloadListener(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pListener' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testLookupsDuringReload( ) throws Exception {
+    // Concurrent lookups must always see a completely initialized instance.
+    ExecutorService lExecutor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> lResults = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        lResults.add(lExecutor.submit(( ) -> {
+          for (int j = 0; j < 1000; j++) {
+            XFun.getConfigurationProvider();
+            XFun.getConfiguration().getConfigurationClass();
+          }
+        }));
+      }
+      long lGeneration = XFun.getGeneration();
+      XFun.reload();
+      XFun.reload();
+      for (Future<?> lNext : lResults) {
+        lNext.get();
+      }
+      assertEquals(lGeneration + 2, XFun.getGeneration());
+    }
+    finally {
+      lExecutor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunTrainingRun;
+import com.anaptecs.jeaf.xfun.api.messages.MessageRepositoryFactory;
+import com.anaptecs.jeaf.xfun.test_default_runtime.MessageRepositoryFactoryImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class XFunTrainingRunTest {
+  @Test
+  @Order(10)
+  public void testTrainingRun( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    XFun.reload();
+
+    List<String> lClassList = XFunTrainingRun.run();
+    assertTrue(lClassList.contains("com/anaptecs/jeaf/xfun/api/XFun"));
+    assertTrue(lClassList.contains(MessageRepositoryFactoryImpl.class.getName().replace('.', '/')));
+
+    // Super types are listed before their sub types.
+    String lFactoryInterface = MessageRepositoryFactory.class.getName().replace('.', '/');
+    String lFactoryImpl = MessageRepositoryFactoryImpl.class.getName().replace('.', '/');
+    assertTrue(lClassList.indexOf(lFactoryInterface) >= 0);
+    assertTrue(lClassList.indexOf(lFactoryInterface) < lClassList.indexOf(lFactoryImpl));
+
+    // Classes of the JDK are not listed.
+    for (String lNextClass : lClassList) {
+      assertFalse(lNextClass.contains("."), lNextClass);
+      assertFalse(lNextClass.startsWith("java/"), lNextClass);
+    }
+    assertEquals(lClassList.size(), new HashSet<>(lClassList).size());
+  }
+
+  @Test
+  @Order(20)
+  public void testWriteClassList( ) throws IOException {
+    Path lClassListFile = Files.createTempFile("xfun", ".classlist");
+    try {
+      int lClasses = XFunTrainingRun.writeClassList(lClassListFile);
+      List<String> lLines = Files.readAllLines(lClassListFile, StandardCharsets.UTF_8);
+      assertEquals(lClasses, lLines.size());
+      assertEquals(XFunTrainingRun.run(), lLines);
+    }
+    finally {
+      Files.delete(lClassListFile);
+    }
+
+    try {
+      XFunTrainingRun.writeClassList(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pClassListFile' must not be null.", e.getMessage());
+    }
+  }
+}
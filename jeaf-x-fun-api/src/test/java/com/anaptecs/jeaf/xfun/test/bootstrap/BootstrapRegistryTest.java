@@ -0,0 +1,183 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.bootstrap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.XFunConfiguration;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationProviderFactory;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+import com.anaptecs.jeaf.xfun.api.messages.MessageRepositoryFactory;
+import com.anaptecs.jeaf.xfun.api.trace.StartupInfoWriter;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.bootstrap.BootstrapRegistry;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationProviderFactoryImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.MessageRepositoryFactoryImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class BootstrapRegistryTest {
+  @Test
+  @Order(10)
+  public void testRegistry( ) {
+    BootstrapRegistry lRegistry = BootstrapRegistry.getInstance();
+    lRegistry.clear();
+    assertNull(lRegistry.getFactory(MessageRepositoryFactory.class));
+
+    MessageRepositoryFactory lFactory = new MessageRepositoryFactoryImpl();
+    lRegistry.registerFactory(MessageRepositoryFactory.class, lFactory);
+    assertSame(lFactory, lRegistry.getFactory(MessageRepositoryFactory.class));
+    assertEquals(0, lRegistry.getStartupInfoWriters().size());
+
+    // Providers are located through service loader.
+    List<String> lProviders = lRegistry.loadProviders(BootstrapRegistryTest.class.getClassLoader());
+    assertEquals(Arrays.asList(TestBootstrapProvider.class.getName()), lProviders);
+    assertEquals(ConfigurationProviderFactoryImpl.class,
+        lRegistry.getFactory(ConfigurationProviderFactory.class).getClass());
+
+    // Providers are only called once e.g. in case of a reload.
+    ConfigurationProviderFactory lConfigurationProviderFactory = new ConfigurationProviderFactoryImpl();
+    lRegistry.registerFactory(ConfigurationProviderFactory.class, lConfigurationProviderFactory);
+    lProviders = lRegistry.loadProviders(BootstrapRegistryTest.class.getClassLoader());
+    assertEquals(Arrays.asList(TestBootstrapProvider.class.getName()), lProviders);
+    assertSame(lConfigurationProviderFactory, lRegistry.getFactory(ConfigurationProviderFactory.class));
+
+    lRegistry.clear();
+    assertNull(lRegistry.getFactory(MessageRepositoryFactory.class));
+
+    // After the registry was cleared providers register their factories again.
+    lRegistry.loadProviders(BootstrapRegistryTest.class.getClassLoader());
+    assertEquals(ConfigurationProviderFactoryImpl.class,
+        lRegistry.getFactory(ConfigurationProviderFactory.class).getClass());
+    assertNotSame(lConfigurationProviderFactory, lRegistry.getFactory(ConfigurationProviderFactory.class));
+    lRegistry.clear();
+
+    try {
+      lRegistry.registerFactory(MessageRepositoryFactory.class, null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pFactory' must not be null.", e.getMessage());
+    }
+    try {
+      lRegistry.getFactory(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pFactoryType' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testRegisteredFactoriesArePreferred( ) {
+    this.useDefaultConfiguration();
+    BootstrapRegistry lRegistry = BootstrapRegistry.getInstance();
+    MessageRepositoryFactory lFactory = new MessageRepositoryFactoryImpl();
+    lRegistry.registerFactory(MessageRepositoryFactory.class, lFactory);
+    try {
+      XFun.reload();
+      XFunConfiguration lConfiguration = XFun.getConfiguration();
+      assertSame(lFactory, lConfiguration.getMessageRepositoryFactory());
+      assertEquals(ConfigurationProviderFactoryImpl.class, lConfiguration.getConfigurationProviderFactory().getClass());
+    }
+    finally {
+      lRegistry.clear();
+      XFun.reload();
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testProgrammaticBootstrap( ) {
+    this.useDefaultConfiguration();
+    BootstrapRegistry lRegistry = BootstrapRegistry.getInstance();
+    MessageRepositoryFactory lFactory = new MessageRepositoryFactoryImpl();
+    lRegistry.registerFactory(MessageRepositoryFactory.class, lFactory);
+    List<String> lWriterCalls = new ArrayList<>();
+    lRegistry.addStartupInfoWriter(new StartupInfoWriter() {
+      @Override
+      public Class<?> getStartupCompletedEventSource( ) {
+        return XFun.class;
+      }
+
+      @Override
+      public void traceStartupInfo( Trace pTrace, TraceLevel pTraceLevel ) {
+        lWriterCalls.add("called");
+      }
+    });
+
+    // Configuration resources and classes are not accessible. Nevertheless X-Fun has to start.
+    System.setProperty(BootstrapRegistry.PROGRAMMATIC_BOOTSTRAP, "true");
+    RestrictedClassLoader lRestrictedClassLoader = new RestrictedClassLoader();
+    try {
+      ConfigurationReader.callWithClassLoader(lRestrictedClassLoader, ( ) -> {
+        XFun.reload();
+        XFunConfiguration lConfiguration = XFun.getConfiguration();
+        assertEquals(BootstrapRegistry.class, lConfiguration.getConfigurationClass());
+        assertSame(lFactory, lConfiguration.getMessageRepositoryFactory());
+        assertEquals(ConfigurationProviderFactoryImpl.class,
+            lConfiguration.getConfigurationProviderFactory().getClass());
+
+        // Factories that are not registered are not created through reflection.
+        assertNull(lConfiguration.getLocaleProviderFactory());
+        return null;
+      });
+      assertEquals(Arrays.asList("called"), lWriterCalls);
+      assertTrue(lRestrictedClassLoader.accesses.isEmpty(), lRestrictedClassLoader.accesses.toString());
+    }
+    finally {
+      System.clearProperty(BootstrapRegistry.PROGRAMMATIC_BOOTSTRAP);
+      lRegistry.clear();
+      XFun.reload();
+    }
+  }
+
+  private void useDefaultConfiguration( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+  }
+
+  /**
+   * Class loader records every attempt to load a class or resource and refuses it.
+   */
+  static class RestrictedClassLoader extends ClassLoader {
+    final List<String> accesses = new ArrayList<>();
+
+    RestrictedClassLoader( ) {
+      super(null);
+    }
+
+    @Override
+    protected Class<?> loadClass( String pName, boolean pResolve ) throws ClassNotFoundException {
+      accesses.add(pName);
+      throw new ClassNotFoundException(pName);
+    }
+
+    @Override
+    public URL getResource( String pName ) {
+      accesses.add(pName);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.bootstrap;
+
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationProviderFactory;
+import com.anaptecs.jeaf.xfun.api.trace.TraceProviderFactory;
+import com.anaptecs.jeaf.xfun.bootstrap.BootstrapProvider;
+import com.anaptecs.jeaf.xfun.bootstrap.BootstrapRegistry;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderFactoryImpl;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationProviderFactoryImpl;
+
+public class TestBootstrapProvider implements BootstrapProvider {
+  @Override
+  public void register( BootstrapRegistry pRegistry ) {
+    pRegistry.registerFactory(ConfigurationProviderFactory.class, new ConfigurationProviderFactoryImpl());
+    pRegistry.registerFactory(TraceProviderFactory.class, new FallbackTraceProviderFactoryImpl());
+  }
+}
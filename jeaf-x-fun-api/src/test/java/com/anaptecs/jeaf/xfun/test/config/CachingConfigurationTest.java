@@ -0,0 +1,206 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.config.CachingConfiguration;
+import com.anaptecs.jeaf.xfun.api.config.VersionedConfigurationResource;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CachingConfigurationTest {
+  @Test
+  @Order(10)
+  public void testCachedValues( ) {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("answer", "YES");
+    lResource.values.put("answers", "YES; NO");
+    lResource.values.put("empty", "");
+    CachingConfiguration lConfiguration = new CachingConfiguration(new ConfigurationImpl(lResource), lResource);
+
+    // Values are only read once.
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", true, TestEnum.class));
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.NO, TestEnum.class));
+    assertEquals(1, lResource.reads);
+    List<TestEnum> lValues = lConfiguration.getConfigurationValueList("answers", TestEnum.class);
+    assertEquals(Arrays.asList(TestEnum.YES, TestEnum.NO), lValues);
+    assertSame(lValues, lConfiguration.getConfigurationValueList("answers", TestEnum.class));
+    assertEquals(2, lResource.reads);
+
+    // Missing values are also cached.
+    assertNull(lConfiguration.getConfigurationValue("unknown", TestEnum.class));
+    assertEquals(TestEnum.MAYBE, lConfiguration.getConfigurationValue("unknown", TestEnum.MAYBE, TestEnum.class));
+    assertNull(lConfiguration.getConfigurationValue("empty", TestEnum.class));
+    assertNull(lConfiguration.getConfigurationValue("empty", TestEnum.class));
+    assertEquals(3, lResource.reads);
+    assertEquals(0, lConfiguration.getConfigurationValueList("unknown", TestEnum.class).size());
+    lValues = lConfiguration.getConfigurationValueList("unknown", TestEnum.NO, TestEnum.class);
+    assertEquals(Arrays.asList(TestEnum.NO), lValues);
+    List<TestEnum> lDefault = new ArrayList<>();
+    assertSame(lDefault, lConfiguration.getConfigurationValueList("unknown", lDefault, TestEnum.class));
+    try {
+      lConfiguration.getConfigurationValue("unknown", true, TestEnum.class);
+      fail("Exception expected.");
+    }
+    catch (MissingResourceException e) {
+      assertEquals("unknown", e.getKey());
+    }
+    try {
+      lConfiguration.getConfigurationValueList("empty", true, TestEnum.class);
+      fail("Exception expected.");
+    }
+    catch (MissingResourceException e) {
+      assertEquals("empty", e.getKey());
+    }
+
+    // New version of resource invalidates cached values.
+    lResource.values.put("answer", "NO");
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+    lResource.version++;
+    assertEquals(TestEnum.NO, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+
+    // Cache can also be invalidated explicitly.
+    lResource.values.put("answer", "MAYBE");
+    lConfiguration.invalidate();
+    assertEquals(TestEnum.MAYBE, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+  }
+
+  @Test
+  @Order(20)
+  public void testConversionProblems( ) {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("invalid", "PERHAPS");
+    CachingConfiguration lConfiguration = new CachingConfiguration(new ConfigurationImpl(lResource));
+
+    // Problems are not cached.
+    try {
+      lConfiguration.getConfigurationValue("invalid", TestEnum.class);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(1, lResource.reads);
+    }
+    assertEquals(TestEnum.NO, lConfiguration.getConfigurationValue("invalid", TestEnum.NO, TestEnum.class));
+    assertEquals(3, lResource.reads);
+
+    try {
+      new CachingConfiguration(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pConfiguration' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testXFunReload( ) {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("answer", "YES");
+    CachingConfiguration lConfiguration = new CachingConfiguration(new ConfigurationImpl(lResource));
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+    lResource.values.put("answer", "NO");
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+    assertEquals(1, lResource.reads);
+
+    // Reload of X-Fun revalidates cached values lazily.
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    XFun.reload();
+    assertEquals(1, lResource.reads);
+    assertEquals(TestEnum.NO, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+    assertEquals(2, lResource.reads);
+  }
+
+  @Test
+  @Order(40)
+  public void testSharedBetweenContexts( ) throws IOException {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("answer", "YES");
+    CachingConfiguration lConfiguration = new CachingConfiguration(new ConfigurationImpl(lResource));
+    assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+
+    // Configuration was created in the default context. Using it from another context must not invalidate its values.
+    ClassLoader lParent = CachingConfigurationTest.class.getClassLoader();
+    try (URLClassLoader lClassLoader = new URLClassLoader(new URL[0], lParent)) {
+      XFun.createContext(lClassLoader);
+      Thread lThread = Thread.currentThread();
+      ClassLoader lPrevious = lThread.getContextClassLoader();
+      try {
+        lThread.setContextClassLoader(lClassLoader);
+        assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+        lThread.setContextClassLoader(lPrevious);
+        assertEquals(TestEnum.YES, lConfiguration.getConfigurationValue("answer", TestEnum.class));
+        assertEquals(1, lResource.reads);
+      }
+      finally {
+        lThread.setContextClassLoader(lPrevious);
+        XFun.removeContext(lClassLoader);
+      }
+    }
+  }
+
+  static class CountingResource implements VersionedConfigurationResource {
+    final Map<String, String> values = new HashMap<>();
+
+    int reads;
+
+    long version;
+
+    @Override
+    public String getResourceName( ) {
+      return "CountingResource";
+    }
+
+    @Override
+    public String getResourceLocation( ) {
+      return "memory";
+    }
+
+    @Override
+    public boolean hasConfigurationValue( String pConfigurationKey ) {
+      return values.containsKey(pConfigurationKey);
+    }
+
+    @Override
+    public List<String> getAllConfigurationKeys( ) {
+      return new ArrayList<>(values.keySet());
+    }
+
+    @Override
+    public String getConfigurationValue( String pConfigurationKey ) throws MissingResourceException {
+      reads++;
+      return values.get(pConfigurationKey);
+    }
+
+    @Override
+    public long getVersion( ) {
+      return version;
+    }
+  }
+}
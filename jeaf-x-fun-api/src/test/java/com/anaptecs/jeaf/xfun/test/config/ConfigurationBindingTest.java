@@ -0,0 +1,185 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.annotations.ConfigurationKey;
+import com.anaptecs.jeaf.xfun.api.XFunRuntimeException;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.config.Configuration;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationBinding;
+import com.anaptecs.jeaf.xfun.test.config.CachingConfigurationTest.CountingResource;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConfigurationBindingTest {
+  public interface TestConfig {
+    TestEnum getAnswer( );
+
+    @ConfigurationKey("other.answers")
+    List<TestEnum> getAnswers( );
+
+    @ConfigurationKey(required = false)
+    TestEnum getOptional( );
+
+    default boolean isConfirmed( ) {
+      return this.getAnswer() == TestEnum.YES;
+    }
+
+    default TestEnum getOptional( TestEnum pDefault ) {
+      TestEnum lOptional = this.getOptional();
+      return lOptional != null ? lOptional : pDefault;
+    }
+  }
+
+  public interface InvalidConfig {
+    TestEnum getAnswer( );
+
+    TestEnum getMissing( );
+
+    TestEnum getWrong( );
+
+    TestEnum calculate( String pValue );
+  }
+
+  @Test
+  @Order(10)
+  public void testBinding( ) {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("answer", "YES");
+    lResource.values.put("other.answers", "NO; MAYBE");
+    Configuration lConfiguration = new ConfigurationImpl(lResource);
+
+    // All values are read once when the interface is bound.
+    TestConfig lConfig = ConfigurationBinding.bind(TestConfig.class, lConfiguration);
+    int lReads = lResource.reads;
+    assertEquals(TestEnum.YES, lConfig.getAnswer());
+    assertEquals(Arrays.asList(TestEnum.NO, TestEnum.MAYBE), lConfig.getAnswers());
+    assertNull(lConfig.getOptional());
+    assertEquals(TestEnum.YES, lConfig.getAnswer());
+    assertEquals(lReads, lResource.reads);
+
+    // Default methods are not bound but executed using the bound values.
+    assertTrue(lConfig.isConfirmed());
+    assertEquals(TestEnum.MAYBE, lConfig.getOptional(TestEnum.MAYBE));
+    assertEquals(lReads, lResource.reads);
+    assertTrue(lConfig.equals(lConfig));
+    assertFalse(lConfig.equals(ConfigurationBinding.bind(TestConfig.class, lConfiguration)));
+    assertEquals(System.identityHashCode(lConfig), lConfig.hashCode());
+    assertTrue(lConfig.toString().startsWith("TestConfig"));
+    try {
+      lConfig.getAnswers().add(TestEnum.YES);
+      fail("Exception expected.");
+    }
+    catch (UnsupportedOperationException e) {
+      // Nothing to do.
+    }
+
+    // Changed values only become visible after rebinding.
+    lResource.values.put("answer", "NO");
+    lResource.values.put("optional", "MAYBE");
+    assertEquals(TestEnum.YES, lConfig.getAnswer());
+    ConfigurationBinding.rebind(lConfig);
+    assertEquals(TestEnum.NO, lConfig.getAnswer());
+    assertEquals(TestEnum.MAYBE, lConfig.getOptional());
+    assertFalse(lConfig.isConfirmed());
+    assertEquals(TestEnum.MAYBE, lConfig.getOptional(TestEnum.YES));
+
+    // Invalid values do not replace the current ones.
+    lResource.values.put("answer", "UNKNOWN");
+    try {
+      ConfigurationBinding.rebind(lConfig);
+      fail("Exception expected.");
+    }
+    catch (XFunRuntimeException e) {
+      assertTrue(e.getMessage().contains("getAnswer()"));
+    }
+    assertEquals(TestEnum.NO, lConfig.getAnswer());
+    try {
+      ConfigurationBinding.rebind("No binding");
+      fail("Exception expected.");
+    }
+    catch (XFunRuntimeException e) {
+      assertEquals("java.lang.String is not a bound configuration.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testInvalidBinding( ) {
+    CountingResource lResource = new CountingResource();
+    lResource.values.put("answer", "YES");
+    lResource.values.put("wrong", "PERHAPS");
+    Configuration lConfiguration = new ConfigurationImpl(lResource);
+
+    // All problems are reported together.
+    try {
+      ConfigurationBinding.bind(InvalidConfig.class, lConfiguration);
+      fail("Exception expected.");
+    }
+    catch (XFunRuntimeException e) {
+      String lMessage = e.getMessage();
+      assertTrue(lMessage.startsWith("Unable to bind configuration interface " + InvalidConfig.class.getName()));
+      assertTrue(lMessage.contains("calculate(): Only getters without parameters can be bound."));
+      assertTrue(lMessage.contains("getMissing(): "));
+      assertTrue(lMessage.contains("getWrong(): "));
+      assertFalse(lMessage.contains("getAnswer(): "));
+    }
+    try {
+      ConfigurationBinding.bind(String.class, lConfiguration);
+      fail("Exception expected.");
+    }
+    catch (XFunRuntimeException e) {
+      assertEquals("java.lang.String is not an interface.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testParameterChecks( ) {
+    try {
+      ConfigurationBinding.bind(null, new ConfigurationImpl(new CountingResource()));
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pConfigInterface' must not be null.", e.getMessage());
+    }
+    try {
+      ConfigurationBinding.bind(TestConfig.class, (Configuration) null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pConfiguration' must not be null.", e.getMessage());
+    }
+    try {
+      ConfigurationBinding.bind(TestConfig.class, (ComponentID) null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pComponentID' must not be null.", e.getMessage());
+    }
+    try {
+      ConfigurationBinding.rebind(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pBoundConfiguration' must not be null.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeBus;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeListener;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeSet;
+import com.anaptecs.jeaf.xfun.api.config.ReloadableFileConfigurationResource;
+import com.anaptecs.jeaf.xfun.api.config.ReloadableFileConfigurationResourceFactory;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ComponentConfigurationResourceFactoryImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConfigurationChangeBusTest {
+  private static final ComponentID COMPONENT = new ComponentID("ChangeBusTest", "com.anaptecs.jeaf.xfun.test.config");
+
+  private static final ComponentID OTHER_COMPONENT = new ComponentID("OtherTest", "com.anaptecs.jeaf.xfun.test");
+
+  @Test
+  @Order(10)
+  public void testDelivery( ) throws InterruptedException {
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lDatabaseChanges = new LinkedBlockingQueue<>();
+    BlockingQueue<ConfigurationChangeSet> lAllChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lDatabaseListener = lDatabaseChanges::add;
+    ConfigurationChangeListener lAllListener = lAllChanges::add;
+    lBus.addListener(COMPONENT, "db.", lDatabaseListener);
+    lBus.addListener(COMPONENT, "", lAllListener);
+    try {
+      // Listeners are not called for other prefixes or components.
+      lBus.publish(COMPONENT, Arrays.asList("cache.size"));
+      lBus.publish(OTHER_COMPONENT, Arrays.asList("db.url"));
+      lBus.publish(COMPONENT, Collections.emptyList());
+
+      // All changes of one cycle are delivered together.
+      ConfigurationChangeBus.ChangeCycle lCycle = lBus.newCycle();
+      lCycle.addChanges(COMPONENT, Arrays.asList("db.url", "cache.ttl"));
+      lCycle.addChanges(COMPONENT, Arrays.asList("db.user", "db.url"));
+      lCycle.addChanges(OTHER_COMPONENT, Arrays.asList("db.password"));
+      lCycle.publish();
+      lCycle.publish();
+
+      ConfigurationChangeSet lChanges = lDatabaseChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(COMPONENT, lChanges.getComponentID());
+      assertEquals(new HashSet<>(Arrays.asList("db.url", "db.user")), lChanges.getChangedKeys());
+      assertTrue(lChanges.isChanged("db.user"));
+      assertFalse(lChanges.isChanged("cache.ttl"));
+
+      // Change sets are delivered in order.
+      lChanges = lAllChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(new HashSet<>(Arrays.asList("cache.size")), lChanges.getChangedKeys());
+      lChanges = lAllChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(new HashSet<>(Arrays.asList("cache.ttl", "db.url", "db.user")), lChanges.getChangedKeys());
+
+      // Removed listeners are not called any longer.
+      lBus.removeListener(lDatabaseListener);
+      lBus.publish(COMPONENT, Arrays.asList("db.url"));
+      assertEquals(new HashSet<>(Arrays.asList("db.url")), lAllChanges.poll(5, TimeUnit.SECONDS).getChangedKeys());
+      assertNull(lDatabaseChanges.poll());
+      assertNull(lAllChanges.poll());
+    }
+    finally {
+      lBus.removeListener(lDatabaseListener);
+      lBus.removeListener(lAllListener);
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testFailingListener( ) throws InterruptedException {
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lFailingListener = pChanges -> {
+      throw new IllegalStateException("Listener failed.");
+    };
+    ConfigurationChangeListener lListener = lChanges::add;
+    lBus.addListener(COMPONENT, "", lFailingListener);
+    lBus.addListener(COMPONENT, "", lListener);
+    try {
+      lBus.publish(COMPONENT, Arrays.asList("key"));
+      assertTrue(lChanges.poll(5, TimeUnit.SECONDS).isChanged("key"));
+    }
+    finally {
+      lBus.removeListener(lFailingListener);
+      lBus.removeListener(lListener);
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testReloadableFile( ) throws IOException, InterruptedException {
+    Path lDirectory = Files.createTempDirectory("xfun-change-bus");
+    Path lFile = lDirectory.resolve("component.properties");
+    Files.write(lFile, Arrays.asList("a=1", "b=2", "c=3"), StandardCharsets.UTF_8);
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lListener = lChanges::add;
+    lBus.addListener(COMPONENT, "", lListener);
+    try (ReloadableFileConfigurationResource lResource =
+        new ReloadableFileConfigurationResource(lFile.toString(), COMPONENT)) {
+      assertEquals(COMPONENT, lResource.getComponentID());
+
+      // Added, modified and removed keys are published. Depending on timing the watcher might reload the file first.
+      Path lTempFile = lDirectory.resolve("component.tmp");
+      Files.write(lTempFile, Arrays.asList("a=1", "b=20", "d=4"), StandardCharsets.UTF_8);
+      Files.move(lTempFile, lFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      lResource.reload();
+      ConfigurationChangeSet lChangeSet = lChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), lChangeSet.getChangedKeys());
+
+      // Unchanged files do not lead to notifications.
+      assertFalse(lResource.reload());
+      assertNull(lChanges.poll(500, TimeUnit.MILLISECONDS));
+    }
+    finally {
+      lBus.removeListener(lListener);
+      Files.deleteIfExists(lFile);
+      Files.deleteIfExists(lDirectory);
+    }
+  }
+
+  @Test
+  @Order(32)
+  public void testWatchedFile( ) throws IOException, InterruptedException {
+    Path lDirectory = Files.createTempDirectory("xfun-change-bus");
+    Path lFile = lDirectory.resolve("watched.properties");
+    Files.write(lFile, Arrays.asList("a=1", "b=2"), StandardCharsets.UTF_8);
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lListener = lChanges::add;
+    ComponentID lComponentID = ReloadableFileConfigurationResource.toComponentID(lFile.toString());
+    lBus.addListener(lComponentID, "", lListener);
+    ReloadableFileConfigurationResourceFactory lFactory = new ReloadableFileConfigurationResourceFactory();
+    ReloadableFileConfigurationResource lResource =
+        (ReloadableFileConfigurationResource) lFactory.getFileConfigurationResource(lFile.toString());
+    try {
+      // Editing the file is enough. The watcher reloads it and publishes the changes.
+      Path lTempFile = lDirectory.resolve("watched.tmp");
+      Files.write(lTempFile, Arrays.asList("a=1", "b=20"), StandardCharsets.UTF_8);
+      Files.move(lTempFile, lFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      ConfigurationChangeSet lChangeSet = lChanges.poll(30, TimeUnit.SECONDS);
+      assertEquals(lComponentID, lChangeSet.getComponentID());
+      assertEquals(new HashSet<>(Arrays.asList("b")), lChangeSet.getChangedKeys());
+      assertEquals("20", lResource.getConfigurationValue("b"));
+    }
+    finally {
+      lResource.close();
+      lBus.removeListener(lListener);
+      Files.deleteIfExists(lFile);
+      Files.deleteIfExists(lDirectory);
+    }
+  }
+
+  @Test
+  @Order(35)
+  public void testXFunReload( ) throws InterruptedException {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    ComponentID lComponentID = new ComponentID("ReloadTest", "com.anaptecs.jeaf.xfun.test.config");
+    Map<String, String> lValues = new HashMap<>();
+    lValues.put("a", "1");
+    lValues.put("b", "2");
+    ComponentConfigurationResourceFactoryImpl.setComponentValues(lComponentID, lValues);
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lListener = lChanges::add;
+    XFun.getConfigurationProvider().addConfigurationChangeListener(lComponentID, "", lListener);
+    try {
+      // Unchanged configuration does not lead to notifications.
+      XFun.reload();
+      assertNull(lChanges.poll(500, TimeUnit.MILLISECONDS));
+
+      // Changes of the component configuration are published after a reload.
+      lValues = new HashMap<>(lValues);
+      lValues.put("b", "20");
+      lValues.put("c", "3");
+      lValues.remove("a");
+      ComponentConfigurationResourceFactoryImpl.setComponentValues(lComponentID, lValues);
+      XFun.reload();
+      ConfigurationChangeSet lChangeSet = lChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(lComponentID, lChangeSet.getComponentID());
+      assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), lChangeSet.getChangedKeys());
+    }
+    finally {
+      lBus.removeListener(lListener);
+      ComponentConfigurationResourceFactoryImpl.setComponentValues(lComponentID, null);
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testParameterChecks( ) {
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    try {
+      lBus.addListener(COMPONENT, null, pChanges -> {
+      });
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pKeyPrefix' must not be null.", e.getMessage());
+    }
+    try {
+      lBus.newCycle().addChanges(null, Collections.emptyList());
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pComponentID' must not be null.", e.getMessage());
+    }
+    try {
+      lBus.removeListener(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pListener' must not be null.", e.getMessage());
+    }
+  }
+}
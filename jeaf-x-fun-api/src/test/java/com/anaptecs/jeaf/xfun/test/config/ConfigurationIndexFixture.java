@@ -0,0 +1,92 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationIndex;
+
+/**
+ * Test fixture provides a configuration index that is only visible through its own class loader. This way all other
+ * tests read their configuration files from the classpath.
+ */
+public final class ConfigurationIndexFixture {
+  /**
+   * Path of a configuration file that does not exist in the classpath but is part of the index. It contains
+   * {@link String} and {@link Integer}.
+   */
+  public static final String INDEXED_CLASSES_PATH = "META-INF/TEST/INDEXED_CLASSES";
+
+  /**
+   * Path of a configuration file that does not exist in the classpath but is part of the index. It contains the index
+   * class itself, which is loaded by the class loader of the fixture.
+   */
+  public static final String INDEXED_FIXTURE_PATH = "META-INF/TEST/INDEXED_FIXTURE";
+
+  private ConfigurationIndexFixture( ) {
+  }
+
+  /**
+   * Method compiles the configuration index into the passed directory and creates a class loader for it.
+   *
+   * @param pDirectory Directory to which the index is compiled.
+   * @return {@link URLClassLoader} Class loader of the index. Its parent is the class loader of the tests.
+   */
+  public static URLClassLoader createClassLoader( Path pDirectory ) throws IOException, URISyntaxException {
+    String lClassName = ConfigurationIndex.INDEX_CLASS_NAME;
+    int lSeparator = lClassName.lastIndexOf('.');
+    String lSimpleName = lClassName.substring(lSeparator + 1);
+    Path lSource = pDirectory.resolve(lSimpleName + ".java");
+    List<String> lLines = Arrays.asList("package " + lClassName.substring(0, lSeparator) + ";",
+        "import java.util.*;",
+        "public final class " + lSimpleName + " implements " + ConfigurationIndex.class.getName() + " {",
+        "  public Map<String, List<Class<?>>> getConfigurationFiles( ) {",
+        "    Map<String, List<Class<?>>> lFiles = new HashMap<>();",
+        "    lFiles.put(\"" + INDEXED_CLASSES_PATH
+            + "\", Collections.unmodifiableList(Arrays.<Class<?>> asList(String.class, Integer.class)));",
+        "    lFiles.put(\"" + INDEXED_FIXTURE_PATH + "\", Collections.<Class<?>> singletonList(" + lSimpleName
+            + ".class));",
+        "    return Collections.unmodifiableMap(lFiles);", "  }", "}");
+    Files.write(lSource, lLines, StandardCharsets.UTF_8);
+
+    // Compile index with only X-Fun API in the classpath.
+    JavaCompiler lCompiler = ToolProvider.getSystemJavaCompiler();
+    String lClasspath = new File(ConfigurationIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+        .getPath();
+    try (StandardJavaFileManager lFileManager = lCompiler.getStandardFileManager(null, null, null)) {
+      List<String> lOptions = Arrays.asList("-classpath", lClasspath, "-d", pDirectory.toString());
+      assertTrue(lCompiler.getTask(null, lFileManager, null, lOptions, null,
+          lFileManager.getJavaFileObjects(lSource.toFile())).call());
+    }
+    return new URLClassLoader(new URL[] { pDirectory.toUri().toURL() },
+        ConfigurationIndexFixture.class.getClassLoader());
+  }
+
+  /**
+   * Method deletes the passed directory including all its content.
+   *
+   * @param pDirectory Directory that should be deleted.
+   */
+  public static void delete( Path pDirectory ) throws IOException {
+    Files.walk(pDirectory).sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+  }
+}
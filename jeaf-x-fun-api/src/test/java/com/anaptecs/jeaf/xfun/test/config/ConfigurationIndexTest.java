@@ -0,0 +1,142 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.annotations.DatatypeConverterImpl;
+import com.anaptecs.jeaf.xfun.annotations.MessageResource;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationIndex;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationIndexProcessor;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConfigurationIndexTest {
+  @Test
+  @Order(10)
+  public void testIndexedConfiguration( ) throws IOException, URISyntaxException {
+    ConfigurationReader.clearCache();
+    ConfigurationReader lReader = new ConfigurationReader();
+
+    // Without index configuration files are read from the classpath.
+    String lPath = ConfigurationIndexFixture.INDEXED_CLASSES_PATH;
+    assertFalse(lReader.isConfigurationAvailable(lPath));
+    assertTrue(lReader.isConfigurationAvailable(MessageResource.MESSAGE_RESOURCES_PATH));
+
+    Path lDirectory = Files.createTempDirectory("xfun-index");
+    try (URLClassLoader lClassLoader = ConfigurationIndexFixture.createClassLoader(lDirectory)) {
+      // Configuration file does not exist but is part of the index.
+      ConfigurationReader.callWithClassLoader(lClassLoader, ( ) -> {
+        assertTrue(lReader.isConfigurationAvailable(lPath));
+        List<Class<?>> lClasses = lReader.readClassesFromConfigFile(lPath);
+        assertEquals(Arrays.asList(String.class, Integer.class), lClasses);
+        List<Class<? extends Number>> lNumbers = lReader.readClassesFromConfigFile(lPath, Number.class);
+        assertEquals(Collections.singletonList(Integer.class), lNumbers);
+
+        // Custom base paths may contain additional separators.
+        assertEquals(lClasses, lReader.readClassesFromConfigFile("INDEXED_CLASSES", "/META-INF/TEST/"));
+
+        // Configuration files that are not part of the index are still read from the classpath.
+        assertTrue(lReader.isConfigurationAvailable(MessageResource.MESSAGE_RESOURCES_PATH));
+        return null;
+      });
+
+      // Index can be switched off.
+      System.setProperty(ConfigurationReader.IGNORE_CONFIGURATION_INDEX, "true");
+      try {
+        ConfigurationReader.clearCache();
+        ConfigurationReader.callWithClassLoader(lClassLoader, ( ) -> {
+          assertFalse(lReader.isConfigurationAvailable(lPath));
+          assertEquals(0, lReader.readClassesFromConfigFile(lPath).size());
+          return null;
+        });
+      }
+      finally {
+        System.clearProperty(ConfigurationReader.IGNORE_CONFIGURATION_INDEX);
+        ConfigurationReader.clearCache();
+      }
+    }
+    finally {
+      ConfigurationIndexFixture.delete(lDirectory);
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testConfigurationIndexProcessor( ) throws IOException, URISyntaxException {
+    JavaCompiler lCompiler = ToolProvider.getSystemJavaCompiler();
+    Path lDirectory = Files.createTempDirectory("xfun-index");
+    try {
+      Path lSource = lDirectory.resolve("Resources.java");
+      Files.write(lSource,
+          Arrays.asList("package test;", "public class Resources {",
+              "  @com.anaptecs.jeaf.xfun.annotations.MessageResource(path = \"a\") public static class A {}",
+              "  @com.anaptecs.jeaf.xfun.annotations.MessageResource(path = \"b\") public static class B {}",
+              "  @com.anaptecs.jeaf.xfun.annotations.DatatypeConverterImpl static class Hidden {}", "}"),
+          StandardCharsets.UTF_8);
+
+      // Compile source with only X-Fun API in the classpath. Generated index is also compiled.
+      String lClasspath = new File(ConfigurationIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+          .getPath();
+      DiagnosticCollector<JavaFileObject> lDiagnostics = new DiagnosticCollector<>();
+      try (StandardJavaFileManager lFileManager = lCompiler.getStandardFileManager(lDiagnostics, null, null)) {
+        List<String> lOptions =
+            Arrays.asList("-classpath", lClasspath, "-d", lDirectory.toString(), "-s", lDirectory.toString());
+        CompilationTask lTask = lCompiler.getTask(null, lFileManager, lDiagnostics, lOptions, null,
+            lFileManager.getJavaFileObjects(lSource.toFile()));
+        lTask.setProcessors(Collections.singletonList(new ConfigurationIndexProcessor()));
+        assertTrue(lTask.call());
+      }
+
+      // Non public class can not be indexed.
+      boolean lWarningFound = false;
+      for (Diagnostic<? extends JavaFileObject> lNext : lDiagnostics.getDiagnostics()) {
+        if (lNext.getMessage(null).startsWith("Class test.Resources.Hidden is not public.")) {
+          lWarningFound = true;
+        }
+      }
+      assertTrue(lWarningFound);
+
+      String lIndex = new String(
+          Files.readAllBytes(lDirectory.resolve(ConfigurationIndex.INDEX_CLASS_NAME.replace('.', '/') + ".java")),
+          StandardCharsets.UTF_8);
+      assertTrue(lIndex.contains("lFiles.put(\"" + MessageResource.MESSAGE_RESOURCES_PATH
+          + "\", Collections.unmodifiableList(Arrays.<Class<?>> asList(test.Resources.A.class, "
+          + "test.Resources.B.class)));"));
+      assertTrue(Files.exists(lDirectory.resolve(ConfigurationIndex.INDEX_CLASS_NAME.replace('.', '/') + ".class")));
+      assertFalse(lIndex.contains(DatatypeConverterImpl.DATATYPE_CONVERTERS_PATH));
+    }
+    finally {
+      Files.walk(lDirectory).sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+}
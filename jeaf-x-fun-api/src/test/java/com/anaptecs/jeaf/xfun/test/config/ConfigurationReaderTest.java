@@ -6,12 +6,21 @@
 package com.anaptecs.jeaf.xfun.test.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -387,4 +396,144 @@ public class ConfigurationReaderTest {
         lReader.readAnnotationsMap("NotExistingFile", "META-INF/TEST/CONFIG_READER/", TestAnnotation.class);
     assertTrue(lAnnotationsMap.isEmpty());
   }
+
+  @Test
+  @Order(50)
+  public void testConfigurationCache( ) throws IOException, URISyntaxException {
+    // Create configuration file directly in the classpath so that we can change it.
+    Path lRoot = Paths.get(ConfigurationReaderTest.class.getResource("/META-INF/TEST/SINGLE_CLASS").toURI()).getParent();
+    Path lConfigFile = lRoot.resolve("CACHED_CLASSES");
+    try {
+      Files.write(lConfigFile, Arrays.asList("java.lang.String"), StandardCharsets.UTF_8);
+      ConfigurationReader lReader = new ConfigurationReader();
+      List<Class<?>> lClasses = lReader.readClassesFromConfigFile("CACHED_CLASSES", "META-INF/TEST");
+      assertEquals(1, lClasses.size());
+      assertEquals(String.class, lClasses.get(0));
+
+      // Changes are not visible as the parsed file is cached by all readers.
+      Files.write(lConfigFile, Arrays.asList("java.lang.String", "java.lang.Integer"), StandardCharsets.UTF_8);
+      lClasses = new ConfigurationReader().readClassesFromConfigFile("CACHED_CLASSES", "META-INF/TEST");
+      assertEquals(1, lClasses.size());
+      assertEquals(1, lReader.readClassesFromConfigFile("META-INF/TEST/CACHED_CLASSES", Object.class).size());
+      assertEquals(0, lReader.readClassesFromConfigFile("META-INF/TEST/CACHED_CLASSES", Number.class).size());
+
+      // After clearing the cache the file is read again.
+      ConfigurationReader.clearCache();
+      lClasses = lReader.readClassesFromConfigFile("CACHED_CLASSES", "META-INF/TEST");
+      assertEquals(2, lClasses.size());
+      assertEquals(Integer.class, lClasses.get(1));
+      List<Class<? extends Number>> lNumbers =
+          lReader.readClassesFromConfigFile("META-INF/TEST/CACHED_CLASSES", Number.class);
+      assertEquals(1, lNumbers.size());
+      assertEquals(Integer.class, lNumbers.get(0));
+
+      // Deleted files are only noticed after the cache was cleared.
+      Files.delete(lConfigFile);
+      assertTrue(lReader.isConfigurationAvailable("META-INF/TEST/CACHED_CLASSES"));
+      ConfigurationReader.clearCache();
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/CACHED_CLASSES"));
+      assertEquals(0, lReader.readClassesFromConfigFile("CACHED_CLASSES", "META-INF/TEST").size());
+    }
+    finally {
+      Files.deleteIfExists(lConfigFile);
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  @Test
+  @Order(60)
+  public void testParallelClassLoading( ) {
+    System.setProperty(ConfigurationReader.PARALLEL_CLASS_LOADING, "true");
+    System.setProperty(ConfigurationReader.PARALLEL_CLASS_LOADING_THRESHOLD, "2");
+    try {
+      ConfigurationReader.clearCache();
+      ConfigurationReader lReader = new ConfigurationReader();
+
+      // Order of classes has to be the same as in the configuration file.
+      String lBasePackage = "META-INF/TEST";
+      List<Class<? extends TestInterface>> lTypedClasses =
+          lReader.readClassesFromConfigFile("MULTIPLE_TYPED_CLASSES_WITH_WRONG_TYPE", lBasePackage, TestInterface.class);
+      assertEquals(3, lTypedClasses.size(), "Wrong amount of classes found.");
+      assertEquals(DefaultTestInterfaceImpl.class, lTypedClasses.get(0), "Wrong class read.");
+      assertEquals(AbstractTestInterfaceImpl.class, lTypedClasses.get(1), "Wrong class read.");
+      assertEquals(CustomTestInterfaceImpl.class, lTypedClasses.get(2), "Wrong class read.");
+      List<Class<?>> lUntypedClasses =
+          lReader.readClassesFromConfigFile("MULTIPLE_TYPED_CLASSES_WITH_WRONG_TYPE", lBasePackage);
+      assertEquals(4, lUntypedClasses.size(), "Wrong amount of classes found.");
+      assertEquals(String.class, lUntypedClasses.get(2), "Wrong class read.");
+
+      // Problems while loading classes are still reported and ignored.
+      assertNull(lReader.readClassFromConfigFile("UnloadableClass"));
+    }
+    finally {
+      System.clearProperty(ConfigurationReader.PARALLEL_CLASS_LOADING);
+      System.clearProperty(ConfigurationReader.PARALLEL_CLASS_LOADING_THRESHOLD);
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  @Test
+  @Order(70)
+  public void testSerialInitialization( ) throws IOException, URISyntaxException {
+    Path lRoot = Paths.get(ConfigurationReaderTest.class.getResource("/META-INF/TEST/SINGLE_CLASS").toURI()).getParent();
+    Path lConfigFile = lRoot.resolve("INITIALIZED_CLASSES");
+    System.setProperty(ConfigurationReader.PARALLEL_CLASS_LOADING, "true");
+    System.setProperty(ConfigurationReader.PARALLEL_CLASS_LOADING_THRESHOLD, "2");
+    try {
+      Files.write(lConfigFile, Arrays.asList(InitializedC.class.getName(), InitializedA.class.getName(),
+          NotInitialized.class.getName(), InitializedB.class.getName()), StandardCharsets.UTF_8);
+      ConfigurationReader.clearCache();
+      List<Class<? extends Initialized>> lClasses =
+          new ConfigurationReader().readClassesFromConfigFile("META-INF/TEST/INITIALIZED_CLASSES", Initialized.class);
+      assertEquals(Arrays.asList(InitializedC.class, InitializedA.class, InitializedB.class), lClasses);
+
+      // Static initializers are executed by the calling thread in the order of the configuration file. Classes of a
+      // different type are not initialized.
+      assertEquals(Arrays.asList("C", "A", "B"), Initialized.INITIALIZED);
+      for (Thread lNextThread : Initialized.THREADS) {
+        assertEquals(Thread.currentThread(), lNextThread);
+      }
+    }
+    finally {
+      System.clearProperty(ConfigurationReader.PARALLEL_CLASS_LOADING);
+      System.clearProperty(ConfigurationReader.PARALLEL_CLASS_LOADING_THRESHOLD);
+      Files.deleteIfExists(lConfigFile);
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  public interface Initialized {
+    List<String> INITIALIZED = Collections.synchronizedList(new ArrayList<>());
+
+    List<Thread> THREADS = Collections.synchronizedList(new ArrayList<>());
+
+    static void initialized( String pName ) {
+      INITIALIZED.add(pName);
+      THREADS.add(Thread.currentThread());
+    }
+  }
+
+  public static class InitializedA implements Initialized {
+    static {
+      Initialized.initialized("A");
+    }
+  }
+
+  public static class InitializedB implements Initialized {
+    static {
+      Initialized.initialized("B");
+    }
+  }
+
+  public static class InitializedC implements Initialized {
+    static {
+      Initialized.initialized("C");
+    }
+  }
+
+  public static class NotInitialized {
+    static {
+      Initialized.initialized("NotInitialized");
+    }
+  }
 }
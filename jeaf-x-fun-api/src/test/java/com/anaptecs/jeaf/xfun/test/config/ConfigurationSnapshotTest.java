@@ -0,0 +1,247 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.annotations.MessageResource;
+import com.anaptecs.jeaf.xfun.annotations.StartupInfoWriterImpl;
+import com.anaptecs.jeaf.xfun.annotations.TraceObjectFormatter;
+import com.anaptecs.jeaf.xfun.annotations.XFunConfig;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationReader;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationSnapshot;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ConfigurationSnapshotTest {
+  @Test
+  @Order(10)
+  public void testSnapshot( ) throws IOException, URISyntaxException {
+    // Create configuration file directly in the classpath so that we can delete it.
+    Path lRoot = Paths.get(this.getClass().getResource("/META-INF/TEST/SINGLE_CLASS").toURI()).getParent();
+    Path lConfigFile = lRoot.resolve("SNAPSHOT_CLASSES");
+    Path lAddedFile = lRoot.resolve("SNAPSHOT_ADDED");
+    Path lSnapshotFile = Files.createTempDirectory("xfun-snapshot").resolve("xfun.snapshot");
+    try {
+      Files.write(lConfigFile, Arrays.asList("java.lang.String", "java.lang.Integer"), StandardCharsets.UTF_8);
+      ConfigurationReader.clearCache();
+      ConfigurationReader lReader = new ConfigurationReader();
+      assertEquals(2, lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES").size());
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/NOT_EXISTING"));
+      ConfigurationSnapshot.write(lSnapshotFile);
+      byte[] lContent = Files.readAllBytes(lSnapshotFile);
+
+      // Same state results in the same snapshot.
+      ConfigurationSnapshot.write(lSnapshotFile);
+      assertTrue(Arrays.equals(lContent, Files.readAllBytes(lSnapshotFile)));
+
+      // Configuration files are taken from the snapshot as long as size and modification time of the file are the
+      // same.
+      this.replaceContent(lConfigFile, "java.lang.Integer", "java.lang.String");
+      ConfigurationReader.clearCache();
+      assertTrue(ConfigurationSnapshot.load(lSnapshotFile));
+      assertTrue(lReader.isConfigurationAvailable("META-INF/TEST/SNAPSHOT_CLASSES"));
+      assertEquals(Arrays.asList(String.class, Integer.class),
+          lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES"));
+      List<Class<? extends Number>> lClasses =
+          lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES", Number.class);
+      assertEquals(Arrays.asList(Integer.class), lClasses);
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/NOT_EXISTING"));
+
+      // Snapshot is ignored if a configuration file changed.
+      ConfigurationReader.clearCache();
+      Files.setLastModifiedTime(lConfigFile, FileTime.fromMillis(lConfigFile.toFile().lastModified() + 10000));
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      ConfigurationReader.clearCache();
+      Files.delete(lConfigFile);
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/SNAPSHOT_CLASSES"));
+
+      // Snapshot is also ignored if a configuration file was added to a directory of the classpath.
+      ConfigurationReader.clearCache();
+      Files.write(lConfigFile, Arrays.asList("java.lang.String"), StandardCharsets.UTF_8);
+      assertTrue(lReader.isConfigurationAvailable("META-INF/TEST/SNAPSHOT_CLASSES"));
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/SNAPSHOT_ADDED"));
+      ConfigurationSnapshot.write(lSnapshotFile);
+      lContent = Files.readAllBytes(lSnapshotFile);
+      Files.write(lAddedFile, Arrays.asList("java.lang.String"), StandardCharsets.UTF_8);
+      ConfigurationReader.clearCache();
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      Files.delete(lAddedFile);
+      ConfigurationReader.clearCache();
+      assertTrue(ConfigurationSnapshot.load(lSnapshotFile));
+      Files.delete(lConfigFile);
+
+      // Snapshot is ignored if the classpath changed.
+      ConfigurationReader.clearCache();
+      String lClasspath = System.getProperty("java.class.path");
+      System.setProperty("java.class.path", lClasspath + "/changed");
+      try {
+        assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      }
+      finally {
+        System.setProperty("java.class.path", lClasspath);
+      }
+      assertFalse(lReader.isConfigurationAvailable("META-INF/TEST/SNAPSHOT_CLASSES"));
+
+      // Corrupt or missing snapshots are also ignored.
+      ConfigurationReader.clearCache();
+      Files.write(lSnapshotFile, Arrays.copyOf(lContent, lContent.length - 3));
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      Files.write(lSnapshotFile, "No snapshot".getBytes(StandardCharsets.UTF_8));
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+      Files.delete(lSnapshotFile);
+      assertFalse(ConfigurationSnapshot.load(lSnapshotFile));
+    }
+    finally {
+      Files.deleteIfExists(lConfigFile);
+      Files.deleteIfExists(lAddedFile);
+      Files.deleteIfExists(lSnapshotFile);
+      Files.deleteIfExists(lSnapshotFile.getParent());
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testConfiguredSnapshot( ) throws IOException {
+    Path lSnapshotFile = Files.createTempDirectory("xfun-snapshot").resolve("xfun.snapshot");
+    System.setProperty(ConfigurationSnapshot.SNAPSHOT_FILE, lSnapshotFile.toString());
+    try {
+      // Snapshot is only written if it could not be loaded.
+      assertFalse(ConfigurationSnapshot.loadConfiguredSnapshot());
+      ConfigurationSnapshot.writeConfiguredSnapshot();
+      assertTrue(Files.exists(lSnapshotFile));
+      Files.delete(lSnapshotFile);
+      ConfigurationSnapshot.writeConfiguredSnapshot();
+      assertFalse(Files.exists(lSnapshotFile));
+
+      assertFalse(ConfigurationSnapshot.loadConfiguredSnapshot());
+      ConfigurationSnapshot.writeConfiguredSnapshot();
+      assertTrue(ConfigurationSnapshot.loadConfiguredSnapshot());
+      Files.delete(lSnapshotFile);
+      ConfigurationSnapshot.writeConfiguredSnapshot();
+      assertFalse(Files.exists(lSnapshotFile));
+    }
+    finally {
+      System.clearProperty(ConfigurationSnapshot.SNAPSHOT_FILE);
+      Files.deleteIfExists(lSnapshotFile);
+      Files.deleteIfExists(lSnapshotFile.getParent());
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testReloadDoesNotUseSnapshot( ) throws IOException, URISyntaxException {
+    Path lRoot = Paths.get(this.getClass().getResource("/META-INF/TEST/SINGLE_CLASS").toURI()).getParent();
+    Path lConfigFile = lRoot.resolve("SNAPSHOT_CLASSES");
+    Path lSnapshotFile = Files.createTempDirectory("xfun-snapshot").resolve("xfun.snapshot");
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    try {
+      Files.write(lConfigFile, Arrays.asList("java.lang.String", "java.lang.Integer"), StandardCharsets.UTF_8);
+      ConfigurationReader.clearCache();
+      ConfigurationReader lReader = new ConfigurationReader();
+      assertEquals(2, lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES").size());
+      ConfigurationSnapshot.write(lSnapshotFile);
+
+      // Change file in a way that the snapshot would still be used.
+      this.replaceContent(lConfigFile, "java.lang.Integer", "java.lang.String");
+      ConfigurationReader.clearCache();
+      assertTrue(ConfigurationSnapshot.load(lSnapshotFile));
+      assertEquals(Arrays.asList(String.class, Integer.class),
+          lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES"));
+
+      // Explicit reload has to read the configuration files again.
+      System.setProperty(ConfigurationSnapshot.SNAPSHOT_FILE, lSnapshotFile.toString());
+      XFun.reload();
+      assertEquals(Arrays.asList(Integer.class, String.class),
+          lReader.readClassesFromConfigFile("META-INF/TEST/SNAPSHOT_CLASSES"));
+    }
+    finally {
+      System.clearProperty(ConfigurationSnapshot.SNAPSHOT_FILE);
+      Files.deleteIfExists(lConfigFile);
+      Files.deleteIfExists(lSnapshotFile);
+      Files.deleteIfExists(lSnapshotFile.getParent());
+      ConfigurationReader.clearCache();
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testSnapshotContainsLazilyLoadedFiles( ) throws IOException, InterruptedException {
+    // Snapshot is written after the initial startup of JEAF X-Fun. Thus a new JVM is required.
+    Path lSnapshotFile = Files.createTempDirectory("xfun-snapshot").resolve("xfun.snapshot");
+    Path lOutput = Files.createTempFile("xfun-snapshot", ".log");
+    try {
+      String lJava = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+      ProcessBuilder lBuilder = new ProcessBuilder(lJava, "-D" + ConfigurationSnapshot.SNAPSHOT_FILE + "="
+          + lSnapshotFile, "-cp", System.getProperty("java.class.path"), SnapshotStarter.class.getName());
+      lBuilder.redirectErrorStream(true);
+      lBuilder.redirectOutput(lOutput.toFile());
+      Process lProcess = lBuilder.start();
+      boolean lTerminated = lProcess.waitFor(60, TimeUnit.SECONDS);
+      if (lTerminated == false) {
+        lProcess.destroyForcibly();
+      }
+      String lLog = new String(Files.readAllBytes(lOutput), StandardCharsets.UTF_8);
+      assertTrue(lTerminated, "JVM did not terminate. " + lLog);
+      assertTrue(Files.exists(lSnapshotFile), lLog);
+
+      // Configuration files that are only read when they are used for the first time are also part of the snapshot.
+      String lContent = new String(Files.readAllBytes(lSnapshotFile), StandardCharsets.ISO_8859_1);
+      assertTrue(lContent.contains(XFunConfig.XFUN_CONFIG_PATH));
+      assertTrue(lContent.contains(TraceObjectFormatter.TRACE_OBJECT_FORMATTER_PATH));
+      assertTrue(lContent.contains(MessageResource.MESSAGE_RESOURCES_PATH));
+      assertTrue(lContent.contains(StartupInfoWriterImpl.STARTUP_INFO_WRITERS_PATH));
+    }
+    finally {
+      Files.deleteIfExists(lOutput);
+      Files.deleteIfExists(lSnapshotFile);
+      Files.deleteIfExists(lSnapshotFile.getParent());
+    }
+  }
+
+  /**
+   * Class initializes JEAF X-Fun in a new JVM. The JVM only terminates after the snapshot was written.
+   */
+  public static class SnapshotStarter {
+    public static void main( String[] pArgs ) {
+      XFun.getTrace().info("JEAF X-Fun started.");
+    }
+  }
+
+  /**
+   * Method replaces the content of the passed file with content of the same size and keeps its modification time.
+   */
+  private void replaceContent( Path pFile, String... pLines ) throws IOException {
+    FileTime lLastModified = Files.getLastModifiedTime(pFile);
+    long lSize = Files.size(pFile);
+    Files.write(pFile, Arrays.asList(pLines), StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(pFile, lLastModified);
+    assertEquals(lSize, Files.size(pFile));
+  }
+}
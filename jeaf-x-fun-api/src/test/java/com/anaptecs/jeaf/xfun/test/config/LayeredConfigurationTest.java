@@ -0,0 +1,189 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.MissingResourceException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.config.CachingConfiguration;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeBus;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeListener;
+import com.anaptecs.jeaf.xfun.api.config.ConfigurationChangeSet;
+import com.anaptecs.jeaf.xfun.api.config.LayeredConfiguration;
+import com.anaptecs.jeaf.xfun.test.config.CachingConfigurationTest.CountingResource;
+import com.anaptecs.jeaf.xfun.test_default_runtime.ConfigurationImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LayeredConfigurationTest {
+  @Test
+  @Order(10)
+  public void testMergedValues( ) {
+    CountingResource lEnvironment = new CountingResource();
+    lEnvironment.values.put("a", "env");
+    CountingResource lSystemProperties = new CountingResource();
+    lSystemProperties.values.put("a", "sysprop");
+    lSystemProperties.values.put("b", "sysprop");
+    lSystemProperties.values.put("unset", null);
+    CountingResource lFile = new CountingResource();
+    lFile.values.put("a", "file");
+    lFile.values.put("b", "file");
+    lFile.values.put("c", "file");
+    lFile.values.put("unset", "file");
+
+    LayeredConfiguration lConfiguration = new LayeredConfiguration(lEnvironment, lSystemProperties, lFile);
+    assertEquals(Arrays.asList(lEnvironment, lSystemProperties, lFile), lConfiguration.getLayers());
+    assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "unset")),
+        new HashSet<>(lConfiguration.getAllConfigurationKeys()));
+    assertEquals("env", lConfiguration.getConfigurationValue("a"));
+    assertEquals("sysprop", lConfiguration.getConfigurationValue("b"));
+    assertEquals("file", lConfiguration.getConfigurationValue("c"));
+    assertNull(lConfiguration.getConfigurationValue("unset"));
+    assertTrue(lConfiguration.hasConfigurationValue("unset"));
+    assertSame(lEnvironment, lConfiguration.getSource("a"));
+    assertSame(lSystemProperties, lConfiguration.getSource("b"));
+    assertSame(lFile, lConfiguration.getSource("c"));
+    assertSame(lSystemProperties, lConfiguration.getSource("unset"));
+    assertNull(lConfiguration.getSource("unknown"));
+    assertFalse(lConfiguration.hasConfigurationValue("unknown"));
+    try {
+      lConfiguration.getConfigurationValue("unknown");
+      fail("Exception expected.");
+    }
+    catch (MissingResourceException e) {
+      assertEquals("unknown", e.getKey());
+    }
+
+    // Lookups do not touch the layers.
+    int lReads = lEnvironment.reads + lSystemProperties.reads + lFile.reads;
+    for (int i = 0; i < 10; i++) {
+      lConfiguration.getConfigurationValue("c");
+    }
+    assertEquals(lReads, lEnvironment.reads + lSystemProperties.reads + lFile.reads);
+    assertEquals("LayeredConfiguration[CountingResource, CountingResource, CountingResource]",
+        lConfiguration.getResourceName());
+  }
+
+  @Test
+  @Order(20)
+  public void testChangedLayers( ) {
+    CountingResource lSystemProperties = new CountingResource();
+    lSystemProperties.values.put("a", "sysprop");
+    CountingResource lFile = new CountingResource();
+    lFile.values.put("a", "file");
+    lFile.values.put("b", "NO");
+    LayeredConfiguration lConfiguration = new LayeredConfiguration(Arrays.asList(lSystemProperties, lFile));
+    CachingConfiguration lCachingConfiguration =
+        new CachingConfiguration(new ConfigurationImpl(lConfiguration), lConfiguration);
+    assertEquals(TestEnum.NO, lCachingConfiguration.getConfigurationValue("b", TestEnum.class));
+    assertEquals(0, lConfiguration.getVersion());
+
+    // Changes that are hidden by a higher layer do not lead to a new version.
+    lFile.values.put("a", "changed");
+    assertFalse(lConfiguration.layerChanged(1));
+    assertEquals(0, lConfiguration.getVersion());
+
+    // Changes are only detected for versioned layers.
+    lFile.values.put("b", "YES");
+    lFile.values.put("c", "new");
+    assertFalse(lConfiguration.refresh());
+    lFile.version++;
+    assertTrue(lConfiguration.refresh());
+    assertFalse(lConfiguration.refresh());
+    assertEquals(1, lConfiguration.getVersion());
+    assertEquals("YES", lConfiguration.getConfigurationValue("b"));
+    assertEquals("new", lConfiguration.getConfigurationValue("c"));
+    assertEquals(TestEnum.YES, lCachingConfiguration.getConfigurationValue("b", TestEnum.class));
+
+    // Removed values of higher layers uncover values of lower layers.
+    lSystemProperties.values.remove("a");
+    assertTrue(lConfiguration.layerChanged(0));
+    assertEquals("changed", lConfiguration.getConfigurationValue("a"));
+    assertSame(lFile, lConfiguration.getSource("a"));
+    lFile.values.remove("a");
+    assertTrue(lConfiguration.layerChanged(1));
+    assertFalse(lConfiguration.hasConfigurationValue("a"));
+    assertEquals(3, lConfiguration.getVersion());
+
+    try {
+      lConfiguration.layerChanged(2);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      new LayeredConfiguration(lFile, null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pLayers[i]' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testPublishedChanges( ) throws InterruptedException {
+    ComponentID lComponentID = new ComponentID("LayeredTest", "com.anaptecs.jeaf.xfun.test.config");
+    CountingResource lSystemProperties = new CountingResource();
+    lSystemProperties.values.put("a", "sysprop");
+    CountingResource lFile = new CountingResource();
+    lFile.values.put("a", "file");
+    lFile.values.put("b", "1");
+    lFile.values.put("c", "2");
+    LayeredConfiguration lConfiguration =
+        new LayeredConfiguration(lComponentID, Arrays.asList(lSystemProperties, lFile));
+    assertEquals(lComponentID, lConfiguration.getComponentID());
+    assertNull(new LayeredConfiguration(lFile).getComponentID());
+
+    ConfigurationChangeBus lBus = ConfigurationChangeBus.getInstance();
+    BlockingQueue<ConfigurationChangeSet> lChanges = new LinkedBlockingQueue<>();
+    ConfigurationChangeListener lListener = lChanges::add;
+    lBus.addListener(lComponentID, "", lListener);
+    try {
+      // Hidden changes are not published.
+      lFile.values.put("a", "changed");
+      assertFalse(lConfiguration.layerChanged(1));
+      assertNull(lChanges.poll(500, TimeUnit.MILLISECONDS));
+
+      // All changes of one refresh are published together.
+      lFile.values.put("b", "10");
+      lFile.values.remove("c");
+      lFile.version++;
+      lSystemProperties.values.put("d", "new");
+      lSystemProperties.version++;
+      assertTrue(lConfiguration.refresh());
+      ConfigurationChangeSet lChangeSet = lChanges.poll(5, TimeUnit.SECONDS);
+      assertEquals(lComponentID, lChangeSet.getComponentID());
+      assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), lChangeSet.getChangedKeys());
+
+      // Uncovered values of lower layers are published.
+      lSystemProperties.values.remove("a");
+      assertTrue(lConfiguration.layerChanged(0));
+      assertEquals(new HashSet<>(Arrays.asList("a")), lChanges.poll(5, TimeUnit.SECONDS).getChangedKeys());
+      assertNull(lChanges.poll());
+    }
+    finally {
+      lBus.removeListener(lListener);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.MissingResourceException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFunMessages;
+import com.anaptecs.jeaf.xfun.api.config.MappedFileConfigurationResource;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MappedFileConfigurationResourceTest {
+  @Test
+  @Order(10)
+  public void testFileFormat( ) throws IOException {
+    StringBuilder lContent = new StringBuilder();
+    lContent.append("# Comment \\\n");
+    lContent.append("! Another comment\n");
+    lContent.append("\n");
+    lContent.append("   \t\n");
+    lContent.append("simple=value\n");
+    lContent.append("  spaces   =   value with spaces  \n");
+    lContent.append("colon:value\n");
+    lContent.append("whitespace value\n");
+    lContent.append("empty=\n");
+    lContent.append("onlyKey\n");
+    lContent.append("escaped\\=key=escaped\\:value\\\\\n");
+    lContent.append("escapes=\\t\\n\\r\\f\\x\\u0041\\u00e4\n");
+    lContent.append("continuation=first \\\n      second\\\r\n\tthird\r\n");
+    lContent.append("contin\\\n  uedKey=value\r");
+    lContent.append("unicode=äöü €  😀\n");
+    lContent.append("äöü=umlauts\n");
+    lContent.append("duplicate=first\n");
+    lContent.append("duplicate=second\n");
+    lContent.append("=emptyKey\n");
+    lContent.append("last=no line terminator");
+    Path lFile = Files.createTempFile("xfun-mapped", ".properties");
+    try {
+      Files.write(lFile, lContent.toString().getBytes(StandardCharsets.UTF_8));
+      Properties lExpected = new Properties();
+      try (Reader lReader = Files.newBufferedReader(lFile, StandardCharsets.UTF_8)) {
+        lExpected.load(lReader);
+      }
+
+      MappedFileConfigurationResource lResource = new MappedFileConfigurationResource(lFile.toString());
+      assertEquals(lFile.toString(), lResource.getResourceName());
+      assertEquals(lFile.toAbsolutePath().toString(), lResource.getResourceLocation());
+      List<String> lKeys = lResource.getAllConfigurationKeys();
+      Collections.sort(lKeys);
+      List<String> lExpectedKeys = new ArrayList<>(lExpected.stringPropertyNames());
+      Collections.sort(lExpectedKeys);
+      assertEquals(lExpectedKeys, lKeys);
+      for (String lNextKey : lExpectedKeys) {
+        assertTrue(lResource.hasConfigurationValue(lNextKey), lNextKey);
+        assertEquals(lExpected.getProperty(lNextKey), lResource.getConfigurationValue(lNextKey), lNextKey);
+      }
+      assertEquals("second", lResource.getConfigurationValue("duplicate"));
+      assertEquals("first secondthird", lResource.getConfigurationValue("continuation"));
+
+      assertFalse(lResource.hasConfigurationValue("unknown"));
+      try {
+        lResource.getConfigurationValue("unknown");
+        fail("Exception expected.");
+      }
+      catch (MissingResourceException e) {
+        assertEquals("unknown", e.getKey());
+      }
+    }
+    finally {
+      Files.delete(lFile);
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testLargeFile( ) throws IOException {
+    Path lFile = Files.createTempFile("xfun-mapped", ".properties");
+    try {
+      List<String> lLines = new ArrayList<>();
+      for (int i = 0; i < 100000; i++) {
+        lLines.add("key." + i + " = value " + i);
+      }
+      Files.write(lFile, lLines, StandardCharsets.UTF_8);
+
+      MappedFileConfigurationResource lResource = new MappedFileConfigurationResource(lFile.toString());
+      assertEquals(100000, lResource.getAllConfigurationKeys().size());
+      assertEquals("value 0", lResource.getConfigurationValue("key.0"));
+      assertEquals("value 4711", lResource.getConfigurationValue("key.4711"));
+      assertEquals("value 99999", lResource.getConfigurationValue("key.99999"));
+      assertEquals("value 4711", lResource.getConfigurationValue("key.4711"));
+      assertFalse(lResource.hasConfigurationValue("key.100000"));
+    }
+    finally {
+      Files.delete(lFile);
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testMissingFile( ) {
+    try {
+      new MappedFileConfigurationResource("./unknown/file.properties");
+      fail("Exception expected.");
+    }
+    catch (JEAFSystemException e) {
+      assertEquals(XFunMessages.FILE_NOT_FOUND, e.getErrorCode());
+    }
+    try {
+      new MappedFileConfigurationResource(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pFileName' must not be null.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.config.PlaceholderTemplate;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PlaceholderTemplateTest {
+  @Test
+  @Order(10)
+  public void testRendering( ) {
+    Map<String, String> lValues = new HashMap<>();
+    lValues.put("host", "localhost");
+    lValues.put("port", "4711");
+    lValues.put("stage", "test");
+    lValues.put("db.test.url", "jdbc:test");
+    lValues.put("db.url", "jdbc:default");
+
+    assertEquals("jdbc://localhost:4711/db", this.render("jdbc://${host}:${port}/db", lValues));
+    assertEquals("localhost", this.render("${host}", lValues));
+    assertEquals("jdbc:test", this.render("${db.${stage}.url}", lValues));
+    assertEquals("jdbc:default", this.render("${db.${unknown}.url:-${db.url}}", lValues));
+    assertEquals("x-default value-y", this.render("x-${unknown:-default value}-y", lValues));
+    assertEquals("a:-b", this.render("${unknown:-a:-b}", lValues));
+    assertEquals("", this.render("${unknown:-}", lValues));
+    assertEquals("localhost", this.render("${unknown:-${other:-${host}}}", lValues));
+
+    // A single ':' is part of the name.
+    lValues.put("a:b", "colon");
+    assertEquals("colon", this.render("${a:b}", lValues));
+    assertEquals("${unknown:b}", this.render("${unknown:b}", lValues));
+
+    // Unresolved and invalid placeholders remain unchanged.
+    assertEquals("${unknown}/localhost", this.render("${unknown}/${host}", lValues));
+    assertEquals("${db.${unknown}.url}", this.render("${db.${unknown}.url}", lValues));
+    assertEquals("${}", this.render("${}", lValues));
+    assertEquals("${host", this.render("${host", lValues));
+    assertEquals("${alocalhost", this.render("${a${host}", lValues));
+    assertEquals("$ {host} $", this.render("$ {host} $", lValues));
+    assertEquals("}localhost}", this.render("}${host}}", lValues));
+
+    // Resolved values are not scanned again.
+    lValues.put("recursive", "${host}");
+    assertEquals("${host}", this.render("${recursive}", lValues));
+  }
+
+  @Test
+  @Order(20)
+  public void testCompiledTemplates( ) {
+    PlaceholderTemplate lTemplate = PlaceholderTemplate.compile("no placeholders");
+    assertTrue(lTemplate.isConstant());
+    assertSame(lTemplate.getTemplate(), lTemplate.render(p -> fail("No resolution expected.")));
+    assertSame(lTemplate, PlaceholderTemplate.compile("no placeholders"));
+    assertTrue(PlaceholderTemplate.compile("").isConstant());
+    assertFalse(PlaceholderTemplate.compile("${a}").isConstant());
+    assertEquals("${a}", PlaceholderTemplate.compile("${a}").toString());
+
+    PlaceholderTemplate.clearCache();
+    assertNotSame(lTemplate, PlaceholderTemplate.compile("no placeholders"));
+
+    System.setProperty("xfun.test.placeholder", "value");
+    try {
+      String lValue = "${xfun.test.placeholder}/${xfun.test.placeholder}";
+      assertEquals("value/value", PlaceholderTemplate.replaceSystemProperties(lValue));
+      assertNull(PlaceholderTemplate.replaceSystemProperties(null));
+    }
+    finally {
+      System.clearProperty("xfun.test.placeholder");
+    }
+
+    try {
+      PlaceholderTemplate.compile(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pTemplate' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testUnterminatedPlaceholders( ) {
+    // Deeply nested unterminated placeholders must not cause exponential parsing.
+    StringBuilder lBuilder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      lBuilder.append("${a:-");
+    }
+    String lTemplate = lBuilder.toString();
+    long lStart = System.nanoTime();
+    PlaceholderTemplate lCompiled = PlaceholderTemplate.compile(lTemplate);
+    assertTrue(System.nanoTime() - lStart < 5_000_000_000L, "Parsing took too long.");
+    assertTrue(lCompiled.isConstant());
+    assertEquals(lTemplate, lCompiled.render(p -> fail("No resolution expected.")));
+
+    Map<String, String> lValues = new HashMap<>();
+    lValues.put("host", "localhost");
+    assertEquals("${a:-${b:-localhost", this.render("${a:-${b:-${host}", lValues));
+    assertEquals("${a:-${b:-${c}localhost", this.render("${a:-${b:-${c}${host}", lValues));
+    assertEquals("${${}localhost", this.render("${${}${host}", lValues));
+  }
+
+  @Test
+  @Order(40)
+  public void testCacheIsBounded( ) {
+    PlaceholderTemplate.clearCache();
+    PlaceholderTemplate lFirst = PlaceholderTemplate.compile("${first}");
+    for (int i = 0; i < PlaceholderTemplate.DEFAULT_TEMPLATE_CACHE_SIZE - 1; i++) {
+      PlaceholderTemplate.compile("${value" + i + "}");
+    }
+    // Cache is full so cached templates remain and further templates are not cached.
+    assertSame(lFirst, PlaceholderTemplate.compile("${first}"));
+    assertNotSame(PlaceholderTemplate.compile("${last}"), PlaceholderTemplate.compile("${last}"));
+    assertEquals("value", PlaceholderTemplate.compile("${last}").render(p -> "value"));
+    PlaceholderTemplate.clearCache();
+  }
+
+  private String render( String pTemplate, Map<String, String> pValues ) {
+    return PlaceholderTemplate.compile(pTemplate).render(pValues::get);
+  }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.MissingResourceException;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFunMessages;
+import com.anaptecs.jeaf.xfun.api.config.ReloadableFileConfigurationResource;
+import com.anaptecs.jeaf.xfun.api.config.ReloadableFileConfigurationResourceFactory;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReloadableFileConfigurationResourceTest {
+  @Test
+  @Order(10)
+  public void testReload( ) throws IOException {
+    Path lDirectory = Files.createTempDirectory("xfun-reload");
+    Path lFile = lDirectory.resolve("test.properties");
+    Files.write(lFile, Arrays.asList("key1 = value1", "key2 ="), StandardCharsets.UTF_8);
+    try (ReloadableFileConfigurationResource lResource = new ReloadableFileConfigurationResource(lFile.toString())) {
+      assertEquals(lFile.toString(), lResource.getResourceName());
+      assertEquals(lFile.toAbsolutePath().toString(), lResource.getResourceLocation());
+      assertEquals(0, lResource.getVersion());
+      assertEquals("value1", lResource.getConfigurationValue("key1"));
+      assertEquals("", lResource.getConfigurationValue("key2"));
+      assertTrue(lResource.hasConfigurationValue("key2"));
+      assertFalse(lResource.hasConfigurationValue("key3"));
+      assertEquals(2, lResource.getAllConfigurationKeys().size());
+      try {
+        lResource.getConfigurationValue("key3");
+        fail("Exception expected.");
+      }
+      catch (MissingResourceException e) {
+        assertEquals("key3", e.getKey());
+      }
+
+      // Unchanged file does not lead to a new version.
+      assertFalse(lResource.reload());
+      assertEquals(0, lResource.getVersion());
+
+      // Explicit reload. Watcher might have been faster but the change must only be published once.
+      this.replaceFile(lFile, "key1 = value2");
+      lResource.reload();
+      assertEquals(1, lResource.getVersion());
+      assertEquals("value2", lResource.getConfigurationValue("key1"));
+      assertFalse(lResource.hasConfigurationValue("key2"));
+
+      // Changes are detected automatically.
+      this.replaceFile(lFile, "key1 = value3");
+      long lTimeout = System.currentTimeMillis() + 30000;
+      while (lResource.getVersion() == 1 && System.currentTimeMillis() < lTimeout) {
+        Thread.sleep(50);
+      }
+      assertEquals(2, lResource.getVersion());
+      assertEquals("value3", lResource.getConfigurationValue("key1"));
+    }
+    catch (InterruptedException e) {
+      fail("Test was interrupted.");
+    }
+    finally {
+      Files.walk(lDirectory).sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private void replaceFile( Path pFile, String pContent ) throws IOException {
+    Path lTempFile = pFile.resolveSibling(pFile.getFileName() + ".tmp");
+    Files.write(lTempFile, Arrays.asList(pContent), StandardCharsets.UTF_8);
+    Files.move(lTempFile, pFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Test
+  @Order(20)
+  public void testFactory( ) throws IOException {
+    Path lFile = Files.createTempFile("xfun-reload", ".properties");
+    try {
+      Files.write(lFile, Arrays.asList("key = value"), StandardCharsets.UTF_8);
+      ReloadableFileConfigurationResourceFactory lFactory = new ReloadableFileConfigurationResourceFactory();
+      ReloadableFileConfigurationResource lResource =
+          (ReloadableFileConfigurationResource) lFactory.getFileConfigurationResource(lFile.toString());
+      assertSame(lResource, lFactory.getFileConfigurationResource(lFile.toString()));
+      assertEquals("value", lResource.getConfigurationValue("key"));
+      assertEquals(ReloadableFileConfigurationResource.toComponentID(lFile.toString()), lResource.getComponentID());
+
+      // Closed resources are not returned any longer.
+      lResource.close();
+      assertTrue(lResource.isClosed());
+      ReloadableFileConfigurationResource lNewResource =
+          (ReloadableFileConfigurationResource) lFactory.getFileConfigurationResource(lFile.toString());
+      assertNotSame(lResource, lNewResource);
+      assertFalse(lNewResource.isClosed());
+      lResource.close();
+      assertSame(lNewResource, lFactory.getFileConfigurationResource(lFile.toString()));
+      lNewResource.close();
+
+      try {
+        lFactory.getFileConfigurationResource(lFile.toString() + ".missing");
+        fail("Exception expected.");
+      }
+      catch (JEAFSystemException e) {
+        assertEquals(XFunMessages.FILE_NOT_FOUND, e.getErrorCode());
+      }
+    }
+    finally {
+      Files.delete(lFile);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.errorhandling.ErrorCode;
+import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFBootstrapException;
+import com.anaptecs.jeaf.xfun.api.messages.ArrayMessageRepository;
+import com.anaptecs.jeaf.xfun.api.messages.LocalizedString;
+import com.anaptecs.jeaf.xfun.api.messages.MessageDefinition;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ArrayMessageRepositoryTest {
+  @Test
+  @Order(10)
+  public void testAddAllMessages( ) {
+    ArrayMessageRepository lRepository = new ArrayMessageRepository();
+    assertEquals(0, lRepository.getAllMessages().size());
+    assertFalse(lRepository.existsMessage(5));
+    assertFalse(lRepository.existsMessage(-1));
+
+    // Use sparse IDs that end up in different pages and tables.
+    MessageID lMessageID = new MessageID(5_000_000, TraceLevel.INFO);
+    ErrorCode lErrorCode = new ErrorCode(2048, TraceLevel.WARN);
+    LocalizedString lLocalizedString = new LocalizedString(5);
+    Map<Locale, MessageFormat> lLocalizations = new HashMap<>();
+    lLocalizations.put(Locale.GERMAN, new MessageFormat("Hallo {0}!"));
+    lRepository.addAllMessages(Arrays.asList(new MessageDefinition(lMessageID, new MessageFormat("Info {0}"), null),
+        new MessageDefinition(lErrorCode, new MessageFormat("Error ''{0}'' {1}"), null),
+        new MessageDefinition(lLocalizedString, new MessageFormat("Hello {0}!"), lLocalizations)));
+
+    assertTrue(lRepository.existsMessage(5));
+    assertTrue(lRepository.existsMessage(2048));
+    assertTrue(lRepository.existsMessage(5_000_000));
+    assertFalse(lRepository.existsMessage(6));
+    assertFalse(lRepository.existsMessage(Integer.MAX_VALUE));
+    assertSame(lMessageID, lRepository.getMessageID(5_000_000));
+    assertSame(lErrorCode, lRepository.getErrorCode(2048));
+    assertSame(lErrorCode, lRepository.getMessageID(2048));
+    assertSame(lLocalizedString, lRepository.getLocalizedString(5));
+    assertSame(lLocalizedString, lRepository.getLocalizedObject(5));
+
+    List<MessageDefinition> lAllMessages = lRepository.getAllMessages();
+    assertEquals(3, lAllMessages.size());
+    assertSame(lLocalizedString, lAllMessages.get(0).getLocalizedObject());
+    assertSame(lErrorCode, lAllMessages.get(1).getLocalizedObject());
+    assertSame(lMessageID, lAllMessages.get(2).getLocalizedObject());
+
+    assertEquals("Info 42", lRepository.getMessage(lMessageID, Locale.ENGLISH, "42"));
+    assertEquals("Error '1' 2", lRepository.getMessage(lErrorCode, Locale.ENGLISH, "1", "2"));
+    assertEquals("Hello World!", lRepository.getMessage(lLocalizedString, Locale.ENGLISH, "World"));
+    assertEquals("Hallo Welt!", lRepository.getMessage(lLocalizedString, Locale.GERMANY, "Welt"));
+    assertEquals("Hallo Welt!", lRepository.getMessage(lLocalizedString, new Locale("de", "CH", "POSIX"), "Welt"));
+    assertEquals("Hallo Welt!", lRepository.getMessage(lLocalizedString, Locale.forLanguageTag("de-Latn"), "Welt"));
+    assertEquals("Hallo Welt!", lRepository.getMessage(lLocalizedString, Locale.GERMANY, "Welt"));
+    assertEquals("Hello {0}!", lRepository.getMessage(lLocalizedString, Locale.ENGLISH));
+
+    // Unknown messages are resolved to their ID.
+    assertEquals("4711: a b", lRepository.getMessage(new LocalizedString(4711), Locale.ENGLISH, "a", "b"));
+
+    // Existing messages are overwritten.
+    lRepository.addAllMessages(
+        Collections.singletonList(new MessageDefinition(lMessageID, new MessageFormat("Changed {0}"), null)));
+    assertEquals("Changed 42", lRepository.getMessage(lMessageID, Locale.ENGLISH, "42"));
+    assertEquals(3, lRepository.getAllMessages().size());
+
+    try {
+      lRepository.getErrorCode(5_000_000);
+      fail("Exception expected.");
+    }
+    catch (JEAFBootstrapException e) {
+      assertEquals("Message with localization ID 5000000 is not of type ErrorCode.", e.getMessage());
+    }
+    try {
+      lRepository.getLocalizedObject(6);
+      fail("Exception expected.");
+    }
+    catch (JEAFBootstrapException e) {
+      assertEquals("No message with localization ID 6 is defined.", e.getMessage());
+    }
+    try {
+      lRepository.addAllMessages(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pMessages' must not be null.", e.getMessage());
+    }
+
+    // Negative IDs are rejected and none of the passed messages is added.
+    LocalizedString lInvalidString = new LocalizedString(7) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public int getLocalizationID( ) {
+        return -1;
+      }
+    };
+    try {
+      MessageDefinition lValid = new MessageDefinition(new LocalizedString(8), new MessageFormat("8"), null);
+      MessageDefinition lInvalid = new MessageDefinition(lInvalidString, new MessageFormat("Invalid"), null);
+      lRepository.addAllMessages(Arrays.asList(lValid, lInvalid));
+      fail("Exception expected.");
+    }
+    catch (JEAFBootstrapException e) {
+      assertEquals("Localization ID -1 is invalid. IDs must not be negative.", e.getMessage());
+    }
+    assertFalse(lRepository.existsMessage(8));
+    assertEquals(3, lRepository.getAllMessages().size());
+  }
+
+  @Test
+  @Order(20)
+  public void testLoadResource( ) {
+    ArrayMessageRepository lRepository = new ArrayMessageRepository();
+    lRepository.loadResource("XFunMessages.xml");
+    lRepository.loadResource("BasicMessages.xml");
+
+    ErrorCode lInternalError = lRepository.getErrorCode(43);
+    assertEquals(TraceLevel.ERROR, lInternalError.getTraceLevel());
+    assertEquals("Internal error. Boom", lRepository.getMessage(lInternalError, Locale.ENGLISH, "Boom"));
+    assertEquals(TraceLevel.INFO, lRepository.getMessageID(20).getTraceLevel());
+
+    LocalizedString lError = lRepository.getLocalizedString(0);
+    assertEquals("Fehler", lRepository.getMessage(lError, Locale.GERMANY));
+    assertEquals("Error", lRepository.getMessage(lError, Locale.ENGLISH));
+
+    try {
+      lRepository.loadResource("XFunMessages.xml");
+      fail("Exception expected.");
+    }
+    catch (JEAFBootstrapException e) {
+      assertEquals("Message resource 'XFunMessages.xml' was already loaded.", e.getMessage());
+    }
+    try {
+      lRepository.loadResource("UnknownMessages.xml");
+      fail("Exception expected.");
+    }
+    catch (JEAFBootstrapException e) {
+      assertEquals("Message resource 'UnknownMessages.xml' could not be found within the application class path.",
+          e.getMessage());
+    }
+  }
+}
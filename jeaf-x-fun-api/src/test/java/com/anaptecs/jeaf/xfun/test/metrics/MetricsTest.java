@@ -0,0 +1,186 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.checks.Check;
+import com.anaptecs.jeaf.xfun.api.health.HealthCheckResult;
+import com.anaptecs.jeaf.xfun.api.health.HealthStatus;
+import com.anaptecs.jeaf.xfun.api.metrics.Counter;
+import com.anaptecs.jeaf.xfun.api.metrics.Gauge;
+import com.anaptecs.jeaf.xfun.api.metrics.Histogram;
+import com.anaptecs.jeaf.xfun.api.metrics.HistogramSnapshot;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsMXBean;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsProvider;
+import com.anaptecs.jeaf.xfun.api.metrics.MetricsSnapshot;
+import com.anaptecs.jeaf.xfun.fallback.metrics.MetricsProviderFactoryImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MetricsTest {
+  @Test
+  @Order(10)
+  public void testHistogram( ) {
+    Histogram lHistogram = new Histogram("test.histogram");
+    assertEquals("test.histogram", lHistogram.getName());
+    assertEquals(0, lHistogram.getCount());
+    assertEquals(0, lHistogram.getMin());
+    assertEquals(0, lHistogram.getMax());
+    assertEquals(0.0, lHistogram.getMean());
+    assertEquals(0, lHistogram.getValueAtPercentile(99));
+
+    for (int i = 1; i <= 1000; i++) {
+      lHistogram.record(i * 1000L);
+    }
+    lHistogram.record(-5);
+    assertEquals(1001, lHistogram.getCount());
+    assertEquals(0, lHistogram.getMin());
+    assertEquals(1000000, lHistogram.getMax());
+    assertEquals(500500000L, lHistogram.getSum());
+
+    // Values derived from the histogram have a relative error of at most 1/32.
+    this.assertWithinError(500000, lHistogram.getValueAtPercentile(50));
+    this.assertWithinError(990000, lHistogram.getValueAtPercentile(99));
+    assertEquals(1000000, lHistogram.getValueAtPercentile(100));
+    assertEquals(0, lHistogram.getValueAtPercentile(0));
+
+    // Huge values are supported as well.
+    lHistogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, lHistogram.getValueAtPercentile(100));
+
+    HistogramSnapshot lSnapshot = lHistogram.snapshot();
+    assertEquals(1002, lSnapshot.getCount());
+    assertEquals(Long.MAX_VALUE, lSnapshot.getMax());
+
+    lHistogram.reset();
+    assertEquals(0, lHistogram.getCount());
+    assertEquals(0, lHistogram.getMax());
+    assertEquals(1002, lSnapshot.getCount());
+  }
+
+  private void assertWithinError( long pExpected, long pActual ) {
+    double lError = Math.abs(pActual - pExpected) / (double) pExpected;
+    assertTrue(lError <= 1.0 / 32, "Expected " + pExpected + " but was " + pActual);
+  }
+
+  @Test
+  @Order(20)
+  public void testCounterAndGauge( ) {
+    Counter lCounter = new Counter("test.counter");
+    lCounter.increment();
+    lCounter.add(5);
+    lCounter.add(-3);
+    assertEquals(6, lCounter.getValue());
+
+    Gauge lGauge = new Gauge("test.gauge");
+    lGauge.set(10);
+    lGauge.increment();
+    lGauge.decrement();
+    lGauge.decrement();
+    assertEquals(9, lGauge.getValue());
+
+    AtomicLong lValue = new AtomicLong(42);
+    Gauge lSupplierGauge = new Gauge("test.supplier", lValue::get);
+    assertEquals(42, lSupplierGauge.getValue());
+    lValue.set(43);
+    assertEquals(43, lSupplierGauge.getValue());
+
+    try {
+      new Counter(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testMetricsProvider( ) throws Exception {
+    MetricsProvider lMetricsProvider = XFun.getMetricsProvider();
+    assertSame(lMetricsProvider, MetricsProvider.getMetricsProvider());
+    assertSame(new MetricsProviderFactoryImpl().getMetricsProvider(), lMetricsProvider);
+    assertSame(MetricsProviderFactoryImpl.getSharedMetricsProvider(), lMetricsProvider);
+    assertSame(lMetricsProvider, XFun.getConfiguration().getMetricsProviderFactory().getMetricsProvider());
+
+    // Same name results in same metric.
+    assertSame(lMetricsProvider.getCounter("requests"), lMetricsProvider.getCounter("requests"));
+    assertSame(lMetricsProvider.getGauge("sessions"), lMetricsProvider.getGauge("sessions"));
+    assertSame(lMetricsProvider.getHistogram("latency"), lMetricsProvider.getHistogram("latency"));
+
+    lMetricsProvider.getCounter("requests").add(3);
+    lMetricsProvider.getGauge("sessions").set(7);
+    lMetricsProvider.registerGauge("queue.size", ( ) -> 11);
+    lMetricsProvider.getHistogram("latency").record(100);
+
+    // Counter for failed checks is provided through the metrics provider.
+    assertEquals(MetricsProvider.CHECK_FAILURES, lMetricsProvider.getCounter(MetricsProvider.CHECK_FAILURES).getName());
+
+    // Health checks
+    lMetricsProvider.recordHealthCheck("database", new HealthCheckResult(HealthStatus.WARNING));
+    assertEquals(HealthStatus.WARNING.ordinal(), lMetricsProvider.getGauge("xfun.health.database.status").getValue());
+    assertEquals(1, lMetricsProvider.getCounter("xfun.health.database.executions").getValue());
+
+    MetricsSnapshot lSnapshot = lMetricsProvider.getSnapshot();
+    assertEquals(Long.valueOf(3), lSnapshot.getCounters().get("requests"));
+    assertEquals(Long.valueOf(7), lSnapshot.getGauges().get("sessions"));
+    assertEquals(Long.valueOf(11), lSnapshot.getGauges().get("queue.size"));
+    assertEquals(1, lSnapshot.getHistograms().get("latency").getCount());
+
+    String lText = lSnapshot.toPrometheusText();
+    assertTrue(lText.contains("# TYPE requests counter\nrequests 3\n"), lText);
+    assertTrue(lText.contains("# TYPE queue_size gauge\nqueue_size 11\n"), lText);
+    assertTrue(lText.contains("# TYPE latency summary\nlatency{quantile=\"0.5\"} 100\n"), lText);
+    assertTrue(lText.contains("latency_sum 100\nlatency_count 1\n"), lText);
+
+    // Metrics are exposed via JMX.
+    ObjectName lObjectName = new ObjectName(MetricsMXBean.OBJECT_NAME);
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(lObjectName));
+    String lJMXText = (String) ManagementFactory.getPlatformMBeanServer().getAttribute(lObjectName, "PrometheusText");
+    assertTrue(lJMXText.contains("requests 3"));
+  }
+
+  @Test
+  @Order(40)
+  public void testCheckFailuresAreCounted( ) {
+    Counter lCounter = XFun.getMetricsProvider().getCounter(MetricsProvider.CHECK_FAILURES);
+    long lFailures = lCounter.getValue();
+
+    // Successful checks are not counted.
+    Check.checkIsZeroOrGreater(1, "pValue");
+    assertEquals(lFailures, lCounter.getValue());
+
+    // Failed checks are counted no matter if the verifier returns a failure message or throws an exception itself.
+    try {
+      Check.checkIsZeroOrGreater(-1, "pValue");
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(lFailures + 1, lCounter.getValue());
+    }
+    try {
+      Check.checkIsValidSet(5, 1);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals(lFailures + 2, lCounter.getValue());
+    }
+  }
+}
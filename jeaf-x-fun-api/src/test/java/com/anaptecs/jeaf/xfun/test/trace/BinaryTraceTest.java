@@ -0,0 +1,162 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.api.trace.binary.BinaryTraceDecoder;
+import com.anaptecs.jeaf.xfun.api.trace.binary.BinaryTraceEvent;
+import com.anaptecs.jeaf.xfun.api.trace.binary.BinaryTraceProviderImpl;
+import com.anaptecs.jeaf.xfun.api.trace.binary.BinaryTraceSink;
+import com.anaptecs.jeaf.xfun.test_default_runtime.MessageRepositoryImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class BinaryTraceTest {
+  private final BinaryTraceDecoder decoder = new BinaryTraceDecoder(new MessageRepositoryImpl(), Locale.GERMAN);
+
+  @Test
+  @Order(10)
+  public void testWriteAndDecode( ) throws IOException {
+    BinaryTraceSink lSink = new BinaryTraceSink(null);
+    BinaryTraceProviderImpl lProvider = new BinaryTraceProviderImpl(lSink, TraceLevel.INFO);
+    Trace lTrace = lProvider.getTrace(BinaryTraceTest.class);
+    assertSame(lTrace, lProvider.getTrace(BinaryTraceTest.class.getName()));
+    assertSame(lTrace, lProvider.getTrace(new ComponentID("Test", BinaryTraceTest.class.getName())));
+
+    long lStart = System.currentTimeMillis();
+    lTrace.info(new MessageID(4711, TraceLevel.INFO), "a", "b");
+    lTrace.debug(new MessageID(4712, TraceLevel.DEBUG), "ignored");
+    lTrace.error("Plain text", new IllegalStateException("Boom"));
+    lProvider.getCurrentTrace().warn(new MessageID(3, TraceLevel.WARN), (String) null, "äöü");
+    long lEnd = System.currentTimeMillis();
+
+    ByteArrayOutputStream lOutputStream = new ByteArrayOutputStream();
+    lSink.writeTo(lOutputStream);
+    List<BinaryTraceEvent> lEvents = decoder.readEvents(new ByteArrayInputStream(lOutputStream.toByteArray()));
+    assertEquals(3, lEvents.size());
+
+    BinaryTraceEvent lEvent = lEvents.get(0);
+    assertEquals(TraceLevel.INFO, lEvent.getTraceLevel());
+    assertEquals(BinaryTraceTest.class.getName(), lEvent.getLoggerName());
+    assertFalse(lEvent.isTextMessage());
+    assertEquals(4711, lEvent.getMessageCode());
+    assertArrayEquals(new String[] { "a", "b" }, lEvent.getMessageParameters());
+    assertNull(lEvent.getStackTrace());
+    assertTrue(lEvent.getTimestamp() >= lStart && lEvent.getTimestamp() <= lEnd);
+    assertTrue(decoder.render(lEvent).endsWith("[INFO   ] " + BinaryTraceTest.class.getName() + ": 4711: a b"));
+
+    lEvent = lEvents.get(1);
+    assertEquals(TraceLevel.ERROR, lEvent.getTraceLevel());
+    assertTrue(lEvent.isTextMessage());
+    assertEquals(-1, lEvent.getMessageCode());
+    assertEquals("Plain text", lEvent.getTextMessage());
+    assertNotNull(lEvent.getStackTrace());
+    assertTrue(lEvent.getStackTrace().startsWith("java.lang.IllegalStateException: Boom"));
+    assertTrue(lEvent.getTimestamp() >= lEvents.get(0).getTimestamp());
+
+    lEvent = lEvents.get(2);
+    assertEquals(TraceLevel.WARN, lEvent.getTraceLevel());
+    assertEquals(BinaryTraceProviderImpl.ROOT_LOGGER_NAME, lEvent.getLoggerName());
+    assertEquals(3, lEvent.getMessageCode());
+    assertArrayEquals(new String[] { null, "äöü" }, lEvent.getMessageParameters());
+
+    // Decode whole trace into text.
+    StringBuilder lBuilder = new StringBuilder();
+    decoder.decode(new ByteArrayInputStream(lOutputStream.toByteArray()), lBuilder);
+    assertTrue(lBuilder.toString().contains(": 4711: a b" + System.lineSeparator()));
+    assertTrue(lBuilder.toString().contains(": Plain text" + System.lineSeparator() + "java.lang.IllegalStateException"));
+  }
+
+  @Test
+  @Order(20)
+  public void testSegmentHandling( ) throws IOException {
+    ByteArrayOutputStream lOutputStream = new ByteArrayOutputStream();
+    int[] lSegments = new int[1];
+    BinaryTraceSink lSink = new BinaryTraceSink(BinaryTraceSink.MIN_SEGMENT_SIZE, 2, pSegment -> {
+      lSegments[0]++;
+      byte[] lBytes = new byte[pSegment.remaining()];
+      pSegment.get(lBytes);
+      lOutputStream.write(lBytes, 0, lBytes.length);
+    });
+    for (int i = 0; i < 100; i++) {
+      lSink.write(TraceLevel.INFO, "logger" + (i % 3), new MessageID(i, TraceLevel.INFO),
+          new String[] { "Parameter " + i }, null);
+    }
+
+    // Events that do not fit into a segment are dropped.
+    lSink.write(TraceLevel.INFO, "logger", new String(new char[BinaryTraceSink.MIN_SEGMENT_SIZE]), null);
+    assertEquals(1, lSink.getDroppedEvents());
+    lSink.close();
+    assertTrue(lSegments[0] > 1);
+
+    // Closed sinks ignore all events.
+    lSink.write(TraceLevel.INFO, "logger", "ignored", null);
+    lSink.flush();
+
+    // Every segment is self-contained so all events can be decoded in the right order.
+    List<BinaryTraceEvent> lEvents = decoder.readEvents(new ByteArrayInputStream(lOutputStream.toByteArray()));
+    assertEquals(100, lEvents.size());
+    for (int i = 0; i < 100; i++) {
+      BinaryTraceEvent lEvent = lEvents.get(i);
+      assertEquals(i, lEvent.getMessageCode());
+      assertEquals("logger" + (i % 3), lEvent.getLoggerName());
+      assertEquals("Parameter " + i, lEvent.getMessageParameters()[0]);
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testRingBuffer( ) throws IOException {
+    BinaryTraceSink lSink = new BinaryTraceSink(BinaryTraceSink.MIN_SEGMENT_SIZE, 2, null);
+    for (int i = 0; i < 1000; i++) {
+      lSink.write(TraceLevel.INFO, "logger", new MessageID(i, TraceLevel.INFO), null, null);
+    }
+
+    // Only the latest events are kept.
+    ByteArrayOutputStream lOutputStream = new ByteArrayOutputStream();
+    lSink.writeTo(lOutputStream);
+    assertTrue(lOutputStream.size() <= 2 * BinaryTraceSink.MIN_SEGMENT_SIZE);
+    List<BinaryTraceEvent> lEvents = decoder.readEvents(new ByteArrayInputStream(lOutputStream.toByteArray()));
+    assertTrue(lEvents.size() > 0 && lEvents.size() < 1000);
+    for (int i = 0; i < lEvents.size(); i++) {
+      assertEquals(1000 - lEvents.size() + i, lEvents.get(i).getMessageCode());
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testInvalidData( ) {
+    try {
+      decoder.readEvents(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+      fail("Exception expected.");
+    }
+    catch (IOException e) {
+      assertEquals("Stream does not contain a valid binary trace segment.", e.getMessage());
+    }
+  }
+}
@@ -7,6 +7,8 @@ package com.anaptecs.jeaf.xfun.test.trace;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.lang.reflect.Method;
+
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -14,13 +16,15 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import com.anaptecs.jeaf.xfun.annotations.StartupInfoConfig;
 import com.anaptecs.jeaf.xfun.annotations.StartupInfoWriterImpl;
+import com.anaptecs.jeaf.xfun.api.trace.StartupDiagnosticsLevel;
 import com.anaptecs.jeaf.xfun.api.trace.StartupInfoConfiguration;
 import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
 
 @StartupInfoConfig(
     startupInfoTraceLevel = TraceLevel.ERROR,
     traceStartupInfo = false,
-    startupInfoWritersResourcePath = "META-INF/TEST/STARTUP-INFO/CUSTOM_WRITERS")
+    startupInfoWritersResourcePath = "META-INF/TEST/STARTUP-INFO/CUSTOM_WRITERS",
+    startupDiagnostics = StartupDiagnosticsLevel.NONE)
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class StartupInfoConfigurationTest {
@@ -33,18 +37,29 @@ public class StartupInfoConfigurationTest {
     assertEquals(StartupInfoConfig.DEFAULT_TRACE_STARTUP_INFO, lConfiguration.traceStartupInfo());
     assertEquals("META-INF/JEAF/XFun/StartupInfoWriters", lConfiguration.startupInfoWritersResourcePath());
     assertEquals(0, lConfiguration.getStartupInfoWriters().size());
+    assertEquals(StartupDiagnosticsLevel.BASIC, lConfiguration.getStartupDiagnosticsLevel());
 
     StartupInfoConfig lEmptyConfiguration = lConfiguration.getEmptyConfiguration();
     assertEquals(StartupInfoConfig.class, lEmptyConfiguration.annotationType());
     assertEquals(StartupInfoConfig.DEFAULT_STARTUP_INFO_TRACE_LEVEL, lEmptyConfiguration.startupInfoTraceLevel());
     assertEquals(StartupInfoWriterImpl.STARTUP_INFO_WRITERS_PATH, lEmptyConfiguration.startupInfoWritersResourcePath());
     assertEquals(StartupInfoConfig.DEFAULT_TRACE_STARTUP_INFO, lEmptyConfiguration.traceStartupInfo());
+    assertEquals(StartupInfoConfig.DEFAULT_STARTUP_DIAGNOSTICS, lEmptyConfiguration.startupDiagnostics());
 
     // No special test are expected.
     assertEquals(0, lConfiguration.checkCustomConfiguration(lEmptyConfiguration).size());
     assertEquals(0, lConfiguration.checkCustomConfiguration(null).size());
   }
 
+  @Test
+  @Order(15)
+  public void testAnnotationDefaultMatchesConstant( ) throws NoSuchMethodException {
+    Method lMethod = StartupInfoConfig.class.getMethod("startupDiagnostics");
+    assertEquals(StartupInfoConfig.DEFAULT_STARTUP_DIAGNOSTICS, lMethod.getDefaultValue());
+    lMethod = StartupInfoConfig.class.getMethod("startupInfoTraceLevel");
+    assertEquals(StartupInfoConfig.DEFAULT_STARTUP_INFO_TRACE_LEVEL, lMethod.getDefaultValue());
+  }
+
   @Test
   @Order(20)
   public void testCustomStartupConfiguration( ) {
@@ -56,5 +71,27 @@ public class StartupInfoConfigurationTest {
     assertEquals(2, lConfiguration.getStartupInfoWriters().size());
     assertEquals(StartupInfoWriter1.class, lConfiguration.getStartupInfoWriters().get(0).getClass());
     assertEquals(StartupInfoWriter2.class, lConfiguration.getStartupInfoWriters().get(1).getClass());
+    assertEquals(StartupDiagnosticsLevel.NONE, lConfiguration.getStartupDiagnosticsLevel());
+  }
+
+  @Test
+  @Order(30)
+  public void testStartupDiagnosticsProperty( ) {
+    StartupInfoConfiguration lConfiguration =
+        new StartupInfoConfiguration("CUSTOM_STARTUP_INFO", "META-INF/TEST/STARTUP-INFO", false);
+    try {
+      // System property overwrites configuration.
+      System.setProperty(StartupInfoConfiguration.STARTUP_DIAGNOSTICS, "full");
+      assertEquals(StartupDiagnosticsLevel.FULL, lConfiguration.getStartupDiagnosticsLevel());
+      System.setProperty(StartupInfoConfiguration.STARTUP_DIAGNOSTICS, " ASYNC ");
+      assertEquals(StartupDiagnosticsLevel.ASYNC, lConfiguration.getStartupDiagnosticsLevel());
+
+      // Invalid values are ignored.
+      System.setProperty(StartupInfoConfiguration.STARTUP_DIAGNOSTICS, "EVERYTHING");
+      assertEquals(StartupDiagnosticsLevel.NONE, lConfiguration.getStartupDiagnosticsLevel());
+    }
+    finally {
+      System.clearProperty(StartupInfoConfiguration.STARTUP_DIAGNOSTICS);
+    }
   }
 }
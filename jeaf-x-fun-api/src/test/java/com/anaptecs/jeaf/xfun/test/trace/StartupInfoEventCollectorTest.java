@@ -0,0 +1,157 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.trace.StartupInfoEventCollector;
+import com.anaptecs.jeaf.xfun.api.trace.StartupInfoEventHandler;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StartupInfoEventCollectorTest {
+  @Test
+  @Order(10)
+  public void testHandlersAreCalledWithoutLock( ) throws InterruptedException {
+    // Ensure that X-Fun is started and thus an event handler is registered.
+    XFun.getTrace();
+
+    CountDownLatch lBlockingHandlerEntered = new CountDownLatch(1);
+    CountDownLatch lReleaseBlockingHandler = new CountDownLatch(1);
+    List<Class<?>> lEvents = Collections.synchronizedList(new ArrayList<>());
+    StartupInfoEventHandler lHandler = new StartupInfoEventHandler() {
+      @Override
+      public void handleStartupInfoEvent( Class<?> pClass ) {
+        if (pClass == ParentClass.class) {
+          lBlockingHandlerEntered.countDown();
+          try {
+            lReleaseBlockingHandler.await(10, TimeUnit.SECONDS);
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        lEvents.add(pClass);
+      }
+    };
+    StartupInfoEventCollector.registerEventHandler(lHandler);
+    try {
+      Thread lThread = new Thread(( ) -> StartupInfoEventCollector.startupCompleted(ParentClass.class));
+      lThread.start();
+      assertTrue(lBlockingHandlerEntered.await(10, TimeUnit.SECONDS));
+
+      // While one handler is still busy other components must not be blocked.
+      StartupInfoEventCollector.startupCompleted(ChildClass.class);
+      assertEquals(Arrays.asList(ChildClass.class), lEvents);
+
+      lReleaseBlockingHandler.countDown();
+      lThread.join(10000);
+      assertEquals(Arrays.asList(ChildClass.class, ParentClass.class), lEvents);
+    }
+    finally {
+      lReleaseBlockingHandler.countDown();
+      assertTrue(StartupInfoEventCollector.unregisterEventHandler(lHandler));
+    }
+    assertFalse(StartupInfoEventCollector.unregisterEventHandler(lHandler));
+  }
+
+  @Test
+  @Order(20)
+  public void testParallelEvents( ) throws InterruptedException {
+    List<Class<?>> lEvents = Collections.synchronizedList(new ArrayList<>());
+    StartupInfoEventHandler lHandler = pClass -> lEvents.add(pClass);
+    StartupInfoEventCollector.registerEventHandler(lHandler);
+    try {
+      List<Thread> lThreads = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        Class<?> lSource = i % 2 == 0 ? ParentClass.class : ChildClass.class;
+        Thread lThread = new Thread(( ) -> {
+          for (int j = 0; j < 100; j++) {
+            StartupInfoEventCollector.startupCompleted(lSource);
+          }
+        });
+        lThreads.add(lThread);
+        lThread.start();
+      }
+      for (Thread lNextThread : lThreads) {
+        lNextThread.join(10000);
+      }
+      assertEquals(800, lEvents.size());
+      assertEquals(400, Collections.frequency(lEvents, ParentClass.class));
+    }
+    finally {
+      StartupInfoEventCollector.unregisterEventHandler(lHandler);
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testAsyncDispatch( ) throws InterruptedException {
+    System.setProperty(StartupInfoEventCollector.ASYNC_DISPATCH, "true");
+    CountDownLatch lAllEventsReceived = new CountDownLatch(3);
+    List<Class<?>> lEvents = Collections.synchronizedList(new ArrayList<>());
+    List<String> lThreadNames = Collections.synchronizedList(new ArrayList<>());
+    StartupInfoEventHandler lHandler = pClass -> {
+      lEvents.add(pClass);
+      lThreadNames.add(Thread.currentThread().getName());
+      lAllEventsReceived.countDown();
+    };
+    StartupInfoEventCollector.registerEventHandler(lHandler);
+    try {
+      assertTrue(StartupInfoEventCollector.isAsyncDispatch());
+      StartupInfoEventCollector.startupCompleted(ParentClass.class);
+      StartupInfoEventCollector.startupCompleted(ChildClass.class);
+      StartupInfoEventCollector.startupCompleted(ParentClass.class);
+      assertTrue(lAllEventsReceived.await(10, TimeUnit.SECONDS));
+
+      // Events are delivered in the order in which they occurred.
+      assertEquals(Arrays.asList(ParentClass.class, ChildClass.class, ParentClass.class), lEvents);
+      for (String lNextName : lThreadNames) {
+        assertEquals("XFun-StartupInfoEvents", lNextName);
+      }
+    }
+    finally {
+      System.clearProperty(StartupInfoEventCollector.ASYNC_DISPATCH);
+      StartupInfoEventCollector.unregisterEventHandler(lHandler);
+    }
+    assertFalse(StartupInfoEventCollector.isAsyncDispatch());
+  }
+
+  @Test
+  @Order(40)
+  public void testFailingHandler( ) {
+    List<Class<?>> lEvents = Collections.synchronizedList(new ArrayList<>());
+    StartupInfoEventHandler lFailingHandler = pClass -> {
+      throw new IllegalStateException("Handler failed.");
+    };
+    StartupInfoEventHandler lHandler = pClass -> lEvents.add(pClass);
+    StartupInfoEventCollector.registerEventHandler(lFailingHandler);
+    StartupInfoEventCollector.registerEventHandler(lHandler);
+    try {
+      // Exception is traced. Caller and other handlers are not affected.
+      StartupInfoEventCollector.startupCompleted(ParentClass.class);
+      assertEquals(Arrays.asList(ParentClass.class), lEvents);
+    }
+    finally {
+      StartupInfoEventCollector.unregisterEventHandler(lFailingHandler);
+      StartupInfoEventCollector.unregisterEventHandler(lHandler);
+    }
+  }
+}
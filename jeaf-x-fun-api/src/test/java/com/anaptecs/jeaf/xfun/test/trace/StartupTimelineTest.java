@@ -0,0 +1,124 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.trace.StartupPhase;
+import com.anaptecs.jeaf.xfun.api.trace.StartupTimeline;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class StartupTimelineTest {
+  @Test
+  @Order(10)
+  public void testPhases( ) throws InterruptedException {
+    StartupTimeline.restart();
+    assertEquals(0, StartupTimeline.getPhases().size());
+
+    try (StartupTimeline.Phase lOuter = StartupTimeline.startPhase("Outer")) {
+      try (StartupTimeline.Phase lInner = StartupTimeline.startPhase("Inner")) {
+        Thread.sleep(5);
+      }
+    }
+
+    // Phases are sorted by their start.
+    List<StartupPhase> lPhases = StartupTimeline.getPhases();
+    assertEquals(2, lPhases.size());
+    StartupPhase lOuter = lPhases.get(0);
+    StartupPhase lInner = lPhases.get(1);
+    assertEquals("Outer", lOuter.getName());
+    assertEquals("Inner", lInner.getName());
+    assertEquals(Thread.currentThread().getName(), lInner.getThreadName());
+    assertTrue(lInner.getDuration() >= 5000000);
+    assertTrue(lOuter.getDuration() >= lInner.getDuration());
+    assertTrue(lInner.getStartOffset() >= lOuter.getStartOffset());
+
+    // Closing a phase twice does not record it again.
+    StartupTimeline.Phase lPhase = StartupTimeline.startPhase("Twice");
+    lPhase.close();
+    lPhase.close();
+    assertEquals(3, StartupTimeline.getPhases().size());
+
+    List<String> lReport = StartupTimeline.getReport();
+    assertEquals("JEAF X-Fun startup timeline (3 phases):", lReport.get(0));
+    assertTrue(lReport.get(1).endsWith("Outer [" + Thread.currentThread().getName() + "]"));
+    assertEquals(4, lReport.size());
+
+    // Restart discards all phases.
+    StartupTimeline.restart();
+    assertEquals(0, StartupTimeline.getPhases().size());
+
+    try {
+      StartupTimeline.startPhase(null);
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("'pName' must not be null.", e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(20)
+  public void testMaxPhases( ) {
+    StartupTimeline.restart();
+    for (int i = 0; i < StartupTimeline.MAX_PHASES + 10; i++) {
+      StartupTimeline.startPhase("Phase " + i).close();
+    }
+    assertEquals(StartupTimeline.MAX_PHASES, StartupTimeline.getPhases().size());
+  }
+
+  @Test
+  @Order(30)
+  public void testJFREvents( ) {
+    StartupTimeline.restart();
+    System.setProperty(StartupTimeline.JFR_EVENTS, "true");
+    try (StartupTimeline.Phase lPhase = StartupTimeline.startPhase("JFR")) {
+      // Nothing to do.
+    }
+    finally {
+      System.clearProperty(StartupTimeline.JFR_EVENTS);
+    }
+    assertEquals("JFR", StartupTimeline.getPhases().get(0).getName());
+  }
+
+  @Test
+  @Order(40)
+  public void testXFunStartup( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+    System.setProperty(StartupTimeline.TRACE_TIMELINE, "true");
+    try {
+      XFun.reload();
+      XFun.getConfigurationProvider();
+    }
+    finally {
+      System.clearProperty(StartupTimeline.TRACE_TIMELINE);
+    }
+    List<String> lNames = new ArrayList<>();
+    for (StartupPhase lNextPhase : StartupTimeline.getPhases()) {
+      lNames.add(lNextPhase.getName());
+    }
+    assertTrue(lNames.contains("JVM info trace"), lNames.toString());
+    assertTrue(lNames.contains("X-Fun configuration loading"));
+    assertTrue(lNames.contains("Annotation loading XFunConfig"));
+    assertTrue(lNames.contains("Configuration resource resolution XFunConfig"));
+    assertTrue(lNames.contains("Startup info writer loading"));
+    assertTrue(lNames.contains("Create ConfigurationProviderFactory"));
+    assertTrue(lNames.contains("StartupInfoWriter " + XFun.class.getName()));
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.messages.MessageID;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceBatch;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TraceBatchTest {
+  private TestHandler handler = new TestHandler();
+
+  private Logger rootLogger;
+
+  @BeforeEach
+  public void setup( ) {
+    LogManager lLogManager = LogManager.getLogManager();
+    lLogManager.reset();
+    rootLogger = lLogManager.getLogger("");
+    rootLogger.setLevel(Level.ALL);
+    rootLogger.addHandler(handler);
+  }
+
+  @Test
+  @Order(10)
+  public void testTraceBatch( ) {
+    Trace lTrace = new FallbackTraceProviderImpl().getCurrentTrace();
+
+    try (TraceBatch lBatch = lTrace.newBatch(TraceLevel.INFO)) {
+      assertTrue(lBatch.isEnabled());
+      assertEquals(TraceLevel.INFO, lBatch.getTraceLevel());
+      for (int i = 0; i < 3; i++) {
+        lBatch.add("Record " + i);
+      }
+      lBatch.add((String) null);
+      lBatch.add(new MessageID(4711, TraceLevel.INFO), "a", "b");
+      lBatch.addObject(Integer.valueOf(42));
+      assertEquals(5, lBatch.size());
+
+      // Nothing must be written before the batch is flushed.
+      assertEquals(0, handler.getAllLogRecords().size());
+    }
+
+    // Every message is written as its own log entry.
+    List<LogRecord> lLogRecords = handler.getAllLogRecords();
+    assertEquals(5, lLogRecords.size());
+    for (LogRecord lNext : lLogRecords) {
+      assertEquals(Level.INFO, lNext.getLevel());
+    }
+    assertEquals("Record 0", lLogRecords.get(0).getMessage());
+    assertEquals("Record 2", lLogRecords.get(2).getMessage());
+    assertEquals("Error-Code: 4711 Details: [a, b]", lLogRecords.get(3).getMessage());
+    assertEquals("42", lLogRecords.get(4).getMessage());
+    handler.clear();
+  }
+
+  @Test
+  @Order(20)
+  public void testFlushAndReuse( ) {
+    Trace lTrace = new FallbackTraceProviderImpl().getCurrentTrace();
+
+    TraceBatch lBatch = lTrace.newBatch(TraceLevel.WARN);
+    lBatch.add("First");
+    lBatch.flush();
+    assertEquals(0, lBatch.size());
+    assertEquals(1, handler.getAllLogRecords().size());
+    assertEquals("First", handler.getLastLogRecord().getMessage());
+
+    // Empty batch must not write anything.
+    lBatch.flush();
+    assertEquals(1, handler.getAllLogRecords().size());
+
+    lBatch.add("Second");
+    lBatch.close();
+    assertEquals(2, handler.getAllLogRecords().size());
+    assertEquals("Second", handler.getLastLogRecord().getMessage());
+
+    // Null as trace level results in ERROR
+    assertEquals(TraceLevel.ERROR, lTrace.newBatch(null).getTraceLevel());
+    handler.clear();
+  }
+
+  @Test
+  @Order(30)
+  public void testDisabledTraceLevel( ) {
+    Trace lTrace = new FallbackTraceProviderImpl().getCurrentTrace();
+    Logger.getLogger("XFUN_EMERGENCY_TRACE").setLevel(Level.WARNING);
+    try {
+      try (TraceBatch lBatch = lTrace.newBatch(TraceLevel.DEBUG)) {
+        assertFalse(lBatch.isEnabled());
+        lBatch.add("Ignored");
+        lBatch.addObject("Ignored");
+        lBatch.add(new MessageID(4711, TraceLevel.DEBUG), "a");
+        assertEquals(0, lBatch.size());
+      }
+      assertEquals(0, handler.getAllLogRecords().size());
+    }
+    finally {
+      Logger.getLogger("XFUN_EMERGENCY_TRACE").setLevel(Level.FINEST);
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testOtherTraceImplementation( ) {
+    // Trace implementations that are not based on AbstractTraceImpl get batches through the default method.
+    List<String> lMessages = new ArrayList<>();
+    InvocationHandler lHandler = ( pProxy, pMethod, pArgs ) -> {
+      Object lResult;
+      if (pMethod.isDefault() == true) {
+        MethodHandles.Lookup lLookup = MethodHandles.privateLookupIn(Trace.class, MethodHandles.lookup());
+        lResult = lLookup.unreflectSpecial(pMethod, Trace.class).bindTo(pProxy).invokeWithArguments(pArgs);
+      }
+      else if (pMethod.getName().equals("isLevelEnabled")) {
+        lResult = pArgs[0] != TraceLevel.DEBUG;
+      }
+      else if (pMethod.getName().equals("warn") && pMethod.getParameterTypes()[0] == String.class) {
+        lMessages.add((String) pArgs[0]);
+        lResult = null;
+      }
+      else {
+        throw new UnsupportedOperationException(pMethod.toString());
+      }
+      return lResult;
+    };
+    ClassLoader lClassLoader = Trace.class.getClassLoader();
+    Trace lTrace = (Trace) Proxy.newProxyInstance(lClassLoader, new Class<?>[] { Trace.class }, lHandler);
+
+    try (TraceBatch lBatch = lTrace.newBatch(TraceLevel.WARN)) {
+      assertTrue(lBatch.isEnabled());
+      lBatch.add("First");
+      lBatch.addObject(Integer.valueOf(42));
+      assertEquals(0, lMessages.size());
+    }
+    assertEquals(Arrays.asList("First", "42"), lMessages);
+
+    try (TraceBatch lBatch = lTrace.newBatch(TraceLevel.DEBUG)) {
+      assertFalse(lBatch.isEnabled());
+      lBatch.add("Ignored");
+    }
+    assertEquals(2, lMessages.size());
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.annotations.TraceConfig;
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.trace.TraceConfiguration;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevel;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevelResolver;
+import com.anaptecs.jeaf.xfun.api.trace.TraceLevelResolver.CachedTraceLevel;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TraceLevelResolverTest {
+  @Test
+  @Order(10)
+  public void testTraceLevelConfiguration( ) {
+    // Default configuration does not define any trace levels.
+    assertEquals(0, TraceConfiguration.getInstance().getTraceLevels().size());
+    assertEquals(0, TraceConfiguration.getInstance().getEmptyConfiguration().traceLevels().length);
+
+    // Invalid definitions are reported and ignored.
+    TraceConfiguration lConfiguration = new TraceConfiguration("TRACE_LEVELS_CONFIG", "META-INF/TEST/TRACE", false);
+    assertEquals(2, lConfiguration.getConfigurationErrors().size());
+    assertTrue(lConfiguration.getConfigurationErrors().get(0).startsWith(
+        "Invalid trace level 'NOTHING' in trace level definition 'com.anaptecs.bad=NOTHING'."));
+    assertEquals("Invalid trace level definition 'missing level'. Expected format is <prefix>=<trace level>.",
+        lConfiguration.getConfigurationErrors().get(1));
+
+    Map<String, TraceLevel> lTraceLevels = lConfiguration.getTraceLevels();
+    assertEquals(3, lTraceLevels.size());
+    assertEquals(TraceLevel.WARN, lTraceLevels.get(TraceConfig.ROOT_PREFIX));
+    assertEquals(TraceLevel.INFO, lTraceLevels.get("com.anaptecs"));
+    assertEquals(TraceLevel.DEBUG, lTraceLevels.get("com.anaptecs.jeaf.xfun.test"));
+  }
+
+  @Test
+  @Order(20)
+  public void testResolution( ) {
+    TraceLevelResolver lResolver = TraceLevelResolver.getInstance();
+    try {
+      // Without any configuration nothing can be resolved.
+      assertNull(lResolver.resolve("com.anaptecs.jeaf"));
+
+      lResolver.setTraceLevels(TraceLevelResolver.parseTraceLevels(new String[] { "com.anaptecs=INFO",
+        "com.anaptecs.jeaf.xfun.test=DEBUG", "com.anaptecs.jeaf.xfun.test.trace.TraceLevelResolverTest$Inner=TRACE",
+        "org = ERROR" }));
+      assertNull(lResolver.resolve("java.lang.String"));
+      assertNull(lResolver.resolve("com"));
+      assertNull(lResolver.resolve("com.anaptecsX"));
+      assertEquals(TraceLevel.INFO, lResolver.resolve("com.anaptecs"));
+      assertEquals(TraceLevel.INFO, lResolver.resolve("com.anaptecs.jeaf.xfun.api"));
+      assertEquals(TraceLevel.ERROR, lResolver.resolve("org.junit"));
+      assertEquals(TraceLevel.DEBUG, lResolver.resolve(TraceLevelResolverTest.class));
+      assertEquals(TraceLevel.TRACE, lResolver.resolve(Inner.class));
+      assertEquals(TraceLevel.TRACE, lResolver.resolve(Inner.class.getName() + "$Nested"));
+      assertEquals(TraceLevel.DEBUG, lResolver.resolve(new ComponentID("Test", "com.anaptecs.jeaf.xfun.test.trace")));
+      assertEquals(TraceLevel.INFO, lResolver.resolve(new ComponentID("API", "com.anaptecs.jeaf.xfun.api")));
+
+      // Root level applies to all other loggers.
+      Map<String, TraceLevel> lTraceLevels = new HashMap<>(lResolver.getTraceLevels());
+      assertEquals(4, lTraceLevels.size());
+      assertEquals(TraceLevel.TRACE, lTraceLevels.get(Inner.class.getName()));
+      lTraceLevels.put(TraceConfig.ROOT_PREFIX, TraceLevel.WARN);
+      lResolver.setTraceLevels(lTraceLevels);
+      assertEquals(TraceLevel.WARN, lResolver.resolve("java.lang.String"));
+      assertEquals(TraceLevel.WARN, lResolver.resolve(""));
+      assertEquals(TraceLevel.INFO, lResolver.resolve("com.anaptecs"));
+      assertEquals(5, lResolver.getTraceLevels().size());
+    }
+    finally {
+      lResolver.setTraceLevels(Collections.emptyMap());
+    }
+  }
+
+  @Test
+  @Order(30)
+  public void testCachedTraceLevel( ) {
+    TraceLevelResolver lResolver = TraceLevelResolver.getInstance();
+    try {
+      CachedTraceLevel lCachedTraceLevel = lResolver.newCachedTraceLevel("com.anaptecs.jeaf.Test");
+      assertEquals("com.anaptecs.jeaf.Test", lCachedTraceLevel.getLoggerName());
+      assertNull(lCachedTraceLevel.getTraceLevel());
+      assertFalse(lCachedTraceLevel.isEnabled(TraceLevel.FATAL));
+
+      // New trace levels are visible to existing cached trace levels.
+      lResolver.setTraceLevels(Collections.singletonMap("com.anaptecs.jeaf", TraceLevel.WARN));
+      assertEquals(TraceLevel.WARN, lCachedTraceLevel.getTraceLevel());
+      assertTrue(lCachedTraceLevel.isEnabled(TraceLevel.ERROR));
+      assertTrue(lCachedTraceLevel.isEnabled(TraceLevel.WARN));
+      assertFalse(lCachedTraceLevel.isEnabled(TraceLevel.INFO));
+      assertFalse(lCachedTraceLevel.isEnabled(null));
+
+      lResolver.setTraceLevels(Collections.singletonMap("com.anaptecs.jeaf.Test", TraceLevel.TRACE));
+      assertTrue(lCachedTraceLevel.isEnabled(TraceLevel.TRACE));
+    }
+    finally {
+      lResolver.setTraceLevels(Collections.emptyMap());
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testInvalidDefinitions( ) {
+    try {
+      TraceLevelResolver.parseTraceLevels(new String[] { "=INFO" });
+      fail("Exception expected.");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("Invalid trace level definition '=INFO'. Expected format is <prefix>=<trace level>.",
+          e.getMessage());
+    }
+  }
+
+  @Test
+  @Order(50)
+  public void testConfiguredTraceLevelIsUsed( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+
+    // Without a configured trace level the JDK logger decides.
+    FallbackTraceImpl lTrace = new FallbackTraceImpl("com.anaptecs.jeaf.Test") {
+    };
+    assertTrue(lTrace.isLevelEnabled(TraceLevel.DEBUG));
+
+    // Configured trace level is used as soon as it is set.
+    TraceLevelResolver lResolver = TraceLevelResolver.getInstance();
+    lResolver.setTraceLevels(Collections.singletonMap("com.anaptecs.jeaf", TraceLevel.WARN));
+    assertFalse(lTrace.isLevelEnabled(TraceLevel.DEBUG));
+    assertFalse(lTrace.isLevelEnabled(TraceLevel.INFO));
+    assertTrue(lTrace.isLevelEnabled(TraceLevel.WARN));
+    assertTrue(lTrace.isLevelEnabled(TraceLevel.FATAL));
+
+    // Reload takes the trace levels from the trace configuration again.
+    XFun.reload();
+    assertEquals(TraceConfiguration.getInstance().getTraceLevels(), lResolver.getTraceLevels());
+    assertTrue(lTrace.isLevelEnabled(TraceLevel.DEBUG));
+  }
+
+  static class Inner {
+  }
+}
@@ -0,0 +1,14 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import com.anaptecs.jeaf.xfun.annotations.TraceConfig;
+
+@TraceConfig(
+    traceLevels = { "*=WARN", "com.anaptecs=INFO", "com.anaptecs.jeaf.xfun.test=DEBUG", "com.anaptecs.bad=NOTHING",
+      "missing level" })
+public interface TraceLevelsConfig {
+}
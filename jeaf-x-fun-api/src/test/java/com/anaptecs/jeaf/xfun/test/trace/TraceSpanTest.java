@@ -0,0 +1,224 @@
+/**
+ * Copyright 2004 - 2022 anaptecs GmbH, Burgstr. 96, 72764 Reutlingen, Germany
+ *
+ * All rights reserved.
+ */
+package com.anaptecs.jeaf.xfun.test.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.anaptecs.jeaf.xfun.api.XFun;
+import com.anaptecs.jeaf.xfun.api.common.ComponentID;
+import com.anaptecs.jeaf.xfun.api.trace.ContextStackElement;
+import com.anaptecs.jeaf.xfun.api.trace.Trace;
+import com.anaptecs.jeaf.xfun.api.trace.TraceConfiguration;
+import com.anaptecs.jeaf.xfun.api.trace.TraceSpan;
+import com.anaptecs.jeaf.xfun.api.trace.TraceSpanStatistics;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceImpl;
+import com.anaptecs.jeaf.xfun.fallback.trace.FallbackTraceProviderImpl;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TraceSpanTest {
+  private static final ComponentID COMPONENT_ID = new ComponentID("SpanTest", "com.anaptecs.jeaf.xfun.test");
+
+  private TestHandler handler = new TestHandler();
+
+  @BeforeEach
+  public void setup( ) {
+    LogManager lLogManager = LogManager.getLogManager();
+    lLogManager.reset();
+    Logger lRootLogger = lLogManager.getLogger("");
+    lRootLogger.setLevel(Level.ALL);
+    lRootLogger.addHandler(handler);
+  }
+
+  @Test
+  @Order(10)
+  public void testContextStackElementTiming( ) {
+    ContextStackElement lElement = new ContextStackElement("Timing", COMPONENT_ID);
+    assertFalse(lElement.isEnded());
+    assertEquals(0, lElement.getEndTime());
+    assertTrue(lElement.getDuration() >= 0);
+
+    long lDuration = lElement.end();
+    assertTrue(lElement.isEnded());
+    assertTrue(lElement.getEndTime() - lElement.getStartTime() >= 0);
+    assertEquals(lDuration, lElement.getDuration());
+
+    // Ending an element twice does not change its end time.
+    long lEndTime = lElement.getEndTime();
+    lElement.end();
+    assertEquals(lEndTime, lElement.getEndTime());
+  }
+
+  @Test
+  @Order(20)
+  public void testSpanStatistics( ) throws Exception {
+    TraceSpanStatistics lStatistics = TraceSpanStatistics.getInstance();
+    lStatistics.reset();
+    handler.clear();
+    assertEquals(TraceConfiguration.getInstance().getSpanTraceThreshold(), lStatistics.getTraceThreshold());
+
+    Trace lTrace = new FallbackTraceProviderImpl().getCurrentTrace();
+    TraceSpan lSpan;
+    for (int i = 0; i < 10; i++) {
+      try (TraceSpan lNext = lTrace.span("doSomething", COMPONENT_ID)) {
+        assertFalse(lNext.getContextStackElement().isEnded());
+        lSpan = lNext;
+      }
+      assertTrue(lSpan.getContextStackElement().isEnded());
+
+      // Closing a span twice must not record it again.
+      lSpan.close();
+    }
+
+    String lContextName = "SpanTest:doSomething";
+    assertEquals(Arrays.asList(lContextName), Arrays.asList(lStatistics.getContextNames()));
+    assertEquals(10, lStatistics.getCount(lContextName));
+    assertTrue(lStatistics.getMeanMillis(lContextName) <= lStatistics.getMaxMillis(lContextName));
+    assertTrue(lStatistics.getPercentileMillis(lContextName, 50) <= lStatistics.getMaxMillis(lContextName));
+    assertEquals(0, lStatistics.getCount("Unknown"));
+    assertEquals(0, lStatistics.getCount(null));
+    assertEquals(0.0, lStatistics.getMeanMillis("Unknown"));
+    assertEquals(0.0, lStatistics.getMaxMillis("Unknown"));
+    assertEquals(0.0, lStatistics.getPercentileMillis("Unknown", 99));
+
+    // Statistics are exposed via JMX.
+    ObjectName lObjectName = new ObjectName(TraceSpanStatistics.OBJECT_NAME);
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(lObjectName));
+    assertEquals(10L, ManagementFactory.getPlatformMBeanServer().invoke(lObjectName, "getCount",
+        new Object[] { lContextName }, new String[] { String.class.getName() }));
+
+    // Spans below threshold are not traced.
+    assertEquals(0, this.getSpanRecords().size());
+    lStatistics.reset();
+    assertEquals(0, lStatistics.getContextNames().length);
+  }
+
+  @Test
+  @Order(30)
+  public void testSpanTraceThreshold( ) {
+    TraceSpanStatistics lStatistics = TraceSpanStatistics.getInstance();
+    int lOldThreshold = lStatistics.getTraceThreshold();
+    try {
+      lStatistics.setTraceThreshold(0);
+      Trace lTrace = new FallbackTraceProviderImpl().getCurrentTrace();
+      try (TraceSpan lSpan = lTrace.span("slowOperation", COMPONENT_ID)) {
+        assertEquals("slowOperation", lSpan.getContextStackElement().getContextName());
+      }
+      List<LogRecord> lRecords = this.getSpanRecords();
+      assertEquals(1, lRecords.size());
+      assertEquals(Level.WARNING, lRecords.get(0).getLevel());
+      assertTrue(lRecords.get(0).getMessage().startsWith("Span SpanTest:slowOperation took "));
+
+      // Disable tracing of spans
+      handler.clear();
+      lStatistics.setTraceThreshold(-1);
+      lTrace.span("slowOperation", COMPONENT_ID).close();
+      assertEquals(0, this.getSpanRecords().size());
+    }
+    finally {
+      lStatistics.setTraceThreshold(lOldThreshold);
+      lStatistics.reset();
+    }
+  }
+
+  @Test
+  @Order(40)
+  public void testSpansClosedOutOfOrder( ) {
+    StackTrace lTrace = new StackTrace();
+    ContextStackElement lCallerContext = new ContextStackElement("caller", COMPONENT_ID);
+    lTrace.pushContextStackElement(lCallerContext);
+
+    TraceSpan lOuterSpan = lTrace.span("outer", COMPONENT_ID);
+    TraceSpan lInnerSpan = lTrace.span("inner", COMPONENT_ID);
+    assertEquals(3, lTrace.stack.size());
+
+    // Closing the outer span first must not remove the element of the inner span.
+    handler.clear();
+    lOuterSpan.close();
+    assertEquals(3, lTrace.stack.size());
+    assertEquals(lInnerSpan.getContextStackElement(), lTrace.stack.peek());
+    List<LogRecord> lRecords = this.getSpanRecords();
+    assertEquals(1, lRecords.size());
+    assertEquals("Span SpanTest:outer was closed out of order. Current context is SpanTest:inner.",
+        lRecords.get(0).getMessage());
+
+    // As soon as the inner span is closed both elements are removed.
+    lInnerSpan.close();
+    assertEquals(Arrays.asList(lCallerContext), new ArrayList<>(lTrace.stack));
+
+    // Spans that are closed in order do not change the context of the caller.
+    try (TraceSpan lSpan = lTrace.span("ordered", COMPONENT_ID)) {
+      assertEquals(lSpan.getContextStackElement(), lTrace.stack.peek());
+    }
+    assertEquals(Arrays.asList(lCallerContext), new ArrayList<>(lTrace.stack));
+    TraceSpanStatistics.getInstance().reset();
+  }
+
+  @Test
+  @Order(50)
+  public void testReload( ) {
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_NAME);
+    System.clearProperty(XFun.X_FUN_CONFIG_RESOURCE_PATH);
+    System.clearProperty(XFun.X_FUN_CONFIG_EXCEPTION_ON_ERROR);
+
+    // Threshold is read again from the trace configuration after a reload.
+    TraceSpanStatistics lStatistics = TraceSpanStatistics.getInstance();
+    lStatistics.setTraceThreshold(4711);
+    XFun.reload();
+    assertEquals(TraceConfiguration.getInstance().getSpanTraceThreshold(), lStatistics.getTraceThreshold());
+  }
+
+  private List<LogRecord> getSpanRecords( ) {
+    List<LogRecord> lRecords = new ArrayList<>();
+    for (LogRecord lNext : handler.getAllLogRecords()) {
+      if (lNext.getMessage() != null && lNext.getMessage().startsWith("Span ")) {
+        lRecords.add(lNext);
+      }
+    }
+    return lRecords;
+  }
+
+  /**
+   * Trace implementation with a real context stack.
+   */
+  static class StackTrace extends FallbackTraceImpl {
+    final Deque<ContextStackElement> stack = new ArrayDeque<>();
+
+    StackTrace( ) {
+      super("StackTrace");
+    }
+
+    @Override
+    public void pushContextStackElement( ContextStackElement pContextStackElement ) {
+      stack.push(pContextStackElement);
+    }
+
+    @Override
+    public ContextStackElement popContextStackElement( ) {
+      return stack.poll();
+    }
+  }
+}
@@ -5,16 +5,43 @@
  */
 package com.anaptecs.jeaf.xfun.test_default_runtime;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.anaptecs.jeaf.xfun.api.common.ComponentID;
 import com.anaptecs.jeaf.xfun.api.config.ComponentConfigurationResourceFactory;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationResource;
 import com.anaptecs.jeaf.xfun.api.errorhandling.JEAFSystemException;
 
 public class ComponentConfigurationResourceFactoryImpl implements ComponentConfigurationResourceFactory {
+  /**
+   * Configuration values of components as they are defined by tests.
+   */
+  private static final Map<ComponentID, Map<String, String>> COMPONENT_VALUES = new ConcurrentHashMap<>();
+
+  /**
+   * Method defines the configuration values of the passed component.
+   * 
+   * @param pComponentID ID of the component.
+   * @param pValues Configuration values of the component or null to remove them.
+   */
+  public static void setComponentValues( ComponentID pComponentID, Map<String, String> pValues ) {
+    if (pValues != null) {
+      COMPONENT_VALUES.put(pComponentID, pValues);
+    }
+    else {
+      COMPONENT_VALUES.remove(pComponentID);
+    }
+  }
 
   @Override
   public ConfigurationResource getComponentConfigurationResource( ComponentID pComponentID )
     throws JEAFSystemException {
-    return new TestConfigurationResource();
+    TestConfigurationResource lResource = new TestConfigurationResource();
+    Map<String, String> lValues = COMPONENT_VALUES.get(pComponentID);
+    if (lValues != null) {
+      lResource.properties.putAll(lValues);
+    }
+    return lResource;
   }
 }
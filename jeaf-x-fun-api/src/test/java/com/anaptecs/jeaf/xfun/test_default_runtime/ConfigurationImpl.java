@@ -18,6 +18,7 @@ import com.anaptecs.jeaf.xfun.api.checks.Assert;
 import com.anaptecs.jeaf.xfun.api.checks.Check;
 import com.anaptecs.jeaf.xfun.api.config.Configuration;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationResource;
+import com.anaptecs.jeaf.xfun.api.config.PlaceholderTemplate;
 import com.anaptecs.jeaf.xfun.api.datatypeconverter.DatatypeConverter;
 import com.anaptecs.jeaf.xfun.api.datatypeconverter.DatatypeConverterRegistry;
 import com.anaptecs.jeaf.xfun.api.messages.MessageID;
@@ -386,54 +387,7 @@ public class ConfigurationImpl implements Configuration {
    * string will be returned.
    */
   private String replaceSystemProperties( String pValue ) {
-    // The passed value must have a minimum length of 4 character in oder to be able to contain a system property e.g.
-    // '${a}'
-    String lResult;
-    if (pValue != null && pValue.length() > 3) {
-      int lCurrentIndex = 0;
-      StringBuilder lBuilder = new StringBuilder();
-      while (true) {
-        int lStartIndex = pValue.indexOf("${", lCurrentIndex);
-        if (lStartIndex >= 0) {
-          // Look for end token
-          int lEndIndex = pValue.indexOf("}", lStartIndex);
-          if (lEndIndex - 3 > lStartIndex) {
-            // Resolve name of system property that should be replaced.
-            String lSubstring = pValue.substring(lCurrentIndex, lStartIndex);
-            String lPropertyName = pValue.substring(lStartIndex + 2, lEndIndex);
-            String lPropertyValue = System.getProperty(lPropertyName);
-            if (lPropertyValue != null) {
-              lBuilder.append(lSubstring);
-              lBuilder.append(lPropertyValue);
-            }
-            // We can not substitute the placeholder. System property is not set.
-            else {
-              String lMessage =
-                  "Unable to substitue placeholder for system property " + lPropertyName + ". Property is not set.";
-              XFun.getTrace().warn(lMessage);
-              lBuilder.append(pValue.substring(lCurrentIndex, lEndIndex + 1));
-            }
-            lCurrentIndex = lEndIndex + 1;
-          }
-          // Invalid system property definition.
-          else {
-            lBuilder.append(pValue);
-            break;
-          }
-        }
-        // Nothing to replace (any more).
-        else {
-          lBuilder.append(pValue.substring(lCurrentIndex, pValue.length()));
-          break;
-        }
-      }
-      lResult = lBuilder.toString();
-    }
-    // Passed value can not contain any system properties that should be replaced.
-    else {
-      lResult = pValue;
-    }
-    return lResult;
+    return PlaceholderTemplate.replaceSystemProperties(pValue);
   }
 
   private MissingResourceException createMissingResourceException( String pConfigurationKey ) {
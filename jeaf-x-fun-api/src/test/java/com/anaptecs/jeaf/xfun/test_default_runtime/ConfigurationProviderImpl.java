@@ -5,10 +5,6 @@
  */
 package com.anaptecs.jeaf.xfun.test_default_runtime;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
-
 import com.anaptecs.jeaf.xfun.annotations.StartupInfoWriterImpl;
 import com.anaptecs.jeaf.xfun.api.XFun;
 import com.anaptecs.jeaf.xfun.api.common.ComponentID;
@@ -18,6 +14,7 @@ import com.anaptecs.jeaf.xfun.api.config.ConfigurationProvider;
 import com.anaptecs.jeaf.xfun.api.config.ConfigurationResource;
 import com.anaptecs.jeaf.xfun.api.config.EnvironmentConfigurationResourceFactory;
 import com.anaptecs.jeaf.xfun.api.config.FileConfigurationResourceFactory;
+import com.anaptecs.jeaf.xfun.api.config.PlaceholderTemplate;
 import com.anaptecs.jeaf.xfun.api.config.ResourceBundleConfigurationResourceFactory;
 import com.anaptecs.jeaf.xfun.api.config.ResourceConfigurationResourceFactory;
 import com.anaptecs.jeaf.xfun.api.config.SystemPropertiesConfigurationResourceFactory;
@@ -84,6 +81,11 @@ public final class ConfigurationProviderImpl implements ConfigurationProvider, S
     return new ConfigurationImpl(lResource);
   }
 
+  @Override
+  public ConfigurationResource getComponentConfigurationResource( ComponentID pComponentID ) {
+    return componentConfigurationResourceFactory.getComponentConfigurationResource(pComponentID);
+  }
+
   @Override
   public Configuration getEnvironmentConfiguration( ) {
     ConfigurationResource lResource = environmentConfigurationResourceFactory.getEnvironmentConfigurationResource();
@@ -126,77 +128,7 @@ public final class ConfigurationProviderImpl implements ConfigurationProvider, S
    */
   @Override
   public String replaceSystemProperties( String pValue ) {
-    String lResult;
-    if (pValue != null) {
-      // Detect system properties that need to be replaced.
-      Set<String> lSystemProperties = this.detectSystemProperties(pValue);
-      lResult = pValue;
-
-      for (String lPropertyName : lSystemProperties) {
-        // Try to resolve value of system property.
-        String lPropertyValue = System.getProperty(lPropertyName);
-        if (lPropertyValue != null) {
-          // Replace all occurrences of the system property with its value.
-          lResult = lResult.replaceAll("\\$\\{" + lPropertyName + "\\}", lPropertyValue);
-        }
-        // We can not substitute the placeholder. System property is not set.
-        else {
-          String lMessage =
-              "Unable to substitue placeholder for system property " + lPropertyName + ". System-Property is not set.";
-          XFun.getTrace().warn(lMessage);
-        }
-      }
-    }
-    else {
-      lResult = null;
-    }
-    return lResult;
-  }
-
-  /**
-   * Method detects an "hidden" reference to a system property inside a String.
-   * 
-   * @param pValue String that should be checked for contained system property references. The parameter must not be
-   * null.
-   * @return {@link Set} Set containing the names of all system properties that are inside the passed string.
-   */
-  private Set<String> detectSystemProperties( String pValue ) {
-    Set<String> lSystemProperties;
-    if (pValue.length() > 3) {
-      lSystemProperties = new HashSet<>();
-      int lCurrentIndex = 0;
-      StringBuilder lBuilder = new StringBuilder();
-
-      boolean lDone = false;
-      while (lDone == false) {
-        int lStartIndex = pValue.indexOf("${", lCurrentIndex);
-        if (lStartIndex >= 0) {
-          // Look for end token
-          int lEndIndex = pValue.indexOf("}", lStartIndex);
-          if (lEndIndex - 3 > lStartIndex) {
-            // Resolve name of system property that should be replaced.
-            String lPropertyName = pValue.substring(lStartIndex + 2, lEndIndex);
-            lSystemProperties.add(lPropertyName);
-            lCurrentIndex = lEndIndex + 1;
-          }
-          // Invalid system property definition.
-          else {
-            lBuilder.append(pValue);
-            lDone = true;
-          }
-        }
-        // Nothing to replace (any more).
-        else {
-          lBuilder.append(pValue.substring(lCurrentIndex, pValue.length()));
-          lDone = true;
-        }
-      }
-    }
-    // String can not contain system properties
-    else {
-      lSystemProperties = Collections.emptySet();
-    }
-    return lSystemProperties;
+    return PlaceholderTemplate.replaceSystemProperties(pValue);
   }
 
   @Override